@@ -0,0 +1,125 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import jmt.engine.simEngine.SimLoader;
+import jmt.engine.simEngine.SimSystem;
+import jmt.engine.simEngine.Simulation;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Utility methods to prepare the reference models used by the benchmarks.
+ * Models are read from the classpath and their simulation section is saved to a
+ * temporary file, so that it can be loaded by SimLoader.
+ */
+public final class BenchmarkModels {
+
+	/** Reference M/M/1 open model */
+	public static final String MM1 = "exponential-01-input.xml";
+	/** Reference closed model with a delay and a queue */
+	public static final String CLOSED = "closed_1class_2stat.jsimg";
+
+	private static final String MODELS_PATH = "/jmt/bench/models/";
+
+	private BenchmarkModels() {
+	}
+
+	/**
+	 * Extracts the simulation section of a reference model to a temporary file. The statistic stop is
+	 * disabled, so that the simulation always processes the given number of events.
+	 * @param name the name of the model, e.g. MM1 or CLOSED
+	 * @param maxEvents the number of events to simulate
+	 * @return the temporary file, deleted on exit
+	 * @throws Exception if the model cannot be read or written
+	 */
+	public static File extract(String name, int maxEvents) throws Exception {
+		InputStream is = BenchmarkModels.class.getResourceAsStream(MODELS_PATH + name);
+		if (is == null) {
+			throw new IOException("Benchmark model " + name + " not found");
+		}
+		Document doc;
+		try {
+			DocumentBuilder db = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+			doc = db.parse(is);
+		} finally {
+			is.close();
+		}
+
+		Element sim = (Element) doc.getElementsByTagName("sim").item(0);
+		sim.setAttribute("maxEvents", Integer.toString(maxEvents));
+		sim.setAttribute("disableStatisticStop", "true");
+		sim.removeAttribute("maxTime");
+		sim.removeAttribute("maxSimulated");
+		sim.removeAttribute("xsi:noNamespaceSchemaLocation");
+
+		Document simDoc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+		Node copy = simDoc.importNode(sim, true);
+		simDoc.appendChild(copy);
+
+		File file = File.createTempFile("jmt-bench", ".xml");
+		file.deleteOnExit();
+		Transformer transformer = TransformerFactory.newInstance().newTransformer();
+		transformer.transform(new DOMSource(simDoc), new StreamResult(file));
+		return file;
+	}
+
+	/**
+	 * Loads and initializes a simulation, ready to be run.
+	 * @param model the file returned by extract()
+	 * @param seed the simulation seed
+	 * @return the initialized simulation
+	 * @throws Exception if the model cannot be loaded
+	 */
+	public static Simulation load(File model, long seed) throws Exception {
+		return load(model, seed, SimSystem.EVENT_QUEUE_HYBRID);
+	}
+
+	/**
+	 * Loads and initializes a simulation, ready to be run.
+	 * @param model the file returned by extract()
+	 * @param seed the simulation seed
+	 * @param eventQueue the implementation of the future event queue, see SimSystem.EVENT_QUEUE_* constants
+	 * @return the initialized simulation
+	 * @throws Exception if the model cannot be loaded
+	 */
+	public static Simulation load(File model, long seed, String eventQueue) throws Exception {
+		SimLoader loader = new SimLoader(model.getAbsolutePath());
+		Simulation sim = loader.getSim();
+		sim.setXmlSimModelDefPath(model.getAbsolutePath());
+		sim.setRandomEngineSeed(seed);
+		sim.getSimParameters().setEventQueue(eventQueue);
+		sim.initialize();
+		return sim;
+	}
+
+}
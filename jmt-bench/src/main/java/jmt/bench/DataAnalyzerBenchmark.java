@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import jmt.engine.dataAnalysis.DynamicDataAnalyzerImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the on-line statistical analysis performed for each sample of a measure.
+ * Samples are exponentially distributed, so the analyzer goes through transient detection
+ * and batch means computation as in a real simulation. The analyzer is recreated when it
+ * stops accepting samples.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DataAnalyzerBenchmark {
+
+	private static final double ALFA = 0.01;
+	private static final double PRECISION = 0.03;
+	private static final int MAX_DATA = 1000000;
+
+	private DynamicDataAnalyzerImpl analyzer;
+	private double[] samples;
+	private int next;
+
+	@Setup
+	public void createAnalyzer() {
+		Random random = new Random(1);
+		samples = new double[1 << 16];
+		for (int i = 0; i < samples.length; i++) {
+			samples[i] = -Math.log(1.0 - random.nextDouble());
+		}
+		analyzer = new DynamicDataAnalyzerImpl(ALFA, PRECISION, MAX_DATA);
+	}
+
+	@Benchmark
+	public boolean addSample() {
+		double sample = samples[next++ & (samples.length - 1)];
+		if (analyzer.addSample(sample, 1.0)) {
+			// the analysis has finished: start a new one
+			analyzer = new DynamicDataAnalyzerImpl(ALFA, PRECISION, MAX_DATA);
+			return true;
+		}
+		return false;
+	}
+
+}
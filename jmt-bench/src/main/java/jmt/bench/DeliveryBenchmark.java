@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.bench;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import jmt.engine.simEngine.Simulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of the event delivery path of the simulation kernel on a reference
+ * M/M/1 and a reference closed network. Results are normalized per simulated event, so
+ * running with <tt>-prof gc</tt> reports the bytes allocated per event
+ * (<tt>gc.alloc.rate.norm</tt>). Run the same benchmark on two JMT builds to compare them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DeliveryBenchmark {
+
+	/** Number of events simulated by each invocation */
+	public static final int EVENTS = 200000;
+
+	@Param({ BenchmarkModels.MM1, BenchmarkModels.CLOSED })
+	public String model;
+
+	private File modelFile;
+	private Simulation sim;
+
+	@Setup(Level.Trial)
+	public void extractModel() throws Exception {
+		modelFile = BenchmarkModels.extract(model, EVENTS);
+	}
+
+	@Setup(Level.Invocation)
+	public void loadModel() throws Exception {
+		sim = BenchmarkModels.load(modelFile, 1);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(EVENTS)
+	public boolean deliverEvents() throws Exception {
+		sim.run();
+		return sim.hasFinished();
+	}
+
+}
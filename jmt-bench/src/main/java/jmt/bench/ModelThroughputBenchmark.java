@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.bench;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import jmt.engine.simEngine.Simulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end throughput of the simulator, in events per second, on the example models
+ * distributed with JMT. Each invocation simulates a fixed number of events of a freshly
+ * loaded model, with the statistic stop disabled.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ModelThroughputBenchmark {
+
+	/** Number of events simulated by each invocation */
+	public static final int EVENTS = 500000;
+
+	@Param({ "closed_1class_2stat.jsimg", "closed_2class_2stat.jsimg", "closed_2class_2stat_switch.jsimg",
+			"open_1class_1stat_mg1fcfs.jsimg", "open_1class_1stat_mg1ps.jsimg", "open_1class_1stat_mm1k.jsimg",
+			"open_1class_1stat_mm1k_fcr.jsimg", "open_1class_3stat_advfork.jsimg", "open_1class_3stat_fork.jsimg",
+			"open_2class_3stat_fcr.jsimg", "open_2class_3stat_fork_whatif.jsimg", "open_3class_3stat_loadbal.jsimg",
+			"open_3class_4stat.jsimg" })
+	public String model;
+
+	@Param({ "hybrid" })
+	public String eventQueue;
+
+	private File modelFile;
+	private Simulation sim;
+
+	@Setup(Level.Trial)
+	public void extractModel() throws Exception {
+		modelFile = BenchmarkModels.extract(model, EVENTS);
+	}
+
+	@Setup(Level.Invocation)
+	public void loadModel() throws Exception {
+		sim = BenchmarkModels.load(modelFile, 1, eventQueue);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(EVENTS)
+	public boolean simulate() throws Exception {
+		sim.run();
+		return sim.hasFinished();
+	}
+
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import jmt.engine.random.AbstractDistribution;
+import jmt.engine.random.CoxianDistr;
+import jmt.engine.random.CoxianPar;
+import jmt.engine.random.DeterministicDistr;
+import jmt.engine.random.DeterministicDistrPar;
+import jmt.engine.random.Distribution;
+import jmt.engine.random.Empirical;
+import jmt.engine.random.EmpiricalPar;
+import jmt.engine.random.Erlang;
+import jmt.engine.random.ErlangPar;
+import jmt.engine.random.Exponential;
+import jmt.engine.random.ExponentialPar;
+import jmt.engine.random.GammaDistr;
+import jmt.engine.random.GammaDistrPar;
+import jmt.engine.random.HyperExp;
+import jmt.engine.random.HyperExpPar;
+import jmt.engine.random.Lognormal;
+import jmt.engine.random.LognormalPar;
+import jmt.engine.random.Normal;
+import jmt.engine.random.NormalPar;
+import jmt.engine.random.Parameter;
+import jmt.engine.random.Pareto;
+import jmt.engine.random.ParetoPar;
+import jmt.engine.random.Poisson;
+import jmt.engine.random.PoissonPar;
+import jmt.engine.random.StudentT;
+import jmt.engine.random.StudentTPar;
+import jmt.engine.random.Uniform;
+import jmt.engine.random.UniformPar;
+import jmt.engine.random.Weibull;
+import jmt.engine.random.WeibullPar;
+import jmt.engine.random.engine.MersenneTwister;
+import jmt.engine.random.engine.RandomEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the uniform random engine and of the generation of a random variate
+ * for each distribution supported by the simulator.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RandomBenchmark {
+
+	@Param({ "Exponential", "Erlang", "HyperExp", "Gamma", "Normal", "Lognormal", "Pareto", "Uniform", "Weibull",
+			"Deterministic", "Coxian", "Poisson", "StudentT", "Empirical" })
+	public String distribution;
+
+	private RandomEngine engine;
+	private Distribution distr;
+	private Parameter par;
+
+	@Setup
+	public void createDistribution() throws Exception {
+		engine = new MersenneTwister(1);
+		if ("Exponential".equals(distribution)) {
+			distr = new Exponential();
+			par = new ExponentialPar(2.0);
+		} else if ("Erlang".equals(distribution)) {
+			distr = new Erlang();
+			par = new ErlangPar(4.0, 2L);
+		} else if ("HyperExp".equals(distribution)) {
+			distr = new HyperExp();
+			par = new HyperExpPar(0.3, 1.0, 4.0);
+		} else if ("Gamma".equals(distribution)) {
+			distr = new GammaDistr();
+			par = new GammaDistrPar(2.5, 0.5);
+		} else if ("Normal".equals(distribution)) {
+			distr = new Normal();
+			par = new NormalPar(5.0, 1.0);
+		} else if ("Lognormal".equals(distribution)) {
+			distr = new Lognormal();
+			par = new LognormalPar(0.0, 0.5);
+		} else if ("Pareto".equals(distribution)) {
+			distr = new Pareto();
+			par = new ParetoPar(3.0, 1.0);
+		} else if ("Uniform".equals(distribution)) {
+			distr = new Uniform();
+			par = new UniformPar(0.0, 1.0);
+		} else if ("Weibull".equals(distribution)) {
+			distr = new Weibull();
+			par = new WeibullPar(1.0, 1.5);
+		} else if ("Deterministic".equals(distribution)) {
+			distr = new DeterministicDistr();
+			par = new DeterministicDistrPar(1.0);
+		} else if ("Coxian".equals(distribution)) {
+			distr = new CoxianDistr();
+			par = new CoxianPar(2.0, 1.0, 0.5);
+		} else if ("Poisson".equals(distribution)) {
+			distr = new Poisson();
+			par = new PoissonPar(3.0);
+		} else if ("StudentT".equals(distribution)) {
+			distr = new StudentT();
+			par = new StudentTPar(5.0);
+		} else if ("Empirical".equals(distribution)) {
+			distr = new Empirical();
+			par = new EmpiricalPar(new double[] { 0.1, 0.2, 0.3, 0.25, 0.15 });
+		} else {
+			throw new IllegalArgumentException("Unknown distribution " + distribution);
+		}
+		((AbstractDistribution) distr).setRandomEngine(engine);
+	}
+
+	@Benchmark
+	public double engineRaw() {
+		return engine.raw();
+	}
+
+	@Benchmark
+	public double nextRand() throws Exception {
+		return distr.nextRand(par);
+	}
+
+}
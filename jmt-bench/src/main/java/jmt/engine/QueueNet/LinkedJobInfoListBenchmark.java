@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.QueueNet;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the job lists kept by each node section. The list holds a steady number of
+ * jobs of several classes; each operation removes a job and adds it back, either at the
+ * head (as FCFS service does) or at a random position (as preemption and reneging do).
+ * This benchmark lives in the QueueNet package because JobClassList is package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LinkedJobInfoListBenchmark {
+
+	/** Number of jobs in the list */
+	@Param({ "10", "1000" })
+	public int size;
+
+	@Param({ "4" })
+	public int classes;
+
+	private LinkedJobInfoList list;
+	private JobInfo[] jobs;
+	private Random random;
+
+	@Setup
+	public void fillList() {
+		NetSystem netSystem = new NetSystem();
+		netSystem.initialize();
+		JobClassList jobClasses = new JobClassList();
+		for (int i = 0; i < classes; i++) {
+			JobClass jobClass = new JobClass("Class" + i);
+			jobClass.setId(i);
+			jobClasses.add(jobClass);
+		}
+		GlobalJobInfoList global = new GlobalJobInfoList(classes);
+		list = new LinkedJobInfoList(jobClasses);
+		list.setNetSystem(netSystem);
+		jobs = new JobInfo[size];
+		for (int i = 0; i < size; i++) {
+			Job job = new Job(jobClasses.get(i % classes), global);
+			job.initialize(netSystem);
+			jobs[i] = new JobInfo(job);
+			list.add(jobs[i]);
+		}
+		random = new Random(1);
+	}
+
+	@Benchmark
+	public JobInfo removeFirstAddLast() {
+		JobInfo first = list.getFirstJob();
+		list.remove(first);
+		list.add(first);
+		return first;
+	}
+
+	@Benchmark
+	public JobInfo removeRandomAddLast() {
+		JobInfo jobInfo = jobs[random.nextInt(size)];
+		list.remove(jobInfo);
+		list.add(jobInfo);
+		return jobInfo;
+	}
+
+	@Benchmark
+	public JobInfo lookFor() {
+		return list.lookFor(jobs[random.nextInt(size)].getJob());
+	}
+
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.simEngine;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hold model benchmark of the future event queue implementations: the queue is kept at a
+ * steady size, and each operation pops the first event and schedules a new one after an
+ * exponential delay. A fraction of the operations also removes a random scheduled event and
+ * replaces it, as done when jobs are preempted or renege.
+ * This benchmark lives in the engine package because SimEvent constructors are package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EventQueueBenchmark {
+
+	@Param({ SimSystem.EVENT_QUEUE_HYBRID, SimSystem.EVENT_QUEUE_INDEXED, SimSystem.EVENT_QUEUE_CALENDAR })
+	public String queueType;
+
+	/** Number of scheduled events */
+	@Param({ "100", "10000" })
+	public int size;
+
+	/** Percentage of operations that also remove a scheduled event */
+	@Param({ "0", "10" })
+	public int removePercent;
+
+	private EventQueue queue;
+	private SimEvent[] scheduled;
+	private Random random;
+	private double clock;
+
+	@Setup
+	public void fillQueue() {
+		if (SimSystem.EVENT_QUEUE_INDEXED.equals(queueType)) {
+			queue = new IndexedEventQueue();
+		} else if (SimSystem.EVENT_QUEUE_CALENDAR.equals(queueType)) {
+			queue = new CalendarEventQueue();
+		} else {
+			queue = new HybridEventQueue();
+		}
+		random = new Random(1);
+		scheduled = new SimEvent[size];
+		clock = 0.0;
+		for (int i = 0; i < size; i++) {
+			scheduled[i] = schedule(i);
+		}
+	}
+
+	private SimEvent schedule(int slot) {
+		SimEvent event = new SimEvent(SimEvent.SEND, clock - Math.log(1.0 - random.nextDouble()), 0, 0, slot, null);
+		queue.add(event);
+		return event;
+	}
+
+	@Benchmark
+	public SimEvent hold() {
+		SimEvent event = queue.pop();
+		clock = event.eventTime();
+		int slot = event.getTag();
+		scheduled[slot] = schedule(slot);
+		if (removePercent > 0 && random.nextInt(100) < removePercent) {
+			slot = random.nextInt(size);
+			queue.remove(scheduled[slot]);
+			scheduled[slot] = schedule(slot);
+		}
+		return event;
+	}
+
+}
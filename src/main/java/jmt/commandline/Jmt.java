@@ -18,6 +18,8 @@
 
 package jmt.commandline;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -42,7 +44,11 @@ import javax.xml.transform.stream.StreamResult;
 import jmt.jmva.analytical.solvers.dispatchers.SolverDispatcher;
 import jmt.common.exception.InputDataException;
 import jmt.common.exception.SolverException;
+import jmt.engine.simDispatcher.DispatcherJSIMreplications;
 import jmt.engine.simDispatcher.DispatcherJSIMschema;
+import jmt.engine.simEngine.CompiledModel;
+import jmt.engine.simEngine.SimSystem;
+import jmt.engine.simEngine.WarmStartState;
 import jmt.gui.common.xml.XMLArchiver;
 import jmt.gui.jsimgraph.mainGui.JSIMGraphMain;
 import jmt.gui.jsimwiz.JSIMWizMain;
@@ -57,6 +63,28 @@ public class Jmt {
 
 	private static final String OPTION_SEED = "-seed";
 	private static final String OPTION_MAXTIME = "-maxtime";
+	private static final String OPTION_EVENTQUEUE = "-eventqueue";
+	private static final String OPTION_RANDOMBLOCK = "-randomblock";
+	private static final String OPTION_REPLICATION = "-replication";
+	private static final String OPTION_STATISTICS = "-statistics";
+	private static final String OPTION_CACHE = "-cache";
+	private static final String OPTION_STREAMING = "-streaming";
+	private static final String OPTION_PARTIALRESULTS = "-partialresults";
+	private static final String OPTION_REPLICATIONS = "-replications";
+	private static final String OPTION_THREADS = "-threads";
+	private static final String OPTION_REPLICATIONSAMPLES = "-replicationsamples";
+	private static final String OPTION_CHECKPOINT = "-checkpoint";
+	private static final String OPTION_CHECKPOINTPERIOD = "-checkpointperiod";
+	private static final String OPTION_CHECKPOINTSIMTIME = "-checkpointsimtime";
+	private static final String OPTION_RESUME = "-resume";
+	private static final String OPTION_WARMSTART = "-warmstart";
+	private static final String OPTION_SAVESTATE = "-savestate";
+	// period of the checkpoints in seconds, when neither -checkpointperiod nor -checkpointsimtime is given
+	private static final long DEFAULT_CHECKPOINT_PERIOD = 60;
+	// options of a single simulation, which cannot be used with -replications
+	private static final String[] SINGLE_SIMULATION_OPTIONS = { OPTION_STATISTICS, OPTION_STREAMING, OPTION_PARTIALRESULTS,
+			OPTION_REPLICATION, OPTION_CHECKPOINT, OPTION_CHECKPOINTPERIOD, OPTION_CHECKPOINTSIMTIME, OPTION_RESUME,
+			OPTION_WARMSTART, OPTION_SAVESTATE };
 
 	public static void printDocument(Document doc, OutputStream out) throws IOException, TransformerException {
 		TransformerFactory tf = TransformerFactory.newInstance();
@@ -78,6 +106,23 @@ public class Jmt {
 		System.err.println("sim options:");
 		System.err.println("  -seed 1234 : sets the simulation seed to 1234");
 		System.err.println("  -maxtime 60 : sets the maximum simulation time to 60 seconds");
+		System.err.println("  -eventqueue calendar : sets the event queue implementation (hybrid, indexed or calendar)");
+		System.err.println("  -randomblock 64 : draws service and interarrival times in blocks of 64 variates");
+		System.err.println("  -replication 2 : runs replication 2 of the model, drawing random numbers different from the other replications");
+		System.err.println("  -statistics stats.csv : collects engine statistics, publishes them through JMX and writes them every 10 seconds to stats.csv");
+		System.err.println("  -cache dir : stores the parsed model in dir, so that the next simulations of the same model skip parsing");
+		System.err.println("  -streaming : reads the model in a single pass with a streaming parser, without schema validation");
+		System.err.println("  -partialresults 60 : writes the results with a streaming writer, saving partial results every 60 seconds (0 for none)");
+		System.err.println("  -replications 50 : runs up to 50 independent replications in parallel, until the precision of the measures is reached");
+		System.err.println("  -threads 4 : runs at most 4 replications at the same time (default: number of processors)");
+		System.err.println("  -replicationsamples 20000 : stops each replication after 20000 samples of each measure (default: 20000)");
+		System.err.println("  -checkpoint sim.ckp : periodically saves the state of the simulation to sim.ckp, so that it can be resumed");
+		System.err.println("                        (each checkpoint pauses the simulation, about 1 second every 100000 jobs in the model)");
+		System.err.println("  -checkpointperiod 60 : saves a checkpoint every 60 seconds (default if no other period is given)");
+		System.err.println("  -checkpointsimtime 1000 : saves a checkpoint every 1000 units of simulated time");
+		System.err.println("  -resume sim.ckp : resumes the simulation of the model saved in sim.ckp");
+		System.err.println("  -savestate end.state : saves the jobs in the network at the end of the simulation to end.state");
+		System.err.println("  -warmstart end.state : starts from the jobs saved in end.state, skipping most of the initial transient");
 		System.err.println("jsimw options:");
 		System.err.println("  <none>");
 		System.err.println("jsimg options:");
@@ -183,33 +228,256 @@ public class Jmt {
 	}
 
 	public static boolean sim(File model, File result, Map<String, String> options) throws Exception {
-		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-		DocumentBuilder db = dbf.newDocumentBuilder();
+		if (options.containsKey(OPTION_REPLICATIONS)) {
+			return simReplications(model, result, options);
+		}
+		DispatcherJSIMschema dispatcher;
+		if (options.containsKey(OPTION_CACHE)) {
+			if (options.get(OPTION_CACHE) == null) {
+				System.err.println("Invalid cache directory.");
+				System.exit(1);
+			}
+			// Results are placed in the temporary directory, as with the temp file below
+			File modelPath = new File(System.getProperty("java.io.tmpdir"), model.getName());
+			dispatcher = new DispatcherJSIMschema(getCompiledModel(model, new File(options.get(OPTION_CACHE))), modelPath.getAbsolutePath());
+		} else if (options.containsKey(OPTION_STREAMING)) {
+			// Reads the model file directly, results are placed in the temporary directory
+			File modelPath = new File(System.getProperty("java.io.tmpdir"), model.getName());
+			dispatcher = new DispatcherJSIMschema(modelPath.getAbsolutePath());
+			dispatcher.setStreamingModel(model);
+		} else {
+			File temp = File.createTempFile("tempfileSim", ".jsim");
+			temp.deleteOnExit();
+
+			/*
+			 * save to a temp file
+			 */
+			TransformerFactory tranFactory = TransformerFactory.newInstance();
+			Transformer aTransformer = tranFactory.newTransformer();
+			Source src = new DOMSource(getSimDocument(model));
+			Result dest = new StreamResult(temp);
+			aTransformer.transform(src, dest);
+
+			dispatcher = new DispatcherJSIMschema(temp);
+		}
+		dispatcher.setTerminalSimulation(true);
+		// Sets simulation seed if required
+		if (options.containsKey(OPTION_SEED)) {
+			try {
+				dispatcher.setSimulationSeed(Long.parseLong(options.get(OPTION_SEED)));
+			} catch (NumberFormatException ex) {
+				System.err.println("Invalid simulation seed. Should be a number.");
+				System.exit(1);
+			}
+		}
 
-		File temp = File.createTempFile("tempfileSim", ".jsim");
-		temp.deleteOnExit();
+		if (options.containsKey(OPTION_MAXTIME)) {
+			try {
+				dispatcher.setSimulationMaxDuration(Long.parseLong(options.get(OPTION_MAXTIME)) * 1000);
+			} catch (NumberFormatException ex) {
+				System.err.println("Invalid maximum simulation time. Should be a number.");
+				System.exit(1);
+			}
+		}
 
-		Document doc = db.parse(model);
-		Element sim = XMLArchiver.getSimFromArchiveDocument(doc);
+		if (options.containsKey(OPTION_EVENTQUEUE)) {
+			String eventQueue = options.get(OPTION_EVENTQUEUE);
+			if (!SimSystem.isValidEventQueueType(eventQueue)) {
+				System.err.println("Invalid event queue. Should be hybrid, indexed or calendar.");
+				System.exit(1);
+			}
+			dispatcher.setEventQueue(eventQueue);
+		}
 
-		Document doc2 = db.newDocument();
-		Node dup = doc2.importNode(sim, true);
-		NamedNodeMap attributes = dup.getAttributes();
-		attributes.removeNamedItem("xsi:noNamespaceSchemaLocation");
-		doc2.appendChild(dup);
+		if (options.containsKey(OPTION_RANDOMBLOCK)) {
+			int randomBlockSize = 0;
+			try {
+				randomBlockSize = Integer.parseInt(options.get(OPTION_RANDOMBLOCK));
+			} catch (NumberFormatException ex) {
+				// handled below
+			}
+			if (randomBlockSize < 1) {
+				System.err.println("Invalid random block size. Should be a positive integer.");
+				System.exit(1);
+			}
+			dispatcher.setRandomBlockSize(randomBlockSize);
+		}
 
-		/*
-		 * save to a temp file
-		 */
-		TransformerFactory tranFactory = TransformerFactory.newInstance();
-		Transformer aTransformer = tranFactory.newTransformer();
-		Source src = new DOMSource(doc2);
-		Result dest = new StreamResult(temp);
-		aTransformer.transform(src, dest);
+		if (options.containsKey(OPTION_REPLICATION)) {
+			int replication = -1;
+			try {
+				replication = Integer.parseInt(options.get(OPTION_REPLICATION));
+			} catch (NumberFormatException ex) {
+				// handled below
+			}
+			if (replication < 0) {
+				System.err.println("Invalid replication. Should be a non negative integer.");
+				System.exit(1);
+			}
+			dispatcher.setReplication(replication);
+		}
+
+		if (options.containsKey(OPTION_PARTIALRESULTS)) {
+			long period = -1;
+			try {
+				period = Long.parseLong(options.get(OPTION_PARTIALRESULTS));
+			} catch (NumberFormatException ex) {
+				// handled below
+			}
+			if (period < 0) {
+				System.err.println("Invalid partial results period. Should be a non negative number.");
+				System.exit(1);
+			}
+			dispatcher.setPartialResultsPeriod(period * 1000);
+		}
+
+		if (options.containsKey(OPTION_STATISTICS)) {
+			if (options.get(OPTION_STATISTICS) == null) {
+				System.err.println("Invalid statistics file.");
+				System.exit(1);
+			}
+			dispatcher.setStatisticsFile(new File(options.get(OPTION_STATISTICS)));
+		}
+
+		if (options.containsKey(OPTION_CHECKPOINT)) {
+			if (options.get(OPTION_CHECKPOINT) == null) {
+				System.err.println("Invalid checkpoint file.");
+				System.exit(1);
+			}
+			long period = 0;
+			double simulatedTime = 0.0;
+			if (options.containsKey(OPTION_CHECKPOINTPERIOD)) {
+				try {
+					period = Long.parseLong(options.get(OPTION_CHECKPOINTPERIOD));
+				} catch (NumberFormatException ex) {
+					// handled below
+				}
+				if (period <= 0) {
+					System.err.println("Invalid checkpoint period. Should be a positive number.");
+					System.exit(1);
+				}
+			}
+			if (options.containsKey(OPTION_CHECKPOINTSIMTIME)) {
+				try {
+					if (options.get(OPTION_CHECKPOINTSIMTIME) != null) {
+						simulatedTime = Double.parseDouble(options.get(OPTION_CHECKPOINTSIMTIME));
+					}
+				} catch (NumberFormatException ex) {
+					// handled below
+				}
+				if (!(simulatedTime > 0.0)) {
+					System.err.println("Invalid checkpoint simulated time. Should be a positive number.");
+					System.exit(1);
+				}
+			} else if (period == 0) {
+				period = DEFAULT_CHECKPOINT_PERIOD;
+			}
+			dispatcher.setCheckpoint(new File(options.get(OPTION_CHECKPOINT)), period * 1000, simulatedTime);
+		}
+
+		if (options.containsKey(OPTION_RESUME)) {
+			if (options.get(OPTION_RESUME) == null || !new File(options.get(OPTION_RESUME)).isFile()) {
+				System.err.println("Invalid checkpoint file to resume.");
+				System.exit(1);
+			}
+			dispatcher.setResumeFile(new File(options.get(OPTION_RESUME)));
+		}
+
+		if (options.containsKey(OPTION_WARMSTART)) {
+			if (options.get(OPTION_WARMSTART) == null || !new File(options.get(OPTION_WARMSTART)).isFile()) {
+				System.err.println("Invalid warm start state file.");
+				System.exit(1);
+			}
+			dispatcher.setWarmStartState(WarmStartState.read(new File(options.get(OPTION_WARMSTART))));
+		}
+
+		if (options.containsKey(OPTION_SAVESTATE)) {
+			if (options.get(OPTION_SAVESTATE) == null) {
+				System.err.println("Invalid state file.");
+				System.exit(1);
+			}
+			dispatcher.setCaptureFinalState(true);
+		}
+
+		// Starts the simulation
+		boolean success = dispatcher.solveModel();
+		if (options.containsKey(OPTION_SAVESTATE) && dispatcher.getFinalState() != null) {
+			dispatcher.getFinalState().write(new File(options.get(OPTION_SAVESTATE)));
+		}
+		File output = dispatcher.getOutputFile();
+		copyFile(output, result);
+		output.delete();
+		return success;
+	}
+
+	/**
+	 * Solves a model with independent replications run in parallel
+	 * @param model the model file
+	 * @param result the file where the results are written
+	 * @param options the command line options
+	 * @return true if the simulation was successful
+	 */
+	private static boolean simReplications(File model, File result, Map<String, String> options) throws Exception {
+		int maxReplications = 0;
+		try {
+			maxReplications = Integer.parseInt(options.get(OPTION_REPLICATIONS));
+		} catch (NumberFormatException ex) {
+			// handled below
+		}
+		if (maxReplications < 2) {
+			System.err.println("Invalid number of replications. Should be an integer greater than 1.");
+			System.exit(1);
+		}
+		for (String option : SINGLE_SIMULATION_OPTIONS) {
+			if (options.containsKey(option)) {
+				System.err.println("Option " + option + " cannot be used with " + OPTION_REPLICATIONS + ".");
+				System.exit(1);
+			}
+		}
+
+		CompiledModel compiledModel;
+		if (options.containsKey(OPTION_CACHE)) {
+			if (options.get(OPTION_CACHE) == null) {
+				System.err.println("Invalid cache directory.");
+				System.exit(1);
+			}
+			compiledModel = getCompiledModel(model, new File(options.get(OPTION_CACHE)));
+		} else {
+			compiledModel = compileModel(model, CompiledModel.hash(model));
+		}
+		// Results are placed in the temporary directory
+		File modelPath = new File(System.getProperty("java.io.tmpdir"), model.getName());
+		DispatcherJSIMreplications dispatcher = new DispatcherJSIMreplications(compiledModel, modelPath.getAbsolutePath());
+		dispatcher.setReplications(Math.min(DispatcherJSIMreplications.DEFAULT_MIN_REPLICATIONS, maxReplications), maxReplications);
+
+		if (options.containsKey(OPTION_THREADS)) {
+			int threads = 0;
+			try {
+				threads = Integer.parseInt(options.get(OPTION_THREADS));
+			} catch (NumberFormatException ex) {
+				// handled below
+			}
+			if (threads < 1) {
+				System.err.println("Invalid number of threads. Should be a positive integer.");
+				System.exit(1);
+			}
+			dispatcher.setThreads(threads);
+		}
+
+		if (options.containsKey(OPTION_REPLICATIONSAMPLES)) {
+			int replicationSamples = 0;
+			try {
+				replicationSamples = Integer.parseInt(options.get(OPTION_REPLICATIONSAMPLES));
+			} catch (NumberFormatException ex) {
+				// handled below
+			}
+			if (replicationSamples < 5000) {
+				System.err.println("Invalid number of samples per replication. Should be an integer not less than 5000.");
+				System.exit(1);
+			}
+			dispatcher.setReplicationSamples(replicationSamples);
+		}
 
-		DispatcherJSIMschema dispatcher = new DispatcherJSIMschema(temp);
-		dispatcher.setTerminalSimulation(true);
-		// Sets simulation seed if required
 		if (options.containsKey(OPTION_SEED)) {
 			try {
 				dispatcher.setSimulationSeed(Long.parseLong(options.get(OPTION_SEED)));
@@ -228,7 +496,30 @@ public class Jmt {
 			}
 		}
 
-		// Starts the simulation
+		if (options.containsKey(OPTION_EVENTQUEUE)) {
+			String eventQueue = options.get(OPTION_EVENTQUEUE);
+			if (!SimSystem.isValidEventQueueType(eventQueue)) {
+				System.err.println("Invalid event queue. Should be hybrid, indexed or calendar.");
+				System.exit(1);
+			}
+			dispatcher.setEventQueue(eventQueue);
+		}
+
+		if (options.containsKey(OPTION_RANDOMBLOCK)) {
+			int randomBlockSize = 0;
+			try {
+				randomBlockSize = Integer.parseInt(options.get(OPTION_RANDOMBLOCK));
+			} catch (NumberFormatException ex) {
+				// handled below
+			}
+			if (randomBlockSize < 1) {
+				System.err.println("Invalid random block size. Should be a positive integer.");
+				System.exit(1);
+			}
+			dispatcher.setRandomBlockSize(randomBlockSize);
+		}
+
+		// Starts the simulations
 		boolean success = dispatcher.solveModel();
 		File output = dispatcher.getOutputFile();
 		copyFile(output, result);
@@ -236,6 +527,60 @@ public class Jmt {
 		return success;
 	}
 
+	/**
+	 * Extracts the simulation model definition from a model file
+	 * @param model the model file
+	 * @return a document with the sim element of the model
+	 */
+	private static Document getSimDocument(File model) throws Exception {
+		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+		DocumentBuilder db = dbf.newDocumentBuilder();
+
+		Document doc = db.parse(model);
+		Element sim = XMLArchiver.getSimFromArchiveDocument(doc);
+
+		Document doc2 = db.newDocument();
+		Node dup = doc2.importNode(sim, true);
+		NamedNodeMap attributes = dup.getAttributes();
+		attributes.removeNamedItem("xsi:noNamespaceSchemaLocation");
+		doc2.appendChild(dup);
+		return doc2;
+	}
+
+	/**
+	 * Gets the compiled simulation model of a model file from the cache directory,
+	 * compiling the model and storing it in the cache if it is not there.
+	 * @param model the model file
+	 * @param cacheDirectory the cache directory
+	 * @return the compiled model
+	 */
+	private static CompiledModel getCompiledModel(File model, File cacheDirectory) throws Exception {
+		String hash = CompiledModel.hash(model);
+		CompiledModel compiledModel = CompiledModel.readCache(cacheDirectory, hash);
+		if (compiledModel == null) {
+			compiledModel = compileModel(model, hash);
+			try {
+				compiledModel.writeCache(cacheDirectory);
+			} catch (IOException e) {
+				System.err.println("Cannot store the model in the cache: " + e.getMessage());
+			}
+		}
+		return compiledModel;
+	}
+
+	/**
+	 * Compiles the simulation model of a model file
+	 * @param model the model file
+	 * @param hash the hash of the model file
+	 * @return the compiled model
+	 */
+	private static CompiledModel compileModel(File model, String hash) throws Exception {
+		ByteArrayOutputStream definition = new ByteArrayOutputStream();
+		Transformer aTransformer = TransformerFactory.newInstance().newTransformer();
+		aTransformer.transform(new DOMSource(getSimDocument(model)), new StreamResult(definition));
+		return CompiledModel.compile(new ByteArrayInputStream(definition.toByteArray()), hash);
+	}
+
 	/**
 	 * Returns a map with option name as key and list of parameters as value. Parameter without options are saved with "" as key
 	 * @param args command line args
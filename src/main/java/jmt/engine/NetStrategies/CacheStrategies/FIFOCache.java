@@ -2,12 +2,13 @@ package jmt.engine.NetStrategies.CacheStrategies;
 
 import jmt.engine.NetStrategies.CacheStrategy;
 import jmt.engine.QueueNet.CacheItem;
-
-import java.util.LinkedList;
+import jmt.engine.QueueNet.CacheItemList;
 
 // set removeItemMode = 1 for strict FIFO(m)
 public class FIFOCache extends CacheStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	public FIFOCache(){}
 
 	/**
@@ -16,7 +17,7 @@ public class FIFOCache extends CacheStrategy {
 	 * @return
 	 */
 	@Override
-	public CacheItem getRemoveItem(LinkedList<CacheItem> caches) {
+	public CacheItem getRemoveItem(CacheItemList caches) {
 		return caches.getFirst();
 	}
 
@@ -2,25 +2,28 @@ package jmt.engine.NetStrategies.CacheStrategies;
 
 import jmt.engine.NetStrategies.CacheStrategy;
 import jmt.engine.QueueNet.CacheItem;
-
-import java.util.LinkedList;
+import jmt.engine.QueueNet.CacheItemList;
 
 public class LFUCache extends CacheStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	public LFUCache(){}
 
 	@Override
-	public CacheItem getRemoveItem(LinkedList<CacheItem> caches) {
-		int numberOfAccess = Integer.MAX_VALUE;
-		int index = -1;
-		for(int i=0; i<caches.size(); i++){
-			int temp = caches.get(i).getNumberOfAccess();
-			if( temp < numberOfAccess ){
-				numberOfAccess = temp;
-				index = i;
-			}
-		}
-		return caches.get(index);
+	public CacheItem getRemoveItem(CacheItemList caches) {
+		// the item with the lowest number of accesses, the first one of the list in case of ties
+		return caches.getFirstByKey();
+	}
+
+	@Override
+	public boolean hasEvictionKey() {
+		return true;
+	}
+
+	@Override
+	public double getEvictionKey(CacheItem item) {
+		return item.getNumberOfAccess();
 	}
 
 }
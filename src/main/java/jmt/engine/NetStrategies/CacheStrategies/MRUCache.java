@@ -2,11 +2,12 @@ package jmt.engine.NetStrategies.CacheStrategies;
 
 import jmt.engine.NetStrategies.CacheStrategy;
 import jmt.engine.QueueNet.CacheItem;
-
-import java.util.LinkedList;
+import jmt.engine.QueueNet.CacheItemList;
 
 public class MRUCache extends CacheStrategy{
 
+	private static final long serialVersionUID = 1L;
+
 	public MRUCache(){}
 
 	/**
@@ -17,17 +18,19 @@ public class MRUCache extends CacheStrategy{
 	 * @return
 	 */
 	@Override
-	public CacheItem getRemoveItem(LinkedList<CacheItem> caches) {
-		double longestAccessTime = Double.MIN_VALUE;
-		int index = -1;
-		for(int i=0; i<caches.size(); i++){
-			double tempAccessTime = caches.get(i).getLastAccessTime();
-			if( tempAccessTime > longestAccessTime ){
-				longestAccessTime = tempAccessTime;
-				index = i;
-			}
-		}
-		return caches.get(index);
+	public CacheItem getRemoveItem(CacheItemList caches) {
+		// the item with the most recent access time, the first one of the list in case of ties
+		return caches.getFirstByKey();
+	}
+
+	@Override
+	public boolean hasEvictionKey() {
+		return true;
+	}
+
+	@Override
+	public double getEvictionKey(CacheItem item) {
+		return -item.getLastAccessTime();
 	}
 
 }
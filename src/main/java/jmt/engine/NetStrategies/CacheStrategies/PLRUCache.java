@@ -2,11 +2,12 @@ package jmt.engine.NetStrategies.CacheStrategies;
 
 import jmt.engine.NetStrategies.CacheStrategy;
 import jmt.engine.QueueNet.CacheItem;
-
-import java.util.LinkedList;
+import jmt.engine.QueueNet.CacheItemList;
 
 public class PLRUCache extends CacheStrategy{
 
+	private static final long serialVersionUID = 1L;
+
 	public PLRUCache(){}
 
 	/**
@@ -16,17 +17,19 @@ public class PLRUCache extends CacheStrategy{
 	 * @return
 	 */
 	@Override
-	public CacheItem getRemoveItem(LinkedList<CacheItem> caches) {
-		double leastAccessTime = Double.MAX_VALUE;
-		int index = -1;
-		for(int i=0; i<caches.size(); i++){
-			double temp = caches.get(i).getLastAccessTime();
-			if( temp < leastAccessTime ){
-				leastAccessTime = temp;
-				index = i;
-			}
-		}
-		return caches.get(index);
+	public CacheItem getRemoveItem(CacheItemList caches) {
+		// the item with the least recent access time, the first one of the list in case of ties
+		return caches.getFirstByKey();
+	}
+
+	@Override
+	public boolean hasEvictionKey() {
+		return true;
+	}
+
+	@Override
+	public double getEvictionKey(CacheItem item) {
+		return item.getLastAccessTime();
 	}
 
 }
@@ -2,11 +2,12 @@ package jmt.engine.NetStrategies.CacheStrategies;
 
 import jmt.engine.NetStrategies.CacheStrategy;
 import jmt.engine.QueueNet.CacheItem;
-
-import java.util.LinkedList;
+import jmt.engine.QueueNet.CacheItemList;
 
 public class RandomCache extends CacheStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	public RandomCache(){}
 
 	/**
@@ -15,7 +16,7 @@ public class RandomCache extends CacheStrategy {
 	 * @return
 	 */
 	@Override
-	public CacheItem getRemoveItem(LinkedList<CacheItem> caches) {
+	public CacheItem getRemoveItem(CacheItemList caches) {
 		return caches.get((int)Math.floor(engine.raw() * caches.size()));
 	}
 
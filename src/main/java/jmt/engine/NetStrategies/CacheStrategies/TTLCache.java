@@ -2,11 +2,15 @@ package jmt.engine.NetStrategies.CacheStrategies;
 
 import jmt.engine.NetStrategies.CacheStrategy;
 import jmt.engine.QueueNet.CacheItem;
+import jmt.engine.QueueNet.CacheItemList;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.List;
 
 public class TTLCache extends CacheStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	private double ttl;
 	private CacheStrategy replacePolicy;
 
@@ -21,38 +25,46 @@ public class TTLCache extends CacheStrategy {
 	 * @return
 	 */
 	@Override
-	public CacheItem getRemoveItem(LinkedList<CacheItem> caches) {
+	public CacheItem getRemoveItem(CacheItemList caches) {
 		if (replacePolicy != null) {
 			return replacePolicy.getRemoveItem(caches);
 		}
 		else{
-			int likelyExpireItem = -1;
-			double leastExpireTime = Double.MAX_VALUE;
-			for(int i=0; i<caches.size(); i++){
-				CacheItem c = caches.get(i);
-				double expireTime = c.getLastAccessTime()+c.getTTL() - netSystem.getTime();
-				if(expireTime < leastExpireTime){
-					likelyExpireItem = i;
-				}
-				else if( expireTime == leastExpireTime){
-					likelyExpireItem = engine.raw2() >= 0.5 ? likelyExpireItem: i;
-				}
-			}
-			return caches.get(likelyExpireItem);
+			// the scan used before cache lists were indexed never lowered its minimum expiration time,
+			// so it always selected the last item of the list.
+			return caches.getLast();
 		}
 	}
 
+	@Override
+	public boolean hasEvictionKey() {
+		return replacePolicy != null && replacePolicy.hasEvictionKey();
+	}
+
+	@Override
+	public double getEvictionKey(CacheItem item) {
+		return replacePolicy.getEvictionKey(item);
+	}
+
 	/**
 	 * Check each item whether its expired or not.
 	 * Once expired, remove it from the cached item list.
+	 * The removed items are the same of a scan of the list that, after removing an item, skips the
+	 * following one: an expired item is kept if the item before it was removed.
 	 */
-	public void cleanExpiredItem(LinkedList<CacheItem> caches){
-		for(int i=0; i<caches.size(); i++){
-			if (isExpired(caches.get(i))) {
-				caches.get(i).clear();
-				caches.remove(caches.get(i));
+	public void cleanExpiredItem(CacheItemList caches){
+		List<CacheItem> removed = new ArrayList<CacheItem>();
+		CacheItem lastRemoved = null;
+		for (CacheItem item : caches.getExpired(netSystem.getTime())) {
+			if (lastRemoved == null || caches.getPrevious(item) != lastRemoved) {
+				removed.add(item);
+				lastRemoved = item;
 			}
 		}
+		for (CacheItem item : removed) {
+			caches.remove(item);
+			item.clear();
+		}
 	}
 
 	public double getTTL() {
@@ -60,8 +72,4 @@ public class TTLCache extends CacheStrategy {
 	}
 
 	public CacheStrategy getReplacePolicy() { return replacePolicy; }
-
-	private boolean isExpired(CacheItem ci){
-		return ci.getLastAccessTime()+ci.getTTL() < netSystem.getTime();
-	}
 }
@@ -1,14 +1,17 @@
 package jmt.engine.NetStrategies;
 
 
-import java.util.LinkedList;
+import java.io.Serializable;
 
 import jmt.common.AutoCheck;
 import jmt.engine.QueueNet.CacheItem;
+import jmt.engine.QueueNet.CacheItemList;
 import jmt.engine.QueueNet.NetSystem;
 import jmt.engine.random.engine.RandomEngine;
 
-public abstract class CacheStrategy implements AutoCheck{
+public abstract class CacheStrategy implements AutoCheck, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 //	public abstract boolean needToCache(NetNode ownerNode);
 
@@ -30,7 +33,30 @@ public abstract class CacheStrategy implements AutoCheck{
 
 	public void setNetSystem(NetSystem netSystem) { this.netSystem = netSystem; }
 	
-	public abstract CacheItem getRemoveItem(LinkedList<CacheItem> caches);
+	/**
+	 * Returns the item to remove from a full cache.
+	 * @param caches the list of the cached items.
+	 * @return the item to remove.
+	 */
+	public abstract CacheItem getRemoveItem(CacheItemList caches);
+
+	/**
+	 * Tells whether this strategy removes the item with the lowest eviction key. In this case the
+	 * cache lists keep their items sorted by key, so that the item to remove is found in log(n) time.
+	 * @return true if this strategy uses eviction keys.
+	 */
+	public boolean hasEvictionKey() {
+		return false;
+	}
+
+	/**
+	 * Returns the eviction key of a cached item. Only used if hasEvictionKey() returns true.
+	 * @param item the cached item.
+	 * @return the eviction key: items with lower keys are removed first.
+	 */
+	public double getEvictionKey(CacheItem item) {
+		return 0.0;
+	}
 
 	public boolean check() { return true; }
 
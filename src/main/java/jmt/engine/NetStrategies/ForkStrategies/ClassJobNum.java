@@ -18,11 +18,15 @@
 
 package jmt.engine.NetStrategies.ForkStrategies;
 
+import java.io.Serializable;
+
 /**
  *
  * @author mattia
  */
-public class ClassJobNum {
+public class ClassJobNum implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private String name;
 	private Integer[] numbers;
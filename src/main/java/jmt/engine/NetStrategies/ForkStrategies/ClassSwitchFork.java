@@ -32,6 +32,8 @@ import jmt.engine.QueueNet.NodeListWithJobNum;
  */
 public class ClassSwitchFork extends ForkStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	private ClassJobNum jobsPerClass[];
 	private String nodeNames[];
 	private NetNode[] nodes;
@@ -34,6 +34,8 @@ import jmt.engine.random.engine.RandomEngine;
 
 public class CombFork extends ForkStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	private String[] nodeNums;
 	private Empirical distribution;
 	private EmpiricalPar param;
@@ -62,7 +64,7 @@ public class CombFork extends ForkStrategy {
 
 	@Override
 	public NodeListWithJobNum getOutNodes(NetNode ownerNode, JobClass jobClass) {
-		RandomEngine engine = ownerNode.getNetSystem().getEngine();
+		RandomEngine engine = ownerNode.getEngine();
 		NodeListWithJobNum nl = new NodeListWithJobNum();
 
 		if (nodes == null) {
@@ -24,6 +24,8 @@ package jmt.engine.NetStrategies.ForkStrategies;
  */
 public class MultiBranchClassSwitchFork extends ClassSwitchFork {
 
+	private static final long serialVersionUID = 1L;
+
 	public MultiBranchClassSwitchFork(ClassJobNum[] jobsPerClass) {
 		super(jobsPerClass);
 	}
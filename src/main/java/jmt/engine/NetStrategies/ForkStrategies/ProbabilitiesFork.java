@@ -34,6 +34,8 @@ import jmt.engine.random.engine.RandomEngine;
 
 public class ProbabilitiesFork extends ForkStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	private String[] nodeNames;
 	private Empirical distribution;
 	private EmpiricalPar[] params;
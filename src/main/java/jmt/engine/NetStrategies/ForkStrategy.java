@@ -18,6 +18,8 @@
 
 package jmt.engine.NetStrategies;
 
+import java.io.Serializable;
+
 import jmt.common.AutoCheck;
 import jmt.engine.QueueNet.JobClass;
 import jmt.engine.QueueNet.NetNode;
@@ -25,7 +27,9 @@ import jmt.engine.QueueNet.NodeListWithJobNum;
 import jmt.engine.QueueNet.NodeSection;
 import jmt.engine.random.engine.RandomEngine;
 
-public abstract class ForkStrategy implements AutoCheck {
+public abstract class ForkStrategy implements AutoCheck, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private RandomEngine randomEngine;
 
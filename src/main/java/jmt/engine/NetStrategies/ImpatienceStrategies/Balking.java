@@ -9,6 +9,9 @@ import org.apache.commons.math3.random.MersenneTwister;
 import org.apache.commons.math3.random.RandomAdaptor;
 
 public class Balking implements Impatience {
+
+  private static final long serialVersionUID = 1L;
+
   private ImpatienceType impatienceType;
   private LoadDependentStrategy loadDependentStrategy;
   private boolean priorityActivated;
@@ -1,8 +1,10 @@
 package jmt.engine.NetStrategies.ImpatienceStrategies;
 
+import java.io.Serializable;
+
 import jmt.engine.NetStrategies.ImpatienceStrategies.ImpatienceMeasurement.ImpatienceMeasurement;
 
-public interface Impatience {
+public interface Impatience extends Serializable {
   ImpatienceType impatienceType();
   boolean isImpatienceType (ImpatienceType type);
   void generateImpatience(ImpatienceMeasurement impatienceObject);
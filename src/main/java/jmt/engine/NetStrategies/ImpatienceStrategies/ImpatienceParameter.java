@@ -1,4 +1,6 @@
 package jmt.engine.NetStrategies.ImpatienceStrategies;
 
-public interface ImpatienceParameter {
+import java.io.Serializable;
+
+public interface ImpatienceParameter extends Serializable {
 }
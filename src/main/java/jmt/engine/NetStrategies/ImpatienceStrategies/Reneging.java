@@ -9,6 +9,8 @@ import org.apache.commons.lang.mutable.MutableDouble;
 
 public class Reneging implements Impatience {
 
+  private static final long serialVersionUID = 1L;
+
   private Distribution distribution;
   private Parameter parameter;
   private ImpatienceType impatienceType;
@@ -22,6 +22,8 @@ import jmt.engine.NetStrategies.JoinStrategy;
 
 public class GuardJoin extends JoinStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	private Integer[] required;
 	private int requiredNum;
 
@@ -22,6 +22,8 @@ import jmt.engine.NetStrategies.JoinStrategy;
 
 public class NormalJoin extends JoinStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	private int requiredNum;
 
 	public NormalJoin(Integer requiredNum) {
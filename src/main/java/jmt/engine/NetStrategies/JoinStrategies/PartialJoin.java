@@ -22,6 +22,8 @@ import jmt.engine.NetStrategies.JoinStrategy;
 
 public class PartialJoin extends JoinStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	private int requiredNum;
 
 	public PartialJoin(Integer requiredNums) {
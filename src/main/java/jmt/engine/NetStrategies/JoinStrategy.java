@@ -18,9 +18,13 @@
 
 package jmt.engine.NetStrategies;
 
+import java.io.Serializable;
+
 import jmt.common.AutoCheck;
 
-public abstract class JoinStrategy implements AutoCheck {
+public abstract class JoinStrategy implements AutoCheck, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	public abstract int getRequiredNum();
 
@@ -33,6 +33,8 @@ import java.util.Arrays;
  */
 public class EPSStrategy extends PSStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	public double slice(JobInfoList list, JobClassList classes, double[] weights, boolean[] saturated, JobClass jobClass) {
 		Boolean[] compatibilities = new Boolean[classes.size()];
 		Arrays.fill(compatibilities, true);
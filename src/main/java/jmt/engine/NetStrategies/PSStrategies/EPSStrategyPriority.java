@@ -12,6 +12,8 @@ import java.util.List;
 
 public class EPSStrategyPriority extends PSStrategy {
 
+    private static final long serialVersionUID = 1L;
+
     public double slice(JobInfoList list, JobClassList classes, double[] weights, boolean[] saturated, JobClass jobClass) {
         Boolean[] compatibilities = new Boolean[classes.size()];
         Arrays.fill(compatibilities, true);
@@ -9,6 +9,9 @@ import jmt.engine.QueueNet.PSJobInfoList;
 import java.util.Arrays;
 
 public class QBPSStrategy extends PSStrategy {
+
+    private static final long serialVersionUID = 1L;
+
     public double slice(JobInfoList list, JobClassList classes, double[] weights, boolean[] saturated, JobClass jobClass) {
         Boolean[] compatibilities = new Boolean[classes.size()];
         Arrays.fill(compatibilities, true);
@@ -11,6 +11,9 @@ import java.util.Iterator;
 import java.util.List;
 
 public class QBPSStrategyPriority extends PSStrategy {
+
+    private static final long serialVersionUID = 1L;
+
     public double slice(JobInfoList list, JobClassList classes, double[] weights, boolean[] saturated, JobClass jobClass) {
         Boolean[] compatibilities = new Boolean[classes.size()];
         Arrays.fill(compatibilities, true);
@@ -18,6 +18,8 @@
 
 package jmt.engine.NetStrategies;
 
+import java.io.Serializable;
+
 import jmt.common.AutoCheck;
 import jmt.engine.QueueNet.JobClass;
 import jmt.engine.QueueNet.JobClassList;
@@ -28,7 +30,9 @@ import jmt.engine.QueueNet.JobInfoList;
  * rule which shares limited service capacity among all present jobs.
  * @author Lulai Zhu
  */
-public abstract class PSStrategy implements AutoCheck {
+public abstract class PSStrategy implements AutoCheck, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * This method should be overridden to implement a specific PS strategy.
@@ -26,6 +26,8 @@ import jmt.engine.QueueNet.*;
  */
 public class ExhaustivePollingGetStrategy extends PollingGetStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	private int currentQueue;
 	private JobClassList jobClassList;
 	private JobClass jobClass;
@@ -29,6 +29,8 @@ import java.util.List;
  */
 public class FCFSstrategy extends QueueGetStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Implements the FCFS strategy.
 	 * @param queue Job queue.
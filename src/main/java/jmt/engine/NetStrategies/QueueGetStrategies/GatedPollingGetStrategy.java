@@ -28,6 +28,8 @@ import java.util.List;
  */
 public class GatedPollingGetStrategy extends PollingGetStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	private int currentQueue;
 	private int k;
 	private int count;
@@ -29,6 +29,8 @@ import java.util.List;
  */
 public class LCFSstrategy extends QueueGetStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Implements the LCFS strategy.
 	 * @param queue Job queue.
@@ -26,6 +26,8 @@ import jmt.engine.QueueNet.*;
  */
 public class LimitedPollingGetStrategy extends PollingGetStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	private int currentQueue;
 	private int k;
 	private int count;
@@ -27,6 +27,8 @@ import jmt.engine.QueueNet.JobClassList;
  */
 public abstract class PollingGetStrategy extends QueueGetStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	public abstract void setPollingQueues(JobClassList jobClassList);
 
 }
@@ -18,6 +18,8 @@
 
 package jmt.engine.NetStrategies;
 
+import java.io.Serializable;
+
 import jmt.common.AutoCheck;
 import jmt.engine.QueueNet.Job;
 import jmt.engine.QueueNet.JobClass;
@@ -29,7 +31,9 @@ import jmt.engine.QueueNet.NetNode;
  * strategy is a rule which removes a job from a queue.
  * @author Francesco Radaelli
  */
-public abstract class QueueGetStrategy implements AutoCheck {
+public abstract class QueueGetStrategy implements AutoCheck, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * This method should be overridden to implement a specific job strategy.
@@ -1,5 +1,6 @@
 package jmt.engine.NetStrategies.QueuePutStrategies;
 
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import jmt.common.exception.NetException;
@@ -11,6 +12,13 @@ import jmt.engine.QueueNet.NodeSection;
 
 public class EDDStrategy extends QueuePutStrategy {
 
+  private static final long serialVersionUID = 1L;
+
+
+  @Override
+  public Comparator<JobInfo> getOrder(NodeSection nodeSection) {
+    return JobInfoOrders.EARLIEST_DEADLINE;
+  }
 
   @Override
   public void put(Job job, JobInfoList queue, NodeSection nodeSection) throws NetException {
@@ -19,9 +27,14 @@ public class EDDStrategy extends QueuePutStrategy {
       throw new IllegalArgumentException("Attempting to schedule job with no soft deadline");
     }
 
+    JobInfo jobInfo = new JobInfo(job);
+    if (queue.addInOrder(jobInfo, getOrder(nodeSection))) {
+      return;
+    }
+
     List<JobInfo> list = queue.getInternalJobInfoList();
     if (list.size() == 0) {
-      queue.addFirst(new JobInfo(job));
+      queue.addFirst(jobInfo);
       return;
     }
 
@@ -32,11 +45,11 @@ public class EDDStrategy extends QueuePutStrategy {
       currentSoftDeadline = it.next().getJob().getCurrentStationSoftDeadline();
       index++;
       if (currentSoftDeadline > softDeadline) {
-        queue.add(index, new JobInfo(job));
+        queue.add(index, jobInfo);
         return;
       }
     }
-    queue.addLast(new JobInfo(job));
+    queue.addLast(jobInfo);
 
   }
 }
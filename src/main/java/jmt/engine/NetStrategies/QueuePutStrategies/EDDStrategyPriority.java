@@ -1,5 +1,6 @@
 package jmt.engine.NetStrategies.QueuePutStrategies;
 
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import jmt.common.exception.NetException;
@@ -11,6 +12,13 @@ import jmt.engine.QueueNet.NodeSection;
 
 public class EDDStrategyPriority extends QueuePutStrategy {
 
+  private static final long serialVersionUID = 1L;
+
+  @Override
+  public Comparator<JobInfo> getOrder(NodeSection nodeSection) {
+    return JobInfoOrders.PRIORITY_EARLIEST_DEADLINE;
+  }
+
   @Override
   public void put(Job job, JobInfoList queue, NodeSection nodeSection) throws NetException {
     double softDeadline = job.getCurrentStationSoftDeadline();
@@ -18,9 +26,14 @@ public class EDDStrategyPriority extends QueuePutStrategy {
       throw new IllegalArgumentException("Attempting to schedule job with no soft deadline");
     }
 
+    JobInfo jobInfo = new JobInfo(job);
+    if (queue.addInOrder(jobInfo, getOrder(nodeSection))) {
+      return;
+    }
+
     List<JobInfo> list = queue.getInternalJobInfoList();
     if (list.size() == 0) {
-      queue.addFirst(new JobInfo(job));
+      queue.addFirst(jobInfo);
       return;
     }
 
@@ -38,16 +51,16 @@ public class EDDStrategyPriority extends QueuePutStrategy {
       }
     }
     if (currentPriority > priority) {
-      queue.addLast(new JobInfo(job));
+      queue.addLast(jobInfo);
       return;
     } else if (currentPriority < priority) {
-      queue.add(index, new JobInfo(job));
+      queue.add(index, jobInfo);
       return;
     }
 
     double currentSoftDeadline = current.getCurrentStationSoftDeadline();
     if (currentSoftDeadline > softDeadline) {
-      queue.add(index, new JobInfo(job));
+      queue.add(index, jobInfo);
       return;
     }
 
@@ -57,10 +70,10 @@ public class EDDStrategyPriority extends QueuePutStrategy {
       currentSoftDeadline = current.getCurrentStationSoftDeadline();
       currentPriority = current.getJobClass().getPriority();
       if (currentPriority < priority || currentSoftDeadline > softDeadline) {
-        queue.add(index, new JobInfo(job));
+        queue.add(index, jobInfo);
         return;
       }
     }
-    queue.addLast(new JobInfo(job));
+    queue.addLast(jobInfo);
   }
 }
@@ -11,6 +11,8 @@ import jmt.engine.QueueNet.NodeSection;
 
 public class EDFStrategy extends EDDStrategy implements PreemptiveStrategy {
 
+  private static final long serialVersionUID = 1L;
+
   @Override
   public int compare(Job job1, Job job2) {
     double softDeadline1 = job1.getCurrentStationSoftDeadline();
@@ -11,6 +11,8 @@ import jmt.engine.QueueNet.NodeSection;
 
 public class EDFStrategyPriority extends EDDStrategyPriority implements PreemptiveStrategy {
 
+  private static final long serialVersionUID = 1L;
+
   @Override
   public int compare(Job job1, Job job2) {
     int priority1 = job1.getJobClass().getPriority();
@@ -27,6 +27,8 @@ import jmt.engine.QueueNet.Job;
  */
 public class FCFSPRStrategy extends TailStrategy implements PreemptiveStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	public int compare(Job job1, Job job2) {
 		return -1;
 	}
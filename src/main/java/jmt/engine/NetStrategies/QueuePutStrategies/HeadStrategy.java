@@ -32,6 +32,8 @@ import jmt.engine.QueueNet.NodeSection;
  */
 public class HeadStrategy extends QueuePutStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	public void put(Job job, JobInfoList queue, NodeSection nodeSection) throws NetException {
 		queue.addFirst(new JobInfo(job));
 	}
@@ -36,6 +36,8 @@ import jmt.engine.QueueNet.NodeSection;
  */
 public class HeadStrategyPriority extends QueuePutStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	public void put(Job job, JobInfoList queue, NodeSection nodeSection) throws NetException {
 		int priority = job.getJobClass().getPriority();
 
@@ -0,0 +1,217 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.NetStrategies.QueuePutStrategies;
+
+import java.io.Serializable;
+import java.util.Comparator;
+
+import jmt.common.exception.NetException;
+import jmt.engine.NetStrategies.ServiceStrategy;
+import jmt.engine.NodeSections.Server;
+import jmt.engine.QueueNet.JobClass;
+import jmt.engine.QueueNet.JobInfo;
+import jmt.engine.QueueNet.NodeSection;
+
+/**
+ * This class provides the orders in which the size-based and deadline-based queue put
+ * strategies keep the jobs of a queue. Each order compares to a positive value if the first
+ * job must follow the second one, and to zero if their relative order is the arrival order.
+ * @see jmt.engine.QueueNet.JobInfoList#addInOrder(JobInfo, Comparator)
+ */
+public final class JobInfoOrders {
+
+	/** Shortest service time first */
+	public static final Comparator<JobInfo> SHORTEST_SERVICE_TIME = JobValueOrder.SHORTEST_SERVICE_TIME;
+
+	/** Longest service time first */
+	public static final Comparator<JobInfo> LONGEST_SERVICE_TIME = JobValueOrder.LONGEST_SERVICE_TIME;
+
+	/** Shortest remaining service time first */
+	public static final Comparator<JobInfo> SHORTEST_REMAINING_TIME = JobValueOrder.SHORTEST_REMAINING_TIME;
+
+	/** Earliest soft deadline first */
+	public static final Comparator<JobInfo> EARLIEST_DEADLINE = JobValueOrder.EARLIEST_DEADLINE;
+
+	public static final Comparator<JobInfo> PRIORITY_SHORTEST_SERVICE_TIME = withPriority(SHORTEST_SERVICE_TIME);
+	public static final Comparator<JobInfo> PRIORITY_LONGEST_SERVICE_TIME = withPriority(LONGEST_SERVICE_TIME);
+	public static final Comparator<JobInfo> PRIORITY_SHORTEST_REMAINING_TIME = withPriority(SHORTEST_REMAINING_TIME);
+	public static final Comparator<JobInfo> PRIORITY_EARLIEST_DEADLINE = withPriority(EARLIEST_DEADLINE);
+
+	private JobInfoOrders() {
+	}
+
+	/**
+	 * Compares two values with the same operators used by the linear scans of the put strategies.
+	 */
+	private static int compareValues(double value1, double value2) {
+		if (value1 > value2) {
+			return 1;
+		} else if (value1 < value2) {
+			return -1;
+		} else {
+			return 0;
+		}
+	}
+
+	/**
+	 * Returns an order that puts jobs with higher priority first, and jobs with the same
+	 * priority according to the given order.
+	 * @param order the order of jobs with the same priority.
+	 * @return the order.
+	 */
+	public static Comparator<JobInfo> withPriority(Comparator<JobInfo> order) {
+		return new PriorityOrder(order);
+	}
+
+	/**
+	 * Returns an order based on the expected service time of the jobs of the given queue.
+	 * @param nodeSection the queue.
+	 * @param longest true for the longest expected service time first, false for the shortest.
+	 * @return the order.
+	 */
+	public static Comparator<JobInfo> expectedServiceTime(NodeSection nodeSection, boolean longest) {
+		return new ExpectedServiceTimeOrder(nodeSection, longest);
+	}
+
+	/**
+	 * Orders based on a value of each job. They are constants, so that the orders of the queues
+	 * restored from a checkpoint are the same objects used by the put strategies.
+	 */
+	private enum JobValueOrder implements Comparator<JobInfo> {
+		SHORTEST_SERVICE_TIME {
+			public int compare(JobInfo jobInfo1, JobInfo jobInfo2) {
+				return compareValues(jobInfo1.getJob().getServiceTime(), jobInfo2.getJob().getServiceTime());
+			}
+		},
+		LONGEST_SERVICE_TIME {
+			public int compare(JobInfo jobInfo1, JobInfo jobInfo2) {
+				return compareValues(jobInfo2.getJob().getServiceTime(), jobInfo1.getJob().getServiceTime());
+			}
+		},
+		SHORTEST_REMAINING_TIME {
+			public int compare(JobInfo jobInfo1, JobInfo jobInfo2) {
+				return compareValues(jobInfo1.getJob().getRemainingServiceTime(), jobInfo2.getJob().getRemainingServiceTime());
+			}
+		},
+		EARLIEST_DEADLINE {
+			public int compare(JobInfo jobInfo1, JobInfo jobInfo2) {
+				return compareValues(jobInfo1.getJob().getCurrentStationSoftDeadline(), jobInfo2.getJob().getCurrentStationSoftDeadline());
+			}
+		}
+	}
+
+	private static class PriorityOrder implements Comparator<JobInfo>, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private Comparator<JobInfo> order;
+
+		private PriorityOrder(Comparator<JobInfo> order) {
+			this.order = order;
+		}
+
+		public int compare(JobInfo jobInfo1, JobInfo jobInfo2) {
+			int priority1 = jobInfo1.getJob().getJobClass().getPriority();
+			int priority2 = jobInfo2.getJob().getJobClass().getPriority();
+			if (priority1 < priority2) {
+				return 1;
+			} else if (priority1 > priority2) {
+				return -1;
+			}
+			return order.compare(jobInfo1, jobInfo2);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof PriorityOrder && ((PriorityOrder) obj).order.equals(order);
+		}
+
+		@Override
+		public int hashCode() {
+			return order.hashCode();
+		}
+	}
+
+	/**
+	 * Order based on the service mean of the class of each job. Service means are constant during
+	 * a simulation, so they are cached the first time they are needed.
+	 */
+	private static class ExpectedServiceTimeOrder implements Comparator<JobInfo>, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private NodeSection nodeSection;
+		private boolean longest;
+		private double[] serviceMeans;
+		private boolean[] cached;
+
+		private ExpectedServiceTimeOrder(NodeSection nodeSection, boolean longest) {
+			this.nodeSection = nodeSection;
+			this.longest = longest;
+		}
+
+		private double getServiceMean(JobClass jobClass) {
+			int c = jobClass.getId();
+			if (cached == null || c >= cached.length) {
+				int length = Math.max(c + 1, nodeSection.getJobClasses().size());
+				double[] tmpMeans = new double[length];
+				boolean[] tmpCached = new boolean[length];
+				if (cached != null) {
+					System.arraycopy(serviceMeans, 0, tmpMeans, 0, serviceMeans.length);
+					System.arraycopy(cached, 0, tmpCached, 0, cached.length);
+				}
+				serviceMeans = tmpMeans;
+				cached = tmpCached;
+			}
+			if (!cached[c]) {
+				try {
+					Server server = (Server) nodeSection.getOwnerNode().getSection(NodeSection.SERVICE);
+					ServiceStrategy[] strategies = server.getServiceStrategies();
+					serviceMeans[c] = strategies[c].expect(server, jobClass);
+				} catch (NetException e) {
+					// the put strategy has already computed the same value without errors
+					throw new IllegalStateException(e);
+				}
+				cached[c] = true;
+			}
+			return serviceMeans[c];
+		}
+
+		public int compare(JobInfo jobInfo1, JobInfo jobInfo2) {
+			double mean1 = getServiceMean(jobInfo1.getJob().getJobClass());
+			double mean2 = getServiceMean(jobInfo2.getJob().getJobClass());
+			return longest ? compareValues(mean2, mean1) : compareValues(mean1, mean2);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ExpectedServiceTimeOrder)) {
+				return false;
+			}
+			ExpectedServiceTimeOrder other = (ExpectedServiceTimeOrder) obj;
+			return other.nodeSection == nodeSection && other.longest == longest;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(nodeSection) * 2 + (longest ? 1 : 0);
+		}
+	}
+
+}
@@ -28,6 +28,8 @@ import jmt.engine.QueueNet.Job;
  */
 public class LCFSPRStrategyPriority extends HeadStrategyPriority implements PreemptiveStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	public int compare(Job job1, Job job2) {
 		int priority1 = job1.getJobClass().getPriority();
 		int priority2 = job2.getJobClass().getPriority();
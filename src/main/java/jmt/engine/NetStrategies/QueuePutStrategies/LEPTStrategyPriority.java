@@ -18,6 +18,7 @@
 
 package jmt.engine.NetStrategies.QueuePutStrategies;
 
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 
@@ -38,15 +39,34 @@ import jmt.engine.QueueNet.NodeSection;
  */
 public class LEPTStrategyPriority extends QueuePutStrategy {
 
+	private static final long serialVersionUID = 1L;
+
+	private NodeSection orderSection;
+	private Comparator<JobInfo> order;
+
+	@Override
+	public Comparator<JobInfo> getOrder(NodeSection nodeSection) {
+		if (order == null || orderSection != nodeSection) {
+			order = JobInfoOrders.withPriority(JobInfoOrders.expectedServiceTime(nodeSection, true));
+			orderSection = nodeSection;
+		}
+		return order;
+	}
+
 	public void put(Job job, JobInfoList queue, NodeSection nodeSection) throws NetException {
 		int priority = job.getJobClass().getPriority();
 		Server server = (Server) nodeSection.getOwnerNode().getSection(NodeSection.SERVICE);
 		ServiceStrategy[] strategies = (ServiceStrategy[]) server.getServiceStrategies();
 		double serviceMean = strategies[job.getJobClass().getId()].expect(server, job.getJobClass());
 
+		JobInfo jobInfo = new JobInfo(job);
+		if (queue.addInOrder(jobInfo, getOrder(nodeSection))) {
+			return;
+		}
+
 		List<JobInfo> list = queue.getInternalJobInfoList();
 		if (list.size() == 0) {
-			queue.addFirst(new JobInfo(job));
+			queue.addFirst(jobInfo);
 			return;
 		}
 
@@ -63,16 +83,16 @@ public class LEPTStrategyPriority extends QueuePutStrategy {
 			}
 		}
 		if (currentPriority > priority) {
-			queue.addLast(new JobInfo(job));
+			queue.addLast(jobInfo);
 			return;
 		} else if (currentPriority < priority) {
-			queue.add(index, new JobInfo(job));
+			queue.add(index, jobInfo);
 			return;
 		}
 
 		double currentServiceMean = strategies[current.getJobClass().getId()].expect(server, current.getJobClass());
 		if (currentServiceMean < serviceMean) {
-			queue.add(index, new JobInfo(job));
+			queue.add(index, jobInfo);
 			return;
 		}
 		while (it.hasNext()) {
@@ -81,11 +101,11 @@ public class LEPTStrategyPriority extends QueuePutStrategy {
 			currentPriority = current.getJobClass().getPriority();
 			currentServiceMean = strategies[current.getJobClass().getId()].expect(server, current.getJobClass());
 			if (currentPriority < priority || currentServiceMean < serviceMean) {
-				queue.add(index, new JobInfo(job));
+				queue.add(index, jobInfo);
 				return;
 			}
 		}
-		queue.addLast(new JobInfo(job));
+		queue.addLast(jobInfo);
 	}
 
 }
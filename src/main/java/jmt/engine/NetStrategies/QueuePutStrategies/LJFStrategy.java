@@ -18,6 +18,7 @@
 
 package jmt.engine.NetStrategies.QueuePutStrategies;
 
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 
@@ -37,15 +38,27 @@ import jmt.engine.QueueNet.NodeSection;
  */
 public class LJFStrategy extends QueuePutStrategy {
 
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public Comparator<JobInfo> getOrder(NodeSection nodeSection) {
+		return JobInfoOrders.LONGEST_SERVICE_TIME;
+	}
+
 	public void put(Job job, JobInfoList queue, NodeSection nodeSection) throws NetException {
 		Server server = (Server) nodeSection.getOwnerNode().getSection(NodeSection.SERVICE);
 		ServiceStrategy[] strategies = (ServiceStrategy[]) server.getServiceStrategies();
 		double serviceTime = strategies[job.getJobClass().getId()].wait(server, job.getJobClass());
 		job.setServiceTime(serviceTime);
 
+		JobInfo jobInfo = new JobInfo(job);
+		if (queue.addInOrder(jobInfo, getOrder(nodeSection))) {
+			return;
+		}
+
 		List<JobInfo> list = queue.getInternalJobInfoList();
 		if (list.size() == 0) {
-			queue.addFirst(new JobInfo(job));
+			queue.addFirst(jobInfo);
 			return;
 		}
 
@@ -56,11 +69,11 @@ public class LJFStrategy extends QueuePutStrategy {
 			currentServiceTime = it.next().getJob().getServiceTime();
 			index++;
 			if (currentServiceTime < serviceTime) {
-				queue.add(index, new JobInfo(job));
+				queue.add(index, jobInfo);
 				return;
 			}
 		}
-		queue.addLast(new JobInfo(job));
+		queue.addLast(jobInfo);
 	}
 
 }
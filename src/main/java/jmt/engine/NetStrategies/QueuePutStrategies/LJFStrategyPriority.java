@@ -18,6 +18,7 @@
 
 package jmt.engine.NetStrategies.QueuePutStrategies;
 
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 
@@ -38,6 +39,13 @@ import jmt.engine.QueueNet.NodeSection;
  */
 public class LJFStrategyPriority extends QueuePutStrategy {
 
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public Comparator<JobInfo> getOrder(NodeSection nodeSection) {
+		return JobInfoOrders.PRIORITY_LONGEST_SERVICE_TIME;
+	}
+
 	public void put(Job job, JobInfoList queue, NodeSection nodeSection) throws NetException {
 		int priority = job.getJobClass().getPriority();
 		Server server = (Server) nodeSection.getOwnerNode().getSection(NodeSection.SERVICE);
@@ -45,9 +53,14 @@ public class LJFStrategyPriority extends QueuePutStrategy {
 		double serviceTime = strategies[job.getJobClass().getId()].wait(server, job.getJobClass());
 		job.setServiceTime(serviceTime);
 
+		JobInfo jobInfo = new JobInfo(job);
+		if (queue.addInOrder(jobInfo, getOrder(nodeSection))) {
+			return;
+		}
+
 		List<JobInfo> list = queue.getInternalJobInfoList();
 		if (list.size() == 0) {
-			queue.addFirst(new JobInfo(job));
+			queue.addFirst(jobInfo);
 			return;
 		}
 
@@ -64,16 +77,16 @@ public class LJFStrategyPriority extends QueuePutStrategy {
 			}
 		}
 		if (currentPriority > priority) {
-			queue.addLast(new JobInfo(job));
+			queue.addLast(jobInfo);
 			return;
 		} else if (currentPriority < priority) {
-			queue.add(index, new JobInfo(job));
+			queue.add(index, jobInfo);
 			return;
 		}
 
 		double currentServiceTime = current.getServiceTime();
 		if (currentServiceTime < serviceTime) {
-			queue.add(index, new JobInfo(job));
+			queue.add(index, jobInfo);
 			return;
 		}
 		while (it.hasNext()) {
@@ -82,11 +95,11 @@ public class LJFStrategyPriority extends QueuePutStrategy {
 			currentPriority = current.getJobClass().getPriority();
 			currentServiceTime = current.getServiceTime();
 			if (currentPriority < priority || currentServiceTime < serviceTime) {
-				queue.add(index, new JobInfo(job));
+				queue.add(index, jobInfo);
 				return;
 			}
 		}
-		queue.addLast(new JobInfo(job));
+		queue.addLast(jobInfo);
 	}
 
 }
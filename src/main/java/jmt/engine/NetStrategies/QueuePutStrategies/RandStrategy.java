@@ -33,9 +33,11 @@ import jmt.engine.random.engine.RandomEngine;
  */
 public class RandStrategy extends QueuePutStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 
 	public void put(Job job, JobInfoList queue, NodeSection callingSection) throws NetException {
-		RandomEngine randomEngine = job.getNetSystem().getEngine();
+		RandomEngine randomEngine = callingSection.getOwnerNode().getEngine();
 		queue.add((int) (randomEngine.raw() * (queue.size() + 1)), new JobInfo(job));
 	}
 
@@ -36,9 +36,11 @@ import jmt.engine.random.engine.RandomEngine;
  * @author Lulai Zhu
  */
 public class RandStrategyPriority extends QueuePutStrategy {
+
+	private static final long serialVersionUID = 1L;
 	
 	public void put(Job job, JobInfoList queue, NodeSection callingSection) throws NetException {
-		RandomEngine randomEngine = job.getNetSystem().getEngine();
+		RandomEngine randomEngine = callingSection.getOwnerNode().getEngine();
 
 		int priority = job.getJobClass().getPriority();
 
@@ -18,6 +18,7 @@
 
 package jmt.engine.NetStrategies.QueuePutStrategies;
 
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 
@@ -37,14 +38,33 @@ import jmt.engine.QueueNet.NodeSection;
  */
 public class SEPTStrategy extends QueuePutStrategy {
 
+	private static final long serialVersionUID = 1L;
+
+	private NodeSection orderSection;
+	private Comparator<JobInfo> order;
+
+	@Override
+	public Comparator<JobInfo> getOrder(NodeSection nodeSection) {
+		if (order == null || orderSection != nodeSection) {
+			order = JobInfoOrders.expectedServiceTime(nodeSection, false);
+			orderSection = nodeSection;
+		}
+		return order;
+	}
+
 	public void put(Job job, JobInfoList queue, NodeSection nodeSection) throws NetException {
 		Server server = (Server) nodeSection.getOwnerNode().getSection(NodeSection.SERVICE);
 		ServiceStrategy[] strategies = (ServiceStrategy[]) server.getServiceStrategies();
 		double serviceMean = strategies[job.getJobClass().getId()].expect(server, job.getJobClass());
 
+		JobInfo jobInfo = new JobInfo(job);
+		if (queue.addInOrder(jobInfo, getOrder(nodeSection))) {
+			return;
+		}
+
 		List<JobInfo> list = queue.getInternalJobInfoList();
 		if (list.size() == 0) {
-			queue.addFirst(new JobInfo(job));
+			queue.addFirst(jobInfo);
 			return;
 		}
 
@@ -57,11 +77,11 @@ public class SEPTStrategy extends QueuePutStrategy {
 			currentServiceMean = strategies[current.getJobClass().getId()].expect(server, current.getJobClass());
 			index++;
 			if (currentServiceMean > serviceMean) {
-				queue.add(index, new JobInfo(job));
+				queue.add(index, jobInfo);
 				return;
 			}
 		}
-		queue.addLast(new JobInfo(job));
+		queue.addLast(jobInfo);
 	}
 
 }
@@ -18,6 +18,7 @@
 
 package jmt.engine.NetStrategies.QueuePutStrategies;
 
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 
@@ -37,6 +38,13 @@ import jmt.engine.QueueNet.NodeSection;
  */
 public class SRPTStrategy extends QueuePutStrategy implements PreemptiveStrategy {
 
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public Comparator<JobInfo> getOrder(NodeSection nodeSection) {
+		return JobInfoOrders.SHORTEST_REMAINING_TIME;
+	}
+
 	public void put(Job job, JobInfoList queue, NodeSection nodeSection) throws NetException {
 		double serviceTime = job.getServiceTime();
 		if (serviceTime < 0.0) {
@@ -46,9 +54,14 @@ public class SRPTStrategy extends QueuePutStrategy implements PreemptiveStrategy
 			job.setServiceTime(serviceTime);
 		}
 
+		JobInfo jobInfo = new JobInfo(job);
+		if (queue.addInOrder(jobInfo, getOrder(nodeSection))) {
+			return;
+		}
+
 		List<JobInfo> list = queue.getInternalJobInfoList();
 		if (list.size() == 0) {
-			queue.addFirst(new JobInfo(job));
+			queue.addFirst(jobInfo);
 			return;
 		}
 
@@ -60,11 +73,11 @@ public class SRPTStrategy extends QueuePutStrategy implements PreemptiveStrategy
 			currentRemainingTime = it.next().getJob().getRemainingServiceTime();
 			index++;
 			if (currentRemainingTime > remainingTime) {
-				queue.add(index, new JobInfo(job));
+				queue.add(index, jobInfo);
 				return;
 			}
 		}
-		queue.addLast(new JobInfo(job));
+		queue.addLast(jobInfo);
 	}
 
 	public int compare(Job job1, Job job2) {
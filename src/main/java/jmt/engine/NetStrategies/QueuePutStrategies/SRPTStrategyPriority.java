@@ -18,6 +18,7 @@
 
 package jmt.engine.NetStrategies.QueuePutStrategies;
 
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 
@@ -38,6 +39,13 @@ import jmt.engine.QueueNet.NodeSection;
  */
 public class SRPTStrategyPriority extends QueuePutStrategy implements PreemptiveStrategy {
 
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public Comparator<JobInfo> getOrder(NodeSection nodeSection) {
+		return JobInfoOrders.PRIORITY_SHORTEST_REMAINING_TIME;
+	}
+
 	public void put(Job job, JobInfoList queue, NodeSection nodeSection) throws NetException {
 		int priority = job.getJobClass().getPriority();
 		double serviceTime = job.getServiceTime();
@@ -48,9 +56,14 @@ public class SRPTStrategyPriority extends QueuePutStrategy implements Preemptive
 			job.setServiceTime(serviceTime);
 		}
 
+		JobInfo jobInfo = new JobInfo(job);
+		if (queue.addInOrder(jobInfo, getOrder(nodeSection))) {
+			return;
+		}
+
 		List<JobInfo> list = queue.getInternalJobInfoList();
 		if (list.size() == 0) {
-			queue.addFirst(new JobInfo(job));
+			queue.addFirst(jobInfo);
 			return;
 		}
 
@@ -67,17 +80,17 @@ public class SRPTStrategyPriority extends QueuePutStrategy implements Preemptive
 			}
 		}
 		if (currentPriority > priority) {
-			queue.addLast(new JobInfo(job));
+			queue.addLast(jobInfo);
 			return;
 		} else if (currentPriority < priority) {
-			queue.add(index, new JobInfo(job));
+			queue.add(index, jobInfo);
 			return;
 		}
 
 		double remainingTime = job.getRemainingServiceTime();
 		double currentRemainingTime = current.getRemainingServiceTime();
 		if (currentRemainingTime > remainingTime) {
-			queue.add(index, new JobInfo(job));
+			queue.add(index, jobInfo);
 			return;
 		}
 		while (it.hasNext()) {
@@ -86,11 +99,11 @@ public class SRPTStrategyPriority extends QueuePutStrategy implements Preemptive
 			currentPriority = current.getJobClass().getPriority();
 			currentRemainingTime = current.getRemainingServiceTime();
 			if (currentPriority < priority || currentRemainingTime > remainingTime) {
-				queue.add(index, new JobInfo(job));
+				queue.add(index, jobInfo);
 				return;
 			}
 		}
-		queue.addLast(new JobInfo(job));
+		queue.addLast(jobInfo);
 	}
 
 	public int compare(Job job1, Job job2) {
@@ -18,6 +18,8 @@ import jmt.engine.QueueNet.NodeSection;
  */
 public class TBSStrategyPriority extends EDFStrategy implements PreemptiveStrategy {
 
+  private static final long serialVersionUID = 1L;
+
   /* The current deadline is shared across all instances of TBSStrategyPriority. */
   static double currentDeadlineAbsolute;
 
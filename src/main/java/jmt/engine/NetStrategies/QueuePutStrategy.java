@@ -18,9 +18,13 @@
 
 package jmt.engine.NetStrategies;
 
+import java.io.Serializable;
+import java.util.Comparator;
+
 import jmt.common.AutoCheck;
 import jmt.common.exception.NetException;
 import jmt.engine.QueueNet.Job;
+import jmt.engine.QueueNet.JobInfo;
 import jmt.engine.QueueNet.JobInfoList;
 import jmt.engine.QueueNet.NodeSection;
 
@@ -29,7 +33,9 @@ import jmt.engine.QueueNet.NodeSection;
  * strategy is a rule which adds a job to a queue.
  * @author Francesco Radaelli
  */
-public abstract class QueuePutStrategy implements AutoCheck {
+public abstract class QueuePutStrategy implements AutoCheck, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * This method should be overridden to implement a specific job strategy.
@@ -40,6 +46,17 @@ public abstract class QueuePutStrategy implements AutoCheck {
 	 */
 	public abstract void put(Job job, JobInfoList queue, NodeSection nodeSection) throws NetException;
 
+	/**
+	 * Returns the order in which this strategy keeps the jobs of the queue. When all the job classes
+	 * of a queue use the same order, the queue can insert jobs in log(n) time.
+	 * @param nodeSection Node section which applies this strategy.
+	 * @return the order, or null if this strategy does not keep the jobs sorted.
+	 * @see JobInfoList#addInOrder(JobInfo, Comparator)
+	 */
+	public Comparator<JobInfo> getOrder(NodeSection nodeSection) {
+		return null;
+	}
+
 	public boolean check() {
 		return true;
 	}
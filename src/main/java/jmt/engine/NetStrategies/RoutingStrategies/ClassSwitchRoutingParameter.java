@@ -18,6 +18,8 @@
 
 package jmt.engine.NetStrategies.RoutingStrategies;
 
+import java.io.Serializable;
+
 import jmt.common.exception.IncorrectDistributionParameterException;
 import jmt.common.exception.LoadException;
 import jmt.engine.random.Empirical;
@@ -25,7 +27,9 @@ import jmt.engine.random.EmpiricalEntry;
 import jmt.engine.random.EmpiricalPar;
 import jmt.engine.random.engine.RandomEngine;
 
-public class ClassSwitchRoutingParameter {
+public class ClassSwitchRoutingParameter implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	// store which destination node the class points to and probability of going to the node
 	private String destNode;
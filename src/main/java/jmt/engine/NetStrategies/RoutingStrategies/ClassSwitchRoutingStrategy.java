@@ -34,6 +34,8 @@ import jmt.engine.random.engine.RandomEngine;
 
 public class ClassSwitchRoutingStrategy extends RoutingStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	// the stations that a job can be routed to
 	private ClassSwitchRoutingParameter[] stations;
 	// station count
@@ -27,6 +27,8 @@ import jmt.engine.QueueNet.NetNode;
  */
 public class DisabledRoutingStrategy extends RoutingStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	public DisabledRoutingStrategy() {
 	}
 
@@ -37,6 +37,8 @@ import jmt.engine.random.engine.RandomEngine;
  */
 public class EmpiricalStrategy extends RoutingStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	//the names of the output nodes
 	private String[] nodeNames;
 	//the empirical distribution
@@ -34,6 +34,8 @@ import jmt.engine.random.engine.RandomEngine;
  */
 public class FastestServiceRoutingStrategy extends RoutingStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	private int CLOSED_CLASS = JobClass.CLOSED_CLASS;
 	private int infinityQ = Integer.MAX_VALUE;
 	private double infinityS = Double.POSITIVE_INFINITY;
@@ -52,7 +54,7 @@ public class FastestServiceRoutingStrategy extends RoutingStrategy {
 	 */
 	@Override
 	public NetNode getOutNode(NetNode ownerNode, JobClass jobClass) {	
-		RandomEngine randomEngine = ownerNode.getNetSystem().getEngine();
+		RandomEngine randomEngine = ownerNode.getEngine();
 		NodeList nodeList = ownerNode.getOutputNodes();
 		if (nodeList.size() == 0) {
 			return null;
@@ -22,6 +22,7 @@ import jmt.common.exception.NetException;
 import jmt.engine.NetStrategies.RoutingStrategy;
 import jmt.engine.QueueNet.JobClass;
 import jmt.engine.QueueNet.NetNode;
+import jmt.engine.QueueNet.NodeLoadIndex;
 import jmt.engine.QueueNet.NodeList;
 import jmt.engine.QueueNet.NodeSection;
 import jmt.engine.random.engine.RandomEngine;
@@ -34,11 +35,43 @@ import jmt.engine.random.engine.RandomEngine;
  */
 public class LeastUtilizationRoutingStrategy extends RoutingStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	private int CLOSED_CLASS = JobClass.CLOSED_CLASS;
 	private double infinity = Double.POSITIVE_INFINITY;
-	private byte serviceSection = NodeSection.SERVICE;
-	private int property = NodeSection.PROPERTY_ID_UTILIZATION;
-	private double epsilon = 1e-14; // Used to make equality checks (100 times machine precision)	
+	private double epsilon = 1e-14; // Used to make equality checks (100 times machine precision)
+	private NodeLoadIndexCache indexes = new NodeLoadIndexCache();
+
+	/**
+	 * Reads the utilization of an output node
+	 */
+	private static class UtilizationReader implements NodeLoadIndex.LoadReader {
+
+		private static final long serialVersionUID = 1L;
+
+		private double infinity = Double.POSITIVE_INFINITY;
+		private byte serviceSection = NodeSection.SERVICE;
+		private int property = NodeSection.PROPERTY_ID_UTILIZATION;
+		private boolean closed;
+
+		private UtilizationReader(boolean closed) {
+			this.closed = closed;
+		}
+
+		public int getGroup(NetNode node) {
+			return 0;
+		}
+
+		public double getLoad(NetNode node) throws NetException {
+			// Checks if output is a sink... If class is open, sinks are preferred as have
+			// 0 utilization. If class is closed, avoid it
+			if (node.isSink()) {
+				return closed ? infinity : 0.0;
+			}
+			return node.getSection(serviceSection).getDoubleSectionProperty(property);
+		}
+
+	}
 
 	/**
 	 * This strategy selects the resource with the least utilization
@@ -49,56 +82,30 @@ public class LeastUtilizationRoutingStrategy extends RoutingStrategy {
 	 */
 	@Override
 	public NetNode getOutNode(NetNode ownerNode, JobClass jobClass) {
-		RandomEngine randomEngine = ownerNode.getNetSystem().getEngine();
+		RandomEngine randomEngine = ownerNode.getEngine();
 		NodeList nodeList = ownerNode.getOutputNodes();
 		if (nodeList.size() == 0) {
 			return null;
 		}
 
-		// output node candidates... Holds an array of them as on equality of utilization they
-		// will be chosen randomly
-		NetNode[] output = new NetNode[nodeList.size()];
-		int length = 0;
-		double leastUtilization = infinity;
+		// output nodes are indexed by utilization, and only the ones which have processed events
+		// since the previous job are read again. On equality of utilization they are chosen randomly
+		NodeLoadIndex index = indexes.get(ownerNode, jobClass);
+		if (index == null) {
+			index = new NodeLoadIndex(nodeList, new UtilizationReader(jobClass.getType() == CLOSED_CLASS), epsilon, 1);
+			indexes.put(ownerNode, jobClass, index);
+		}
 		try {
-			for (int i = 0; i < nodeList.size(); i++) {
-				NetNode node = nodeList.get(i);
-				double tmp = 0.0;
-				// Checks if output is a sink... If class is open, sinks are preferred as have
-				// 0 utilization. If class is closed, avoid it
-				if (node.isSink()) {
-					if (jobClass.getType() == CLOSED_CLASS) {
-						tmp = infinity;
-					} else {
-						tmp = 0.0;
-					}
-				} else {
-					tmp = node.getSection(serviceSection).getDoubleSectionProperty(property);
-				}
-
-				if (Math.abs(tmp - leastUtilization) < epsilon) {
-					// This is minimum too, put it in output and increment length
-					output[length] = node;
-					length++;
-				} else if (tmp < leastUtilization) {
-					// New minimum value found, put it in output and reset length
-					leastUtilization = tmp;
-					output[0] = node;
-					length = 1;
-				}
-			}
+			index.refresh(ownerNode);
 		} catch (NetException e) {
 			System.out.println("Least Utilization Routing Error: Cannot read utilization from output node");
 			e.printStackTrace();
 			return null;
 		}
-		if (leastUtilization == infinity) {
+		if (!(index.getMinLoad() < infinity)) {
 			return null;
-		} else if (length == 1) {
-			return output[0];
-		} else {
-			return output[(int) Math.floor(randomEngine.raw() * length)];
 		}
+		return nodeList.get(index.selectMin(randomEngine));
 	}
 
 }
@@ -18,6 +18,8 @@
 
 package jmt.engine.NetStrategies.RoutingStrategies;
 
+import java.io.Serializable;
+
 import jmt.common.exception.IncorrectDistributionParameterException;
 import jmt.engine.QueueNet.NetNode;
 import jmt.engine.random.Empirical;
@@ -32,7 +34,9 @@ import jmt.engine.random.engine.RandomEngine;
  * Time: 10:25 PM
  * To change this template use File | Settings | File Templates.
  */
-public class LoadDependentRoutingParameter implements Comparable<Object> {
+public class LoadDependentRoutingParameter implements Comparable<Object>, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private int from;
 	private String[] nodeNames;
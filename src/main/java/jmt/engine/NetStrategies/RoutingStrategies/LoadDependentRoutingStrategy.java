@@ -33,6 +33,8 @@ import java.util.Arrays;
  */
 public class LoadDependentRoutingStrategy extends RoutingStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	private LoadDependentRoutingParameter[] parameters;
 
 	public LoadDependentRoutingStrategy(LoadDependentRoutingParameter[] params) {
@@ -0,0 +1,65 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.NetStrategies.RoutingStrategies;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import jmt.engine.QueueNet.JobClass;
+import jmt.engine.QueueNet.NetNode;
+import jmt.engine.QueueNet.NodeLoadIndex;
+
+/**
+ * The load indexes of a routing strategy, one for each owner node and job class,
+ * as a strategy could be shared among nodes or classes.
+ *
+ * @author Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+ */
+class NodeLoadIndexCache implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Map<NetNode, NodeLoadIndex[]> indexes = new HashMap<NetNode, NodeLoadIndex[]>();
+
+	/**
+	 * Gets the index of a node and a class
+	 * @return the index, or null if it has not been created yet.
+	 */
+	NodeLoadIndex get(NetNode ownerNode, JobClass jobClass) {
+		NodeLoadIndex[] nodeIndexes = indexes.get(ownerNode);
+		if (nodeIndexes == null || jobClass.getId() >= nodeIndexes.length) {
+			return null;
+		}
+		return nodeIndexes[jobClass.getId()];
+	}
+
+	/**
+	 * Sets the index of a node and a class
+	 */
+	void put(NetNode ownerNode, JobClass jobClass, NodeLoadIndex index) {
+		NodeLoadIndex[] nodeIndexes = indexes.get(ownerNode);
+		if (nodeIndexes == null) {
+			nodeIndexes = new NodeLoadIndex[ownerNode.getJobClasses().size()];
+			indexes.put(ownerNode, nodeIndexes);
+		}
+		nodeIndexes[jobClass.getId()] = index;
+	}
+
+}
@@ -21,10 +21,12 @@ package jmt.engine.NetStrategies.RoutingStrategies;
 import jmt.common.exception.NetException;
 import jmt.engine.QueueNet.JobClass;
 import jmt.engine.QueueNet.NetNode;
+import jmt.engine.QueueNet.NodeLoadIndex;
 import jmt.engine.QueueNet.NodeList;
 import jmt.engine.random.engine.RandomEngine;
 
-import java.util.*;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * This strategy picks, at random, k resources and sends jobs to the resource with the shortest queue.
@@ -33,8 +35,35 @@ import java.util.*;
  */
 public class PowerOfKRoutingStrategy extends PropertyBasedStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	private final Integer k;
-	private Map<NetNode, Integer> memory = null;
+	private final boolean withMemory;
+	// the queue lengths remembered for each output node, or the actual ones without memory
+	private NodeLoadIndexCache indexes = new NodeLoadIndexCache();
+
+	/**
+	 * Reads the queue length of an output node
+	 */
+	private class QueueLengthReader implements NodeLoadIndex.LoadReader {
+
+		private static final long serialVersionUID = 1L;
+
+		private boolean isClosedClass;
+
+		private QueueLengthReader(boolean isClosedClass) {
+			this.isClosedClass = isClosedClass;
+		}
+
+		public int getGroup(NetNode node) {
+			return 0;
+		}
+
+		public double getLoad(NetNode node) throws NetException {
+			return calculateQueueLength(node, isClosedClass);
+		}
+
+	}
 
 	/**
 	 * Creates a Power of K Routing Strategy with the passed parameter k.
@@ -43,9 +72,7 @@ public class PowerOfKRoutingStrategy extends PropertyBasedStrategy {
 	 */
 	public PowerOfKRoutingStrategy(Integer k, Boolean withMemory) {
 		this.k = k;
-		if (withMemory) {
-			this.memory = new HashMap<>();
-		}
+		this.withMemory = withMemory.booleanValue();
 	}
 
 	/**
@@ -58,29 +85,44 @@ public class PowerOfKRoutingStrategy extends PropertyBasedStrategy {
 	 */
 	@Override
 	public NetNode getOutNode(NetNode ownerNode, JobClass jobClass) {
-		RandomEngine randomEngine = ownerNode.getNetSystem().getEngine();
+		RandomEngine randomEngine = ownerNode.getEngine();
 		NodeList nodes = ownerNode.getOutputNodes();
 		if (nodes.size() == 0) {
 			return null;
 		}
 
-		NodeList selectedNodes = getSelectedNodes(nodes, randomEngine);
+		int[] selectedPositions = getSelectedPositions(nodes, randomEngine);
 		boolean isClosedClass = jobClass.getType() == JobClass.CLOSED_CLASS;
-		if (memory != null) {
+		NodeLoadIndex index = indexes.get(ownerNode, jobClass);
+		if (withMemory) {
 			// Initialise memory count on first access
-			if (memory.isEmpty()) {
-				ListIterator<NetNode> iterator = nodes.listIterator();
-				while (iterator.hasNext()) {
-					memory.put(iterator.next(), 0);
-				}
+			if (index == null) {
+				index = new NodeLoadIndex(nodes.size(), 0.0, 1);
+				indexes.put(ownerNode, jobClass, index);
 			}
-			updateMemory(selectedNodes, isClosedClass);
-			NetNode out = getBestNode(randomEngine);
-			incrementMemory(out);
-			return out;
+			updateMemory(index, nodes, selectedPositions, isClosedClass);
+			int out = getBestNode(index, randomEngine);
+			incrementMemory(index, out);
+			return nodes.get(out);
 		}
 
-		return super.getOutNode(ownerNode, jobClass);
+		// output nodes are indexed by queue length, and only the ones which have processed events
+		// since the previous job are read again
+		if (index == null) {
+			index = new NodeLoadIndex(nodes, new QueueLengthReader(isClosedClass), 0.0, 1);
+			indexes.put(ownerNode, jobClass, index);
+		}
+		try {
+			index.refresh(ownerNode);
+		} catch (NetException e) {
+			System.out.println("Property Based Routing Error: Cannot read property from output node");
+			e.printStackTrace();
+			return null;
+		}
+		if (Double.isInfinite(index.getMinLoad())) {
+			return null;
+		}
+		return nodes.get(index.selectMin(randomEngine));
 	}
 
 	@Override
@@ -88,12 +130,10 @@ public class PowerOfKRoutingStrategy extends PropertyBasedStrategy {
 		return calculateQueueLength(node, jobClass.getType() == JobClass.CLOSED_CLASS);
 	}
 
-	private void updateMemory(NodeList nodes, boolean isClosedClass) {
-		ListIterator<NetNode> iterator = nodes.listIterator();
+	private void updateMemory(NodeLoadIndex memory, NodeList nodes, int[] positions, boolean isClosedClass) {
 		try {
-			while (iterator.hasNext()) {
-				NetNode node = iterator.next();
-				memory.put(node, calculateQueueLength(node, isClosedClass));
+			for (int position : positions) {
+				memory.setLoad(position, 0, calculateQueueLength(nodes.get(position), isClosedClass));
 			}
 		} catch (NetException e) {
 			System.out.println("Shortest Queue Routing Error: Cannot read queue length from output node");
@@ -101,29 +141,26 @@ public class PowerOfKRoutingStrategy extends PropertyBasedStrategy {
 		}
 	}
 
-	private NetNode getBestNode(RandomEngine randomEngine) {
-		Integer minValue = Collections.min(memory.values());
-		NodeList bestNodes = new NodeList();
-		for (NetNode node : memory.keySet()) {
-			if (memory.get(node).equals(minValue)) {
-				bestNodes.add(node);
-			}
-		}
-		int index = getRandomIndexBelow(bestNodes.size(), randomEngine);
-		return bestNodes.get(index);
+	private int getBestNode(NodeLoadIndex memory, RandomEngine randomEngine) {
+		int index = getRandomIndexBelow(memory.getMinCount(), randomEngine);
+		return memory.getMin(index);
 	}
 
-	private void incrementMemory(NetNode out) {
-		memory.put(out, memory.get(out) + 1);
+	private void incrementMemory(NodeLoadIndex memory, int out) {
+		memory.setLoad(out, 0, memory.getLoad(out) + 1);
 	}
 
 	/**
-	 * Selects, at random, k nodes from the given list of nodes.
-	 * If there are fewer than k nodes given, the list is returned unmodified.
+	 * Selects, at random, the positions of k nodes from the given list of nodes.
+	 * If there are fewer than k nodes given, all the positions are returned.
 	 */
-	private NodeList getSelectedNodes(NodeList nodes, RandomEngine randomEngine) {
+	private int[] getSelectedPositions(NodeList nodes, RandomEngine randomEngine) {
 		if (nodes.size() <= k) {
-			return nodes;
+			int[] positions = new int[nodes.size()];
+			for (int i = 0; i < positions.length; i++) {
+				positions[i] = i;
+			}
+			return positions;
 		}
 
 		// Create a set of k unique indices which will be selected
@@ -133,12 +170,12 @@ public class PowerOfKRoutingStrategy extends PropertyBasedStrategy {
 			indices.add(index);
 		} while (indices.size() < k);
 
-		// Create new NodeList with selected nodes
-		NodeList selectedNodes = new NodeList();
+		int[] positions = new int[indices.size()];
+		int i = 0;
 		for (int index : indices) {
-			selectedNodes.add(nodes.get(index));
+			positions[i++] = index;
 		}
-		return selectedNodes;
+		return positions;
 	}
 
 }
@@ -13,12 +13,14 @@ import java.util.List;
 
 public abstract class PropertyBasedStrategy extends RoutingStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	private static final double EPSILON = 1e-14; // Used to make equality checks (100 times machine precision)
 	private static final int INFINITY = Integer.MAX_VALUE;
 
 	@Override
 	public NetNode getOutNode(NetNode ownerNode, JobClass jobClass) {
-		RandomEngine randomEngine = ownerNode.getNetSystem().getEngine();
+		RandomEngine randomEngine = ownerNode.getEngine();
 		NodeList nodes = ownerNode.getOutputNodes();
 		if (nodes.size() == 0) {
 			return null;
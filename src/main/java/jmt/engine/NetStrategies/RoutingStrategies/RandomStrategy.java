@@ -33,6 +33,8 @@ import jmt.engine.random.engine.RandomEngine;
  */
 public class RandomStrategy extends RoutingStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	private int CLOSED_CLASS = JobClass.CLOSED_CLASS;
 
 	public RandomStrategy() {
@@ -47,7 +49,7 @@ public class RandomStrategy extends RoutingStrategy {
 	 */
 	@Override
 	public NetNode getOutNode(NetNode ownerNode, JobClass jobClass) {
-		RandomEngine randomEngine = ownerNode.getNetSystem().getEngine();
+		RandomEngine randomEngine = ownerNode.getEngine();
 		NodeList nodeList = ownerNode.getOutputNodes();
 		if (nodeList.size() == 0) {
 			return null;
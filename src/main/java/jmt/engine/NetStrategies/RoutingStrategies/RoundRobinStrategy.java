@@ -32,6 +32,8 @@ import jmt.engine.QueueNet.NodeList;
  */
 public class RoundRobinStrategy extends RoutingStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	private int CLOSED_CLASS = JobClass.CLOSED_CLASS;
 	private int counter;
 
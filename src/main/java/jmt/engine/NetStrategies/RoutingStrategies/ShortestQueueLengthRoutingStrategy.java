@@ -22,6 +22,7 @@ import jmt.common.exception.NetException;
 import jmt.engine.NetStrategies.RoutingStrategy;
 import jmt.engine.QueueNet.JobClass;
 import jmt.engine.QueueNet.NetNode;
+import jmt.engine.QueueNet.NodeLoadIndex;
 import jmt.engine.QueueNet.NodeList;
 import jmt.engine.QueueNet.NodeSection;
 import jmt.engine.random.engine.RandomEngine;
@@ -34,11 +35,44 @@ import jmt.engine.random.engine.RandomEngine;
  */
 public class ShortestQueueLengthRoutingStrategy extends RoutingStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	private int CLOSED_CLASS = JobClass.CLOSED_CLASS;
 	private int infinity = Integer.MAX_VALUE;
-	private byte inputSection = NodeSection.INPUT;
-	private byte serviceSection = NodeSection.SERVICE;
-	private int property = NodeSection.PROPERTY_ID_RESIDENT_JOBS;	
+	private NodeLoadIndexCache indexes = new NodeLoadIndexCache();
+
+	/**
+	 * Reads the queue length of an output node
+	 */
+	private static class QueueLengthReader implements NodeLoadIndex.LoadReader {
+
+		private static final long serialVersionUID = 1L;
+
+		private int infinity = Integer.MAX_VALUE;
+		private byte inputSection = NodeSection.INPUT;
+		private byte serviceSection = NodeSection.SERVICE;
+		private int property = NodeSection.PROPERTY_ID_RESIDENT_JOBS;
+		private boolean closed;
+
+		private QueueLengthReader(boolean closed) {
+			this.closed = closed;
+		}
+
+		public int getGroup(NetNode node) {
+			return 0;
+		}
+
+		public double getLoad(NetNode node) throws NetException {
+			// Checks if output is a sink... If class is open, sinks are preferred as have
+			// 0 queue length. If class is closed, avoid it
+			if (node.isSink()) {
+				return closed ? infinity : 0;
+			}
+			return node.getSection(inputSection).getIntSectionProperty(property)
+					+ node.getSection(serviceSection).getIntSectionProperty(property);
+		}
+
+	}
 
 	/**
 	 * This strategy selects the resource with the shortest queue length
@@ -49,57 +83,30 @@ public class ShortestQueueLengthRoutingStrategy extends RoutingStrategy {
 	 */
 	@Override
 	public NetNode getOutNode(NetNode ownerNode, JobClass jobClass) {
-		RandomEngine randomEngine = ownerNode.getNetSystem().getEngine();
+		RandomEngine randomEngine = ownerNode.getEngine();
 		NodeList nodeList = ownerNode.getOutputNodes();
 		if (nodeList.size() == 0) {
 			return null;
 		}
 
-		// output node candidates... Holds an array of them as on equality of queue length they
-		// will be chosen randomly
-		NetNode[] output = new NetNode[nodeList.size()];
-		int length = 0;
-		int leastQueue = infinity;
+		// output nodes are indexed by queue length, and only the ones which have processed events
+		// since the previous job are read again. On equality of queue length they are chosen randomly
+		NodeLoadIndex index = indexes.get(ownerNode, jobClass);
+		if (index == null) {
+			index = new NodeLoadIndex(nodeList, new QueueLengthReader(jobClass.getType() == CLOSED_CLASS), 0.0, 1);
+			indexes.put(ownerNode, jobClass, index);
+		}
 		try {
-			for (int i = 0; i < nodeList.size(); i++) {
-				NetNode node = nodeList.get(i);
-				int tmp = 0;
-				// Checks if output is a sink... If class is open, sinks are preferred as have
-				// 0 queue length. If class is closed, avoid it
-				if (node.isSink()) {
-					if (jobClass.getType() == CLOSED_CLASS) {
-						tmp = infinity;
-					} else {
-						tmp = 0;
-					}
-				} else {
-					tmp = node.getSection(inputSection).getIntSectionProperty(property)
-							+ node.getSection(serviceSection).getIntSectionProperty(property);
-				}
-
-				if (tmp == leastQueue) {
-					// This is minimum too, put it in output and increment length
-					output[length] = node;
-					length++;
-				} else if (tmp < leastQueue) {
-					// New minimum value found, put it in output and reset length
-					leastQueue = tmp;
-					output[0] = node;
-					length = 1;
-				}
-			}
+			index.refresh(ownerNode);
 		} catch (NetException e) {
 			System.out.println("Shortest Queue Length Routing Error: Cannot read queue length from output node");
 			e.printStackTrace();
 			return null;
 		}
-		if (leastQueue == infinity) {
+		if (index.getMinLoad() == infinity) {
 			return null;
-		} else if (length == 1) {
-			return output[0];
-		} else {
-			return output[(int) Math.floor(randomEngine.raw() * length)];
 		}
+		return nodeList.get(index.selectMin(randomEngine));
 	}
 
 }
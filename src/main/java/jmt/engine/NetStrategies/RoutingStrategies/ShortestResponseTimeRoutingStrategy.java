@@ -22,6 +22,7 @@ import jmt.common.exception.NetException;
 import jmt.engine.NetStrategies.RoutingStrategy;
 import jmt.engine.QueueNet.JobClass;
 import jmt.engine.QueueNet.NetNode;
+import jmt.engine.QueueNet.NodeLoadIndex;
 import jmt.engine.QueueNet.NodeList;
 import jmt.engine.QueueNet.NodeSection;
 import jmt.engine.random.engine.RandomEngine;
@@ -34,14 +35,58 @@ import jmt.engine.random.engine.RandomEngine;
  */
 public class ShortestResponseTimeRoutingStrategy extends RoutingStrategy {
 
-	private int CLOSED_CLASS = JobClass.CLOSED_CLASS;
-	private int infinityQ = Integer.MAX_VALUE;
+	private static final long serialVersionUID = 1L;
+
 	private double infinityR = Double.POSITIVE_INFINITY;
-	private byte inputSection = NodeSection.INPUT;
-	private byte serviceSection = NodeSection.SERVICE;
-	private int propertyQ = NodeSection.PROPERTY_ID_RESIDENT_JOBS;
-	private int propertyR = NetNode.PROPERTY_ID_RESIDENCE_TIME;
 	private double epsilon = 1e-14; // Used to make equality checks (100 times machine precision)
+	private NodeLoadIndexCache indexes = new NodeLoadIndexCache();
+
+	/**
+	 * Reads the response time of an output node for a job class. Nodes with zero queue
+	 * length are in group 0, the other ones in group 1.
+	 */
+	private static class ResponseTimeReader implements NodeLoadIndex.LoadReader {
+
+		private static final long serialVersionUID = 1L;
+
+		private int CLOSED_CLASS = JobClass.CLOSED_CLASS;
+		private int infinityQ = Integer.MAX_VALUE;
+		private double infinityR = Double.POSITIVE_INFINITY;
+		private byte inputSection = NodeSection.INPUT;
+		private byte serviceSection = NodeSection.SERVICE;
+		private int propertyQ = NodeSection.PROPERTY_ID_RESIDENT_JOBS;
+		private int propertyR = NetNode.PROPERTY_ID_RESIDENCE_TIME;
+		private JobClass jobClass;
+
+		private ResponseTimeReader(JobClass jobClass) {
+			this.jobClass = jobClass;
+		}
+
+		public int getGroup(NetNode node) throws NetException {
+			int tmpQ = 0;
+			// Checks if output is a sink... If class is open, sinks are preferred as have
+			// 0 queue length and response time. If class is closed, avoid it
+			if (node.isSink()) {
+				if (jobClass.getType() == CLOSED_CLASS) {
+					tmpQ = infinityQ;
+				} else {
+					tmpQ = 0;
+				}
+			} else {
+				tmpQ = node.getSection(inputSection).getIntSectionProperty(propertyQ)
+						+ node.getSection(serviceSection).getIntSectionProperty(propertyQ);
+			}
+			return (tmpQ == 0) ? 0 : 1;
+		}
+
+		public double getLoad(NetNode node) throws NetException {
+			if (node.isSink()) {
+				return (jobClass.getType() == CLOSED_CLASS) ? infinityR : 0.0;
+			}
+			return node.getDoubleNodeProperty(propertyR, jobClass);
+		}
+
+	}
 
 	/**
 	 * This strategy selects the resource with the shortest response time for this jobClass
@@ -52,70 +97,31 @@ public class ShortestResponseTimeRoutingStrategy extends RoutingStrategy {
 	 */
 	@Override
 	public NetNode getOutNode(NetNode ownerNode, JobClass jobClass) {
-		RandomEngine randomEngine = ownerNode.getNetSystem().getEngine();
+		RandomEngine randomEngine = ownerNode.getEngine();
 		NodeList nodeList = ownerNode.getOutputNodes();
 		if (nodeList.size() == 0) {
 			return null;
 		}
 
-		// output node candidates... Holds an array of them as on equality of response time they
-		// will be chosen randomly
-		NetNode[] output = new NetNode[nodeList.size()];
-		int length = 0;
-		boolean foundZeroQueue = false;
-		double leastRTime = infinityR;
+		// output nodes are indexed by response time, those with zero queue length first, and only
+		// the ones which have processed events since the previous job are read again. On equality
+		// of response time they are chosen randomly
+		NodeLoadIndex index = indexes.get(ownerNode, jobClass);
+		if (index == null) {
+			index = new NodeLoadIndex(nodeList, new ResponseTimeReader(jobClass), epsilon, 2);
+			indexes.put(ownerNode, jobClass, index);
+		}
 		try {
-			for (int i = 0; i < nodeList.size(); i++) {
-				NetNode node = nodeList.get(i);
-				int tmpQ = 0;
-				double tmpR = 0.0;
-				// Checks if output is a sink... If class is open, sinks are preferred as have
-				// 0 queue length and response time. If class is closed, avoid it
-				if (node.isSink()) {
-					if (jobClass.getType() == CLOSED_CLASS) {
-						tmpQ = infinityQ;
-						tmpR = infinityR;
-					} else {
-						tmpQ = 0;
-						tmpR = 0.0;
-					}
-				} else {
-					tmpQ = node.getSection(inputSection).getIntSectionProperty(propertyQ)
-							+ node.getSection(serviceSection).getIntSectionProperty(propertyQ);
-					tmpR = node.getDoubleNodeProperty(propertyR, jobClass);
-				}
-
-				if (tmpQ == 0 && !foundZeroQueue) {
-					// Zero queue found, put it in output and reset length
-					foundZeroQueue = true;
-					leastRTime = tmpR;
-					output[0] = node;
-					length = 1;
-				} else if ((tmpQ == 0 && foundZeroQueue) || (tmpQ != 0 && !foundZeroQueue)) {
-					if (Math.abs(tmpR - leastRTime) < epsilon) {
-						// This is minimum too, put it in output and increment length
-						output[length] = node;
-						length++;
-					} else if (tmpR < leastRTime) {
-						// New minimum value found, put it in output and reset length
-						leastRTime = tmpR;
-						output[0] = node;
-						length = 1;
-					}
-				}
-			}
+			index.refresh(ownerNode);
 		} catch (NetException e) {
 			System.out.println("Shortest Response Time Routing Error: Cannot read queue length or response time from output node");
 			e.printStackTrace();
 			return null;
 		}
-		if (leastRTime == infinityR) {
+		if (!(index.getMinLoad() < infinityR)) {
 			return null;
-		} else if (length == 1) {
-			return output[0];
-		} else {
-			return output[(int) Math.floor(randomEngine.raw() * length)];
 		}
+		return nodeList.get(index.selectMin(randomEngine));
 	}
 
 }
@@ -13,6 +13,8 @@ import java.util.Map;
 
 public class WeightedRoundRobinStrategy extends RoutingStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	private int counter = -1;
 	private int currentWeight = 0;
 	// Map key is node name, not NetNode - see EmpiricalStrategy for details
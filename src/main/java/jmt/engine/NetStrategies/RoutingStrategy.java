@@ -18,6 +18,8 @@
 
 package jmt.engine.NetStrategies;
 
+import java.io.Serializable;
+
 import jmt.common.AutoCheck;
 import jmt.engine.QueueNet.*;
 
@@ -28,7 +30,9 @@ import jmt.engine.QueueNet.*;
  * @author Bertoli Marco 13-11-2005 (Added job class)
  * @author Das Ashanka 11-2011 (Added getOutNode with NodeSection).
  */
-public abstract class RoutingStrategy implements AutoCheck {
+public abstract class RoutingStrategy implements AutoCheck, Serializable {
+
+	private static final long serialVersionUID = 1L;
 	 
 	/**
 	 * This method should be overridden to implement a specific strategy.
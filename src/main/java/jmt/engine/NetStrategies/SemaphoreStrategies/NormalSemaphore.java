@@ -26,6 +26,8 @@ import jmt.engine.NetStrategies.SemaphoreStrategy;
  */
 public class NormalSemaphore extends SemaphoreStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	private int threshold;
 
 	public NormalSemaphore(Integer threshold) {
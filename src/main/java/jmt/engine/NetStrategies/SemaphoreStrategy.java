@@ -18,13 +18,17 @@
 
 package jmt.engine.NetStrategies;
 
+import java.io.Serializable;
+
 import jmt.common.AutoCheck;
 
 /**
  *
  * @author Vitor S. Lopes
  */
-public abstract class SemaphoreStrategy implements AutoCheck {
+public abstract class SemaphoreStrategy implements AutoCheck, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	public abstract int getThreshold();
 
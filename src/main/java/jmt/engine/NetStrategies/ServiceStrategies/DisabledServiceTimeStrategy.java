@@ -31,6 +31,8 @@ import jmt.engine.QueueNet.NodeSection;
  */
 public class DisabledServiceTimeStrategy extends ServiceStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	boolean isDisabledWarningShown;
 
 	/** Creates a new instance of ServiceTime.*/
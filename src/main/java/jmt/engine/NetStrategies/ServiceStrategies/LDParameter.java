@@ -18,6 +18,8 @@
 
 package jmt.engine.NetStrategies.ServiceStrategies;
 
+import java.io.Serializable;
+
 import jmt.engine.math.parser.Parser;
 import jmt.engine.random.Distribution;
 import jmt.engine.random.Parameter;
@@ -33,7 +35,10 @@ import jmt.engine.random.engine.RandomEngine;
  *         Date: 10-ott-2005
  *         Time: 14.58.33
  */
-public class LDParameter implements Comparable<Object> {
+public class LDParameter implements Comparable<Object>, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
 	private int from;
 	private Distribution distribution;
 	private Parameter parameter;
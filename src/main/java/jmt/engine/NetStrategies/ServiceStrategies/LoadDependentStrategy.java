@@ -18,6 +18,7 @@
 
 package jmt.engine.NetStrategies.ServiceStrategies;
 
+import java.io.Serializable;
 import java.util.Arrays;
 
 import jmt.common.exception.ExpressionParseException;
@@ -43,6 +44,8 @@ import jmt.engine.random.Parameter;
  */
 public class LoadDependentStrategy extends ServiceStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	private static final String VAR = "n";
 	private static final int CACHESIZE = 1024;
 
@@ -130,7 +133,10 @@ public class LoadDependentStrategy extends ServiceStrategy {
 	 * Inner class used to cache mean values and distributions to avoid parsing a function
 	 * at each call of this strategy
 	 */
-	private class MeanCache {
+	private class MeanCache implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		/** distribution used to evaluate service times */
 		public Distribution distribution;
 		/** parameter of distribution used to evaluate service times */
@@ -23,21 +23,38 @@ import jmt.common.exception.NetException;
 import jmt.engine.NetStrategies.ServiceStrategy;
 import jmt.engine.QueueNet.JobClass;
 import jmt.engine.QueueNet.NodeSection;
+import jmt.engine.random.BlockDistribution;
 import jmt.engine.random.Distribution;
 import jmt.engine.random.Parameter;
 
 /**
  * This strategy calculates the time of service of a job, using the specified
  * distribution and parameters.
+ * <p>
+ * If the random block size of the net system is greater than 1, the strategy draws
+ * that many variates at once from the random engine and then returns them one at a
+ * time. The buffered values are the same that would be returned by consecutive calls
+ * to the distribution, but since the engine is shared by all the strategies, they are
+ * taken from the engine in a different order: results are therefore different from
+ * the ones obtained with a block size of 1, yet reproducible for a given seed and
+ * block size.
  */
 public class ServiceTimeStrategy extends ServiceStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	/** Service time distribution. */
 	protected Distribution distribution;
 
 	/** Distribution parameters. */
 	protected Parameter parameter;
 
+	/** Buffered variates, or null if the buffer has not been allocated yet. */
+	private double[] buffer;
+
+	/** Index of the next buffered variate. */
+	private int next;
+
 	/** Creates a new instance of ServiceTime. */
 	public ServiceTimeStrategy() {
 	}
@@ -58,6 +75,7 @@ public class ServiceTimeStrategy extends ServiceStrategy {
 	 */
 	public boolean setDistribution(Distribution distribution) {
 		this.distribution = distribution;
+		buffer = null;
 		return true;
 	}
 
@@ -68,6 +86,7 @@ public class ServiceTimeStrategy extends ServiceStrategy {
 	 */
 	public boolean setParameter(Parameter parameter) {
 		this.parameter = parameter;
+		buffer = null;
 		return true;
 	}
 
@@ -81,7 +100,21 @@ public class ServiceTimeStrategy extends ServiceStrategy {
 	@Override
 	public double wait(final NodeSection nodeSection, final JobClass jobClass) throws NetException {
 		try {
-			return distribution.nextRand(parameter);
+			if (buffer == null) {
+				int blockSize = 1;
+				if (nodeSection != null) {
+					blockSize = nodeSection.getOwnerNode().getNetSystem().getRandomBlockSize();
+				}
+				buffer = new double[Math.max(blockSize, 1)];
+				next = buffer.length;
+			}
+			if (buffer.length == 1) {
+				return distribution.nextRand(parameter);
+			}
+			if (next == buffer.length) {
+				fillBuffer();
+			}
+			return buffer[next++];
 		} catch (IncorrectDistributionParameterException e) {
 			throw new NetException("Error in ServiceTimeStrategy: " + e.getMessage());
 		}
@@ -103,6 +136,21 @@ public class ServiceTimeStrategy extends ServiceStrategy {
 		}
 	}
 
+	/**
+	 * Refills the buffer of variates, in a single block if the distribution supports it.
+	 * @throws IncorrectDistributionParameterException
+	 */
+	private void fillBuffer() throws IncorrectDistributionParameterException {
+		if (distribution instanceof BlockDistribution) {
+			((BlockDistribution) distribution).nextRand(parameter, buffer, 0, buffer.length);
+		} else {
+			for (int i = 0; i < buffer.length; i++) {
+				buffer[i] = distribution.nextRand(parameter);
+			}
+		}
+		next = 0;
+	}
+
 	public Distribution getDistribution() {
 		return distribution;
 	}
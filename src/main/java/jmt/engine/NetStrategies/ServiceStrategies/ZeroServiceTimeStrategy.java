@@ -29,6 +29,8 @@ import jmt.engine.QueueNet.NodeSection;
  */
 public class ZeroServiceTimeStrategy extends ServiceStrategy {
 
+	private static final long serialVersionUID = 1L;
+
 	/** Creates a new instance of ServiceTime.*/
 	public ZeroServiceTimeStrategy() {
 	}
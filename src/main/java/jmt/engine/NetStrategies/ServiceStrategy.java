@@ -18,6 +18,8 @@
 
 package jmt.engine.NetStrategies;
 
+import java.io.Serializable;
+
 import jmt.common.AutoCheck;
 import jmt.common.exception.NetException;
 import jmt.engine.QueueNet.JobClass;
@@ -28,7 +30,9 @@ import jmt.engine.QueueNet.NodeSection;
  * strategy is a rule which calculates the service time for a job.
  * @author Francesco Radaelli
  */
-public abstract class ServiceStrategy implements AutoCheck {
+public abstract class ServiceStrategy implements AutoCheck, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * This method should be overridden to implement a specific strategy.
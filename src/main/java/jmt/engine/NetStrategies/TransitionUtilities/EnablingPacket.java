@@ -18,6 +18,8 @@
 
 package jmt.engine.NetStrategies.TransitionUtilities;
 
+import java.io.Serializable;
+
 /**
  * <p>Title: Enabling Packet</p>
  * <p>Description: This class implements the enabling packet.</p>
@@ -26,7 +28,9 @@ package jmt.engine.NetStrategies.TransitionUtilities;
  * Date: 06-10-2016
  * Time: 14.00.00
  */
-public class EnablingPacket {
+public class EnablingPacket implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private int modeIndex;
 	private int enablingDegree;
@@ -2,9 +2,13 @@ package jmt.engine.NetStrategies.TransitionUtilities;
 
 import jmt.engine.QueueNet.JobInfo;
 
+import java.io.Serializable;
 import java.util.List;
 
-public class EventFinishPacket {
+public class EventFinishPacket implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
     public int numberOfRequestsToNodes;
 
     public List<JobInfo> list;
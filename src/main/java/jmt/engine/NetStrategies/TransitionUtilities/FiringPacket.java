@@ -18,6 +18,7 @@
 
 package jmt.engine.NetStrategies.TransitionUtilities;
 
+import java.io.Serializable;
 import java.util.List;
 
 import jmt.engine.QueueNet.ForkJobInfo;
@@ -30,7 +31,9 @@ import jmt.engine.QueueNet.ForkJobInfo;
  * Date: 06-10-2016
  * Time: 14.00.00
  */
-public class FiringPacket {
+public class FiringPacket implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private int modeIndex;
 	private String modeName;
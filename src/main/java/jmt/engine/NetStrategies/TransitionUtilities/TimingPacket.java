@@ -18,6 +18,8 @@
 
 package jmt.engine.NetStrategies.TransitionUtilities;
 
+import java.io.Serializable;
+
 import jmt.engine.simEngine.RemoveToken;
 
 /**
@@ -28,7 +30,9 @@ import jmt.engine.simEngine.RemoveToken;
  * Date: 06-10-2016
  * Time: 14.00.00
  */
-public class TimingPacket {
+public class TimingPacket implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private int modeIndex;
 	private double firingDelay;
@@ -18,6 +18,7 @@
 
 package jmt.engine.NetStrategies.TransitionUtilities;
 
+import java.io.Serializable;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
@@ -31,7 +32,9 @@ import java.util.Set;
  * Date: 06-10-2016
  * Time: 14.00.00
  */
-public class TransitionMatrix {
+public class TransitionMatrix implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private Map<String, TransitionVector> matrix;
 	private int total;
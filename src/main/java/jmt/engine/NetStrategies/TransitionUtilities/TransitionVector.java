@@ -18,6 +18,7 @@
 
 package jmt.engine.NetStrategies.TransitionUtilities;
 
+import java.io.Serializable;
 import java.util.Arrays;
 
 /**
@@ -28,7 +29,9 @@ import java.util.Arrays;
  * Date: 15-07-2016
  * Time: 21.00.00
  */
-public class TransitionVector {
+public class TransitionVector implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private String key;
 	private int[] entries;
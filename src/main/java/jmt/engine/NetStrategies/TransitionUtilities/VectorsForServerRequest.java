@@ -1,8 +1,11 @@
 package jmt.engine.NetStrategies.TransitionUtilities;
 
+import java.io.Serializable;
 import java.util.Set;
 
-public class VectorsForServerRequest {
+public class VectorsForServerRequest implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
     private TransitionVector enabling;
     private TransitionVector resource;
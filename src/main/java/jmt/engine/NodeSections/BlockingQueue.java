@@ -54,6 +54,8 @@ import jmt.engine.dataAnalysis.Measure;
  */
 public class BlockingQueue extends InputSection {
 
+	private static final long serialVersionUID = 1L;
+
 	private BlockingRegion blockingRegion;
 
 	/** For each class, true if jobs in excess must be dropped */
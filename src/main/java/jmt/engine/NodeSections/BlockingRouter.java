@@ -33,6 +33,8 @@ import jmt.engine.QueueNet.NetNode;
  */
 public class BlockingRouter extends OutputSection {
 
+	private static final long serialVersionUID = 1L;
+
 	/** The number of ACKs we are waiting */
 	private int waitingAcks = 0;
 
@@ -21,8 +21,6 @@ package jmt.engine.NodeSections;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -30,6 +28,7 @@ import jmt.common.exception.NetException;
 import jmt.engine.NetStrategies.CacheStrategies.TTLCache;
 import jmt.engine.NetStrategies.CacheStrategy;
 import jmt.engine.QueueNet.CacheItem;
+import jmt.engine.QueueNet.CacheItemList;
 import jmt.engine.QueueNet.ForkJob;
 import jmt.engine.QueueNet.GlobalJobInfoList;
 import jmt.engine.QueueNet.Job;
@@ -48,13 +47,16 @@ import jmt.engine.random.engine.RandomEngine;
  * @author Sebatiano Spicuglia, Arif Canakoglu
  */
 public class Cache extends ServiceSection {
+
+	private static final long serialVersionUID = 1L;
+
 	private int maxItems;
 	private Integer[] cacheCapacity;
 	private Float[][] cacheMatrix;
 	private int numOfJobClasses;
 
 	private ArrayList<CacheItem> items;		// once created, only retrieve and update. all possible items that can be stored in the cache
-	private LinkedList<CacheItem>[] caches;	// since we need to insert or delete it frequently.representing the items currently stored in the cache.
+	private CacheItemList[] caches;	// since we need to insert or delete it frequently.representing the items currently stored in the cache.
 
 	private CacheStrategy replacePolicy;
 	private DiscreteDistribution[] popularity;
@@ -154,7 +156,7 @@ public class Cache extends ServiceSection {
 	public void nodeLinked(NetNode ownerNode) throws NetException {
 		this.numOfJobClasses = getJobClasses().size();
 
-		RandomEngine engine = ownerNode.getNetSystem().getEngine();
+		RandomEngine engine = ownerNode.getEngine();
 		this.replacePolicy.setRandomEngine(engine);
 		this.replacePolicy.setNetSystem(ownerNode.getNetSystem());		// TTL replace policy need to know the system time.
 		//		this.replacePolicy.initilize(cacheCapacity);					// Currently no replace Policy need to initialize
@@ -187,10 +189,9 @@ public class Cache extends ServiceSection {
 		}
 
 
-		//this.caches = new LinkedList<CacheItem>[cacheCapacity.length];
-		caches = (LinkedList<CacheItem>[]) new LinkedList<?>[cacheCapacity.length];
+		caches = new CacheItemList[cacheCapacity.length];
 		for (int i = 0; i < cacheCapacity.length; i++) {
-			caches[i] = new LinkedList<CacheItem>();
+			caches[i] = new CacheItemList(replacePolicy, replacePolicy instanceof TTLCache);
 		}
 		//TestDistribution(popularity);		// method used for test
 	}
@@ -233,20 +234,20 @@ public class Cache extends ServiceSection {
 					throw new AssertionError("Cannot find the corresponding DiscreteDistribution popularity");
 				}
 				requsetId = pop.nextRand();
-				targetItem = getItemById(items, requsetId);
+				targetItem = getItemById(requsetId);
 				if(targetItem == null) {
 					throw new AssertionError("Cannot find the corresponding item in the item list." +
 							"It may caused by the error popularity parameter: maxItems < numberOfItems of popularity");
 				}
 				//count = TestNextRand(count, requsetId);		// To test the popularity function.
 
-				Integer[] itemPos = findIteminCache(requsetId);
+				int itemCache = findIteminCache(targetItem);
 				// if the items has already cached.
-				if (itemPos[0] >= 0) {
+				if (itemCache >= 0) {
 
 					// get the new position of the item in the cache.
 					int newItemPos = -1;
-					Float[] newPosProb = cacheMatrix[itemPos[0]];
+					Float[] newPosProb = cacheMatrix[itemCache];
 					double randomValue = Math.random();
 					for (int i = 0; i < newPosProb.length; i++) {
 						if (randomValue < newPosProb[i]) {
@@ -257,7 +258,7 @@ public class Cache extends ServiceSection {
 
 					switch (replacePolicy.getRemoveItemMode()) {
 						case 0:
-							if (newItemPos >= 0 && newItemPos != itemPos[0]) {  // if the item need to be moved to another cache.
+							if (newItemPos >= 0 && newItemPos != itemCache) {  // if the item need to be moved to another cache.
 								// update the cache item position.
 								// execute the replace policy
 								if (caches[newItemPos].size() == cacheCapacity[newItemPos]) {  // if the target cache list is full, remove the item
@@ -265,19 +266,19 @@ public class Cache extends ServiceSection {
 									CacheItem removedItem = replacePolicy.getRemoveItem(caches[newItemPos]);
 									//removeItem.clear();				// set isCache false and clear the accessTimes list.
 									caches[newItemPos].remove(removedItem);
-									caches[itemPos[0]].set(itemPos[1], removedItem);
+									caches[itemCache].replace(targetItem, removedItem);
 								}
 								caches[newItemPos].add(targetItem);
 								break;
 							}
 							else{
 								//remove targetItem from the old cache and add it to the new cache
-								caches[itemPos[0]].remove(targetItem);
+								caches[itemCache].remove(targetItem);
 								caches[newItemPos].add(targetItem);
 								break;
 								}
 						case 1:
-							if (newItemPos >= 0 && newItemPos != itemPos[0]) {  // if the item need to be moved to another cache.
+							if (newItemPos >= 0 && newItemPos != itemCache) {  // if the item need to be moved to another cache.
 								// update the cache item position.
 								// execute the replace policy
 								if (caches[newItemPos].size() == cacheCapacity[newItemPos]) {  // if the target cache list is full, remove the item
@@ -285,28 +286,28 @@ public class Cache extends ServiceSection {
 									CacheItem removedItem = replacePolicy.getRemoveItem(caches[newItemPos]);
 									//removeItem.clear();				// set isCache false and clear the accessTimes list.
 									caches[newItemPos].remove(removedItem);
-									caches[itemPos[0]].remove(targetItem);
-									caches[itemPos[0]].add(removedItem);
+									caches[itemCache].remove(targetItem);
+									caches[itemCache].add(removedItem);
 								}
 								caches[newItemPos].add(targetItem);
 								break;
 							}
 							else{
 								//remove targetItem from the old cache and add it to the new cache
-								caches[itemPos[0]].remove(targetItem);
+								caches[itemCache].remove(targetItem);
 								caches[newItemPos].add(targetItem);
 								break;	
 							}
 						case 2:
-							while (newItemPos >= 0 && newItemPos != itemPos[0]) {  // if the item need to be moved to another cache.
+							while (newItemPos >= 0 && newItemPos != itemCache) {  // if the item need to be moved to another cache.
 								// update the cache item position.
 								// execute the replace policy
 								//if target item is in the new cache list, move it to the first place
-								if (findIteminCacheList(requsetId,newItemPos) >= 0){
+								if (caches[newItemPos].contains(targetItem)){
 									caches[newItemPos].remove(targetItem);
 									caches[newItemPos].add(targetItem);
-									caches[itemPos[0]].remove(targetItem);
-									caches[itemPos[0]].add(targetItem);
+									caches[itemCache].remove(targetItem);
+									caches[itemCache].add(targetItem);
 								}
 								else{
 									if (caches[newItemPos].size() == cacheCapacity[newItemPos]) {  // if the target cache list is full, remove the item
@@ -314,17 +315,17 @@ public class Cache extends ServiceSection {
 										CacheItem removedItem = replacePolicy.getRemoveItem(caches[newItemPos]);
 										//removeItem.clear();				// set isCache false and clear the accessTimes list.
 										caches[newItemPos].remove(removedItem);
-										caches[itemPos[0]].remove(targetItem);
-										caches[itemPos[0]].add(targetItem);
+										caches[itemCache].remove(targetItem);
+										caches[itemCache].add(targetItem);
 										caches[newItemPos].add(targetItem);
-										if (findIteminCache(removedItem.getId())[0] < 0){
+										if (findIteminCache(removedItem) < 0){
 											removedItem.clear();	
 										}
 									}
 									else{
 										caches[newItemPos].add(targetItem);
-										caches[itemPos[0]].remove(targetItem);
-										caches[itemPos[0]].add(targetItem);
+										caches[itemCache].remove(targetItem);
+										caches[itemCache].add(targetItem);
 									}
 								}
 
@@ -337,7 +338,7 @@ public class Cache extends ServiceSection {
 										break;
 									}
 								}
-								itemPos = new Integer[]{newItemPos, findIteminCacheList(requsetId,newItemPos)};
+								itemCache = newItemPos;
 							}
 					}
 
@@ -402,7 +403,7 @@ public class Cache extends ServiceSection {
 
 
 					// update cache item information
-					targetItem.access(job.getNetSystem().getTime());
+					accessItem(targetItem, job.getNetSystem().getTime());
 					
 
 
@@ -444,17 +445,17 @@ public class Cache extends ServiceSection {
 					if (caches[0].size() == cacheCapacity[0]) {
 						// execute the replace policy
 						CacheItem removeItem = replacePolicy.getRemoveItem(caches[0]);
+						caches[0].remove(removeItem);
 						if (replacePolicy.getRemoveItemMode() != 2){
 							removeItem.clear();				// set isCache false and clear the accessTimes list.
 						}
-						caches[0].remove(removeItem);
-						if ((replacePolicy.getRemoveItemMode() == 2) && (findIteminCache(removeItem.getId())[0] < 0)){
+						if ((replacePolicy.getRemoveItemMode() == 2) && (findIteminCache(removeItem) < 0)){
 							removeItem.clear();	
 						}
 					}
 					// else cache is not full, directly add this new items to cache.
 					// update cache item information
-					targetItem.access(job.getNetSystem().getTime());
+					accessItem(targetItem, job.getNetSystem().getTime());
 					caches[0].add(targetItem);
 					// record the cache miss count to the jobListInfo and update hitRate measure.
 					jobsList.CacheJob(originalClass, false);
@@ -492,38 +493,36 @@ public class Cache extends ServiceSection {
 	}
 
 
-	private CacheItem getItemById(List<CacheItem> itemsList, int id){
-		for(CacheItem i: itemsList){
-			if(i.getId() == id){
-				return i;
-			}
+	/**
+	 * Returns the item with the given id. Items are created with ids from 1 to maxItems.
+	 */
+	private CacheItem getItemById(int id){
+		if (id >= 1 && id <= items.size()) {
+			return items.get(id - 1);
 		}
 		return null;
 	}
 
-
-	private Integer[] findIteminCache(int id){
-		for(int i = 0; i < cacheCapacity.length; i++){
-			if (getItemById(this.caches[i], id) != null){
-				for(int j = 0; j < caches[i].size(); j++){
-					if(caches[i].get(j).getId() == id){
-						return new Integer[]{i, j};
-					}
+	/**
+	 * Returns the index of the first cache that stores the given item, or -1 if the item is not cached.
+	 */
+	private int findIteminCache(CacheItem item){
+		for(int i = 0; i < caches.length; i++){
+			if (caches[i].contains(item)){
+				return i;
 			}
 		}
-	}
-		return new Integer[]{-1, -1}; 
+		return -1;
 	}
 
-	private Integer findIteminCacheList(int id, int cacheIndex){
-		if (getItemById(this.caches[cacheIndex], id) != null){
-			for(int j = 0; j < caches[cacheIndex].size(); j++){
-				if(caches[cacheIndex].get(j).getId() == id){
-					return j;
-				}
-			}
+	/**
+	 * Records an access to an item, updating the caches that store it.
+	 */
+	private void accessItem(CacheItem item, double time){
+		item.access(time);
+		for (CacheItemList cache : caches) {
+			cache.update(item);
 		}
-		return -1; 
 	}
 
 
@@ -37,6 +37,8 @@ import jmt.engine.random.engine.RandomEngine;
  */
 public class ClassSwitch extends ServiceSection {
 
+	private static final long serialVersionUID = 1L;
+
 	private Float[][] matrix;
 
 	private JobInfoList nodeJobsList;
@@ -113,7 +115,7 @@ public class ClassSwitch extends ServiceSection {
 			sum += row[i];
 		}
 
-		RandomEngine engine = getOwnerNode().getNetSystem().getEngine();
+		RandomEngine engine = getOwnerNode().getEngine();
 		float random = (float) (engine.raw() * sum);
 		for (int i = 0; i < row.length; i++) {
 			random -= row[i];
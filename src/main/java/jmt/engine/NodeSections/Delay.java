@@ -35,6 +35,8 @@ import jmt.engine.simEngine.RemoveToken;
  */
 public class Delay extends ServiceSection {
 
+	private static final long serialVersionUID = 1L;
+
 	private LinkedList<Job> waitingJobs;
 
 	private boolean coolStart;
@@ -60,7 +62,7 @@ public class Delay extends ServiceSection {
 		Job job;
 		Object data = message.getData();
 		NetSystem netSystem = getOwnerNode().getNetSystem();
-		RandomEngine randomEngine = getOwnerNode().getNetSystem().getEngine();
+		RandomEngine randomEngine = getOwnerNode().getEngine();
 		boolean workingAsTransition = ((Queue)getOwnerNode().getSection(NodeSection.INPUT)).isStationWorkingAsATransition();
 
 		switch (message.getEvent()) {
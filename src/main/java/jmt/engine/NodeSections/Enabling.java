@@ -50,6 +50,8 @@ import jmt.engine.QueueNet.NodeSection;
  */
 public class Enabling extends InputSection {
 
+	private static final long serialVersionUID = 1L;
+
 	private TransitionMatrix[] enablingConditions;
 	private TransitionMatrix[] inhibitingConditions;
 	private TransitionMatrix[] firingOutcomes;
@@ -52,6 +52,8 @@ import jmt.engine.random.engine.RandomEngine;
  */
 public class Firing extends OutputSection {
 
+	private static final long serialVersionUID = 1L;
+
 	private TransitionMatrix[] firingOutcomes;
 	private TransitionMatrix[] enablingConditions;
 
@@ -91,7 +93,7 @@ public class Firing extends OutputSection {
 	protected int process(NetMessage message) throws NetException {
 		Object data = message.getData();
 		NetSystem netSystem = getOwnerNode().getNetSystem();
-		RandomEngine randomEngine = netSystem.getEngine();
+		RandomEngine randomEngine = getOwnerNode().getEngine();
 
 		switch (message.getEvent()) {
 
@@ -54,6 +54,8 @@ import jmt.engine.random.engine.RandomEngine;
  */
 public class Fork extends OutputSection {
 
+	private static final long serialVersionUID = 1L;
+
 	/** Maximum number of jobs allowed in a fork-join region (-1 or 0 is infinity) */
 	private int block;
 
@@ -168,7 +170,7 @@ public class Fork extends OutputSection {
 			ForkJobInfo newJobInfo = new ForkJobInfo(job, totalOutNum, getOwnerNode());
 
 			NetSystem netSystem = getOwnerNode().getNetSystem();
-			RandomEngine randomEngine = netSystem.getEngine();
+			RandomEngine randomEngine = getOwnerNode().getEngine();
 			// Durstenfeld Shuffle
 			NetNode[] outNodePermutation = outNodeList.toArray();
 			for (int i = outNodePermutation.length - 1; i > 0; i--) {
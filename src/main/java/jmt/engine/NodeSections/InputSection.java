@@ -34,6 +34,8 @@ import jmt.engine.simEngine.RemoveToken;
  */
 public abstract class InputSection extends PipeSection {
 
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Creates a new instance of inputSection.
 	 */
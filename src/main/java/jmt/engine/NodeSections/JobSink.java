@@ -39,6 +39,8 @@ import jmt.engine.QueueNet.NetNode;
  */
 public class JobSink extends InputSection {
 
+	private static final long serialVersionUID = 1L;
+
 	private JobInfoList jobsList_node;
 
 	private boolean[] isForkJobExitWarningShown;
@@ -22,6 +22,8 @@ import jmt.engine.NetStrategies.ServiceStrategy;
 
 public class LimitedPollingServer extends PollingServer {
 
+    private static final long serialVersionUID = 1L;
+
     public LimitedPollingServer(Integer numberOfServers, Integer[] numberOfVisits, ServiceStrategy[] serviceStrategies,
                                 ServiceStrategy[] switchoverStrategies) {
         super(numberOfServers, numberOfVisits, serviceStrategies, switchoverStrategies);
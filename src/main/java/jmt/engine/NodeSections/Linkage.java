@@ -32,6 +32,8 @@ import jmt.engine.QueueNet.*;
  */
 public class Linkage extends OutputSection {
 
+	private static final long serialVersionUID = 1L;
+
 	private NodeList outputNodes;
 	private NetNode requestSource;
 
@@ -30,9 +30,13 @@ import jmt.engine.QueueNet.Job;
 import jmt.engine.QueueNet.NetEvent;
 import jmt.engine.QueueNet.NetMessage;
 import jmt.engine.QueueNet.NodeSection;
+import jmt.engine.dataAnalysis.SimParameters;
+import jmt.engine.log.AsyncLogger;
+import jmt.engine.log.BinaryLogger;
 import jmt.engine.log.CSVLogger;
 import jmt.engine.log.JSimLoggerFactory;
 import jmt.engine.log.LoggerParameters;
+import jmt.engine.log.RowLogger;
 
 /**
  * <p>Title: LogTunnel Extension</p>
@@ -56,6 +60,8 @@ import jmt.engine.log.LoggerParameters;
  */
 public class LogTunnel extends ServiceTunnel {
 
+	private static final long serialVersionUID = 1L;
+
 	public static final String COLUMN_LOGGERNAME = "LOGGERNAME";
 	public static final String COLUMN_TIMESTAMP = "TIMESTAMP";
 	public static final String COLUMN_JOBID = "JOB_ID";
@@ -67,6 +73,18 @@ public class LogTunnel extends ServiceTunnel {
 	public static final String[] COLUMNS = {COLUMN_LOGGERNAME, COLUMN_TIMESTAMP, COLUMN_JOBID, COLUMN_CLASSID,
 			COLUMN_INTERARRIVAL_SAMECLASS, COLUMN_INTERARRIVAL_ANYCLASS, COLUMN_START_TIME};
 
+	/** Types of the columns in binary and asynchronous logs */
+	public static final byte[] COLUMN_TYPES = {BinaryLogger.TYPE_STRING, BinaryLogger.TYPE_DOUBLE, BinaryLogger.TYPE_LONG, BinaryLogger.TYPE_STRING,
+			BinaryLogger.TYPE_DOUBLE, BinaryLogger.TYPE_DOUBLE, BinaryLogger.TYPE_STRING};
+
+	private static final int INDEX_LOGGERNAME = 0;
+	private static final int INDEX_TIMESTAMP = 1;
+	private static final int INDEX_JOBID = 2;
+	private static final int INDEX_CLASSID = 3;
+	private static final int INDEX_INTERARRIVAL_SAMECLASS = 4;
+	private static final int INDEX_INTERARRIVAL_ANYCLASS = 5;
+	private static final int INDEX_START_TIME = 6;
+
 	private String chDelimiter;
 	private String decimalSeparator;
 	private int intReplacePolicy;
@@ -76,6 +94,12 @@ public class LogTunnel extends ServiceTunnel {
 	private File file;
 	private CSVLogger logger;
 	private Map<String, String> defaultValues;
+	// used instead of logger when logs are written in binary format or asynchronously
+	private RowLogger rowLogger;
+	private String loggerName;
+	private boolean binaryFormat;
+	private boolean compressedFormat;
+	private boolean asyncLogging;
 
 	/**
 	 *  Creates a new instance of LogTunnel; called by simulator engine.
@@ -100,6 +124,12 @@ public class LogTunnel extends ServiceTunnel {
 		chDelimiter = getOwnerNode().getSimParameters().getLogDelimiter();
 		decimalSeparator = getOwnerNode().getSimParameters().getLogDecimalSeparator();
 		strTimestampValue = getOwnerNode().getSimParameters().getTimestampValue();
+		binaryFormat = getOwnerNode().getSimParameters().isBinaryLogFormat();
+		compressedFormat = LoggerParameters.LOG_FORMAT_COMPRESSED_BINARY.equals(getOwnerNode().getSimParameters().getLogFormat());
+		asyncLogging = getOwnerNode().getSimParameters().isAsyncLogging();
+		if (binaryFormat && lp.name.endsWith(".csv")) {
+			lp.name = lp.name.substring(0, lp.name.length() - 4) + BinaryLogger.FILE_EXTENSION;
+		}
 	}
 
 	@Override
@@ -110,6 +140,23 @@ public class LogTunnel extends ServiceTunnel {
 			// Build logger and default values
 			initLoggerParameters();
 			file = new File(lp.path, lp.name);
+			if (binaryFormat || asyncLogging) {
+				boolean append = intReplacePolicy == LoggerParameters.LOGGER_AR_APPEND;
+				SimParameters simParameters = getOwnerNode().getSimParameters();
+				if (!asyncLogging) {
+					rowLogger = JSimLoggerFactory.getBinaryLogger(file, COLUMNS, COLUMN_TYPES, append, compressedFormat);
+				} else if (binaryFormat) {
+					rowLogger = JSimLoggerFactory.getAsyncBinaryLogger(getOwnerNode().getNetSystem(), file, COLUMNS, COLUMN_TYPES, append,
+							compressedFormat, simParameters.getLogBufferSize(), simParameters.getLogBackpressure());
+				} else {
+					rowLogger = JSimLoggerFactory.getAsyncCSVLogger(getOwnerNode().getNetSystem(), file, COLUMNS, COLUMN_TYPES, append,
+							chDelimiter, decimalSeparator, simParameters.getLogBufferSize(), simParameters.getLogBackpressure());
+				}
+				if (lp.boolLoggername.booleanValue()) {
+					loggerName = message.getSource().getName();
+				}
+				break;
+			}
 			logger = JSimLoggerFactory.getCSVLogger(
 					file,
 					COLUMNS,
@@ -134,9 +181,18 @@ public class LogTunnel extends ServiceTunnel {
 				}
 				logger = null;
 			}
+			if (rowLogger != null) {
+				if (rowLogger instanceof AsyncLogger && ((AsyncLogger) rowLogger).getDroppedRows() > 0) {
+					warn(((AsyncLogger) rowLogger).getDroppedRows() + " rows were not written to the log file: " + file.getAbsolutePath());
+				}
+				removeRowLogger();
+			}
 			break;
 
 		case NetEvent.EVENT_JOB:
+			if (rowLogger != null) {
+				logRow(message);
+			}
 			if (logger != null) {
 				Job job = message.getJob();
 				// Fills the values for the log column
@@ -167,23 +223,7 @@ public class LogTunnel extends ServiceTunnel {
 					// Finally logs the line
 					logger.log(values, defaultValues);
 				} catch (IOException e1) {
-					if (getOwnerNode().getQueueNet().isTerminalSimulation()) {
-						System.out.println("JSIMengine - Warning: " + getOwnerNode().getName()
-								+ " failed to write the CSV file: " + file.getAbsolutePath());
-					} else {
-						new Thread(new Runnable() {
-							@Override
-							public void run() {
-								try {
-									Thread.sleep(800);
-								} catch (InterruptedException e) {
-								}
-								JOptionPane.showMessageDialog(null, getOwnerNode().getName()
-										+ " failed to write the CSV file: " + file.getAbsolutePath(),
-										"JSIMengine - Warning", JOptionPane.WARNING_MESSAGE);
-							}
-						}).start();
-					}
+					warnWriteFailure("CSV");
 					try {
 						JSimLoggerFactory.remove(logger);
 					} catch (IOException e2) {
@@ -207,4 +247,83 @@ public class LogTunnel extends ServiceTunnel {
 		return MSG_PROCESSED;
 	}
 
+	/**
+	 * Warns the user that the log file could not be written.
+	 * @param kind the kind of file, shown in the warning
+	 */
+	private void warnWriteFailure(String kind) {
+		warn("failed to write the " + kind + " file: " + file.getAbsolutePath());
+	}
+
+	/**
+	 * Shows a warning about this logger to the user.
+	 * @param text the text of the warning, following the name of the node
+	 */
+	private void warn(final String text) {
+		if (getOwnerNode().getQueueNet().isTerminalSimulation()) {
+			System.out.println("JSIMengine - Warning: " + getOwnerNode().getName() + " " + text);
+		} else {
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						Thread.sleep(800);
+					} catch (InterruptedException e) {
+					}
+					JOptionPane.showMessageDialog(null, getOwnerNode().getName() + " " + text,
+							"JSIMengine - Warning", JOptionPane.WARNING_MESSAGE);
+				}
+			}).start();
+		}
+	}
+
+	/**
+	 * Logs a job by column index, in binary format or asynchronously.
+	 * @param message the message with the job
+	 */
+	private void logRow(NetMessage message) {
+		Job job = message.getJob();
+		if (lp.boolExecTimestamp.booleanValue()) {
+			rowLogger.setString(INDEX_START_TIME, strTimestampValue);
+		}
+		rowLogger.setString(INDEX_LOGGERNAME, loggerName);
+		if (lp.boolTimeStamp.booleanValue()) {
+			rowLogger.setDouble(INDEX_TIMESTAMP, message.getTime());
+		}
+		if (lp.boolJobID.booleanValue()) {
+			rowLogger.setLong(INDEX_JOBID, job.getId());
+		}
+		if (lp.boolJobClass.booleanValue()) {
+			rowLogger.setString(INDEX_CLASSID, job.getJobClass().getName());
+		}
+		if (lp.boolTimeSameClass.booleanValue()) {
+			rowLogger.setDouble(INDEX_INTERARRIVAL_SAMECLASS, message.getTime() - jobsList.getLastJobOutTimePerClass(job.getJobClass()));
+		}
+		if (lp.boolTimeAnyClass.booleanValue()) {
+			rowLogger.setDouble(INDEX_INTERARRIVAL_ANYCLASS, message.getTime() - jobsList.getLastJobOutTime());
+		}
+		try {
+			rowLogger.writeRow();
+		} catch (IOException e) {
+			warnWriteFailure("log");
+			removeRowLogger();
+		}
+	}
+
+	/**
+	 * Removes the logger used when logs are written in binary format or asynchronously.
+	 */
+	private void removeRowLogger() {
+		try {
+			if (rowLogger instanceof AsyncLogger) {
+				JSimLoggerFactory.remove((AsyncLogger) rowLogger);
+			} else {
+				JSimLoggerFactory.remove((BinaryLogger) rowLogger);
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		rowLogger = null;
+	}
+
 }
@@ -37,6 +37,7 @@ import jmt.engine.QueueNet.NetSystem;
 import jmt.engine.QueueNet.NodeSection;
 import jmt.engine.QueueNet.PSJobInfo;
 import jmt.engine.QueueNet.PSJobInfoList;
+import jmt.engine.QueueNet.PSVirtualTimeQueue;
 import jmt.engine.simEngine.RemoveToken;
 
 import static jmt.gui.common.CommonConstants.*;
@@ -53,6 +54,8 @@ import static jmt.gui.common.CommonConstants.*;
  */
 public class PSServer extends Server {
 
+	private static final long serialVersionUID = 1L;
+
 	private int numberOfServers;
 	private int maxRunningJobs;
 	private double quantumSize;
@@ -85,6 +88,10 @@ public class PSServer extends Server {
 	private boolean QBPS;
 	private double switchTime;
 
+	/** Jobs sorted by completion, used unless the service is quantum based */
+	private PSVirtualTimeQueue virtualTimeQueue;
+	private double[] serviceRates;
+
 	public PSServer(Integer numberOfServers, Integer[] numberOfVisits, ServiceStrategy[] serviceStrategies) throws NetException {
 		this(numberOfServers, null, numberOfVisits, serviceStrategies, null,null, null, null, null, null, null, null);
 	}
@@ -222,6 +229,11 @@ public class PSServer extends Server {
 		serviceFractions = new double[jobClasses.size()];
 		Arrays.fill(serviceFractions, 0.0);
 		serviceFractionsPerServerType = new double[getServerTypes().size()][jobClasses.size()];
+		// All the jobs of a class are served at the same rate, except with quanta
+		if (!QBPS) {
+			virtualTimeQueue = new PSVirtualTimeQueue(jobClasses.size());
+			serviceRates = new double[jobClasses.size()];
+		}
 	}
 
 	@Override
@@ -262,6 +274,9 @@ public class PSServer extends Server {
 					}
 					jobInfo.setServiceTime(serviceTime);
 					jobInfo.setResidualServiceTime(serviceTime);
+					if (!QBPS) {
+						virtualTimeQueue.add(jobInfo, serviceTime);
+					}
 					busyCounter++;
 					if (maxRunningJobs <= 0 || busyCounter < maxRunningJobs) {
 						sendBackward(NetEvent.EVENT_ACK, job, 0.0);
@@ -365,13 +380,7 @@ public class PSServer extends Server {
 				}
 			}
 		} else {
-			Iterator<JobInfo> it = psJobsList.getInternalJobInfoList().iterator();
-			while (it.hasNext()) {
-				PSJobInfo jobInfo = (PSJobInfo) it.next();
-				int jobClassID = jobInfo.getJob().getJobClass().getId();
-				double serviceTime = elapsedTime * compatibleServersForClass[jobClassID] * serviceFractions[jobClassID];
-				jobInfo.performServiceTime(serviceTime);
-			}
+			virtualTimeQueue.advance(elapsedTime, serviceRates);
 		}
 	}
 
@@ -382,6 +391,10 @@ public class PSServer extends Server {
 			psJobsList.psUpdateUtilizationPerServerType(serviceFractionsPerServerType, assignedJobs);
 			psJobsList.add(jobInfo);
 		} else {
+			if (!QBPS) {
+				jobInfo.setResidualServiceTime(virtualTimeQueue.getResidualServiceTime(jobInfo));
+				virtualTimeQueue.remove(jobInfo);
+			}
 			NetSystem netSystem = getOwnerNode().getNetSystem();
 			double elapsedTime = netSystem.getTime() - jobInfo.getEnteringTime();
 			double sojournTime = jobInfo.getServiceTime() - jobInfo.getResidualServiceTime();
@@ -449,10 +462,21 @@ public class PSServer extends Server {
 				serviceFractions[i] += serviceFractionsPerServerType[serverTypeId][i] * splits[i] * numOfServers / compatibleServersForClass[i];
 			}
 		}
+		if (serviceRates != null) {
+			for (int i = 0; i < jobClasses.size(); i++) {
+				serviceRates[i] = compatibleServersForClass[i] * serviceFractions[i];
+			}
+		}
 	}
 
 	private void serviceJobs() {
-		if (psJobsList.size() > 0) {
+		if (!QBPS) {
+			messageJobInfo = virtualTimeQueue.getNext(serviceRates);
+			if (messageJobInfo != null) {
+				messageToken = sendMe(messageJobInfo.getJob(), virtualTimeQueue.getWaitTime(messageJobInfo, serviceRates));
+				messageSendTime = getOwnerNode().getNetSystem().getTime();
+			}
+		} else if (psJobsList.size() > 0) {
 			double minWaitTime = Double.MAX_VALUE;
 			Iterator<JobInfo> it = psJobsList.getInternalJobInfoList().iterator();
 			while (it.hasNext()) {
@@ -27,7 +27,6 @@ import jmt.engine.NetStrategies.PSStrategies.EPSStrategy;
 import jmt.engine.QueueNet.Job;
 import jmt.engine.QueueNet.JobClass;
 import jmt.engine.QueueNet.JobClassList;
-import jmt.engine.QueueNet.JobInfo;
 import jmt.engine.QueueNet.NetEvent;
 import jmt.engine.QueueNet.NetMessage;
 import jmt.engine.QueueNet.NetNode;
@@ -35,6 +34,7 @@ import jmt.engine.QueueNet.NetSystem;
 import jmt.engine.QueueNet.NodeSection;
 import jmt.engine.QueueNet.PSJobInfo;
 import jmt.engine.QueueNet.PSJobInfoList;
+import jmt.engine.QueueNet.PSVirtualTimeQueue;
 import jmt.engine.simEngine.RemoveToken;
 
 import static jmt.gui.common.CommonConstants.*;
@@ -51,6 +51,8 @@ import static jmt.gui.common.CommonConstants.*;
  */
 public class PSServerPriority extends Server {
 
+    private static final long serialVersionUID = 1L;
+
     private int numberOfServers;
     private int maxRunningJobs;
     private ServiceStrategy[] serviceStrategies;
@@ -80,6 +82,10 @@ public class PSServerPriority extends Server {
     private PSJobInfo messageJobInfo;
     private double messageSendTime;
 
+    /** Jobs sorted by completion */
+    private PSVirtualTimeQueue virtualTimeQueue;
+    private double[] serviceRates;
+
     public PSServerPriority(Integer numberOfServers, Integer[] numberOfVisits, ServiceStrategy[] serviceStrategies) throws NetException {
         this(numberOfServers, null, numberOfVisits, serviceStrategies, null, null, null, null, null, null, null);
     }
@@ -207,6 +213,8 @@ public class PSServerPriority extends Server {
         serviceFractions = new double[jobClasses.size()];
         Arrays.fill(serviceFractions, 0.0);
         serviceFractionsPerServerType = new double[getServerTypes().size()][jobClasses.size()];
+        virtualTimeQueue = new PSVirtualTimeQueue(jobClasses.size());
+        serviceRates = new double[jobClasses.size()];
     }
 
     @Override
@@ -241,6 +249,7 @@ public class PSServerPriority extends Server {
                     double serviceTime = getServiceStrategiesPerServerType()[jobAssignments.get(job.getId())][job.getJobClass().getId()].wait(this, job.getJobClass());
                     jobInfo.setServiceTime(serviceTime);
                     jobInfo.setResidualServiceTime(serviceTime);
+                    virtualTimeQueue.add(jobInfo, serviceTime);
                     busyCounter++;
                     if (maxRunningJobs <= 0 || busyCounter < maxRunningJobs) {
                         sendBackward(NetEvent.EVENT_ACK, job, 0.0);
@@ -311,16 +320,9 @@ public class PSServerPriority extends Server {
     }
 
     private void performServiceTimes(double startTime) {
-        Iterator<JobInfo> it = psJobsList.getInternalJobInfoList().iterator();
         NetSystem netSystem = getOwnerNode().getNetSystem();
-        while (it.hasNext()) {
-            PSJobInfo jobInfo = (PSJobInfo) it.next();
-            int jobClassID = jobInfo.getJob().getJobClass().getId();
-            // Perform service for the job
-            double elapsedTime = netSystem.getTime() - startTime;
-            double serviceTime = elapsedTime * compatibleServersForClass[jobClassID] * serviceFractions[jobClassID];
-            jobInfo.performServiceTime(serviceTime);
-        }
+        double elapsedTime = netSystem.getTime() - startTime;
+        virtualTimeQueue.advance(elapsedTime, serviceRates);
     }
 
     private void handleJobInfoList(PSJobInfo jobInfo, PSEvent event) {
@@ -330,6 +332,8 @@ public class PSServerPriority extends Server {
             psJobsList.psUpdateUtilizationPerServerType(serviceFractionsPerServerType, assignedJobs);
             psJobsList.add(jobInfo);
         } else {
+            jobInfo.setResidualServiceTime(virtualTimeQueue.getResidualServiceTime(jobInfo));
+            virtualTimeQueue.remove(jobInfo);
             NetSystem netSystem = getOwnerNode().getNetSystem();
             double elapsedTime = netSystem.getTime() - jobInfo.getEnteringTime();
             double sojournTime = jobInfo.getServiceTime() - jobInfo.getResidualServiceTime();
@@ -397,22 +401,15 @@ public class PSServerPriority extends Server {
                 serviceFractions[i] += serviceFractionsPerServerType[serverTypeId][i] * splits[i] * numOfServers / compatibleServersForClass[i];
             }
         }
+        for (int i = 0; i < jobClasses.size(); i++) {
+            serviceRates[i] = compatibleServersForClass[i] * serviceFractions[i];
+        }
     }
 
     private void serviceJobs() {
-        if (psJobsList.size() > 0) {
-            double minWaitTime = Double.MAX_VALUE;
-            Iterator<JobInfo> it = psJobsList.getInternalJobInfoList().iterator();
-            while (it.hasNext()) {
-                PSJobInfo jobInfo = (PSJobInfo) it.next();
-                int jobClassID = jobInfo.getJob().getJobClass().getId();
-                double waitTime = jobInfo.getResidualServiceTime() / (compatibleServersForClass[jobClassID] * serviceFractions[jobClassID]);
-                if (waitTime < minWaitTime) {
-                    messageJobInfo = jobInfo;
-                    minWaitTime = waitTime;
-                }
-            }
-            messageToken = sendMe(messageJobInfo.getJob(), minWaitTime);
+        messageJobInfo = virtualTimeQueue.getNext(serviceRates);
+        if (messageJobInfo != null) {
+            messageToken = sendMe(messageJobInfo.getJob(), virtualTimeQueue.getWaitTime(messageJobInfo, serviceRates));
             messageSendTime = getOwnerNode().getNetSystem().getTime();
         }
     }
@@ -26,6 +26,8 @@ import jmt.engine.QueueNet.NodeSection;
  */
 public abstract class PipeSection extends NodeSection {
 
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Creates a new instance of this PipeSection.
 	 * @param id NodeSection identifier.
@@ -19,6 +19,8 @@ import jmt.engine.QueueNet.NodeSection;
  */
 public class PollingServer extends ServiceSection {
 
+	private static final long serialVersionUID = 1L;
+
 	private int numberOfServers;
 	private int maxRunningJobs;
 	private ServiceStrategy[] serviceStrategies;
@@ -24,6 +24,8 @@ import jmt.engine.NetStrategies.ServiceStrategy;
 
 public class PreemptiveServer extends Server {
 
+	private static final long serialVersionUID = 1L;
+
 	public PreemptiveServer(Integer numberOfServers, Integer[] numberOfVisits, ServiceStrategy[] serviceStrategies,  QueuePutStrategy[] preemptiveStrategies) throws NetException {
 		this(numberOfServers, numberOfVisits, serviceStrategies, preemptiveStrategies, null, null, null, null, null);
 	}
@@ -80,6 +80,8 @@ import jmt.gui.common.distributions.Distribution;
  */
 public class Queue extends InputSection {
 
+	private static final long serialVersionUID = 1L;
+
 	public static final String FINITE_DROP = "drop";
 	public static final String FINITE_BLOCK = "BAS blocking";
 	public static final String FINITE_WAITING = "waiting queue";
@@ -272,6 +274,17 @@ public class Queue extends InputSection {
 			Arrays.fill(putStrategies, new TailStrategy());
 		}
 
+		// when all classes keep the queue in the same order, jobs are inserted using a sorted index
+		Comparator<JobInfo> order = putStrategies[0].getOrder(this);
+		for (int i = 1; i < putStrategies.length && order != null; i++) {
+			if (!order.equals(putStrategies[i].getOrder(this))) {
+				order = null;
+			}
+		}
+		if (order != null) {
+			jobsList.setOrder(order);
+		}
+
 		if (getStrategy instanceof PollingGetStrategy) {
 			((PollingGetStrategy) getStrategy).setPollingQueues(jobClasses);
 		}
@@ -298,23 +311,36 @@ public class Queue extends InputSection {
 	 * @throws NetException
 	 */
 	public void preloadJobs(int[] jobsPerClass) throws NetException {
-		netJobsList = getOwnerNode().getQueueNet().getJobInfoList();
-		NetSystem netSystem = getOwnerNode().getNetSystem();
 		int totalJobs = 0;
 		for (int i = 0; i < jobsPerClass.length; i++) {
 			totalJobs += jobsPerClass[i];
 		}
-		Job[] jobPermutation = new Job[totalJobs];
+		int[] jobClassIds = new int[totalJobs];
 		int index = 0;
 		for (int i = 0; i < jobsPerClass.length; i++) {
 			for (int j = 0; j < jobsPerClass[i]; j++) {
-				Job job = new Job(jobClasses.get(i), netJobsList);
-				job.initialize(netSystem);
-				updateVisitPath(job);
-				jobPermutation[index] = job;
+				jobClassIds[index] = i;
 				index++;
 			}
 		}
+		preloadJobSequence(jobClassIds);
+	}
+
+	/**
+	 * Preloads jobs in the specified order.
+	 * @param jobClassIds the ids of the classes of the jobs, in the order they are preloaded.
+	 * @throws NetException
+	 */
+	public void preloadJobSequence(int[] jobClassIds) throws NetException {
+		netJobsList = getOwnerNode().getQueueNet().getJobInfoList();
+		NetSystem netSystem = getOwnerNode().getNetSystem();
+		Job[] jobPermutation = new Job[jobClassIds.length];
+		for (int i = 0; i < jobClassIds.length; i++) {
+			Job job = new Job(jobClasses.get(jobClassIds[i]), netJobsList);
+			job.initialize(netSystem);
+			updateVisitPath(job);
+			jobPermutation[i] = job;
+		}
 
         /* Commented to ensure a deterministic initialization
 		// Durstenfeld Shuffle
@@ -461,7 +487,8 @@ public class Queue extends InputSection {
 				//----END REDIRECTION BEHAVIOUR-------//
 
 				if(comingFromStorageSection){
-					jobsFromPlaces.add(message);
+					// the received message is reused by the node, so a copy is kept
+					jobsFromPlaces.add((NetMessage) message.clone());
 					break;
 				}
 
@@ -43,6 +43,8 @@ import jmt.engine.QueueNet.NetSystem;
  */
 public class RandomSource extends InputSection {
 
+	private static final long serialVersionUID = 1L;
+
 	private boolean coolStart;
 
 	private LinkedList<Job> waitingJobs;
@@ -58,6 +58,8 @@ import jmt.engine.random.engine.RandomEngine;
  */
 public class Router extends OutputSection {
 
+	private static final long serialVersionUID = 1L;
+
 	private RoutingStrategy[] routingStrategies;
 
 	private NodeList outNodeList;
@@ -126,7 +128,7 @@ public class Router extends OutputSection {
 	@Override
 	protected void nodeLinked(NetNode node) throws NetException {
 		outNodeList = node.getOutputNodes();
-		randomEngine = node.getNetSystem().getEngine();
+		randomEngine = node.getEngine();
 		JobClassList jobClasses = getJobClasses();
 		isClosedJobRoutingWarningShown = new boolean[jobClasses.size()];
 		Arrays.fill(isClosedJobRoutingWarningShown, false);
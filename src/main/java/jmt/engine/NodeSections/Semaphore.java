@@ -43,6 +43,8 @@ import jmt.engine.QueueNet.NetMessage;
  */
 public class Semaphore extends InputSection {
 
+	private static final long serialVersionUID = 1L;
+
 	/** Data structure used to store received tasks for each job */
 	private HashMap<Job, List<ForkJob>> forkJobs;
 	private HashMap<Job, Integer> total;
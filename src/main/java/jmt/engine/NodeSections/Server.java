@@ -18,6 +18,7 @@
 
 package jmt.engine.NodeSections;
 
+import java.io.Serializable;
 import java.util.*;
 
 import jmt.common.exception.NetException;
@@ -45,6 +46,8 @@ import static jmt.gui.common.CommonConstants.*;
  */
 public class Server extends ServiceSection {
 
+	private static final long serialVersionUID = 1L;
+
 	private int numberOfServers;
 	private int maxRunningJobs;
 	private int originalMaxRunningJobs;
@@ -338,7 +341,9 @@ public class Server extends ServiceSection {
 
 	// Michalis
 
-	public class ServerType{
+	public class ServerType implements Serializable {
+
+		private static final long serialVersionUID = 1L;
 
 		private String name;
 		private int numOfServers;
@@ -387,7 +392,10 @@ public class Server extends ServiceSection {
 		}
 	}
 
-	public class BusyServer{
+	public class BusyServer implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		private int numOfBusyServers;
 		private Boolean[] compatibilities;
 		private int totalServers;
@@ -755,7 +763,7 @@ public class Server extends ServiceSection {
 		Job job;
 		JobInfo jobInfo;
 		Object data = message.getData();
-		RandomEngine randomEngine = getOwnerNode().getNetSystem().getEngine();
+		RandomEngine randomEngine = getOwnerNode().getEngine();
 		boolean workingAsTransition = ((Queue)getOwnerNode().getSection(NodeSection.INPUT)).isStationWorkingAsATransition();
 
 		switch (message.getEvent()) {
@@ -1138,7 +1146,9 @@ public class Server extends ServiceSection {
 		return jobsList.getInternalJobInfoList().get(jobsList.size() - 1);
 	}
 
-	private static class ServerUnit implements Comparable<ServerUnit> {
+	private static class ServerUnit implements Comparable<ServerUnit>, Serializable {
+
+		private static final long serialVersionUID = 1L;
 
 		public int id;
 		public int jobClassID;
@@ -1161,7 +1171,10 @@ public class Server extends ServiceSection {
 
 	}
 
-	private static class ServerSetupUnit implements Comparable<ServerSetupUnit>{
+	private static class ServerSetupUnit implements Comparable<ServerSetupUnit>, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		public ArrayList<Job> jobs;
 		public int jobClassID;
 		public ServiceStrategy setupTime;
@@ -28,6 +28,8 @@ import jmt.engine.simEngine.RemoveToken;
  */
 public abstract class ServiceSection extends PipeSection {
 
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Creates a new instance of serviceSection.
 	 */
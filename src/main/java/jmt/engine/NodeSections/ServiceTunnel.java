@@ -31,6 +31,8 @@ import jmt.engine.QueueNet.NodeSection;
  */
 public class ServiceTunnel extends ServiceSection {
 
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Creates a new instance of ServiceTunnel.
 	 */
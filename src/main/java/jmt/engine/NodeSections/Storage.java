@@ -40,6 +40,8 @@ import jmt.engine.QueueNet.*;
  */
 public class Storage extends InputSection {
 
+	private static final long serialVersionUID = 1L;
+
 	public static final String FINITE_DROP = "drop";
 	public static final String FINITE_BLOCK = "BAS blocking";
 	public static final String FINITE_WAITING = "waiting queue";
@@ -148,23 +150,36 @@ public class Storage extends InputSection {
 	 * @throws NetException
 	 */
 	public void preloadJobs(int[] jobsPerClass) throws NetException {
-		netJobsList = getOwnerNode().getQueueNet().getJobInfoList();
-		NetSystem netSystem = getOwnerNode().getNetSystem();
 		int totalJobs = 0;
 		for (int i = 0; i < jobsPerClass.length; i++) {
 			totalJobs += jobsPerClass[i];
 		}
-		Job[] jobPermutation = new Job[totalJobs];
+		int[] jobClassIds = new int[totalJobs];
 		int index = 0;
 		for (int i = 0; i < jobsPerClass.length; i++) {
 			for (int j = 0; j < jobsPerClass[i]; j++) {
-				Job job = new Job(jobClasses.get(i), netJobsList);
-				job.initialize(netSystem);
-				updateVisitPath(job);
-				jobPermutation[index] = job;
+				jobClassIds[index] = i;
 				index++;
 			}
 		}
+		preloadJobSequence(jobClassIds);
+	}
+
+	/**
+	 * Preloads jobs in the specified order.
+	 * @param jobClassIds the ids of the classes of the jobs, in the order they are preloaded.
+	 * @throws NetException
+	 */
+	public void preloadJobSequence(int[] jobClassIds) throws NetException {
+		netJobsList = getOwnerNode().getQueueNet().getJobInfoList();
+		NetSystem netSystem = getOwnerNode().getNetSystem();
+		Job[] jobPermutation = new Job[jobClassIds.length];
+		for (int i = 0; i < jobClassIds.length; i++) {
+			Job job = new Job(jobClasses.get(jobClassIds[i]), netJobsList);
+			job.initialize(netSystem);
+			updateVisitPath(job);
+			jobPermutation[i] = job;
+		}
 
 		/* Commented to ensure a deterministic initialization
 		// Durstenfeld Shuffle
@@ -41,6 +41,8 @@ import jmt.engine.random.engine.RandomEngine;
  */
 public class Terminal extends InputSection {
 
+	private static final long serialVersionUID = 1L;
+
 	private boolean coolStart; //when is true the waitingjobs queue is void
 
 	private List<WaitingRequest> waitingRequests;
@@ -99,7 +101,7 @@ public class Terminal extends InputSection {
 			//leaving jobs, otherwise they leave in order of class
 			//(i.e. c1, c1, c1, ...c2, c2, c2, ... c3....)
 			NetSystem netSystem = getOwnerNode().getNetSystem();
-			RandomEngine randomEngine = netSystem.getEngine();
+			RandomEngine randomEngine = getOwnerNode().getEngine();
 
 			//delay used to mix leaving order
 			double mixRandomDelay = 0.0;
@@ -47,6 +47,8 @@ import jmt.engine.simEngine.RemoveToken;
  */
 public class Timing extends ServiceSection {
 
+	private static final long serialVersionUID = 1L;
+
 	private String[] modeNames;
 	private int[] numbersOfServers;
 	private ServiceStrategy[] timingStrategies;
@@ -99,7 +101,7 @@ public class Timing extends ServiceSection {
 	protected int process(NetMessage message) throws NetException {
 		Object data = message.getData();
 		NetSystem netSystem = getOwnerNode().getNetSystem();
-		RandomEngine randomEngine = netSystem.getEngine();
+		RandomEngine randomEngine = getOwnerNode().getEngine();
 
 		switch (message.getEvent()) {
 
@@ -18,6 +18,7 @@
 
 package jmt.engine.QueueNet;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -43,7 +44,9 @@ import jmt.engine.simEngine.Simulation;
  * @author Stefano Omini
  *
  */
-public class BlockingRegion {
+public class BlockingRegion implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/** The name of the blocking region */
 	protected String name;
@@ -491,7 +494,9 @@ public class BlockingRegion {
 		this.sizeMeasure = sm;
 	}
 
-	protected class GroupInfo {
+	protected class GroupInfo implements Serializable {
+
+		private static final long serialVersionUID = 1L;
 
 		public String name;
 		public double maxCapacity;
@@ -1,8 +1,11 @@
 package jmt.engine.QueueNet;
 
+import java.io.Serializable;
 import java.util.LinkedList;
 
-public class CacheItem {
+public class CacheItem implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private int id;
 
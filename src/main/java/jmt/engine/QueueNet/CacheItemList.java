@@ -0,0 +1,570 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.QueueNet;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractSequentialList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+
+import jmt.engine.NetStrategies.CacheStrategy;
+
+/**
+ * <p><b>Name:</b> CacheItemList</p>
+ * <p><b>Description:</b>
+ * A doubly-linked list of the items stored in a cache. Items are located through a hash map, so that
+ * contains(), remove() and replace() of an item cost O(1) instead of a linear scan. When the cache
+ * strategy ranks items by an eviction key, the list also keeps them sorted by key, and when items
+ * expire it keeps them sorted by expiration time. Both indexes break ties by position in the list, so
+ * that they select the same item of a scan of the list from the head.
+ * </p>
+ * <p>The indexes are not notified when the access times of an item change: update() must be called
+ * after each access to an item stored in the list. If an item is stored more than once in the same
+ * list, the list falls back to a linear scan, so the behaviour is always the same of java.util.LinkedList.</p>
+ */
+public class CacheItemList extends AbstractSequentialList<CacheItem> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Node of the list */
+	private static final class Node implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		CacheItem item;
+		// written by the list, see writeObject()
+		transient Node prev;
+		transient Node next;
+		/** Grows with the position in the list, used to break ties in the indexes */
+		long position;
+		/** Eviction key of the item when it was indexed */
+		double key;
+		/** Expiration time of the item when it was indexed */
+		double expireTime;
+
+		Node(Node prev, CacheItem item, Node next, long position) {
+			this.prev = prev;
+			this.item = item;
+			this.next = next;
+			this.position = position;
+		}
+	}
+
+	/** Orders nodes by eviction key, then by position */
+	private static final Comparator<Node> KEY_ORDER = new KeyOrder();
+
+	/** Orders nodes by expiration time, then by position */
+	private static final Comparator<Node> EXPIRE_ORDER = new ExpireOrder();
+
+	/** Orders nodes by position */
+	private static final Comparator<Node> POSITION_ORDER = new PositionOrder();
+
+	/** Distance between the positions of consecutive nodes after they are renumbered */
+	private static final long POSITION_GAP = 1L << 16;
+
+	private static final class KeyOrder implements Comparator<Node>, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		public int compare(Node n1, Node n2) {
+			if (n1.key < n2.key) {
+				return -1;
+			} else if (n1.key > n2.key) {
+				return 1;
+			}
+			return Long.compare(n1.position, n2.position);
+		}
+	}
+
+	private static final class ExpireOrder implements Comparator<Node>, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		public int compare(Node n1, Node n2) {
+			if (n1.expireTime < n2.expireTime) {
+				return -1;
+			} else if (n1.expireTime > n2.expireTime) {
+				return 1;
+			}
+			return Long.compare(n1.position, n2.position);
+		}
+	}
+
+	private static final class PositionOrder implements Comparator<Node>, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		public int compare(Node n1, Node n2) {
+			return Long.compare(n1.position, n2.position);
+		}
+	}
+
+	private transient Node first;
+	private transient Node last;
+	private int size;
+	private long nextPosition;
+	/** Node of each item, not used if an item was added twice */
+	private Map<CacheItem, Node> nodes;
+	/** True if an item was added to this list while already contained in it */
+	private boolean duplicates;
+	private CacheStrategy strategy;
+	private TreeSet<Node> keyIndex;
+	private TreeSet<Node> expireIndex;
+
+	/**
+	 * Creates an empty list.
+	 * @param strategy the replacement strategy of the cache, used to compute eviction keys.
+	 * @param expiring true if items expire, so that they must be sorted by expiration time.
+	 */
+	public CacheItemList(CacheStrategy strategy, boolean expiring) {
+		this.strategy = strategy;
+		nodes = new HashMap<CacheItem, Node>();
+		if (strategy.hasEvictionKey()) {
+			keyIndex = new TreeSet<Node>(KEY_ORDER);
+		}
+		if (expiring) {
+			expireIndex = new TreeSet<Node>(EXPIRE_ORDER);
+		}
+	}
+
+	private void index(Node node) {
+		if (keyIndex != null) {
+			node.key = strategy.getEvictionKey(node.item);
+			keyIndex.add(node);
+		}
+		if (expireIndex != null) {
+			node.expireTime = node.item.getLastAccessTime() + node.item.getTTL();
+			expireIndex.add(node);
+		}
+	}
+
+	private void unindex(Node node) {
+		if (keyIndex != null) {
+			keyIndex.remove(node);
+		}
+		if (expireIndex != null) {
+			expireIndex.remove(node);
+		}
+	}
+
+	private void map(CacheItem item, Node node) {
+		if (duplicates) {
+			return;
+		}
+		if (nodes.containsKey(item)) {
+			duplicates = true;
+			nodes.clear();
+		} else {
+			nodes.put(item, node);
+		}
+	}
+
+	private Node find(Object o) {
+		if (!duplicates) {
+			return nodes.get(o);
+		}
+		for (Node x = first; x != null; x = x.next) {
+			if (x.item == o) {
+				return x;
+			}
+		}
+		return null;
+	}
+
+	private Node node(int index) {
+		if (index < (size >> 1)) {
+			Node x = first;
+			for (int i = 0; i < index; i++) {
+				x = x.next;
+			}
+			return x;
+		} else {
+			Node x = last;
+			for (int i = size - 1; i > index; i--) {
+				x = x.prev;
+			}
+			return x;
+		}
+	}
+
+	private void unlink(Node node) {
+		Node prev = node.prev;
+		Node next = node.next;
+		if (prev == null) {
+			first = next;
+		} else {
+			prev.next = next;
+		}
+		if (next == null) {
+			last = prev;
+		} else {
+			next.prev = prev;
+		}
+		unindex(node);
+		if (!duplicates) {
+			nodes.remove(node.item);
+		}
+		size--;
+		modCount++;
+		if (size == 0) {
+			duplicates = false;
+		}
+	}
+
+	private void linkLast(CacheItem item) {
+		Node node = new Node(last, item, null, nextPosition++);
+		if (last == null) {
+			first = node;
+		} else {
+			last.next = node;
+		}
+		last = node;
+		size++;
+		modCount++;
+		map(item, node);
+		index(node);
+	}
+
+	/**
+	 * Inserts an item before a node, with a position between the ones of its neighbours.
+	 */
+	private void linkBefore(CacheItem item, Node succ) {
+		Node pred = succ.prev;
+		if (pred != null && succ.position - pred.position < 2) {
+			renumber();
+		}
+		long position = pred == null ? succ.position - POSITION_GAP : pred.position + (succ.position - pred.position) / 2;
+		Node node = new Node(pred, item, succ, position);
+		succ.prev = node;
+		if (pred == null) {
+			first = node;
+		} else {
+			pred.next = node;
+		}
+		size++;
+		modCount++;
+		map(item, node);
+		index(node);
+	}
+
+	/**
+	 * Spreads the positions of the nodes, keeping their order, so that the indexes
+	 * stay sorted without being rebuilt.
+	 */
+	private void renumber() {
+		long position = 0;
+		for (Node x = first; x != null; x = x.next) {
+			x.position = position;
+			position += POSITION_GAP;
+		}
+		nextPosition = position;
+	}
+
+	/**
+	 * Replaces the item of a node, updating the map and the indexes.
+	 */
+	private void setItem(Node node, CacheItem item) {
+		unindex(node);
+		if (!duplicates) {
+			nodes.remove(node.item);
+		}
+		node.item = item;
+		map(item, node);
+		index(node);
+	}
+
+	/**
+	 * Appends an item to the end of this list.
+	 * @param item the item to add.
+	 * @return true
+	 */
+	@Override
+	public boolean add(CacheItem item) {
+		linkLast(item);
+		return true;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return find(o) != null;
+	}
+
+	/**
+	 * Removes the first occurrence of an item from this list.
+	 * @param o the item to remove.
+	 * @return true if the item was found.
+	 */
+	@Override
+	public boolean remove(Object o) {
+		Node node = find(o);
+		if (node == null) {
+			return false;
+		}
+		unlink(node);
+		return true;
+	}
+
+	/**
+	 * Replaces the first occurrence of an item with another one, that takes its position in this list.
+	 * @param item the item to replace.
+	 * @param newItem the new item.
+	 * @return true if the item was found.
+	 */
+	public boolean replace(CacheItem item, CacheItem newItem) {
+		Node node = find(item);
+		if (node == null) {
+			return false;
+		}
+		setItem(node, newItem);
+		return true;
+	}
+
+	/**
+	 * Updates the indexes of this list after the access times of an item changed.
+	 * @param item the accessed item, that may not be stored in this list.
+	 */
+	public void update(CacheItem item) {
+		if (!duplicates) {
+			Node node = nodes.get(item);
+			if (node != null) {
+				unindex(node);
+				index(node);
+			}
+		} else {
+			for (Node x = first; x != null; x = x.next) {
+				if (x.item == item) {
+					unindex(x);
+					index(x);
+				}
+			}
+		}
+	}
+
+	public CacheItem getFirst() {
+		if (first == null) {
+			throw new NoSuchElementException();
+		}
+		return first.item;
+	}
+
+	public CacheItem getLast() {
+		if (last == null) {
+			throw new NoSuchElementException();
+		}
+		return last.item;
+	}
+
+	/**
+	 * Returns the item that precedes the first occurrence of an item.
+	 * @param item the item.
+	 * @return the previous item, or null if the item is the first one or is not in this list.
+	 */
+	public CacheItem getPrevious(CacheItem item) {
+		Node node = find(item);
+		if (node == null || node.prev == null) {
+			return null;
+		}
+		return node.prev.item;
+	}
+
+	/**
+	 * Returns the item with the lowest eviction key. If more items have the same key, the one
+	 * nearest to the head of the list is returned. Costs log(n) time.
+	 * @return the item, or null if this list is empty.
+	 * @throws IllegalStateException if the strategy of this list does not use eviction keys.
+	 */
+	public CacheItem getFirstByKey() {
+		if (keyIndex == null) {
+			throw new IllegalStateException("Cache strategy does not use eviction keys");
+		}
+		return keyIndex.isEmpty() ? null : keyIndex.first().item;
+	}
+
+	/**
+	 * Returns the items that expired before the given time, in the order of this list.
+	 * Costs log(n) time plus k log(k), where k is the number of expired items.
+	 * @param time the current time.
+	 * @return the expired items.
+	 * @throws IllegalStateException if the items of this list do not expire.
+	 */
+	public List<CacheItem> getExpired(double time) {
+		if (expireIndex == null) {
+			throw new IllegalStateException("Cache items do not expire");
+		}
+		List<Node> expired = new ArrayList<Node>();
+		for (Node node : expireIndex) {
+			if (!(node.expireTime < time)) {
+				break;
+			}
+			expired.add(node);
+		}
+		Collections.sort(expired, POSITION_ORDER);
+		List<CacheItem> items = new ArrayList<CacheItem>(expired.size());
+		for (Node node : expired) {
+			items.add(node.item);
+		}
+		return items;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public ListIterator<CacheItem> listIterator(int index) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return new ListItr(index);
+	}
+
+	/**
+	 * Writes the nodes in order, without their links, so that a long list is not
+	 * serialized recursively node by node.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		for (Node x = first; x != null; x = x.next) {
+			out.writeObject(x);
+		}
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		Node prev = null;
+		for (int i = 0; i < size; i++) {
+			Node node = (Node) in.readObject();
+			node.prev = prev;
+			if (prev == null) {
+				first = node;
+			} else {
+				prev.next = node;
+			}
+			prev = node;
+		}
+		last = prev;
+	}
+
+	/**
+	 * Iterator of the list. Items added or replaced through it are indexed like the other ones.
+	 */
+	private class ListItr implements ListIterator<CacheItem> {
+		private Node lastReturned;
+		private Node next;
+		private int nextIndex;
+		private int expectedModCount = modCount;
+
+		ListItr(int index) {
+			next = (index == size) ? null : node(index);
+			nextIndex = index;
+		}
+
+		public boolean hasNext() {
+			return nextIndex < size;
+		}
+
+		public CacheItem next() {
+			checkForComodification();
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			lastReturned = next;
+			next = next.next;
+			nextIndex++;
+			return lastReturned.item;
+		}
+
+		public boolean hasPrevious() {
+			return nextIndex > 0;
+		}
+
+		public CacheItem previous() {
+			checkForComodification();
+			if (!hasPrevious()) {
+				throw new NoSuchElementException();
+			}
+			lastReturned = next = (next == null) ? last : next.prev;
+			nextIndex--;
+			return lastReturned.item;
+		}
+
+		public int nextIndex() {
+			return nextIndex;
+		}
+
+		public int previousIndex() {
+			return nextIndex - 1;
+		}
+
+		public void remove() {
+			checkForComodification();
+			if (lastReturned == null) {
+				throw new IllegalStateException();
+			}
+			Node lastNext = lastReturned.next;
+			if (next == lastReturned) {
+				next = lastNext;
+			} else {
+				nextIndex--;
+			}
+			unlink(lastReturned);
+			lastReturned = null;
+			expectedModCount++;
+		}
+
+		public void set(CacheItem item) {
+			checkForComodification();
+			if (lastReturned == null) {
+				throw new IllegalStateException();
+			}
+			setItem(lastReturned, item);
+		}
+
+		public void add(CacheItem item) {
+			checkForComodification();
+			lastReturned = null;
+			if (next == null) {
+				linkLast(item);
+			} else {
+				linkBefore(item, next);
+			}
+			nextIndex++;
+			expectedModCount++;
+		}
+
+		private void checkForComodification() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,239 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.QueueNet;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import jmt.engine.simEngine.SimSystem;
+
+/**
+ * <p><b>Name:</b> EngineStatistics</p>
+ * <p><b>Description:</b>
+ * Collects performance counters of a running simulation: processed events and events per second,
+ * sizes of the event queues, messages dispatched by each node and time spent by each node section
+ * class to process its messages. Statistics are collected only when enabled with
+ * NetSystem.enableStatistics(), otherwise the simulation engine only pays a null check per message.
+ * </p>
+ * <p>Counters are updated by the simulation thread without synchronization, so values read
+ * from other threads (JMX or the CSV dump) may be slightly stale.</p>
+ */
+public class EngineStatistics implements EngineStatisticsMBean {
+
+	/** The header of the CSV dump */
+	public static final String CSV_HEADER = "elapsedTime,simulationTime,counter,name,value";
+
+	private SimSystem simSystem;
+
+	/** Messages dispatched by each node, indexed by node id */
+	private long[] dispatched = new long[16];
+	/** The nodes, indexed by node id */
+	private NetNode[] nodes = new NetNode[16];
+	/** Time spent by each node section class, in nanoseconds */
+	private IdentityHashMap<Class<?>, long[]> sectionTimes = new IdentityHashMap<Class<?>, long[]>();
+	/** Classes of node sections in order of first message */
+	private List<Class<?>> sectionClasses = new ArrayList<Class<?>>();
+
+	/** Real time and processed events of the last events per second sample */
+	private long lastSampleNanos;
+	private long lastSampleEvents;
+	private double eventsPerSecond;
+	private long startNanos;
+
+	/**
+	 * Creates the statistics of the given simulation system.
+	 * @param simSystem the simulation system
+	 */
+	public EngineStatistics(SimSystem simSystem) {
+		this.simSystem = simSystem;
+		startNanos = System.nanoTime();
+		lastSampleNanos = startNanos;
+	}
+
+	/**
+	 * Called by a node when a message is dispatched.
+	 * @param node the node
+	 */
+	void messageDispatched(NetNode node) {
+		int id = node.getId();
+		if (id >= dispatched.length) {
+			int length = Math.max(id + 1, dispatched.length * 2);
+			long[] tmpDispatched = new long[length];
+			System.arraycopy(dispatched, 0, tmpDispatched, 0, dispatched.length);
+			dispatched = tmpDispatched;
+			NetNode[] tmpNodes = new NetNode[length];
+			System.arraycopy(nodes, 0, tmpNodes, 0, nodes.length);
+			nodes = tmpNodes;
+		}
+		nodes[id] = node;
+		dispatched[id]++;
+	}
+
+	/**
+	 * Called by a node after one of its sections has processed a message.
+	 * @param section the node section
+	 * @param nanos the processing time in nanoseconds, including any nested message processing
+	 */
+	void sectionTime(NodeSection section, long nanos) {
+		Class<?> sectionClass = section.getClass();
+		long[] time = sectionTimes.get(sectionClass);
+		if (time == null) {
+			time = new long[1];
+			synchronized (sectionClasses) {
+				sectionTimes.put(sectionClass, time);
+				sectionClasses.add(sectionClass);
+			}
+		}
+		time[0] += nanos;
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.QueueNet.EngineStatisticsMBean#getProcessedEvents()
+	 */
+	public long getProcessedEvents() {
+		return simSystem.getProcessedEvents();
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.QueueNet.EngineStatisticsMBean#getEventsPerSecond()
+	 */
+	public synchronized double getEventsPerSecond() {
+		long now = System.nanoTime();
+		long events = simSystem.getProcessedEvents();
+		if (now - lastSampleNanos >= 1000000000L) {
+			eventsPerSecond = (events - lastSampleEvents) * 1e9 / (now - lastSampleNanos);
+			lastSampleNanos = now;
+			lastSampleEvents = events;
+		} else if (lastSampleEvents == 0 && now > startNanos) {
+			// no sample yet: use the average since the start
+			eventsPerSecond = events * 1e9 / (now - startNanos);
+		}
+		return eventsPerSecond;
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.QueueNet.EngineStatisticsMBean#getSimulationTime()
+	 */
+	public double getSimulationTime() {
+		return simSystem.getClock();
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.QueueNet.EngineStatisticsMBean#getEventQueueSize()
+	 */
+	public int getEventQueueSize() {
+		return simSystem.getFutureSize();
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.QueueNet.EngineStatisticsMBean#getDeferredQueueSize()
+	 */
+	public int getDeferredQueueSize() {
+		return simSystem.getDeferredSize();
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.QueueNet.EngineStatisticsMBean#getNodeNames()
+	 */
+	public String[] getNodeNames() {
+		NetNode[] current = nodes;
+		List<String> names = new ArrayList<String>();
+		for (NetNode node : current) {
+			if (node != null) {
+				names.add(node.getName());
+			}
+		}
+		return names.toArray(new String[names.size()]);
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.QueueNet.EngineStatisticsMBean#getDispatchedMessages()
+	 */
+	public long[] getDispatchedMessages() {
+		NetNode[] currentNodes = nodes;
+		long[] currentDispatched = dispatched;
+		int length = Math.min(currentNodes.length, currentDispatched.length);
+		int count = 0;
+		long[] values = new long[length];
+		for (int i = 0; i < length; i++) {
+			if (currentNodes[i] != null) {
+				values[count++] = currentDispatched[i];
+			}
+		}
+		long[] result = new long[count];
+		System.arraycopy(values, 0, result, 0, count);
+		return result;
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.QueueNet.EngineStatisticsMBean#getSectionClasses()
+	 */
+	public String[] getSectionClasses() {
+		synchronized (sectionClasses) {
+			String[] names = new String[sectionClasses.size()];
+			for (int i = 0; i < names.length; i++) {
+				names[i] = sectionClasses.get(i).getName();
+			}
+			return names;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.QueueNet.EngineStatisticsMBean#getSectionTimes()
+	 */
+	public double[] getSectionTimes() {
+		synchronized (sectionClasses) {
+			double[] times = new double[sectionClasses.size()];
+			for (int i = 0; i < times.length; i++) {
+				times[i] = sectionTimes.get(sectionClasses.get(i))[0] / 1e6;
+			}
+			return times;
+		}
+	}
+
+	/**
+	 * Writes the current value of all the counters as CSV rows, with the format described by CSV_HEADER.
+	 * @param out the writer
+	 */
+	public void writeCSV(PrintWriter out) {
+		String prefix = (System.nanoTime() - startNanos) / 1e9 + "," + getSimulationTime() + ",";
+		out.println(prefix + "events,," + getProcessedEvents());
+		out.println(prefix + "eventsPerSecond,," + getEventsPerSecond());
+		out.println(prefix + "eventQueueSize,," + getEventQueueSize());
+		out.println(prefix + "deferredQueueSize,," + getDeferredQueueSize());
+		String[] nodeNames = getNodeNames();
+		long[] messages = getDispatchedMessages();
+		for (int i = 0; i < Math.min(nodeNames.length, messages.length); i++) {
+			out.println(prefix + "dispatchedMessages," + quote(nodeNames[i]) + "," + messages[i]);
+		}
+		String[] classes = getSectionClasses();
+		double[] times = getSectionTimes();
+		for (int i = 0; i < Math.min(classes.length, times.length); i++) {
+			out.println(prefix + "sectionTimeMillis," + quote(classes[i]) + "," + times[i]);
+		}
+		out.flush();
+	}
+
+	private static String quote(String name) {
+		return "\"" + name.replace("\"", "\"\"") + "\"";
+	}
+
+}
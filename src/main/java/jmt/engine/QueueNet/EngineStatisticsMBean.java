@@ -0,0 +1,71 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.QueueNet;
+
+/**
+ * Management interface of EngineStatistics, used to monitor a running simulation through JMX.
+ */
+public interface EngineStatisticsMBean {
+
+	/**
+	 * @return the number of events processed since the start of the simulation
+	 */
+	public long getProcessedEvents();
+
+	/**
+	 * @return the number of events processed per second of real time, measured over the last second at least
+	 */
+	public double getEventsPerSecond();
+
+	/**
+	 * @return the current simulation time
+	 */
+	public double getSimulationTime();
+
+	/**
+	 * @return the number of events in the future event queue
+	 */
+	public int getEventQueueSize();
+
+	/**
+	 * @return the number of events in the deferred event queue
+	 */
+	public int getDeferredQueueSize();
+
+	/**
+	 * @return the names of the nodes that received at least one message, in the same order of getDispatchedMessages()
+	 */
+	public String[] getNodeNames();
+
+	/**
+	 * @return the number of messages dispatched by each node listed by getNodeNames()
+	 */
+	public long[] getDispatchedMessages();
+
+	/**
+	 * @return the names of the node section classes that received at least one message, in the same order of getSectionTimes()
+	 */
+	public String[] getSectionClasses();
+
+	/**
+	 * @return the time in milliseconds spent processing messages by each node section class listed by getSectionClasses()
+	 */
+	public double[] getSectionTimes();
+
+}
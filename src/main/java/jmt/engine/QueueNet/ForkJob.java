@@ -28,6 +28,8 @@ package jmt.engine.QueueNet;
  */
 public class ForkJob extends Job {
 
+	private static final long serialVersionUID = 1L;
+
 	/** Reference to fork job info */
 	private ForkJobInfo forkJobInfo;
 
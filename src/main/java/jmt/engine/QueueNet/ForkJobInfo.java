@@ -18,6 +18,8 @@
 
 package jmt.engine.QueueNet;
 
+import java.io.Serializable;
+
 /**
  * <p>Title: Fork Job Info</p>
  * <p>Description: This class implements the fork job info.</p>
@@ -26,7 +28,9 @@ package jmt.engine.QueueNet;
  * Date: 06-10-2016
  * Time: 14.00.00
  */
-public class ForkJobInfo {
+public class ForkJobInfo implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/** Reference to parent job */
 	protected Job forkedJob;
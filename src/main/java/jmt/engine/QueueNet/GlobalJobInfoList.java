@@ -17,13 +17,12 @@
  */
 package jmt.engine.QueueNet;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
-import org.apache.commons.math3.util.Pair;
-
 import jmt.engine.dataAnalysis.InverseMeasure;
 import jmt.engine.dataAnalysis.Measure;
 
@@ -44,7 +43,9 @@ import jmt.engine.dataAnalysis.Measure;
  *        was sent for System Power Simulation Engine. This logic was modified into:
  *        x1/r1 .. [x1/r1 + (x1+x2)/(r1+r2)] .. [x1/r1 + (x1+x2)/(r1+r2) + (x1+x2+x3)/(r1+r2+r3)] ..
  */
-public class GlobalJobInfoList {
+public class GlobalJobInfoList implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private int classNum;
 
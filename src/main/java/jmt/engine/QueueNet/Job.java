@@ -18,15 +18,18 @@
 
 package jmt.engine.QueueNet;
 
+import java.io.Serializable;
+
 import jmt.engine.NetStrategies.ServiceStrategies.ServiceTimeStrategy;
 import jmt.engine.simEngine.RemoveToken;
-import org.apache.commons.math3.util.Pair;
 
 /**
  *	This class implements a generic job of a queue network.
  * 	@author Francesco Radaelli, Marco Bertoli
  */
-public class Job implements Cloneable {
+public class Job implements Cloneable, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	//counter used to generate id
 	//private int counter;
@@ -18,11 +18,15 @@
 
 package jmt.engine.QueueNet;
 
+import java.io.Serializable;
+
 /**
  * This class implements the description of a job class.
  * @author Francesco Radaelli, Stefano Omini
  */
-public class JobClass {
+public class JobClass implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	//job class name
 	private String name;
@@ -18,6 +18,7 @@
 
 package jmt.engine.QueueNet;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -28,7 +29,9 @@ import java.util.Map;
  * package can add or remove objects to/from the list.
  * @author Francesco Radaelli
  */
-public class JobClassList {
+public class JobClassList implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private List<JobClass> jobClasses;
 	private Map<String, JobClass> jobClassMap;
@@ -18,15 +18,23 @@
 
 package jmt.engine.QueueNet;
 
+import java.io.Serializable;
+
 /**
  * This class is a generic job information storage class.
  * @see LinkedJobInfoList
  * @author Francesco Radaelli
  */
-public class JobInfo {
+public class JobInfo implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private Job job;
 	private double enteringTime;
+	/** Node of this JobInfo in the list of all jobs of a JobInfoLinkedList, used for O(1) removal */
+	JobInfoLinkedList.Node handle;
+	/** Node of this JobInfo in the list of the jobs of its class of a JobInfoLinkedList */
+	JobInfoLinkedList.Node classHandle;
 
 	/**
 	 * Creates a new instance of JobInfo class.
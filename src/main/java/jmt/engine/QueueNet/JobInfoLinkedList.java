@@ -0,0 +1,479 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.QueueNet;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractSequentialList;
+import java.util.ConcurrentModificationException;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p><b>Name:</b> JobInfoLinkedList</p>
+ * <p><b>Description:</b>
+ * A doubly-linked list of JobInfo objects used by LinkedJobInfoList. Each JobInfo keeps a handle to
+ * its node in the list, so that contains() and remove() of a JobInfo cost O(1) instead of a linear
+ * scan. A JobInfo owns two handles: one for the list of all jobs and one for the list of the jobs of
+ * its class, selected by the perClass flag of the list.
+ * </p>
+ * <p>A JobInfo may also be stored in other lists, or more than once in the same list: in these cases
+ * the handle may point to another node and the list falls back to a linear scan, so the behaviour
+ * is always the same of java.util.LinkedList.</p>
+ */
+public class JobInfoLinkedList extends AbstractSequentialList<JobInfo> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Node of the list, also used as handle of a JobInfo */
+	static final class Node implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		JobInfo item;
+		// written by the list, see writeObject()
+		transient Node prev;
+		transient Node next;
+		JobInfoLinkedList owner;
+
+		Node(JobInfoLinkedList owner, Node prev, JobInfo item, Node next) {
+			this.owner = owner;
+			this.prev = prev;
+			this.item = item;
+			this.next = next;
+		}
+	}
+
+	private transient Node first;
+	private transient Node last;
+	private int size;
+	/** Selects the handle of JobInfo used by this list */
+	private boolean perClass;
+	/** True if a JobInfo was added to this list while already contained in it */
+	private boolean duplicates;
+
+	/**
+	 * Creates an empty list.
+	 * @param perClass true if this list stores the jobs of a single class, false if it stores all the jobs
+	 */
+	public JobInfoLinkedList(boolean perClass) {
+		this.perClass = perClass;
+	}
+
+	private Node getHandle(JobInfo jobInfo) {
+		return perClass ? jobInfo.classHandle : jobInfo.handle;
+	}
+
+	private void setHandle(JobInfo jobInfo, Node node) {
+		if (perClass) {
+			jobInfo.classHandle = node;
+		} else {
+			jobInfo.handle = node;
+		}
+	}
+
+	/**
+	 * Returns the node of the given JobInfo in this list.
+	 * @param o the JobInfo
+	 * @return the first node containing o, or null if o is not in this list
+	 */
+	private Node nodeOf(Object o) {
+		if (o instanceof JobInfo && !duplicates) {
+			Node handle = getHandle((JobInfo) o);
+			if (handle != null && handle.owner == this) {
+				return handle;
+			}
+		}
+		for (Node x = first; x != null; x = x.next) {
+			if (o == null ? x.item == null : o.equals(x.item)) {
+				return x;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Links a new node before the given one, or at the end of the list if succ is null.
+	 */
+	private void linkBefore(JobInfo jobInfo, Node succ) {
+		Node pred = (succ == null) ? last : succ.prev;
+		Node node = new Node(this, pred, jobInfo, succ);
+		if (pred == null) {
+			first = node;
+		} else {
+			pred.next = node;
+		}
+		if (succ == null) {
+			last = node;
+		} else {
+			succ.prev = node;
+		}
+		if (jobInfo != null) {
+			Node handle = getHandle(jobInfo);
+			if (handle != null && handle.owner == this) {
+				duplicates = true;
+			}
+			setHandle(jobInfo, node);
+		}
+		size++;
+		modCount++;
+	}
+
+	private JobInfo unlink(Node node) {
+		JobInfo jobInfo = node.item;
+		Node prev = node.prev;
+		Node next = node.next;
+		if (prev == null) {
+			first = next;
+		} else {
+			prev.next = next;
+		}
+		if (next == null) {
+			last = prev;
+		} else {
+			next.prev = prev;
+		}
+		if (jobInfo != null && getHandle(jobInfo) == node) {
+			setHandle(jobInfo, null);
+		}
+		node.owner = null;
+		node.prev = null;
+		node.next = null;
+		node.item = null;
+		size--;
+		modCount++;
+		if (size == 0) {
+			duplicates = false;
+		}
+		return jobInfo;
+	}
+
+	private Node node(int index) {
+		if (index < (size >> 1)) {
+			Node x = first;
+			for (int i = 0; i < index; i++) {
+				x = x.next;
+			}
+			return x;
+		} else {
+			Node x = last;
+			for (int i = size - 1; i > index; i--) {
+				x = x.prev;
+			}
+			return x;
+		}
+	}
+
+	private void checkElementIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	/**
+	 * @return the number of structural modifications of this list, used to validate cached views
+	 */
+	int getModCount() {
+		return modCount;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.AbstractCollection#size()
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.AbstractCollection#contains(java.lang.Object)
+	 */
+	@Override
+	public boolean contains(Object o) {
+		return nodeOf(o) != null;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.AbstractCollection#add(java.lang.Object)
+	 */
+	@Override
+	public boolean add(JobInfo jobInfo) {
+		linkBefore(jobInfo, null);
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.AbstractSequentialList#add(int, java.lang.Object)
+	 */
+	@Override
+	public void add(int index, JobInfo jobInfo) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		linkBefore(jobInfo, index == size ? null : node(index));
+	}
+
+	/**
+	 * Inserts a JobInfo immediately before another one.
+	 * @param jobInfo the JobInfo to insert
+	 * @param successor the JobInfo that will follow it, or null to insert at the end of the list
+	 * @throws NoSuchElementException if successor is not in this list
+	 */
+	public void addBefore(JobInfo jobInfo, JobInfo successor) {
+		Node succ = null;
+		if (successor != null) {
+			succ = nodeOf(successor);
+			if (succ == null) {
+				throw new NoSuchElementException();
+			}
+		}
+		linkBefore(jobInfo, succ);
+	}
+
+	public void addFirst(JobInfo jobInfo) {
+		linkBefore(jobInfo, first);
+	}
+
+	public void addLast(JobInfo jobInfo) {
+		linkBefore(jobInfo, null);
+	}
+
+	public JobInfo getFirst() {
+		if (first == null) {
+			throw new NoSuchElementException();
+		}
+		return first.item;
+	}
+
+	public JobInfo getLast() {
+		if (last == null) {
+			throw new NoSuchElementException();
+		}
+		return last.item;
+	}
+
+	public JobInfo removeFirst() {
+		if (first == null) {
+			throw new NoSuchElementException();
+		}
+		return unlink(first);
+	}
+
+	public JobInfo removeLast() {
+		if (last == null) {
+			throw new NoSuchElementException();
+		}
+		return unlink(last);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.AbstractCollection#remove(java.lang.Object)
+	 */
+	@Override
+	public boolean remove(Object o) {
+		Node node = nodeOf(o);
+		if (node == null) {
+			return false;
+		}
+		unlink(node);
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.AbstractSequentialList#get(int)
+	 */
+	@Override
+	public JobInfo get(int index) {
+		checkElementIndex(index);
+		return node(index).item;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.AbstractSequentialList#set(int, java.lang.Object)
+	 */
+	@Override
+	public JobInfo set(int index, JobInfo jobInfo) {
+		checkElementIndex(index);
+		ListIterator<JobInfo> it = listIterator(index);
+		JobInfo old = it.next();
+		it.set(jobInfo);
+		return old;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.AbstractSequentialList#remove(int)
+	 */
+	@Override
+	public JobInfo remove(int index) {
+		checkElementIndex(index);
+		return unlink(node(index));
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.AbstractList#clear()
+	 */
+	@Override
+	public void clear() {
+		while (first != null) {
+			unlink(first);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.AbstractSequentialList#listIterator(int)
+	 */
+	@Override
+	public ListIterator<JobInfo> listIterator(int index) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return new ListItr(index);
+	}
+
+	/**
+	 * Writes the nodes in order, without their links, so that a long list is not
+	 * serialized recursively node by node.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		for (Node x = first; x != null; x = x.next) {
+			out.writeObject(x);
+		}
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		Node prev = null;
+		for (int i = 0; i < size; i++) {
+			Node node = (Node) in.readObject();
+			node.prev = prev;
+			if (prev == null) {
+				first = node;
+			} else {
+				prev.next = node;
+			}
+			prev = node;
+		}
+		last = prev;
+	}
+
+	/**
+	 * Internal ListIterator implementation, with the same semantics of the one of java.util.LinkedList.
+	 */
+	private class ListItr implements ListIterator<JobInfo> {
+		private Node lastReturned;
+		private Node next;
+		private int nextIndex;
+		private int expectedModCount = modCount;
+
+		ListItr(int index) {
+			next = (index == size) ? null : node(index);
+			nextIndex = index;
+		}
+
+		public boolean hasNext() {
+			return nextIndex < size;
+		}
+
+		public JobInfo next() {
+			checkForComodification();
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			lastReturned = next;
+			next = next.next;
+			nextIndex++;
+			return lastReturned.item;
+		}
+
+		public boolean hasPrevious() {
+			return nextIndex > 0;
+		}
+
+		public JobInfo previous() {
+			checkForComodification();
+			if (!hasPrevious()) {
+				throw new NoSuchElementException();
+			}
+			lastReturned = next = (next == null) ? last : next.prev;
+			nextIndex--;
+			return lastReturned.item;
+		}
+
+		public int nextIndex() {
+			return nextIndex;
+		}
+
+		public int previousIndex() {
+			return nextIndex - 1;
+		}
+
+		public void remove() {
+			checkForComodification();
+			if (lastReturned == null) {
+				throw new IllegalStateException();
+			}
+			Node lastNext = lastReturned.next;
+			if (next == lastReturned) {
+				next = lastNext;
+			} else {
+				nextIndex--;
+			}
+			unlink(lastReturned);
+			lastReturned = null;
+			expectedModCount++;
+		}
+
+		public void set(JobInfo jobInfo) {
+			if (lastReturned == null) {
+				throw new IllegalStateException();
+			}
+			checkForComodification();
+			JobInfo old = lastReturned.item;
+			if (old != null && getHandle(old) == lastReturned) {
+				setHandle(old, null);
+			}
+			lastReturned.item = jobInfo;
+			if (jobInfo != null) {
+				Node handle = getHandle(jobInfo);
+				if (handle != null && handle.owner == JobInfoLinkedList.this) {
+					duplicates = true;
+				}
+				setHandle(jobInfo, lastReturned);
+			}
+		}
+
+		public void add(JobInfo jobInfo) {
+			checkForComodification();
+			lastReturned = null;
+			linkBefore(jobInfo, next);
+			nextIndex++;
+			expectedModCount++;
+		}
+
+		private void checkForComodification() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+}
@@ -17,6 +17,8 @@
  */
 package jmt.engine.QueueNet;
 
+import java.io.Serializable;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 
@@ -41,7 +43,7 @@ import jmt.engine.dataAnalysis.Measure;
  *              2. global throughput (Throughput per Sink)
  *              each sink per class.
  */
-public interface JobInfoList {
+public interface JobInfoList extends Serializable {
 
 	/**
 	 * Gets the number of jobs.
@@ -349,6 +351,30 @@ public interface JobInfoList {
 	 */
 	public abstract void add(int index, JobInfo jobInfo, boolean isPerClassHead);
 
+	/**
+	 * Declares that jobs are inserted in this list according to the given order, so that
+	 * addInOrder() can find their position in log(n) time.
+	 * @param order the order, that compares to a positive value if the first job info must
+	 * follow the second one, or null if jobs are not kept sorted.
+	 */
+	public abstract void setOrder(Comparator<JobInfo> order);
+
+	/**
+	 * Gets the order declared by setOrder().
+	 * @return the order, or null if jobs are not kept sorted.
+	 */
+	public abstract Comparator<JobInfo> getOrder();
+
+	/**
+	 * Adds a new job info before the first job info that follows it in the given order, so
+	 * that job infos that are equal in the order are kept in insertion order. The job info is
+	 * added only if the given order is the one declared by setOrder() and the list is sorted.
+	 * @param jobInfo Reference to the job info to be added.
+	 * @param order the order used by the caller.
+	 * @return true if the job info was added, false if the caller must add it by itself.
+	 */
+	public abstract boolean addInOrder(JobInfo jobInfo, Comparator<JobInfo> order);
+
 	/**
 	 * Removes a job info from the list.
 	 * @param jobInfo Reference to the job info to be removed.
@@ -38,6 +38,8 @@ import jmt.engine.dataAnalysis.Measure;
  */
 public class LinkedJobInfoList implements JobInfoList {
 
+	private static final long serialVersionUID = 1L;
+
 	protected static final int REMOVE_FIRST = 1;
 	protected static final int REMOVE_LAST = 2;
 	protected static final int REMOVE_SPECIFIC = 0;
@@ -45,8 +47,14 @@ public class LinkedJobInfoList implements JobInfoList {
 	protected int numberOfJobClasses;
 
 	//contain JobInfo objects
-	protected LinkedList<JobInfo> list;
-	protected LinkedList<JobInfo> listPerClass[];
+	protected JobInfoLinkedList list;
+	protected JobInfoLinkedList listPerClass[];
+
+	//order in which jobs are inserted by addInOrder(), null if jobs are not kept sorted
+	private Comparator<JobInfo> order;
+	//indices used to find the position of jobs inserted by addInOrder()
+	private SortedJobInfoIndex orderIndex;
+	private SortedJobInfoIndex orderIndexPerClass[];
 
 	//arrivals and completions
 	protected Map<Integer, List<Double>> retrialOrbit = new HashMap<>();
@@ -280,6 +288,15 @@ public class LinkedJobInfoList implements JobInfoList {
 
 	private Map<Integer,List<BusyServer>> usedServersPerJob;
 
+	//incremented when usedServersPerJob is modified, used to validate the cached number of jobs per server
+	private int usedServersVersion;
+
+	//cached number of jobs per server and per server per class, with the list versions they were computed for
+	private int[] jobsPerServer;
+	private int[][] jobsPerServerKey;
+	private int[][] jobsPerServerPerClass;
+	private int[][][] jobsPerServerPerClassKey;
+
 	private String stationName;
 
 	private List<Server.ServerType> serverTypes;
@@ -325,11 +342,11 @@ public class LinkedJobInfoList implements JobInfoList {
 													 List<Server.ServerType> serverTypes) {
 		this.jobClasses = jobClasses;
 		this.numberOfJobClasses = jobClasses.size();
-		list = new LinkedList<JobInfo>();
-		listPerClass = new LinkedList[numberOfJobClasses];
+		list = new JobInfoLinkedList(false);
+		listPerClass = new JobInfoLinkedList[numberOfJobClasses];
 		retrialOrbitPerClass = new HashMap[numberOfJobClasses];
 		for (int i = 0; i < numberOfJobClasses; i++) {
-			listPerClass[i] = new LinkedList<JobInfo>();
+			listPerClass[i] = new JobInfoLinkedList(true);
 			retrialOrbitPerClass[i] = new HashMap<Integer, List<Double>>();
 		}
 		jobsInPerClass = new int[numberOfJobClasses];
@@ -386,72 +403,95 @@ public class LinkedJobInfoList implements JobInfoList {
 	//Michalis
 	public void addUsedServersForJob(int job_id, List<BusyServer> busyServers){
 		usedServersPerJob.put(job_id, busyServers);
+		usedServersVersion++;
 	}
 
 	public void removeUsedServerForJob(int job_id){
 		usedServersPerJob.remove(job_id);
+		usedServersVersion++;
 	}
 
-	private LinkedList<JobInfo> getListPerServer(int s){
-
-		LinkedList<JobInfo> res = new LinkedList<>();
-
-		for(JobInfo jobInfo : list) {
-
-			List<BusyServer> usedServers = usedServersPerJob.get(jobInfo.getJob().getId());
-
-			if (usedServers != null) {
-				for (BusyServer server : usedServers) {
-					if(server.getId() == s){
-						res.add(jobInfo);
-						break;
-					}
-				}
-			} else if (classCompatibilities != null) {
-				int c = jobInfo.getJob().getJobClass().getId();
-				Boolean[] classComp = classCompatibilities[c];
-
-				if (classComp[s]){
-					res.add(jobInfo);
+	/**
+	 * Tells if a job is using, or may use, the given server type.
+	 */
+	private boolean isJobInServer(JobInfo jobInfo, int c, int s) {
+		List<BusyServer> usedServers = usedServersPerJob.get(jobInfo.getJob().getId());
+		if (usedServers != null) {
+			for (BusyServer server : usedServers) {
+				if (server.getId() == s) {
+					return true;
 				}
-
 			}
-
+		} else if (classCompatibilities != null) {
+			return classCompatibilities[c][s];
 		}
-
-		return res;
+		return false;
 	}
 
-	private LinkedList<JobInfo> getListPerServerPerClass(int s, int c){
-
-		LinkedList<JobInfo> res = new LinkedList<>();
-
-		for(JobInfo jobInfo : listPerClass[c]) {
-
-			List<BusyServer> usedServers = usedServersPerJob.get(jobInfo.getJob().getId());
-
-			if (usedServers != null) {
-				for (BusyServer server : usedServers) {
-					if(server.getId() == s){
-						res.add(jobInfo);
-						break;
-					}
-				}
-			} else if (classCompatibilities != null) {
-				Boolean[] classComp = classCompatibilities[c];
-
-				if (classComp[s]){
-					res.add(jobInfo);
-				}
-
+	/**
+	 * Gets the number of jobs that are using, or may use, the given server type. The value is cached
+	 * until the lists of jobs or the servers used by jobs are modified.
+	 * @param s the server type
+	 * @return the number of jobs
+	 */
+	private int getJobsPerServer(int s) {
+		if (jobsPerServer == null) {
+			jobsPerServer = new int[numberOfServerTypes];
+			jobsPerServerKey = new int[numberOfServerTypes][];
+		}
+		// the class of a job may change while it is in the list, so per-class lists are part of the key
+		int classModCount = 0;
+		for (int c = 0; c < numberOfJobClasses; c++) {
+			classModCount += listPerClass[c].getModCount();
+		}
+		int[] key = jobsPerServerKey[s];
+		if (key == null) {
+			key = jobsPerServerKey[s] = new int[3];
+		} else if (key[0] == list.getModCount() && key[1] == classModCount && key[2] == usedServersVersion) {
+			return jobsPerServer[s];
+		}
+		int count = 0;
+		for (JobInfo jobInfo : list) {
+			if (isJobInServer(jobInfo, jobInfo.getJob().getJobClass().getId(), s)) {
+				count++;
 			}
-
 		}
-
-		return res;
-
+		jobsPerServer[s] = count;
+		key[0] = list.getModCount();
+		key[1] = classModCount;
+		key[2] = usedServersVersion;
+		return count;
 	}
 
+	/**
+	 * Gets the number of jobs of the given class that are using, or may use, the given server type.
+	 * The value is cached until the list of jobs of the class or the servers used by jobs are modified.
+	 * @param s the server type
+	 * @param c the job class
+	 * @return the number of jobs
+	 */
+	private int getJobsPerServerPerClass(int s, int c) {
+		if (jobsPerServerPerClass == null) {
+			jobsPerServerPerClass = new int[numberOfServerTypes][numberOfJobClasses];
+			jobsPerServerPerClassKey = new int[numberOfServerTypes][numberOfJobClasses][];
+		}
+		int[] key = jobsPerServerPerClassKey[s][c];
+		if (key == null) {
+			key = jobsPerServerPerClassKey[s][c] = new int[2];
+		} else if (key[0] == listPerClass[c].getModCount() && key[1] == usedServersVersion) {
+			return jobsPerServerPerClass[s][c];
+		}
+		int count = 0;
+		for (JobInfo jobInfo : listPerClass[c]) {
+			if (isJobInServer(jobInfo, c, s)) {
+				count++;
+			}
+		}
+		jobsPerServerPerClass[s][c] = count;
+		key[0] = listPerClass[c].getModCount();
+		key[1] = usedServersVersion;
+		return count;
+	}
 
 	//
 
@@ -911,6 +951,49 @@ public class LinkedJobInfoList implements JobInfoList {
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see jmt.engine.QueueNet.JobInfoList#setOrder(java.util.Comparator)
+	 */
+	public void setOrder(Comparator<JobInfo> order) {
+		this.order = order;
+		orderIndex = null;
+		orderIndexPerClass = new SortedJobInfoIndex[numberOfJobClasses];
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.QueueNet.JobInfoList#getOrder()
+	 */
+	public Comparator<JobInfo> getOrder() {
+		return order;
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.QueueNet.JobInfoList#addInOrder(jmt.engine.QueueNet.JobInfo, java.util.Comparator)
+	 */
+	public boolean addInOrder(JobInfo jobInfo, Comparator<JobInfo> order) {
+		if (this.order == null || !this.order.equals(order)) {
+			return false;
+		}
+		int c = jobInfo.getJob().getJobClass().getId();
+		if (orderIndex == null) {
+			orderIndex = new SortedJobInfoIndex(list, this.order);
+		}
+		if (orderIndexPerClass[c] == null) {
+			orderIndexPerClass[c] = new SortedJobInfoIndex(listPerClass[c], this.order);
+		}
+		if (!orderIndex.isSorted(this.order) || !orderIndexPerClass[c].isSorted(this.order)) {
+			return false;
+		}
+		JobInfo successor = orderIndex.successor(jobInfo);
+		JobInfo classSuccessor = orderIndexPerClass[c].successor(jobInfo);
+		updateAdd(jobInfo);
+		list.addBefore(jobInfo, successor);
+		listPerClass[c].addBefore(jobInfo, classSuccessor);
+		orderIndex.added(jobInfo);
+		orderIndexPerClass[c].added(jobInfo);
+		return true;
+	}
+
 	protected void updateAdd(JobInfo jobInfo) {
 		int c = jobInfo.getJob().getJobClass().getId();
 		updateQueueLength(jobInfo);
@@ -1131,18 +1214,26 @@ public class LinkedJobInfoList implements JobInfoList {
 		//
 	}
 
-	protected void finalRemove(JobInfo what, LinkedList<JobInfo> list, int position) {
+	protected void finalRemove(JobInfo what, JobInfoLinkedList list, int position) {
 		switch (position) {
 			case REMOVE_FIRST:
-				list.removeFirst();
+				what = list.removeFirst();
 				break;
 			case REMOVE_LAST:
-				list.removeLast();
+				what = list.removeLast();
 				break;
 			default:
-				list.remove(what);
+				if (!list.remove(what)) {
+					return;
+				}
 				break;
 		}
+		if (order != null) {
+			SortedJobInfoIndex index = (list == this.list) ? orderIndex : orderIndexPerClass[what.getJob().getJobClass().getId()];
+			if (index != null) {
+				index.removed(what);
+			}
+		}
 	}
 
 	/**---------------------------------------------------------------------
@@ -1628,7 +1719,7 @@ public class LinkedJobInfoList implements JobInfoList {
 					if (classComp[s]) {
 						Measure m = queueLengthPerServerType[s];
 						if (m != null) {
-							m.update(getListPerServer(s).size(),
+							m.update(getJobsPerServer(s),
 									getTime() - getLastModifyTimePerServer(s));
 						}
 					}
@@ -1638,7 +1729,7 @@ public class LinkedJobInfoList implements JobInfoList {
 				for (BusyServer server : usedServers) {
 					Measure m = queueLengthPerServerType[server.getId()];
 					if (m != null) {
-						m.update(getListPerServer(server.getId()).size(),
+						m.update(getJobsPerServer(server.getId()),
 								getTime() - getLastModifyTimePerServer(server.getId()));
 					}
 				}
@@ -1656,7 +1747,7 @@ public class LinkedJobInfoList implements JobInfoList {
 					if (classComp[s]) {
 						Measure m = queueLengthPerServerTypePerClass[s][c];
 						if (m != null) {
-							m.update(getListPerServerPerClass(s,c).size(),
+							m.update(getJobsPerServerPerClass(s,c),
 									getTime() - getLastModifyTimePerServerPerClass(s,c));
 						}
 					}
@@ -1667,7 +1758,7 @@ public class LinkedJobInfoList implements JobInfoList {
 				for (BusyServer server : usedServers) {
 					Measure m = queueLengthPerServerTypePerClass[server.getId()][c];
 					if (m != null) {
-						m.update(getListPerServerPerClass(server.getId(),c).size(),
+						m.update(getJobsPerServerPerClass(server.getId(),c),
 								getTime() - getLastModifyTimePerServerPerClass(server.getId(),c));
 					}
 				}
@@ -1870,7 +1961,7 @@ public class LinkedJobInfoList implements JobInfoList {
 					if (classComp[s]) {
 						Measure m = utilizationPerServerType[s];
 						if (m != null) {
-							m.update((double) (getListPerServer(s).size() *
+							m.update((double) (getJobsPerServer(s) *
 											Math.min(serverTypes.get(s).getNumOfServers(),
 													serverNumRequired[jobInfo.getJob().getJobClass().getId()]))
 											/ serverTypes.get(s).getNumOfServers() ,
@@ -1882,7 +1973,7 @@ public class LinkedJobInfoList implements JobInfoList {
 				for (BusyServer server : usedServers) {
 					Measure m = utilizationPerServerType[server.getId()];
 					if (m != null) {
-						m.update((double) (getListPerServer(server.getId()).size() *
+						m.update((double) (getJobsPerServer(server.getId()) *
 										server.getNumOfBusyServers()) / server.getTotalServers(),
 								getTime() - getLastModifyTimePerServer(server.getId()));
 					}
@@ -1902,7 +1993,7 @@ public class LinkedJobInfoList implements JobInfoList {
 					if (classComp[s]) {
 						Measure m = utilizationPerServerTypePerClass[s][c];
 						if (m != null) {
-							m.update((double) (getListPerServerPerClass(s,c).size() *
+							m.update((double) (getJobsPerServerPerClass(s,c) *
 											Math.min(serverTypes.get(s).getNumOfServers(),
 													serverNumRequired[c]))
 											/ serverTypes.get(s).getNumOfServers() ,
@@ -1914,7 +2005,7 @@ public class LinkedJobInfoList implements JobInfoList {
 				for (BusyServer server : usedServers) {
 					Measure m = utilizationPerServerTypePerClass[server.getId()][c];
 					if (m != null) {
-						m.update((double) (getListPerServerPerClass(server.getId(), c).size()
+						m.update((double) (getJobsPerServerPerClass(server.getId(), c)
 										* server.getNumOfBusyServers()) / server.getTotalServers(),
 								getTime() - getLastModifyTimePerServerPerClass(server.getId(), c));
 					}
@@ -2259,8 +2350,8 @@ public class LinkedJobInfoList implements JobInfoList {
 		int c = jobInfo.getJob().getJobClass().getId();
 		updateResponseTimePerSink(jobInfo);
 		updateThroughputPerSink(jobInfo);
-		list.remove(jobInfo);
-		listPerClass[c].remove(jobInfo);
+		finalRemove(jobInfo, list, REMOVE_SPECIFIC);
+		finalRemove(jobInfo, listPerClass[c], REMOVE_SPECIFIC);
 		lastJobOutTime = getTime();
 		lastJobOutTimePerClass[c] = getTime();
 
@@ -2292,8 +2383,8 @@ public class LinkedJobInfoList implements JobInfoList {
 	 */
 	public void redirectJob(JobInfo jobInfo) {
 		int c = jobInfo.getJob().getJobClass().getId();
-		list.remove(jobInfo);
-		listPerClass[c].remove(jobInfo);
+		finalRemove(jobInfo, list, REMOVE_SPECIFIC);
+		finalRemove(jobInfo, listPerClass[c], REMOVE_SPECIFIC);
 		//the job has been redirected, so it should not be counted
 		jobsIn--;
 		jobsInPerClass[c]--;
@@ -2329,8 +2420,8 @@ public class LinkedJobInfoList implements JobInfoList {
 	public void dropJob(JobInfo jobInfo) {
 		int c = jobInfo.getJob().getJobClass().getId();
 		updateDropRate(jobInfo);
-		list.remove(jobInfo);
-		listPerClass[c].remove(jobInfo);
+		finalRemove(jobInfo, list, REMOVE_SPECIFIC);
+		finalRemove(jobInfo, listPerClass[c], REMOVE_SPECIFIC);
 		lastJobDropTime = getTime();
 		lastJobDropTimePerClass[c] = getTime();
 
@@ -2360,7 +2451,7 @@ public class LinkedJobInfoList implements JobInfoList {
 		updateTardiness(jobInfo);
 		updateEarliness(jobInfo);
 		updateLateness(jobInfo);
-		listPerClass[oc].remove(jobInfo);
+		finalRemove(jobInfo, listPerClass[oc], REMOVE_SPECIFIC);
 		listPerClass[nc].add(jobInfo);
 		lastJobSwitchTime = getTime();
 		lastJobSwitchTimePerClass[oc] = getTime();
@@ -2377,8 +2468,8 @@ public class LinkedJobInfoList implements JobInfoList {
 	public void balkJob(JobInfo jobInfo) {
 		int c = jobInfo.getJob().getJobClass().getId();
 		updateBalkingRate(jobInfo);
-		list.remove(jobInfo);
-		listPerClass[c].remove(jobInfo);
+		finalRemove(jobInfo, list, REMOVE_SPECIFIC);
+		finalRemove(jobInfo, listPerClass[c], REMOVE_SPECIFIC);
 		lastJobBalkingTime = getTime();
 		lastJobBalkingTimePerClass[c] = getTime();
 
@@ -2401,8 +2492,8 @@ public class LinkedJobInfoList implements JobInfoList {
 		int c = jobInfo.getJob().getJobClass().getId();
 		updateQueueLength(jobInfo);
 		updateRenegingRate(jobInfo);
-		list.remove(jobInfo);
-		listPerClass[c].remove(jobInfo);
+		finalRemove(jobInfo, list, REMOVE_SPECIFIC);
+		finalRemove(jobInfo, listPerClass[c], REMOVE_SPECIFIC);
 		lastJobRenegingTime = getTime();
 		lastJobRenegingTimePerClass[c] = getTime();
 
@@ -2456,8 +2547,8 @@ public class LinkedJobInfoList implements JobInfoList {
 	 */
 	public void consumeJob(JobInfo jobInfo) {
 		int c = jobInfo.getJob().getJobClass().getId();
-		list.remove(jobInfo);
-		listPerClass[c].remove(jobInfo);
+		finalRemove(jobInfo, list, REMOVE_SPECIFIC);
+		finalRemove(jobInfo, listPerClass[c], REMOVE_SPECIFIC);
 	}
 
 	public void changeNumberOfActiveServers(int numberOfServers){
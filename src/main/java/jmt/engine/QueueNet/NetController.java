@@ -18,19 +18,30 @@
 
 package jmt.engine.QueueNet;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.util.ListIterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import jmt.common.exception.NetException;
 import jmt.engine.simEngine.SimSystem;
 
 /**
  * Controls the state of the simulation and determines when to stop the simulation.
+ * <p>The simulation runs in a single thread without locks. Requests coming from other threads
+ * (pause, resume and commands that schedule events, such as an abort) are signalled through
+ * a volatile flag that is checked once per tick: the simulation thread then executes the
+ * queued commands and, if a pause was requested, parks until it is resumed.</p>
  *
  * @author Federico Granata, Stefano Omini
  */
-class NetController {
+class NetController implements Serializable {
 
-	private boolean running;
+	private static final long serialVersionUID = 1L;
+
+	//the state of the threads is not saved by checkpoints (see readObject())
+	private transient boolean running;
 
 	private double startTime;
 
@@ -45,9 +56,18 @@ class NetController {
 	//WARNING: this samples number must be a multiple of refreshPeriod!!
 	private int reachabilityTest = refreshPeriod * 10;
 
-	private boolean blocked = false;
+	//true if a pause was requested
+	private transient boolean blocked = false;
+	//true while the simulation thread is parked because of a pause request
+	private transient boolean paused = false;
+	//set when a pause or a command is pending, checked by the simulation thread at each tick
+	private transient volatile boolean pending = false;
+	//commands posted by other threads, executed by the simulation thread
+	private transient ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<Runnable>();
+	//the thread that runs the simulation
+	private transient Thread simThread;
 
-	//set to true when when the first abort measures is called due to max simulated time
+	//set to true when when the first abort measures is called due to max simulated time or max processed events
 	//in order to prevent further calls while the system is still processing enqueued events
 	private boolean aborting = false;
 
@@ -72,12 +92,29 @@ class NetController {
 		SimSystem simSystem = netSystem.getSimSystem();
 		simSystem.runStart();
 		startTime = netSystem.getElapsedTime();
+		runTicks(simSystem);
+	}
 
-		while (simSystem.runTick()) {
-			synchronized (this) {
-				//the presence of this "if" allows pause control
-				if (blocked) {
-					wait();
+	/**
+	 * Resumes a simulation restored from a checkpoint, which had already been started.
+	 * @throws NetException
+	 * @throws InterruptedException
+	 */
+	public void resume() throws InterruptedException, NetException {
+		runTicks(netSystem.getSimSystem());
+	}
+
+	/**
+	 * Runs the ticks of the simulation until it finishes.
+	 * @throws NetException
+	 * @throws InterruptedException
+	 */
+	private void runTicks(SimSystem simSystem) throws InterruptedException, NetException {
+		try {
+			while (simSystem.runTick()) {
+				//the presence of this "if" allows pause control and commands from other threads
+				if (pending) {
+					handleRequests();
 				}
 				n++;
 
@@ -89,28 +126,92 @@ class NetController {
 					}
 					//refresh measures
 					netSystem.checkMeasures();
+					//save the state of the simulation (if required)
+					netSystem.checkpoint();
 				}
 				//check if a positive max simulated time is set and has been reached for the first time
 				if (maxSimulatedTime > 0 && simSystem.getClock() > maxSimulatedTime && !aborting) {
-					ListIterator<QueueNetwork> nets = netSystem.getNetworkList().listIterator();
-					QueueNetwork network;
-					while (nets.hasNext()) {
-						network = nets.next();
-						network.abortAllMeasures();
-						aborting = true;
-					}
-					netSystem.checkMeasures(); //refresh measures, this triggers a simulation stop because all measures have been aborted
+					abortAllMeasures();
 				}
+				//check if a positive max processed events is set and has been reached for the first time
+				if (maxProcessedEvents > 0 && simSystem.getProcessedEvents() >= maxProcessedEvents && !aborting) {
+					abortAllMeasures();
+				}
+			}
+			//sim is finished: get stop time
+			stopTime = netSystem.getElapsedTime();
+			simSystem.runStop();
+		} finally {
+			synchronized (this) {
+				running = false;
+				//wakes up threads waiting for a pause that will never happen
+				notifyAll();
 			}
 		}
-		//sim is finished: get stop time
-		stopTime = netSystem.getElapsedTime();
-		simSystem.runStop();
-		running = false;
+		//commands posted after the last tick are executed here
+		runCommands();
 	}
 
-	public void start() {
+	/**
+	 * Executes the pending commands and, if a pause was requested, parks the simulation thread
+	 * until unblock() is called. Called only by the simulation thread.
+	 * @throws InterruptedException
+	 */
+	private synchronized void handleRequests() throws InterruptedException {
+		runCommands();
+		while (blocked) {
+			paused = true;
+			notifyAll();
+			wait();
+			runCommands();
+		}
+		paused = false;
+		pending = !commands.isEmpty();
+	}
+
+	/**
+	 * Executes the commands posted by other threads.
+	 */
+	private void runCommands() {
+		Runnable command;
+		while ((command = commands.poll()) != null) {
+			command.run();
+		}
+	}
+
+	/**
+	 * Aborts all the measures of all the networks, so that the simulation is stopped.
+	 */
+	private void abortAllMeasures() {
+		ListIterator<QueueNetwork> nets = netSystem.getNetworkList().listIterator();
+		QueueNetwork network;
+		while (nets.hasNext()) {
+			network = nets.next();
+			network.abortAllMeasures();
+			aborting = true;
+		}
+		netSystem.checkMeasures(); //refresh measures, this triggers a simulation stop because all measures have been aborted
+	}
+
+	public synchronized void start() {
 		running = true;
+		simThread = Thread.currentThread();
+	}
+
+	/**
+	 * Executes a command that modifies the state of the simulation. If the simulation is running in
+	 * another thread the command is queued and executed by the simulation thread at the next tick,
+	 * otherwise it is executed immediately.
+	 * @param command the command
+	 */
+	public synchronized void execute(Runnable command) {
+		if (running && Thread.currentThread() != simThread) {
+			commands.add(command);
+			pending = true;
+			notifyAll();
+		} else {
+			command.run();
+		}
 	}
 
 	/** Checks if the NetSystem Engine thread is running.
@@ -128,10 +229,16 @@ class NetController {
 	}
 
 	/**
-	 * Blocks NetController for synchronized access to data.
+	 * Blocks NetController for synchronized access to data. If the simulation is running in another
+	 * thread, this method returns when the simulation thread has been parked.
+	 * @throws InterruptedException
 	 */
-	public synchronized void block() {
+	public synchronized void block() throws InterruptedException {
 		blocked = true;
+		pending = true;
+		while (running && !paused && Thread.currentThread() != simThread) {
+			wait();
+		}
 	}
 
 	/**
@@ -139,6 +246,7 @@ class NetController {
 	 */
 	public synchronized void unblock() {
 		blocked = false;
+		pending = true;
 		notifyAll();
 	}
 
@@ -162,4 +270,9 @@ class NetController {
 		this.netSystem = netSystem;
 	}
 
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		commands = new ConcurrentLinkedQueue<Runnable>();
+	}
+
 }
@@ -18,11 +18,15 @@
 
 package jmt.engine.QueueNet;
 
+import java.io.Serializable;
+
 /**
  * This class declares all the constants related to message event types.
  * @author Francesco Radaelli
  */
-public class NetEvent {
+public class NetEvent implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/*------------------------------BIT MASK----------------------------------*/
 
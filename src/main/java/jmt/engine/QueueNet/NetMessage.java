@@ -18,12 +18,16 @@
 
 package jmt.engine.QueueNet;
 
+import java.io.Serializable;
+
 /**
  * This class implements a message which could be received for example by a
  * NetNode or by a NodeSection.
  * @author Francesco Radaelli
  */
-public class NetMessage implements Cloneable {
+public class NetMessage implements Cloneable, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private int event;
 
@@ -33,6 +33,7 @@ import jmt.engine.dataAnalysis.Measure;
 import jmt.engine.dataAnalysis.SimParameters;
 import jmt.engine.log.JSimLogger;
 import jmt.engine.log.LoggerStateManager;
+import jmt.engine.random.engine.RandomEngine;
 import jmt.engine.simEngine.*;
 
 /**
@@ -48,6 +49,8 @@ import jmt.engine.simEngine.*;
  */
 public class NetNode extends SimEntity {
 
+	private static final long serialVersionUID = 1L;
+
 	//these constants are used in exception messages
 
 	/** Unable to broadcast a message */
@@ -109,6 +112,9 @@ public class NetNode extends SimEntity {
 	private NetMessage message;
 	private int eventType;
 
+	//engine statistics, null if they are not enabled
+	private transient EngineStatistics statistics;
+
 	private boolean stopped;
 
 	private NodeList InputNodes;
@@ -117,6 +123,14 @@ public class NetNode extends SimEntity {
 
 	private SimParameters simParameters;
 
+	//random engine of the node, null until it is requested for the first time
+	private RandomEngine engine;
+
+	//load indexes of the routing strategies which send jobs to this node, with the position
+	//of this node in each of them, null if there are none
+	private NodeLoadIndex[] loadIndexes;
+	private int[] loadIndexPositions;
+
 	//Michalis
 
 	private Server server;
@@ -131,6 +145,7 @@ public class NetNode extends SimEntity {
 		OutputNodes = new NodeList();
 		inputSection = serviceSection = outputSection = null;
 		receiveBuffer = new SimEvent();
+		message = new NetMessage();
 		stopped = false;
 	}
 
@@ -216,6 +231,35 @@ public class NetNode extends SimEntity {
 		return OutputNodes;
 	}
 
+	/**
+	 * Registers a load index which includes this node.
+	 * @param index the load index.
+	 * @param position the position of this node in the index.
+	 */
+	void addLoadIndex(NodeLoadIndex index, int position) {
+		if (loadIndexes == null) {
+			loadIndexes = new NodeLoadIndex[] { index };
+			loadIndexPositions = new int[] { position };
+		} else {
+			loadIndexes = Arrays.copyOf(loadIndexes, loadIndexes.length + 1);
+			loadIndexPositions = Arrays.copyOf(loadIndexPositions, loadIndexPositions.length + 1);
+			loadIndexes[loadIndexes.length - 1] = index;
+			loadIndexPositions[loadIndexPositions.length - 1] = position;
+		}
+	}
+
+	/**
+	 * Notifies the load indexes which include this node that its properties may have changed.
+	 * It is called after each event processed by this node.
+	 */
+	void loadChanged() {
+		if (loadIndexes != null) {
+			for (int i = 0; i < loadIndexes.length; i++) {
+				loadIndexes[i].invalidate(loadIndexPositions[i]);
+			}
+		}
+	}
+
 	/***************************************************
 	 *		 Methods about get jobsList property	   *
 	 ***************************************************/
@@ -549,9 +593,11 @@ public class NetNode extends SimEntity {
 	 */
 	@Override
 	public final void body() {
-		message = new NetMessage();
+		// The message is reused for each received event: node sections that need to keep it
+		// after their dispatch returns must store a clone.
 		try {
 			receiveBuffer = getEvbuf();
+			statistics = getNetSystem().getStatistics();
 
 			//receive a new message
 			receive(message);
@@ -580,8 +626,12 @@ public class NetNode extends SimEntity {
 					send(NetEvent.EVENT_ACK, message.getJob(), 0.0, NodeSection.NO_ADDRESS, message.getSourceSection(), message.getSource());
 				}
 			} else {
+				if (statistics != null) {
+					statistics.messageDispatched(this);
+				}
 				dispatch(message);
 			}
+			loadChanged();
 
 			simGetNext(SimSystem.SIM_ANY);
 		} catch (NetException ex) {
@@ -589,6 +639,25 @@ public class NetNode extends SimEntity {
 		}
 	}
 
+	/**
+	 * Delivers a message to a node section, measuring the processing time if engine statistics are enabled.
+	 * @param section the node section
+	 * @param message the message
+	 * @return the result of NodeSection.receive()
+	 * @throws NetException
+	 */
+	private int receive(NodeSection section, NetMessage message) throws NetException {
+		if (statistics == null) {
+			return section.receive(message);
+		}
+		long start = System.nanoTime();
+		try {
+			return section.receive(message);
+		} finally {
+			statistics.sectionTime(section, System.nanoTime() - start);
+		}
+	}
+
 	private void handleStopMessages() throws NetException {
 		if (!stopped) {
 			stopped = true;
@@ -676,7 +745,7 @@ public class NetNode extends SimEntity {
 				}
 
 				if (inputSection != null) {
-					processed = inputSection.receive(message);
+					processed = receive(inputSection, message);
 				} else if (sourceSection == NodeSection.NO_ADDRESS) {
 					processed = NodeSection.MSG_PROCESSED;
 				}
@@ -690,7 +759,7 @@ public class NetNode extends SimEntity {
 					}
 				}
 				if (serviceSection != null) {
-					processed = serviceSection.receive(message);
+					processed = receive(serviceSection, message);
 				} else if (sourceSection == NodeSection.NO_ADDRESS) {
 					processed = NodeSection.MSG_PROCESSED;
 				}
@@ -706,7 +775,7 @@ public class NetNode extends SimEntity {
 					}
 				}
 				if (outputSection != null) {
-					processed = outputSection.receive(message);
+					processed = receive(outputSection, message);
 				} else if (sourceSection == NodeSection.NO_ADDRESS) {
 					processed = NodeSection.MSG_PROCESSED;
 				}
@@ -1016,6 +1085,19 @@ public class NetNode extends SimEntity {
 		return network.getNetSystem();
 	}
 
+	/**
+	 * Gets the random engine used by this node while the simulation is running, for
+	 * example to choose the destination of a job. It is the stream of the net system
+	 * named after this node (see {@link NetSystem#getEngine(String)}).
+	 * @return the random engine of this node
+	 */
+	public RandomEngine getEngine() {
+		if (engine == null) {
+			engine = getNetSystem().getEngine(getName());
+		}
+		return engine;
+	}
+
 	private boolean isJobFromPlaceToServerOrDelay(NetMessage message){
 		NetNode sourceNode = message.getSource();
 		NetNode destinationNode = message.getDestination();
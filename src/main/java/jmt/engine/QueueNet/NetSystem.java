@@ -18,13 +18,19 @@
 
 package jmt.engine.QueueNet;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.ListIterator;
 
 import jmt.common.exception.NetException;
 import jmt.engine.dataAnalysis.Measure;
 import jmt.engine.random.engine.MersenneTwister;
+import jmt.engine.random.engine.Philox;
 import jmt.engine.random.engine.RandomEngine;
 import jmt.engine.simEngine.SimSystem;
+import jmt.engine.simEngine.SimulationCheckpoint;
 
 /**
  * This class controls the simulation running. It should be used to :
@@ -41,7 +47,9 @@ import jmt.engine.simEngine.SimSystem;
  * @author Francesco Radaelli, Federico Granata, Stefano Omini
  * Modified by Bertoli Marco: fixed bug that avoided simulation termination with closed classes. 22-09-2005
  */
-public class NetSystem {
+public class NetSystem implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private NetController netController;
 
@@ -55,6 +63,13 @@ public class NetSystem {
 
 	private RandomEngine engine;
 
+	private transient EngineStatistics statistics;
+
+	//saves the state of the simulation periodically, null if checkpoints are disabled
+	private transient SimulationCheckpoint checkpoint;
+
+	private int randomBlockSize = 1;
+
 	public NetSystem() {
 		simSystem = new SimSystem();
 		engine = new MersenneTwister();
@@ -126,10 +141,24 @@ public class NetSystem {
 		netController.run();
 	}
 
+	/** Resumes the NetSystem Engine and executes the rest of a simulation restored
+	 * from a checkpoint (see SimulationCheckpoint).
+	 * @throws NetException
+	 * @throws InterruptedException
+	 */
+	public void resume() throws NetException, InterruptedException {
+		netController.start();
+		netController.resume();
+	}
+
 	public boolean pause() {
 		//if (netController != null && netController.isRunning()) {
 		if (netController != null) {
-			netController.block();
+			try {
+				netController.block();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
 			return true;
 		}
 		return false;
@@ -148,12 +177,16 @@ public class NetSystem {
 	 * controlled QueueNetworks).
 	 */
 	public void stop() {
-		ListIterator<QueueNetwork> nets = networkList.listIterator();
-		QueueNetwork network;
-		while (nets.hasNext()) {
-			network = nets.next();
-			stop(network);
-		}
+		execute(new Runnable() {
+			public void run() {
+				ListIterator<QueueNetwork> nets = networkList.listIterator();
+				QueueNetwork network;
+				while (nets.hasNext()) {
+					network = nets.next();
+					stop(network);
+				}
+			}
+		});
 	}
 
 	/** Stops the NetSystem Engine and terminates the simulation.
@@ -176,13 +209,47 @@ public class NetSystem {
 	 * the controlled QueueNetworks).
 	 */
 	public void abort() {
-		ListIterator<QueueNetwork> nets = networkList.listIterator();
-		QueueNetwork network;
-		while (nets.hasNext()) {
-			network = nets.next();
-			abort(network);
+		execute(new Runnable() {
+			public void run() {
+				ListIterator<QueueNetwork> nets = networkList.listIterator();
+				QueueNetwork network;
+				while (nets.hasNext()) {
+					network = nets.next();
+					abort(network);
+				}
+				simSystem.abort();
+			}
+		});
+	}
+
+	/**
+	 * Aborts all the measures of all the controlled QueueNetworks, so that the simulation
+	 * is stopped at the next refresh of the measures. Unlike abort(), it is effective
+	 * also if called before the simulation is started.
+	 */
+	public void abortAllMeasures() {
+		execute(new Runnable() {
+			public void run() {
+				ListIterator<QueueNetwork> nets = networkList.listIterator();
+				while (nets.hasNext()) {
+					nets.next().abortAllMeasures();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Executes a command that schedules events or modifies the state of the simulation. As the simulation
+	 * engine is not thread safe, commands issued by other threads while the simulation is running are
+	 * executed by the simulation thread at its next tick.
+	 * @param command the command
+	 */
+	private void execute(Runnable command) {
+		if (netController != null) {
+			netController.execute(command);
+		} else {
+			command.run();
 		}
-		simSystem.abort();
 	}
 
 	/** Aborts the NetSystem Engine and terminates the simulation.
@@ -286,6 +353,24 @@ public class NetSystem {
 		}
 	}
 
+	/**
+	 * Saves the state of the simulation, if a checkpoint is due. Called by the
+	 * simulation thread when the measures are refreshed.
+	 */
+	void checkpoint() {
+		if (checkpoint != null) {
+			checkpoint.check(simSystem.getClock());
+		}
+	}
+
+	/**
+	 * Sets the object that periodically saves the state of the simulation
+	 * @param checkpoint the checkpoint, null to disable checkpoints
+	 */
+	public void setCheckpoint(SimulationCheckpoint checkpoint) {
+		this.checkpoint = checkpoint;
+	}
+
 	/**
 	 * Checks simulation progress, showing a percentage of completed works
 	 * <br>Author: Bertoli Marco
@@ -382,6 +467,40 @@ public class NetSystem {
 		return simSystem;
 	}
 
+	/**
+	 * Enables the collection of engine statistics, such as processed events and time spent
+	 * by each node section. Statistics are disabled by default.
+	 * @return the engine statistics
+	 */
+	public EngineStatistics enableStatistics() {
+		if (statistics == null) {
+			statistics = new EngineStatistics(simSystem);
+		}
+		return statistics;
+	}
+
+	/**
+	 * @return the engine statistics, or null if they are not enabled
+	 */
+	public EngineStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Sets the number of random variates drawn at once by each service time strategy
+	 * @param randomBlockSize the block size, 1 to draw variates one at a time
+	 */
+	public void setRandomBlockSize(int randomBlockSize) {
+		this.randomBlockSize = randomBlockSize;
+	}
+
+	/**
+	 * @return the number of random variates drawn at once by each service time strategy
+	 */
+	public int getRandomBlockSize() {
+		return randomBlockSize;
+	}
+
 	public int nextjobNumber() {
 		return jobCounter++;
 	}
@@ -390,4 +509,40 @@ public class NetSystem {
 		return engine;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Replaces the random engine of the system. This method must be called while the
+	 * model is loaded, before any component gets the engine.
+	 * @param engine the new random engine
+	 */
+	public void setEngine(RandomEngine engine) {
+		this.engine = engine;
+		simSystem.setRandomEngine(engine);
+	}
+
+	/**
+	 * Returns the random engine of a stream of the system. If the engine of the system
+	 * is a {@link Philox} engine, each stream name identifies an independent stream,
+	 * otherwise all the streams share the engine of the system.
+	 * @param stream the name of the stream
+	 * @return the random engine of the stream
+	 */
+	public RandomEngine getEngine(String stream) {
+		if (engine instanceof Philox) {
+			return ((Philox) engine).getStream(Philox.getStreamId(stream));
+		}
+		return engine;
+	}
+
+	// --- The elapsed time is saved instead of the start time, so that it continues when a checkpoint is resumed ---
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeLong(System.currentTimeMillis() - startTime);
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		startTime = System.currentTimeMillis() - in.readLong();
+	}
+	// ----------------------------------------------------------------------------------------------------------------
+
+}
@@ -18,6 +18,7 @@
 
 package jmt.engine.QueueNet;
 
+import java.io.Serializable;
 import java.util.LinkedList;
 import java.util.ListIterator;
 
@@ -25,7 +26,9 @@ import java.util.ListIterator;
  * package can add or remove objects to/from the list.
  * @author Francesco Radaelli, Bertoli Marco
  */
-public class NetworkList {
+public class NetworkList implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private LinkedList<QueueNetwork> networks;
 
@@ -18,10 +18,13 @@
 
 package jmt.engine.QueueNet;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 
-public class NodeListWithJobNum {
+public class NodeListWithJobNum implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private NodeList nodeList;
 	private Map<NetNode, Map<JobClass, Integer>> jobNumPerNode;
@@ -0,0 +1,345 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.QueueNet;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import jmt.common.exception.NetException;
+import jmt.engine.random.engine.RandomEngine;
+
+/**
+ * <p><b>Name:</b> NodeLoadIndex</p>
+ * <p><b>Description:</b>
+ * A tournament tree over the output nodes of a routing section, used by load-aware routing strategies
+ * to find the least loaded nodes without reading the properties of all the nodes at each routing decision.
+ * </p>
+ * <p>Each node has a load and a group: the least loaded nodes are the ones with the least load among the
+ * ones of the lowest group. Loads which differ by less than a given epsilon are equal, and the least loaded
+ * node is chosen at random among equal ones, exactly as done by the linear scans of the routing strategies:
+ * each node is compared with the least load found so far in order of position. Finding the least load costs
+ * O(1), choosing a node costs O(log n) unless some loads differ by less than epsilon without being equal,
+ * in which case the scan is repeated on the stored loads.</p>
+ * <p>Loads are either set explicitly, or read through a LoadReader. In the latter case the index is
+ * registered on the nodes, which invalidate their load after each event they process, and only the
+ * invalidated loads are read again when the index is refreshed.</p>
+ *
+ * @author Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+ */
+public class NodeLoadIndex implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Group of the leaves which do not correspond to a node */
+	private static final int NO_GROUP = Integer.MAX_VALUE;
+
+	/**
+	 * Reads the load of a node.
+	 */
+	public interface LoadReader extends Serializable {
+
+		/**
+		 * Gets the group of a node: nodes of a lower group are always preferred.
+		 * @param node the node.
+		 * @return the group, between 0 and the number of groups of the index - 1.
+		 * @throws NetException if the properties of the node cannot be read.
+		 */
+		int getGroup(NetNode node) throws NetException;
+
+		/**
+		 * Gets the load of a node.
+		 * @param node the node.
+		 * @return the load.
+		 * @throws NetException if the properties of the node cannot be read.
+		 */
+		double getLoad(NetNode node) throws NetException;
+
+	}
+
+	private int size;
+	private double epsilon;
+	private int groups;
+
+	// the tree: leaves from offset to offset + size - 1, each element holds the least key of its
+	// subtree, the number of leaves with that key and the next greater key of the subtree
+	private int offset;
+	private int[] minGroups;
+	private double[] minLoads;
+	private int[] minCounts;
+	private int[] nextGroups;
+	private double[] nextLoads;
+
+	// nodes whose loads are read through the reader, null if loads are set explicitly
+	private NodeList nodes;
+	private LoadReader reader;
+	private boolean[] invalid;
+	private int[] invalidPositions;
+	private int invalidCount;
+
+	/**
+	 * Creates a new NodeLoadIndex whose loads are set explicitly. All the loads are initially 0 in group 0.
+	 * @param size the number of nodes.
+	 * @param epsilon loads which differ by less than epsilon are equal.
+	 * @param groups the number of groups.
+	 */
+	public NodeLoadIndex(int size, double epsilon, int groups) {
+		this.size = size;
+		this.epsilon = epsilon;
+		this.groups = groups;
+		offset = 1;
+		while (offset < size) {
+			offset <<= 1;
+		}
+		minGroups = new int[2 * offset];
+		minLoads = new double[2 * offset];
+		minCounts = new int[2 * offset];
+		nextGroups = new int[2 * offset];
+		nextLoads = new double[2 * offset];
+		Arrays.fill(nextGroups, NO_GROUP);
+		Arrays.fill(nextLoads, Double.POSITIVE_INFINITY);
+		for (int i = offset; i < 2 * offset; i++) {
+			if (i - offset < size) {
+				minCounts[i] = 1;
+			} else {
+				minGroups[i] = NO_GROUP;
+				minLoads[i] = Double.POSITIVE_INFINITY;
+			}
+		}
+		for (int i = offset - 1; i > 0; i--) {
+			merge(i);
+		}
+	}
+
+	/**
+	 * Creates a new NodeLoadIndex whose loads are read from the given nodes. The index is registered
+	 * on the nodes, and all the loads are read when the index is refreshed for the first time.
+	 * @param nodes the nodes.
+	 * @param reader reads the loads of the nodes.
+	 * @param epsilon loads which differ by less than epsilon are equal.
+	 * @param groups the number of groups.
+	 */
+	public NodeLoadIndex(NodeList nodes, LoadReader reader, double epsilon, int groups) {
+		this(nodes.size(), epsilon, groups);
+		this.nodes = nodes;
+		this.reader = reader;
+		invalid = new boolean[size];
+		invalidPositions = new int[size];
+		for (int i = 0; i < size; i++) {
+			nodes.get(i).addLoadIndex(this, i);
+			invalidate(i);
+		}
+	}
+
+	/**
+	 * @return the number of nodes.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Sets the load of a node.
+	 * @param position the position of the node.
+	 * @param group the group of the node.
+	 * @param load the load of the node.
+	 */
+	public void setLoad(int position, int group, double load) {
+		int i = offset + position;
+		minGroups[i] = group;
+		// the same load for 0.0 and -0.0
+		minLoads[i] = load + 0.0;
+		for (i >>= 1; i > 0; i >>= 1) {
+			merge(i);
+		}
+	}
+
+	/**
+	 * Gets the load of a node.
+	 * @param position the position of the node.
+	 * @return the load last set or read.
+	 */
+	public double getLoad(int position) {
+		return minLoads[offset + position];
+	}
+
+	/**
+	 * Marks the load of a node as changed, so that it is read again at the next refresh.
+	 * @param position the position of the node.
+	 */
+	void invalidate(int position) {
+		if (!invalid[position]) {
+			invalid[position] = true;
+			invalidPositions[invalidCount++] = position;
+		}
+	}
+
+	/**
+	 * Reads the loads of the nodes which have processed events since the previous refresh.
+	 * @param current the node processing the current event, whose load may have changed since
+	 * its last event, or null.
+	 * @throws NetException if the properties of a node cannot be read: its load will be read again
+	 * at the next refresh.
+	 */
+	public void refresh(NetNode current) throws NetException {
+		if (current != null) {
+			current.loadChanged();
+		}
+		while (invalidCount > 0) {
+			int position = invalidPositions[invalidCount - 1];
+			NetNode node = nodes.get(position);
+			setLoad(position, reader.getGroup(node), reader.getLoad(node));
+			invalid[position] = false;
+			invalidCount--;
+		}
+	}
+
+	/**
+	 * @return the group of the least loaded nodes.
+	 */
+	public int getMinGroup() {
+		return minGroups[1];
+	}
+
+	/**
+	 * @return the load of the least loaded nodes.
+	 */
+	public double getMinLoad() {
+		return minLoads[1];
+	}
+
+	/**
+	 * Chooses one of the least loaded nodes, at random if there are more than one.
+	 * @param randomEngine the random engine, used only if there are more than one least loaded nodes.
+	 * @return the position of the chosen node.
+	 */
+	public int selectMin(RandomEngine randomEngine) {
+		if (nextGroups[1] == minGroups[1] && nextLoads[1] - minLoads[1] < epsilon) {
+			// loads differ by less than epsilon: the result depends on their order
+			return scanMin(randomEngine);
+		}
+		int count = minCounts[1];
+		return getMin((count > 1) ? (int) Math.floor(randomEngine.raw() * count) : 0);
+	}
+
+	/**
+	 * @return the number of nodes whose key is exactly the least one.
+	 */
+	public int getMinCount() {
+		return minCounts[1];
+	}
+
+	/**
+	 * Gets one of the nodes whose key is exactly the least one.
+	 * @param rank the rank of the node among them, in order of position, less than getMinCount().
+	 * @return the position of the node.
+	 */
+	public int getMin(int rank) {
+		int i = 1;
+		while (i < offset) {
+			int left = 2 * i;
+			if (compare(left, 1) == 0) {
+				if (rank < minCounts[left]) {
+					i = left;
+				} else {
+					rank -= minCounts[left];
+					i = left + 1;
+				}
+			} else {
+				i = left + 1;
+			}
+		}
+		return i - offset;
+	}
+
+	/**
+	 * Chooses one of the least loaded nodes as the linear scans of the routing strategies do.
+	 */
+	private int scanMin(RandomEngine randomEngine) {
+		int[] candidates = new int[size];
+		int length = 0;
+		int leastGroup = groups - 1;
+		double leastLoad = Double.POSITIVE_INFINITY;
+		for (int position = 0; position < size; position++) {
+			int group = minGroups[offset + position];
+			double load = minLoads[offset + position];
+			if (group < leastGroup) {
+				leastGroup = group;
+				leastLoad = load;
+				candidates[0] = position;
+				length = 1;
+			} else if (group == leastGroup) {
+				if (load == leastLoad || Math.abs(load - leastLoad) < epsilon) {
+					candidates[length++] = position;
+				} else if (load < leastLoad) {
+					leastLoad = load;
+					candidates[0] = position;
+					length = 1;
+				}
+			}
+		}
+		if (length > 1) {
+			return candidates[(int) Math.floor(randomEngine.raw() * length)];
+		}
+		return candidates[0];
+	}
+
+	/**
+	 * Compares the least keys of two elements of the tree.
+	 */
+	private int compare(int i, int j) {
+		if (minGroups[i] != minGroups[j]) {
+			return minGroups[i] < minGroups[j] ? -1 : 1;
+		}
+		return Double.compare(minLoads[i], minLoads[j]);
+	}
+
+	/**
+	 * Computes an element of the tree from its children.
+	 */
+	private void merge(int i) {
+		int left = 2 * i;
+		int right = left + 1;
+		int result = compare(left, right);
+		int min = (result <= 0) ? left : right;
+		int other = (result <= 0) ? right : left;
+		minGroups[i] = minGroups[min];
+		minLoads[i] = minLoads[min];
+		if (result == 0) {
+			minCounts[i] = minCounts[left] + minCounts[right];
+			setNext(i, nextGroups[left], nextLoads[left], nextGroups[right], nextLoads[right]);
+		} else {
+			minCounts[i] = minCounts[min];
+			setNext(i, nextGroups[min], nextLoads[min], minGroups[other], minLoads[other]);
+		}
+	}
+
+	/**
+	 * Sets the next key of an element of the tree to the least of two keys.
+	 */
+	private void setNext(int i, int group1, double load1, int group2, double load2) {
+		if (group1 < group2 || (group1 == group2 && Double.compare(load1, load2) <= 0)) {
+			nextGroups[i] = group1;
+			nextLoads[i] = load1;
+		} else {
+			nextGroups[i] = group2;
+			nextLoads[i] = load2;
+		}
+	}
+
+}
@@ -24,7 +24,6 @@ import jmt.engine.log.LoggerStateManager;
 import jmt.engine.simEngine.Simulation;
 import jmt.engine.NodeSections.Linkage;
 import jmt.engine.NodeSections.Queue;
-import org.apache.commons.math3.util.Pair;
 
 import jmt.common.exception.NetException;
 import jmt.engine.dataAnalysis.InverseMeasure;
@@ -33,13 +32,16 @@ import jmt.engine.log.JSimLogger;
 import jmt.engine.random.Parameter;
 import jmt.engine.simEngine.RemoveToken;
 
+import java.io.Serializable;
 import java.util.List;
 
 /**
  * This class implements a generic section of a NetNode.
  * @author Francesco Radaelli, Stefano Omini
  */
-public abstract class NodeSection {
+public abstract class NodeSection implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/*------------------------------ADDRESSES---------------------------------*/
 
@@ -26,9 +26,13 @@ package jmt.engine.QueueNet;
  */
 public class PSJobInfo extends JobInfo {
 
+	private static final long serialVersionUID = 1L;
+
 	private double serviceTime;
 	private double residualServiceTime;
 	private double aheadServiceTimeInLastQuantum;
+	private double virtualCompletionTime;
+	private long sequence;
 
 	/**
 	 * Creates a new instance of JobInfo object.
@@ -94,4 +98,37 @@ public class PSJobInfo extends JobInfo {
 	public void setAheadServiceTimeInLastQuantum(double aheadServiceTimeInLastQuantum) {
 		this.aheadServiceTimeInLastQuantum = aheadServiceTimeInLastQuantum;
 	}
+
+	/**
+	 * Gets the virtual time of the job class at which the job completes.
+	 * @see PSVirtualTimeQueue
+	 * @return Virtual time at which the job completes.
+	 */
+	public double getVirtualCompletionTime() {
+		return virtualCompletionTime;
+	}
+
+	/**
+	 * Sets the virtual time of the job class at which the job completes.
+	 * @param virtualCompletionTime Virtual time at which the job completes.
+	 */
+	public void setVirtualCompletionTime(double virtualCompletionTime) {
+		this.virtualCompletionTime = virtualCompletionTime;
+	}
+
+	/**
+	 * Gets the arrival order of the job, used to break ties between completions.
+	 * @return Arrival order of the job.
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * Sets the arrival order of the job, used to break ties between completions.
+	 * @param sequence Arrival order of the job.
+	 */
+	public void setSequence(long sequence) {
+		this.sequence = sequence;
+	}
 }
@@ -30,6 +30,8 @@ import java.util.List;
  */
 public class PSJobInfoList extends LinkedJobInfoList {
 
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Creates a new JobInfoList instance.
 	 * @param jobClasses number of job classes.
@@ -0,0 +1,170 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.QueueNet;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * <p><b>Name:</b> PSVirtualTimeQueue</p>
+ * <p><b>Description:</b>
+ * Keeps the jobs of a processor-sharing server sorted by completion, so that the server does not
+ * need to update the residual service times of all its jobs at each arrival and departure.
+ * </p>
+ * <p>Whatever the PS strategy used to share the capacity among classes, all the jobs of a class
+ * receive the same service rate. Thus, for each class, the queue keeps a virtual time, that is the
+ * service received by each job of the class since the class became busy, and each job is sorted by
+ * the virtual time at which it completes, that is the virtual time at its arrival plus its service time.
+ * Advancing the time and finding the next completion cost O(C), adding and removing a job cost O(log n),
+ * where C is the number of classes and n the number of jobs.</p>
+ * <p>Completions at the same time are sorted by arrival, as in the list of the server.</p>
+ *
+ * @author Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+ */
+public class PSVirtualTimeQueue implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Order of the jobs of a class: virtual completion time, then arrival */
+	private static final class CompletionOrder implements Comparator<PSJobInfo>, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		public int compare(PSJobInfo j1, PSJobInfo j2) {
+			int result = Double.compare(j1.getVirtualCompletionTime(), j2.getVirtualCompletionTime());
+			if (result != 0) {
+				return result;
+			}
+			return j1.getSequence() < j2.getSequence() ? -1 : (j1.getSequence() > j2.getSequence() ? 1 : 0);
+		}
+	}
+
+	private double[] virtualTimes;
+	private List<TreeSet<PSJobInfo>> jobsPerClass;
+	private long sequence;
+
+	/**
+	 * Creates a new PSVirtualTimeQueue
+	 * @param numberOfClasses number of job classes.
+	 */
+	public PSVirtualTimeQueue(int numberOfClasses) {
+		virtualTimes = new double[numberOfClasses];
+		jobsPerClass = new ArrayList<TreeSet<PSJobInfo>>(numberOfClasses);
+		CompletionOrder order = new CompletionOrder();
+		for (int c = 0; c < numberOfClasses; c++) {
+			jobsPerClass.add(new TreeSet<PSJobInfo>(order));
+		}
+		sequence = 0;
+	}
+
+	/**
+	 * Advances the virtual times of the busy classes
+	 * @param elapsedTime time elapsed since the previous call.
+	 * @param rates service rate received by each job, per class, in the elapsed time.
+	 */
+	public void advance(double elapsedTime, double[] rates) {
+		for (int c = 0; c < virtualTimes.length; c++) {
+			if (!jobsPerClass.get(c).isEmpty()) {
+				virtualTimes[c] += elapsedTime * rates[c];
+			}
+		}
+	}
+
+	/**
+	 * Adds a job
+	 * @param jobInfo the job.
+	 * @param serviceTime service time that the job must receive.
+	 */
+	public void add(PSJobInfo jobInfo, double serviceTime) {
+		int c = jobInfo.getJob().getJobClass().getId();
+		jobInfo.setVirtualCompletionTime(virtualTimes[c] + serviceTime);
+		jobInfo.setSequence(sequence++);
+		jobsPerClass.get(c).add(jobInfo);
+	}
+
+	/**
+	 * Removes a job
+	 * @param jobInfo the job.
+	 */
+	public void remove(PSJobInfo jobInfo) {
+		int c = jobInfo.getJob().getJobClass().getId();
+		TreeSet<PSJobInfo> jobs = jobsPerClass.get(c);
+		jobs.remove(jobInfo);
+		if (jobs.isEmpty()) {
+			// restarts from zero, so that virtual times do not lose precision
+			virtualTimes[c] = 0.0;
+		}
+	}
+
+	/**
+	 * Gets the residual service time of a job
+	 * @param jobInfo the job.
+	 * @return residual service time that the job must receive.
+	 */
+	public double getResidualServiceTime(PSJobInfo jobInfo) {
+		return jobInfo.getVirtualCompletionTime() - virtualTimes[jobInfo.getJob().getJobClass().getId()];
+	}
+
+	/**
+	 * Gets the time after which a job completes if the rates do not change
+	 * @param jobInfo the job.
+	 * @param rates service rate received by each job, per class.
+	 * @return time after which the job completes.
+	 */
+	public double getWaitTime(PSJobInfo jobInfo, double[] rates) {
+		return getResidualServiceTime(jobInfo) / rates[jobInfo.getJob().getJobClass().getId()];
+	}
+
+	/**
+	 * Finds the job which completes first if the rates do not change
+	 * @param rates service rate received by each job, per class.
+	 * @return the job which completes first, or null if no job completes.
+	 */
+	public PSJobInfo getNext(double[] rates) {
+		PSJobInfo next = null;
+		double minWaitTime = Double.MAX_VALUE;
+		for (int c = 0; c < virtualTimes.length; c++) {
+			TreeSet<PSJobInfo> jobs = jobsPerClass.get(c);
+			if (!jobs.isEmpty()) {
+				PSJobInfo jobInfo = jobs.first();
+				double waitTime = getWaitTime(jobInfo, rates);
+				if (waitTime < minWaitTime || (waitTime == minWaitTime && next != null && jobInfo.getSequence() < next.getSequence())) {
+					next = jobInfo;
+					minWaitTime = waitTime;
+				}
+			}
+		}
+		return next;
+	}
+
+	/**
+	 * @return the number of jobs.
+	 */
+	public int size() {
+		int size = 0;
+		for (TreeSet<PSJobInfo> jobs : jobsPerClass) {
+			size += jobs.size();
+		}
+		return size;
+	}
+
+}
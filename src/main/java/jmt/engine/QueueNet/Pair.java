@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.QueueNet;
+
+import java.io.Serializable;
+
+/**
+ * An immutable pair of objects, used to identify a (node, class) pair visited by a job.
+ * It replaces org.apache.commons.math3.util.Pair, which is not serializable, with the
+ * same equality and hash code, so that the state of a simulation can be checkpointed.
+ *
+ * @author Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+ */
+public class Pair<K, V> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final K key;
+	private final V value;
+
+	public Pair(K key, V value) {
+		this.key = key;
+		this.value = value;
+	}
+
+	public K getKey() {
+		return key;
+	}
+
+	public V getValue() {
+		return value;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof Pair)) {
+			return false;
+		}
+		Pair<?, ?> other = (Pair<?, ?>) o;
+		return (key == null ? other.key == null : key.equals(other.key))
+				&& (value == null ? other.value == null : value.equals(other.value));
+	}
+
+	@Override
+	public int hashCode() {
+		int result = key == null ? 0 : key.hashCode();
+		int h = value == null ? 0 : value.hashCode();
+		result = 37 * result + h ^ (h >>> 16);
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "[" + key + ", " + value + "]";
+	}
+
+}
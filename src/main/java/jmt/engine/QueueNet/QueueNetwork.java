@@ -18,6 +18,7 @@
 
 package jmt.engine.QueueNet;
 
+import java.io.Serializable;
 import java.util.LinkedList;
 import java.util.ListIterator;
 
@@ -28,7 +29,9 @@ import jmt.engine.dataAnalysis.TempMeasure;
  * This class implements a queue network.
  * @author Francesco Radaelli, Bertoli Marco (Added support for global measures)
  */
-public class QueueNetwork {
+public class QueueNetwork implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/* Symbolic name for reference node in the network: it should be used
 	 * within broadcast communication.
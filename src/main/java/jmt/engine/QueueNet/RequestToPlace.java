@@ -1,8 +1,13 @@
 package jmt.engine.QueueNet;
 
+import java.io.Serializable;
+
 import jmt.engine.NetStrategies.TransitionUtilities.TransitionVector;
 
-public class RequestToPlace {
+public class RequestToPlace implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
     public TransitionVector enablingVector;
     public TransitionVector resourceVector;
 
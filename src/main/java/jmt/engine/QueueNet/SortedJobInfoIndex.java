@@ -0,0 +1,166 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.QueueNet;
+
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.TreeSet;
+
+/**
+ * <p><b>Name:</b> SortedJobInfoIndex</p>
+ * <p><b>Description:</b>
+ * A balanced search tree over the elements of a JobInfoLinkedList that is kept sorted according to
+ * a given order. It finds in log(n) the position where a new job must be inserted, that is before the
+ * first job that follows it in the order: jobs that are equal in the order are kept in insertion order.
+ * </p>
+ * <p>The index is updated by LinkedJobInfoList when jobs are inserted or removed through it. If the list
+ * is modified in any other way, the index is rebuilt when it is used again, and it is disabled as long
+ * as the list is not sorted.</p>
+ */
+class SortedJobInfoIndex implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Element of the tree */
+	private static final class Entry implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private JobInfo jobInfo;
+		private long sequence;
+
+		private Entry(JobInfo jobInfo, long sequence) {
+			this.jobInfo = jobInfo;
+			this.sequence = sequence;
+		}
+	}
+
+	/** Order of the tree: the given order, then the insertion order */
+	private static final class EntryOrder implements Comparator<Entry>, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private Comparator<JobInfo> order;
+
+		private EntryOrder(Comparator<JobInfo> order) {
+			this.order = order;
+		}
+
+		public int compare(Entry e1, Entry e2) {
+			int result = order.compare(e1.jobInfo, e2.jobInfo);
+			if (result != 0) {
+				return result;
+			}
+			return e1.sequence < e2.sequence ? -1 : (e1.sequence > e2.sequence ? 1 : 0);
+		}
+	}
+
+	private JobInfoLinkedList list;
+	private TreeSet<Entry> tree;
+	private IdentityHashMap<JobInfo, Entry> entries = new IdentityHashMap<JobInfo, Entry>();
+	/** Used to keep equal jobs in insertion order */
+	private long sequence;
+	/** Modification count of the list the index corresponds to */
+	private int expectedModCount;
+	/** True if the list was sorted when the index was built */
+	private boolean sorted;
+
+	/**
+	 * Creates an index over the given list.
+	 * @param list the list
+	 * @param order the order, that compares to a positive value if the first job must follow the second one
+	 */
+	SortedJobInfoIndex(JobInfoLinkedList list, Comparator<JobInfo> order) {
+		this.list = list;
+		tree = new TreeSet<Entry>(new EntryOrder(order));
+		rebuild(order);
+	}
+
+	/**
+	 * Tells if the list is sorted, rebuilding the index if the list was modified from outside.
+	 * @param order the order of the index
+	 * @return true if the list is sorted and the index can be used
+	 */
+	boolean isSorted(Comparator<JobInfo> order) {
+		if (expectedModCount != list.getModCount()) {
+			rebuild(order);
+		}
+		return sorted;
+	}
+
+	/**
+	 * Finds the first job that follows the given one. The index must be sorted.
+	 * @param jobInfo the job to be inserted
+	 * @return the first job that follows jobInfo, or null if jobInfo must be put at the end of the list
+	 */
+	JobInfo successor(JobInfo jobInfo) {
+		Entry entry = tree.higher(new Entry(jobInfo, Long.MAX_VALUE));
+		return entry != null ? entry.jobInfo : null;
+	}
+
+	/**
+	 * Called after a job was inserted in the list in the position returned by successor().
+	 * @param jobInfo the inserted job
+	 */
+	void added(JobInfo jobInfo) {
+		if (expectedModCount == list.getModCount() - 1) {
+			Entry entry = new Entry(jobInfo, sequence++);
+			entries.put(jobInfo, entry);
+			tree.add(entry);
+			expectedModCount = list.getModCount();
+		}
+	}
+
+	/**
+	 * Called after a job was removed from the list.
+	 * @param jobInfo the removed job
+	 */
+	void removed(JobInfo jobInfo) {
+		if (expectedModCount == list.getModCount() - 1) {
+			Entry entry = entries.remove(jobInfo);
+			if (entry != null) {
+				tree.remove(entry);
+				expectedModCount = list.getModCount();
+			}
+		}
+	}
+
+	private void rebuild(Comparator<JobInfo> order) {
+		tree.clear();
+		entries.clear();
+		sequence = 0;
+		sorted = true;
+		JobInfo previous = null;
+		for (JobInfo jobInfo : list) {
+			if ((previous != null && order.compare(previous, jobInfo) > 0) || entries.containsKey(jobInfo)) {
+				sorted = false;
+				tree.clear();
+				entries.clear();
+				break;
+			}
+			Entry entry = new Entry(jobInfo, sequence++);
+			entries.put(jobInfo, entry);
+			tree.add(entry);
+			previous = jobInfo;
+		}
+		expectedModCount = list.getModCount();
+	}
+
+}
@@ -27,6 +27,8 @@ package jmt.engine.QueueNet;
  */
 public class WaitingRequest extends JobInfo {
 
+	private static final long serialVersionUID = 1L;
+
 	private byte sourceSection;
 	private NetNode source;
 
@@ -18,6 +18,8 @@
 
 package jmt.engine.dataAnalysis;
 
+import java.io.Serializable;
+
 /**
  * <p>Title: DynamicDataAnalyzer Interface</p>
  * <p>Description: This interface is implemented by Data Analyzers used to evaluate
@@ -27,7 +29,7 @@ package jmt.engine.dataAnalysis;
  *         Date: 11-gen-2006
  *         Time: 10.40.52
  */
-public interface DynamicDataAnalyzer {
+public interface DynamicDataAnalyzer extends Serializable {
 
 	/**
 	 * Returns if the analysis was successful
@@ -128,4 +130,11 @@ public interface DynamicDataAnalyzer {
 	 */
 	public void setParameters(SimParameters parameters);
 
+	/**
+	 * Skips the detection of the initial transient, as the simulation starts from a state
+	 * reached by a previous run (see Simulation.setWarmStartState()). The most biased
+	 * initial samples are still deleted. Must be called before the first sample is added.
+	 */
+	public void skipTransientDetection();
+
 }
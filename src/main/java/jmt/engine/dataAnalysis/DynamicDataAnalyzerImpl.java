@@ -42,6 +42,8 @@ import Jama.Matrix;
 
 public class DynamicDataAnalyzerImpl implements DynamicDataAnalyzer {
 
+	private static final long serialVersionUID = 1L;
+
 	private static final boolean DEBUG = false;
 	private static final boolean ZERODEBUG = false;
 
@@ -144,6 +146,8 @@ public class DynamicDataAnalyzerImpl implements DynamicDataAnalyzer {
 
 	/**minimum length (number of samples) of transient period */
 	int minSamples = 0;
+	/**transient length assumed when the simulation starts from a steady state */
+	private static final int WARM_START_SAMPLES = 1000;
 	/**sums of samples*/
 	double sumS = 0;
 	/**sums of weights.*/
@@ -218,8 +222,11 @@ public class DynamicDataAnalyzerImpl implements DynamicDataAnalyzer {
 	 * @return true if the computation of confidence interval has finished (i.e. if the
 	 * confidence interval is smaller than the one required by
 	 * the user, or if the analyzed data are too many), false otherwise
+	 * <br>
+	 * Samples are added only by the simulation thread, so this method is not synchronized:
+	 * other threads read the results through Measure.getSnapshot().
 	 */
-	public synchronized boolean addSample(double newSample, double weight) {
+	public boolean addSample(double newSample, double weight) {
 
 		//DEK (Federico Granata)
 		// why /5 ???  --> see documentation
@@ -1168,6 +1175,18 @@ public class DynamicDataAnalyzerImpl implements DynamicDataAnalyzer {
 
 	}
 
+	/**
+	 * Skips the heuristic rule R5 and the Schruben test: a short transient is assumed,
+	 * whose most biased samples are deleted by the rule MSR5.
+	 */
+	public void skipTransientDetection() {
+		if (nSamples == 0) {
+			heuristic = true;
+			initialized = true;
+			minSamples = WARM_START_SAMPLES;
+		}
+	}
+
 	@Override
 	public double getLastIntervalAvg() {
 		if (lastWeight == 0.0) {
@@ -28,6 +28,8 @@ package jmt.engine.dataAnalysis;
 
 public class InverseMeasure extends jmt.engine.dataAnalysis.Measure {
 
+	private static final long serialVersionUID = 1L;
+
 	public InverseMeasure(String Name, double alfa, double precision, int maxData, boolean Verbose) {
 		super(Name, alfa, precision, maxData, Verbose, null);
 	}
@@ -18,6 +18,7 @@
 
 package jmt.engine.dataAnalysis;
 
+import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -37,11 +38,11 @@ import jmt.engine.QueueNet.JobClass;
 import jmt.engine.QueueNet.NetNode;
 import jmt.engine.QueueNet.NetSystem;
 import jmt.engine.QueueNet.NodeSection;
+import jmt.engine.QueueNet.Pair;
 import jmt.engine.QueueNet.QueueNetwork;
 import jmt.engine.QueueNet.SimConstants;
 import jmt.engine.log.JSimLogger;
 
-import org.apache.commons.math3.util.Pair;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
@@ -51,7 +52,9 @@ import org.w3c.dom.Element;
  * @author Federico Granata (modified by Stefano Omini) (modified by Bertoli Marco)
  * @author Bertoli Marco (new Data Analyzer, bugfixed scaling)
  */
-public class Measure {
+public class Measure implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/**This is the object which receives the collected samples, computes the mean value
 	 and determines when the simulation must be stopped (confidence interval reached or
@@ -73,6 +76,9 @@ public class Measure {
 	/** A measure output object is used to print a measure values */
 	private MeasureOutput output;
 
+	/** The streaming writer of the results, notified when this measure finishes */
+	private transient StreamingXMLSimulationOutput resultsOutput;
+
 	private JSimLogger logger = JSimLogger.getLogger(JSimLogger.STD_LOGGER);
 
 	//these informations were already contained in the SimMeasure class, but were no longer
@@ -123,6 +129,12 @@ public class Measure {
 
 	protected double simulationTime;
 
+	//values published by the simulation thread for the other threads (see getSnapshot())
+	private volatile MeasureSnapshot snapshot = new MeasureSnapshot();
+
+	//true if a thread asked for a new snapshot
+	private volatile boolean snapshotRequested = false;
+
 	protected double lastSampleWeight;
 
 	protected double lastWeight;
@@ -231,6 +243,15 @@ public class Measure {
 		this.output = output;
 	}
 
+	/**
+	 * Sets the streaming writer of the results, which appends this measure
+	 * to the results file as soon as it finishes.
+	 * @param resultsOutput the streaming writer of the results
+	 */
+	void setResultsOutput(StreamingXMLSimulationOutput resultsOutput) {
+		this.resultsOutput = resultsOutput;
+	}
+
 	/**
 	 * Returns true if the analysis measure is successful
 	 * @return true if the analysis measure respects all users requests
@@ -334,21 +355,22 @@ public class Measure {
 	}
 
 	/** Updates data. This method should be called to add a new sample to the
-	 * collected data.
+	 * collected data. It must be called only by the simulation thread: other
+	 * threads should read the values of this measure through getSnapshot().
 	 * @param sample sample to be added.
 	 * @param weight sample weight.
 	 * @return True if the computation of this measure has been finished, false otherwise.
 	 */
 
-	public synchronized boolean update(double sample, double weight) {
+	public boolean update(double sample, double weight) {
 		return update(sample,weight,null, 0);
 	}
 
-	public synchronized boolean update(double sample, double weight, String nodeName){
+	public boolean update(double sample, double weight, String nodeName){
 		return update(sample,weight,nodeName, 0);
 	}
 
-	public synchronized boolean update(double sample, double weight, String nodeName, int numOfVisits) {
+	public boolean update(double sample, double weight, String nodeName, int numOfVisits) {
 		/*
 		The old version has this problem:
 		Even if the confidence requirements have been reached, measure is updated until ALL
@@ -372,6 +394,10 @@ public class Measure {
 			return true;
 		}
 
+		if (snapshotRequested) {
+			publishSnapshot();
+		}
+
 		// Resets measure dead state
 		deadState = 0;
 		lastSampleWeight = lastSampleWeight + (sample * weight);
@@ -390,6 +416,8 @@ public class Measure {
 					//writes the final measure
 					output.finalizeMeasure();
 				}
+				publishSnapshot();
+				notifyFinished();
 			}
 			//simulation already finished
 
@@ -473,6 +501,32 @@ public class Measure {
 		return results;
 	}
 
+	/**
+	 * gets the probabilities of all requested quantiles
+	 *
+	 * @return vector of probabilities, null if quantiles computation was not requested
+	 * while creating the Measure object. See constructor's parameters.
+	 */
+	public double[] getQuantileProbabilities() {
+		if (analyzer instanceof QuantileDataAnalyzer) {
+			return ((QuantileDataAnalyzer) analyzer).getQuantileProbabilities();
+		}
+		return null;
+	}
+
+	/**
+	 * gets the confidence intervals of all requested quantiles
+	 *
+	 * @return the lower and upper bound of the interval of each quantile, null if quantiles
+	 * computation was not requested while creating the Measure object.
+	 */
+	public double[][] getQuantileConfIntervals() {
+		if (analyzer instanceof QuantileDataAnalyzer) {
+			return ((QuantileDataAnalyzer) analyzer).getQuantileConfInts();
+		}
+		return null;
+	}
+
 	/**
 	 * Creates a DOM (Document Object Model) <code>Document<code>.
 	 */
@@ -604,7 +658,12 @@ public class Measure {
 
 	//******************ABORT**********************//
 
-	public synchronized boolean abortMeasure() {
+	/**
+	 * Aborts the computation of this measure. It must be called by the simulation
+	 * thread, or while the simulation is paused.
+	 * @return true if the measure was aborted, false if it had already finished
+	 */
+	public boolean abortMeasure() {
 		if (finish) {
 			//measure already finished
 			//nothing to do
@@ -653,6 +712,8 @@ public class Measure {
 	protected void stopMeasure(boolean success) {
 		//stops measure
 		analyzer.stopMeasure(success);
+		publishSnapshot();
+		notifyFinished();
 
 		//writes measure output on log
 		if (logger.isDebugEnabled()) {
@@ -666,6 +727,8 @@ public class Measure {
 		boolean success = analyzer.getSuccess();
 		//stops measure
 		analyzer.stopMeasure(success);
+		publishSnapshot();
+		notifyFinished();
 
 		//writes measure output on log
 		if (logger.isDebugEnabled()) {
@@ -678,6 +741,15 @@ public class Measure {
 		}
 	}
 
+	/**
+	 * Notifies the streaming writer of the results, if any, that this measure has finished
+	 */
+	private void notifyFinished() {
+		if (resultsOutput != null && finish) {
+			resultsOutput.finalizeMeasure(this);
+		}
+	}
+
 	public boolean hasBeenAborted() {
 		return aborted;
 	}
@@ -687,6 +759,13 @@ public class Measure {
 	 * @param param the simulation parameters to consider
 	 */
 	public void setSimParameters(SimParameters param) {
+		if (analyzer instanceof QuantileDataAnalyzer && !(analyzer instanceof StreamingQuantileDataAnalyzer)
+				&& analyzer.getSamples() == 0 && analyzer.getMaxData() > param.getQuantileSketchThreshold()) {
+			//too many samples to be stored and sorted: quantiles are estimated by a sketch
+			QuantileDataAnalyzer quantileAnalyzer = (QuantileDataAnalyzer) analyzer;
+			analyzer = new StreamingQuantileDataAnalyzer(quantileAnalyzer.getAlfa(), quantileAnalyzer.getPrecision(),
+					quantileAnalyzer.getMaxData(), quantileAnalyzer.quantile);
+		}
 		analyzer.setParameters(param);
 	}
 
@@ -694,4 +773,35 @@ public class Measure {
 		return simulationTime;
 	}
 
+	//******************SNAPSHOT**********************//
+
+	/**
+	 * Returns the latest values published by the simulation thread and asks it to
+	 * publish new ones at the next update of this measure. This method can be called
+	 * by any thread and never blocks the simulation: the values of the returned snapshot
+	 * are consistent with each other, but they may be one request old while the
+	 * simulation is running (see publishSnapshot()).
+	 * @return the latest snapshot of this measure
+	 */
+	public MeasureSnapshot getSnapshot() {
+		if (!snapshot.hasFinished()) {
+			snapshotRequested = true;
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Publishes a new snapshot with the current values of this measure. It must be called
+	 * by the simulation thread, or while the simulation is paused or finished. The last
+	 * interval average of the snapshot refers to the samples received since the previous one.
+	 * @return the published snapshot
+	 */
+	public MeasureSnapshot publishSnapshot() {
+		boolean finished = finish;
+		snapshotRequested = false;
+		snapshot = new MeasureSnapshot(getAnalyzedSamples(), getDiscardedSamples(), getEstimatedMeanValue(), getLowerLimit(),
+				getUpperLimit(), getLastIntervalAvgValue(), getSimTime(), finished, finished && getSuccess(), finished && receivedNoSamples());
+		return snapshot;
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.dataAnalysis;
+
+import java.io.Serializable;
+
+/**
+ * Immutable copy of the values of a Measure, published by the simulation thread
+ * so that other threads (e.g. the GUI) can read consistent values without locking
+ * the measure (see Measure.getSnapshot()).
+ *
+ * @author Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+ */
+public final class MeasureSnapshot implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int analyzedSamples;
+	private final int discardedSamples;
+	private final double estimatedMeanValue;
+	private final double lowerLimit;
+	private final double upperLimit;
+	private final double lastIntervalAvgValue;
+	private final double simTime;
+	private final boolean finished;
+	private final boolean success;
+	private final boolean noSamples;
+
+	/**
+	 * Creates the snapshot of a measure that has not received any sample yet.
+	 */
+	MeasureSnapshot() {
+		this(0, 0, 0.0, 0.0, 0.0, 0.0, 0.0, false, false, false);
+	}
+
+	MeasureSnapshot(int analyzedSamples, int discardedSamples, double estimatedMeanValue, double lowerLimit, double upperLimit,
+			double lastIntervalAvgValue, double simTime, boolean finished, boolean success, boolean noSamples) {
+		this.analyzedSamples = analyzedSamples;
+		this.discardedSamples = discardedSamples;
+		this.estimatedMeanValue = estimatedMeanValue;
+		this.lowerLimit = lowerLimit;
+		this.upperLimit = upperLimit;
+		this.lastIntervalAvgValue = lastIntervalAvgValue;
+		this.simTime = simTime;
+		this.finished = finished;
+		this.success = success;
+		this.noSamples = noSamples;
+	}
+
+	public int getAnalyzedSamples() {
+		return analyzedSamples;
+	}
+
+	public int getDiscardedSamples() {
+		return discardedSamples;
+	}
+
+	public double getEstimatedMeanValue() {
+		return estimatedMeanValue;
+	}
+
+	public double getLowerLimit() {
+		return lowerLimit;
+	}
+
+	public double getUpperLimit() {
+		return upperLimit;
+	}
+
+	/**
+	 * @return the average of the samples received since the previous snapshot
+	 */
+	public double getLastIntervalAvgValue() {
+		return lastIntervalAvgValue;
+	}
+
+	public double getSimTime() {
+		return simTime;
+	}
+
+	public boolean hasFinished() {
+		return finished;
+	}
+
+	public boolean getSuccess() {
+		return success;
+	}
+
+	public boolean receivedNoSamples() {
+		return noSamples;
+	}
+
+}
@@ -40,6 +40,8 @@ import Jama.Matrix;
  */
 public class NewDynamicDataAnalyzer implements DynamicDataAnalyzer {
 
+	private static final long serialVersionUID = 1L;
+
 	private double alpha;
 	private double precision;
 	private int maxData;
@@ -79,6 +81,10 @@ public class NewDynamicDataAnalyzer implements DynamicDataAnalyzer {
 
 	// Transient Length
 	private int transientLen = 0;
+
+	// Transient length assumed when the simulation starts from a steady state: Fishman Rule is
+	// skipped and the MSER-m Rule is applied to the first samples only
+	private static final int warmStartLen = 2 * checkSize;
 	// ---------------------------------------------------------------------------------------------
 
 	// ---- Variables for MSER-m Rule --------------------------------------------------------------
@@ -276,17 +282,7 @@ public class NewDynamicDataAnalyzer implements DynamicDataAnalyzer {
 			if (!heuristicPassed) {
 				return false;
 			} else {
-				// Free allocated memory
-				hMeans = null;
-
-				// Heuristic to find spectral analysis parameters
-				minSamples = transientLen;
-
-				numBatch = 1 << ((int) Math.ceil((Math.log(Math.sqrt(transientLen / 4))) / Math.log(2)));
-				if (numBatch < 64) {
-					numBatch = 64;
-				}
-				batchLen = (int) Math.ceil(transientLen / ((double) numBatch * 4));
+				initSpectralAnalysis();
 
 				// Next iteration will perform spectral analysis
 				return false;
@@ -361,6 +357,23 @@ public class NewDynamicDataAnalyzer implements DynamicDataAnalyzer {
 		}
 	}
 
+	/**
+	 * Called when the transient length is known, to find the parameters of the spectral analysis
+	 */
+	private void initSpectralAnalysis() {
+		// Free allocated memory
+		hMeans = null;
+
+		// Heuristic to find spectral analysis parameters
+		minSamples = transientLen;
+
+		numBatch = 1 << ((int) Math.ceil((Math.log(Math.sqrt(transientLen / 4))) / Math.log(2)));
+		if (numBatch < 64) {
+			numBatch = 64;
+		}
+		batchLen = (int) Math.ceil(transientLen / ((double) numBatch * 4));
+	}
+
 	/**
 	 * Checks minimum constraints to determine if data analysis can end
 	 * @return true if the data analysis can end
@@ -946,4 +959,16 @@ public class NewDynamicDataAnalyzer implements DynamicDataAnalyzer {
 		this.disableStatisticStop = parameters.isDisableStatisticStop();
 	}
 
+	/**
+	 * Skips the Fishman Rule: a short transient is assumed, whose most biased samples are
+	 * deleted by the MSER-m Rule.
+	 */
+	public void skipTransientDetection() {
+		if (nSamples == 0) {
+			heuristicPassed = true;
+			transientLen = warmStartLen;
+			initSpectralAnalysis();
+		}
+	}
+
 }
@@ -22,6 +22,7 @@ import jmt.engine.dataAnalysis.sorting.HeapSort;
 import jmt.engine.dataAnalysis.sorting.SortAlgorithm;
 import jmt.engine.math.DoubleArrayList;
 import jmt.engine.math.SampleMeanVar;
+import jmt.engine.math.TStudent;
 
 /**
 
@@ -33,6 +34,8 @@ import jmt.engine.math.SampleMeanVar;
  */
 public class QuantileDataAnalyzer extends DynamicDataAnalyzerImpl {
 
+	private static final long serialVersionUID = 1L;
+
 	//TODO: does this class work also in the case of InverseMeasure????
 	DoubleArrayList data;
 
@@ -86,12 +89,20 @@ public class QuantileDataAnalyzer extends DynamicDataAnalyzerImpl {
 	@Override
 	public boolean addSample(double newSample, double Weight) {
 		if (initialized) {
-			data.add(newSample * Weight);
-			ordered = false;
+			store(newSample * Weight);
 		}
 		return super.addSample(newSample, Weight);
 	}
 
+	/**
+	 * Stores a sample used to estimate the quantiles.
+	 * @param value the weighted sample
+	 */
+	protected void store(double value) {
+		data.add(value);
+		ordered = false;
+	}
+
 	/**
 	 * returns the quantile with the requested probability.
 	 *
@@ -124,6 +135,61 @@ public class QuantileDataAnalyzer extends DynamicDataAnalyzerImpl {
 		}
 	}
 
+	/**
+	 * gets the probabilities of the requested quantiles.
+	 * @return vector of probabilities, null if no quantile was requested.
+	 */
+	public double[] getQuantileProbabilities() {
+		return quantile;
+	}
+
+	/**
+	 * Returns the confidence interval of the quantile with the requested probability,
+	 * with confidence level 1 - alfa. The interval is the distribution-free one bounded by
+	 * the order statistics of ranks n * prob -/+ z * sqrt(n * prob * (1 - prob)), using the
+	 * normal approximation of the binomial distribution. It assumes that the samples are
+	 * independent, so it is optimistic for correlated samples (e.g. the response times of
+	 * consecutive jobs).
+	 *
+	 * @param prob probability of the quantile
+	 * @return the lower and upper bound of the interval, NaN if no sample was analyzed
+	 */
+	public double[] getQuantileConfInt(double prob) {
+		double n = getStoredSamples();
+		if (n == 0) {
+			return new double[] { Double.NaN, Double.NaN };
+		}
+		double z = TStudent.qnorm(1.0 - alfa / 2.0, false);
+		double halfWidth = z * Math.sqrt(n * prob * (1.0 - prob));
+		double lower = Math.floor(n * prob - halfWidth);
+		double upper = Math.ceil(n * prob + halfWidth);
+		// Half a rank above the bound, so that the rank is not rounded down
+		return new double[] { getQuantile((Math.max(lower, 0.0) + 0.5) / n), getQuantile((Math.min(upper, n - 1) + 0.5) / n) };
+	}
+
+	/**
+	 * gets the confidence intervals of all requested quantiles.
+	 * @return the lower and upper bound of the interval of each quantile, null if no quantile was requested.
+	 */
+	public double[][] getQuantileConfInts() {
+		if (quantile != null) {
+			double[][] res = new double[quantile.length][];
+			for (int i = 0; i < res.length; i++) {
+				res[i] = getQuantileConfInt(quantile[i]);
+			}
+			return res;
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * @return the number of stored samples, among which the quantiles are ranked.
+	 */
+	protected long getStoredSamples() {
+		return data.getSize();
+	}
+
 	/**
 	 * returns the probability that a number extracted from the empirical
 	 * distribution analyzed is greater than the quantile.
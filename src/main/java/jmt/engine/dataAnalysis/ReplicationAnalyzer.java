@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.dataAnalysis;
+
+import java.util.List;
+
+import jmt.engine.math.TStudent;
+
+/**
+ * Computes the confidence interval of a measure from the estimates of independent
+ * replications of the same simulation: each replication gives one observation (its
+ * estimated mean value), and the interval is computed with the t-Student distribution
+ * with n-1 degrees of freedom, n being the number of replications. A single replication
+ * gives no interval between replications: its own confidence interval and success are
+ * reported instead, as for a simulation without replications.
+ *
+ * @author Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+ */
+public class ReplicationAnalyzer {
+
+	private double alfa;
+	private double precision;
+
+	private int replications;
+	private double mean;
+	private double confInt;
+	private double lowerLimit;
+	private double upperLimit;
+	//the success of the replication, when there is only one
+	private boolean replicationSuccess;
+	private int analyzedSamples;
+	private int discardedSamples;
+
+	/**
+	 * Creates a new ReplicationAnalyzer
+	 * @param alfa the significance level of the confidence interval
+	 * @param precision the maximum relative half width of the confidence interval
+	 */
+	public ReplicationAnalyzer(double alfa, double precision) {
+		this.alfa = alfa;
+		this.precision = precision;
+	}
+
+	/**
+	 * Computes the confidence interval of a measure from the first replications
+	 * @param results the snapshots of the measures of each replication, by replication
+	 * @param replications the number of replications to be considered, at least one
+	 * @param measure the position of the measure in the snapshots of a replication
+	 */
+	public void analyze(List<MeasureSnapshot[]> results, int replications, int measure) {
+		this.replications = replications;
+		analyzedSamples = 0;
+		discardedSamples = 0;
+		double sum = 0.0;
+		for (int i = 0; i < replications; i++) {
+			MeasureSnapshot snapshot = results.get(i)[measure];
+			sum += snapshot.getEstimatedMeanValue();
+			analyzedSamples += snapshot.getAnalyzedSamples();
+			discardedSamples += snapshot.getDiscardedSamples();
+		}
+		mean = sum / replications;
+		if (replications < 2) {
+			//falls back to the interval of the replication itself
+			MeasureSnapshot snapshot = results.get(0)[measure];
+			lowerLimit = snapshot.getLowerLimit();
+			upperLimit = snapshot.getUpperLimit();
+			confInt = (upperLimit - lowerLimit) / 2;
+			replicationSuccess = snapshot.getSuccess();
+			return;
+		}
+		double squares = 0.0;
+		for (int i = 0; i < replications; i++) {
+			double delta = results.get(i)[measure].getEstimatedMeanValue() - mean;
+			squares += delta * delta;
+		}
+		double variance = squares / (replications - 1);
+		confInt = TStudent.ICDF(alfa, replications - 1) * Math.sqrt(variance / replications);
+		lowerLimit = mean - confInt;
+		upperLimit = mean + confInt;
+	}
+
+	/**
+	 * @return true if the confidence interval is narrow enough. A measure whose value is
+	 * the same in all the replications (e.g. always zero) is always successful.
+	 */
+	public boolean getSuccess() {
+		if (replications < 2) {
+			return replicationSuccess;
+		}
+		if (Double.isNaN(mean)) {
+			return false;
+		}
+		return confInt == 0.0 || confInt <= precision * Math.abs(mean);
+	}
+
+	/**
+	 * @return the number of replications considered
+	 */
+	public int getReplications() {
+		return replications;
+	}
+
+	public double getMean() {
+		return mean;
+	}
+
+	/**
+	 * @return the half width of the confidence interval
+	 */
+	public double getConfInt() {
+		return confInt;
+	}
+
+	public double getLowerLimit() {
+		return lowerLimit;
+	}
+
+	public double getUpperLimit() {
+		return upperLimit;
+	}
+
+	/**
+	 * @return the number of samples analyzed by all the replications
+	 */
+	public int getAnalyzedSamples() {
+		return analyzedSamples;
+	}
+
+	/**
+	 * @return the number of samples discarded by all the replications
+	 */
+	public int getDiscardedSamples() {
+		return discardedSamples;
+	}
+
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.dataAnalysis;
+
+import java.util.List;
+import java.util.Map;
+
+import jmt.engine.simEngine.Simulation;
+
+/**
+ * Saves in a xml file the results of independent replications of the same simulation,
+ * with the same format of XMLSimulationOutput. The mean value and the confidence interval
+ * of each measure are computed from the estimates of the replications (see ReplicationAnalyzer),
+ * and the numbers of samples are the totals of all the replications.
+ *
+ * @author Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+ */
+public class ReplicationsSimulationOutput extends XMLSimulationOutput {
+
+	private List<MeasureSnapshot[]> results;
+	private int replications;
+
+	/**
+	 * Creates a new ReplicationsSimulationOutput
+	 * @param simulation one of the replications, whose measures define the measures of the results
+	 * @param results the snapshots of the measures of each replication, by replication, in the order
+	 * of the measures of the simulation
+	 * @param replications the number of replications to be considered
+	 */
+	public ReplicationsSimulationOutput(Simulation simulation, List<MeasureSnapshot[]> results, int replications) {
+		super(simulation);
+		this.results = results;
+		this.replications = replications;
+	}
+
+	@Override
+	protected Map<String, String> getMeasureAttributes(Measure measure, boolean statistics) {
+		int index = 0;
+		while (measureList[index] != measure) {
+			index++;
+		}
+		DynamicDataAnalyzer analyzer = measure.getAnalyzer();
+		ReplicationAnalyzer replicationAnalyzer = new ReplicationAnalyzer(analyzer.getAlfa(), analyzer.getPrecision());
+		replicationAnalyzer.analyze(results, replications, index);
+
+		Map<String, String> attributes = getMeasureDefinitionAttributes(measure);
+		attributes.put("successful", Boolean.toString(replicationAnalyzer.getSuccess()));
+		attributes.put("analyzedSamples", Integer.toString(replicationAnalyzer.getAnalyzedSamples()));
+		attributes.put("discardedSamples", Integer.toString(replicationAnalyzer.getDiscardedSamples()));
+		attributes.put("meanValue", Double.toString(replicationAnalyzer.getMean()));
+		attributes.put("upperLimit", Double.toString(replicationAnalyzer.getUpperLimit()));
+		attributes.put("lowerLimit", Double.toString(replicationAnalyzer.getLowerLimit()));
+		return attributes;
+	}
+
+}
@@ -18,13 +18,21 @@
 
 package jmt.engine.dataAnalysis;
 
+import java.io.Serializable;
+
+import jmt.engine.log.AsyncLogger;
+import jmt.engine.log.LoggerParameters;
+import jmt.engine.simEngine.SimSystem;
+
 /**
  * This class contains parameters that are shared by all DynamicDataAnalyzer objects.
  * If other values are not set, default ones are used.
  *
  * @author Stefano Omini
  */
-public class SimParameters {
+public class SimParameters implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	//-----------------------BATCH NUMBER AND SIZE------------------------------------//
 
@@ -57,12 +65,33 @@ public class SimParameters {
 
 	private boolean disableStatisticStop = false;
 
+	//implementation of the future event queue (see SimSystem.EVENT_QUEUE_* constants)
+	private String eventQueue = SimSystem.EVENT_QUEUE_HYBRID;
+
+	//number of random variates drawn at once by each service time strategy
+	private int randomBlockSize = 1;
+
+	//maximum number of samples above which quantiles are estimated without storing all the samples
+	private int quantileSketchThreshold = 1000000;
+
 	// logging attributes: path, replacement, delimiter, execution time
 	String logfilepath;
 	String logreplacemode;
 	String logdelimiterchar;
 	String logdeciamlseparatorchar;
 	String logtimestampvalue;
+	String logformat = LoggerParameters.LOG_FORMAT_CSV;
+	// asynchronous logging attributes
+	private boolean asyncLogging = false;
+	private int logBufferSize = AsyncLogger.DEFAULT_BUFFER_ROWS;
+	private int logBackpressure = AsyncLogger.BACKPRESSURE_BLOCK;
+	// results attributes
+	private boolean streamingResults = false;
+	private long partialResultsPeriod = 0;
+	// checkpoint attributes
+	private String checkpointFile = null;
+	private long checkpointPeriod = 0;
+	private double checkpointSimulatedTime = 0.0;
 
 	public SimParameters() {
 
@@ -212,6 +241,60 @@ public class SimParameters {
 		this.disableStatisticStop = disableStatisticStop;
 	}
 
+	/**
+	 * Gets the implementation of the future event queue
+	 * @return one of the SimSystem.EVENT_QUEUE_* constants
+	 */
+	public String getEventQueue() {
+		return eventQueue;
+	}
+
+	/**
+	 * Sets the implementation of the future event queue
+	 * @param eventQueue one of the SimSystem.EVENT_QUEUE_* constants
+	 */
+	public void setEventQueue(String eventQueue) {
+		this.eventQueue = eventQueue;
+	}
+
+	/**
+	 * Gets the number of random variates drawn at once by each service time strategy
+	 * @return the block size, 1 if variates are drawn one at a time
+	 */
+	public int getRandomBlockSize() {
+		return randomBlockSize;
+	}
+
+	/**
+	 * Sets the number of random variates drawn at once by each service time strategy.
+	 * With a block size greater than 1 the random engine is consumed in blocks, so results
+	 * differ from the ones obtained drawing variates one at a time, but are still reproducible
+	 * for a given seed and block size (see ServiceTimeStrategy).
+	 * @param randomBlockSize the block size, 1 to draw variates one at a time
+	 */
+	public void setRandomBlockSize(int randomBlockSize) {
+		this.randomBlockSize = randomBlockSize;
+	}
+
+	/**
+	 * Gets the maximum number of samples above which the quantiles of a measure are estimated
+	 * by a StreamingQuantileDataAnalyzer instead of sorting all the samples
+	 * @return the threshold on the maximum number of samples of a measure
+	 */
+	public int getQuantileSketchThreshold() {
+		return quantileSketchThreshold;
+	}
+
+	/**
+	 * Sets the maximum number of samples above which the quantiles of a measure are estimated
+	 * by a StreamingQuantileDataAnalyzer, which uses bounded memory but returns quantiles within
+	 * its relative accuracy, instead of sorting all the samples.
+	 * @param quantileSketchThreshold the threshold on the maximum number of samples of a measure
+	 */
+	public void setQuantileSketchThreshold(int quantileSketchThreshold) {
+		this.quantileSketchThreshold = quantileSketchThreshold;
+	}
+
 	public void setLogPath(String logfilepath) {
 		this.logfilepath = logfilepath;
 	}
@@ -252,4 +335,130 @@ public class SimParameters {
 		return logtimestampvalue;
 	}
 
+	/**
+	 * Sets the format of the log files written by loggers and verbose measures
+	 * @param logformat one of the LoggerParameters.LOG_FORMAT_* constants
+	 */
+	public void setLogFormat(String logformat) {
+		this.logformat = logformat;
+	}
+
+	public String getLogFormat() {
+		return logformat;
+	}
+
+	/**
+	 * @return true if log files are written with a BinaryLogger instead of a CSVLogger
+	 */
+	public boolean isBinaryLogFormat() {
+		return !LoggerParameters.LOG_FORMAT_CSV.equals(logformat);
+	}
+
+	/**
+	 * @return true if loggers write their rows from a separate thread (see AsyncLogger)
+	 */
+	public boolean isAsyncLogging() {
+		return asyncLogging;
+	}
+
+	/**
+	 * Sets whether loggers write their rows from a separate thread, so that the simulation
+	 * does not wait for the log files to be written
+	 * @param asyncLogging true to write the logs asynchronously
+	 */
+	public void setAsyncLogging(boolean asyncLogging) {
+		this.asyncLogging = asyncLogging;
+	}
+
+	/**
+	 * @return the number of rows of each buffer of an asynchronous logger
+	 */
+	public int getLogBufferSize() {
+		return logBufferSize;
+	}
+
+	public void setLogBufferSize(int logBufferSize) {
+		this.logBufferSize = logBufferSize;
+	}
+
+	/**
+	 * @return the backpressure policy of asynchronous loggers (see AsyncLogger.BACKPRESSURE_* constants)
+	 */
+	public int getLogBackpressure() {
+		return logBackpressure;
+	}
+
+	public void setLogBackpressure(int logBackpressure) {
+		this.logBackpressure = logBackpressure;
+	}
+
+	/**
+	 * @return true if the results are written by a StreamingXMLSimulationOutput
+	 */
+	public boolean isStreamingResults() {
+		return streamingResults;
+	}
+
+	/**
+	 * Sets whether the results are written one measure at a time, without building a
+	 * DOM document (see StreamingXMLSimulationOutput)
+	 * @param streamingResults true to write the results with a streaming writer
+	 */
+	public void setStreamingResults(boolean streamingResults) {
+		this.streamingResults = streamingResults;
+	}
+
+	/**
+	 * @return the period of the partial results written by the streaming writer, in milliseconds,
+	 * 0 if only the final results are written
+	 */
+	public long getPartialResultsPeriod() {
+		return partialResultsPeriod;
+	}
+
+	public void setPartialResultsPeriod(long partialResultsPeriod) {
+		this.partialResultsPeriod = partialResultsPeriod;
+	}
+
+	/**
+	 * @return the path of the file where the checkpoints of the simulation are written,
+	 * null if checkpoints are disabled
+	 */
+	public String getCheckpointFile() {
+		return checkpointFile;
+	}
+
+	/**
+	 * Sets the file where the state of the running simulation is periodically saved,
+	 * so that the simulation can be resumed from it (see SimulationCheckpoint)
+	 * @param checkpointFile the path of the checkpoint file, null to disable checkpoints
+	 */
+	public void setCheckpointFile(String checkpointFile) {
+		this.checkpointFile = checkpointFile;
+	}
+
+	/**
+	 * @return the wall clock period of the checkpoints, in milliseconds, 0 if checkpoints
+	 * are not triggered by wall clock time
+	 */
+	public long getCheckpointPeriod() {
+		return checkpointPeriod;
+	}
+
+	public void setCheckpointPeriod(long checkpointPeriod) {
+		this.checkpointPeriod = checkpointPeriod;
+	}
+
+	/**
+	 * @return the simulated time between two checkpoints, 0 if checkpoints are not
+	 * triggered by simulated time
+	 */
+	public double getCheckpointSimulatedTime() {
+		return checkpointSimulatedTime;
+	}
+
+	public void setCheckpointSimulatedTime(double checkpointSimulatedTime) {
+		this.checkpointSimulatedTime = checkpointSimulatedTime;
+	}
+
 }
@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.dataAnalysis;
+
+import jmt.engine.math.QuantileSketch;
+
+/**
+ * Analyzes the data in order to calculate the requested quantiles without storing
+ * all the samples. The samples are summarized by a QuantileSketch, so the memory used
+ * does not depend on the number of samples and each estimated quantile is within the
+ * relative accuracy of the sketch of the exact one (see QuantileSketch). The bounds of
+ * the confidence intervals of the quantiles (see getQuantileConfInt) are estimated within
+ * the same relative accuracy.
+ *
+ * @author Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+ */
+public class StreamingQuantileDataAnalyzer extends QuantileDataAnalyzer {
+
+	private static final long serialVersionUID = 1L;
+
+	private QuantileSketch sketch;
+
+	/**
+	 * Creates a StreamingQuantileDataAnalyzer.
+	 * @param  alfa    the quantile required for the confidence interval
+	 * @param  precision   maximum amplitude of confidence interval
+	 *                      (precision = maxamplitude / mean)
+	 * @param maxData  maximum number of data to be analyzed
+	 * @param quantile Requested quantiles
+	 * @param accuracy relative accuracy of the estimated quantiles
+	 */
+	public StreamingQuantileDataAnalyzer(double alfa, double precision, int maxData, double[] quantile, double accuracy) {
+		super(alfa, precision, maxData, quantile, null);
+		sketch = new QuantileSketch(accuracy, QuantileSketch.DEFAULT_MAX_BUCKETS);
+	}
+
+	/**
+	 * Creates a StreamingQuantileDataAnalyzer with the default relative accuracy.
+	 * @param  alfa    the quantile required for the confidence interval
+	 * @param  precision   maximum amplitude of confidence interval
+	 *                      (precision = maxamplitude / mean)
+	 * @param maxData  maximum number of data to be analyzed
+	 * @param quantile Requested quantiles
+	 */
+	public StreamingQuantileDataAnalyzer(double alfa, double precision, int maxData, double[] quantile) {
+		this(alfa, precision, maxData, quantile, QuantileSketch.DEFAULT_ACCURACY);
+	}
+
+	@Override
+	protected void store(double value) {
+		sketch.add(value);
+	}
+
+	/**
+	 * returns the quantile with the requested probability, that is the sample of rank
+	 * floor(prob * n) among the n sorted samples, within the relative accuracy of the sketch.
+	 *
+	 * @param prob probability of the quantile
+	 * @return the estimated quantile
+	 */
+	@Override
+	public double getQuantile(double prob) {
+		return sketch.getQuantile(prob);
+	}
+
+	/**
+	 * returns the fraction of the analyzed samples that are less than or equal to
+	 * the given value.
+	 * @param quantile the requested quantile
+	 * @return estimated probability
+	 */
+	@Override
+	public double getProbability(double quantile) {
+		return sketch.getProbability(quantile);
+	}
+
+	@Override
+	protected long getStoredSamples() {
+		return sketch.getCount();
+	}
+
+	/**
+	 * @return the relative accuracy of the estimated quantiles
+	 */
+	public double getAccuracy() {
+		return sketch.getAccuracy();
+	}
+
+	/**
+	 * The sketch is always ready to be queried.
+	 */
+	@Override
+	protected void sort() {
+	}
+
+}
@@ -0,0 +1,323 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.dataAnalysis;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import jmt.engine.log.JSimLogger;
+import jmt.engine.simEngine.Simulation;
+
+/**
+ * Saves all the measure outputs in a xml file, like XMLSimulationOutput, but writes
+ * each measure element directly to the file with a StAX writer instead of building a
+ * DOM document first.
+ * <br>
+ * The element of each measure is appended to the results file as soon as the measure
+ * finishes, followed by the closing tag, so that the file is valid after every write
+ * and a crashed or killed run still leaves the results of the finished measures.
+ * The measures are written in the order they finish. Verbose measures are written
+ * only with the final results, as their statistics are computed from their complete log.
+ * <br>
+ * While the simulation is running, partial results can also be written periodically by
+ * a background thread (see start()): the measures still running are written after the
+ * finished ones, with the values of their latest snapshot, and are not successful.
+ * They are written again after each finished measure, until the next partial results.
+ *
+ * @author Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+ */
+public class StreamingXMLSimulationOutput extends XMLSimulationOutput {
+
+	private static final String ENCODING = "UTF-8";
+	// same layout of the results written by XMLSimulationOutput
+	private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n";
+	private static final String INDENT = "\n    ";
+	private static final String CLOSING_TAG = "\n</solutions>\n";
+	private static final String NAMESPACE_PREFIX = "xmlns:";
+
+	private JSimLogger logger = JSimLogger.getLogger();
+
+	private XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+	// the results file, open until the final results are written
+	private RandomAccessFile file;
+	private boolean closed = false;
+	// length of the start of the file and of the elements of the finished measures
+	private long appendedLength;
+	// the measures whose element has been appended
+	private Set<Measure> finishedMeasures = new HashSet<Measure>();
+	// the elements of the running measures in the latest partial results
+	private Map<Measure, String> runningMeasures = new LinkedHashMap<Measure, String>();
+	private ScheduledExecutorService partialResultsTimer;
+
+	public StreamingXMLSimulationOutput(Simulation simulation) {
+		super(simulation);
+		for (Measure measure : measureList) {
+			measure.setResultsOutput(this);
+		}
+	}
+
+	/**
+	 * Starts writing partial results periodically, until stop() is called.
+	 * @param periodMillis the period in milliseconds, 0 to write only the final results
+	 */
+	public synchronized void start(long periodMillis) {
+		if (periodMillis <= 0 || partialResultsTimer != null) {
+			return;
+		}
+		partialResultsTimer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "JSIM partial results writer");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		partialResultsTimer.scheduleWithFixedDelay(new Runnable() {
+			public void run() {
+				writePartialResults();
+			}
+		}, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops writing partial results, waiting for the one being written, if any.
+	 */
+	public void stop() {
+		ScheduledExecutorService timer;
+		synchronized (this) {
+			timer = partialResultsTimer;
+			partialResultsTimer = null;
+		}
+		if (timer == null) {
+			return;
+		}
+		timer.shutdown();
+		try {
+			while (!timer.awaitTermination(1, TimeUnit.SECONDS)) {
+				// waits for the partial results being written
+			}
+		} catch (InterruptedException e) {
+			timer.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Appends the element of a finished measure to the results file. It is called
+	 * by the measure when it finishes (see Measure.setResultsOutput()).
+	 * @param measure the finished measure
+	 */
+	synchronized void finalizeMeasure(Measure measure) {
+		if (closed || measure.getOutput() != null) {
+			return;
+		}
+		try {
+			open();
+			if (!finishedMeasures.contains(measure)) {
+				append(getElement(getMeasureAttributes(measure, false)), measure);
+			}
+		} catch (IOException | XMLStreamException e) {
+			logger.error("Error while writing simulator output XML", e);
+		}
+	}
+
+	/**
+	 * Writes the results of the simulation so far. It can be called by any thread
+	 * while the simulation is running, as it reads only the snapshots of the measures
+	 * which did not finish yet.
+	 * @return the results file, or null if it could not be written
+	 */
+	public synchronized File writePartialResults() {
+		if (closed) {
+			return resultsFile;
+		}
+		try {
+			open();
+			runningMeasures.clear();
+			for (Measure measure : measureList) {
+				if (!finishedMeasures.contains(measure)) {
+					runningMeasures.put(measure, getElement(getPartialAttributes(measure)));
+				}
+			}
+			append("", null);
+			return resultsFile;
+		} catch (IOException | XMLStreamException e) {
+			logger.error("Error while writing simulator output XML", e);
+		}
+		return null;
+	}
+
+	/**
+	 * Writes the final results, appending the measures which did not finish. It must
+	 * be called by the simulation thread once the simulation has finished.
+	 */
+	@Override
+	public File writeAllMeasures() {
+		stop();
+		synchronized (this) {
+			if (closed) {
+				return resultsFile;
+			}
+			try {
+				open();
+				runningMeasures.clear();
+				StringBuilder elements = new StringBuilder();
+				for (Measure measure : measureList) {
+					if (!finishedMeasures.contains(measure)) {
+						finishedMeasures.add(measure);
+						elements.append(getElement(getMeasureAttributes(measure, true)));
+					}
+				}
+				append(elements.toString(), null);
+				return resultsFile;
+			} catch (IOException | XMLStreamException e) {
+				logger.error("Error while writing simulator output XML", e);
+			} finally {
+				close();
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Creates the results file, if it is not open yet, with the measures which
+	 * had already finished (for example, before a checkpoint).
+	 */
+	private void open() throws IOException, XMLStreamException {
+		if (file != null) {
+			return;
+		}
+		resultsFile = getResultsFile();
+		file = new RandomAccessFile(resultsFile, "rw");
+		file.setLength(0);
+		StringWriter out = new StringWriter();
+		XMLStreamWriter writer = outputFactory.createXMLStreamWriter(out);
+		writer.writeStartElement("solutions");
+		writeAttributes(writer, getSolutionsAttributes());
+		// closes the start tag
+		writer.writeCharacters("");
+		writer.close();
+		file.write((XML_DECLARATION + out.toString()).getBytes(ENCODING));
+		appendedLength = file.getFilePointer();
+		append("", null);
+		for (Measure measure : measureList) {
+			if (measure.getSnapshot().hasFinished() && measure.getOutput() == null) {
+				append(getElement(getMeasureAttributes(measure, false)), measure);
+			}
+		}
+	}
+
+	/**
+	 * Appends elements after the finished measures and rewrites the end of the file:
+	 * the elements of the running measures and the closing tag.
+	 * @param elements the elements to append, if any
+	 * @param measure the finished measure written by the elements, if any
+	 */
+	private void append(String elements, Measure measure) throws IOException {
+		if (measure != null) {
+			finishedMeasures.add(measure);
+			runningMeasures.remove(measure);
+		}
+		byte[] appended = elements.getBytes(ENCODING);
+		StringBuilder end = new StringBuilder();
+		for (String element : runningMeasures.values()) {
+			end.append(element);
+		}
+		end.append(CLOSING_TAG);
+		file.seek(appendedLength);
+		file.write(appended);
+		appendedLength += appended.length;
+		file.write(end.toString().getBytes(ENCODING));
+		file.setLength(file.getFilePointer());
+	}
+
+	private void close() {
+		closed = true;
+		try {
+			if (file != null) {
+				file.close();
+			}
+		} catch (IOException e) {
+			logger.error("Error while writing simulator output XML", e);
+		}
+		file = null;
+	}
+
+	/**
+	 * Returns the attributes of a measure in the partial results
+	 * @param measure the measure
+	 * @return the attributes by name
+	 */
+	private Map<String, String> getPartialAttributes(Measure measure) {
+		MeasureSnapshot snapshot = measure.getSnapshot();
+		Map<String, String> attributes = getMeasureDefinitionAttributes(measure);
+		attributes.put("successful", Boolean.toString(snapshot.getSuccess()));
+		attributes.put("analyzedSamples", Integer.toString(snapshot.getAnalyzedSamples()));
+		attributes.put("discardedSamples", Integer.toString(snapshot.getDiscardedSamples()));
+		attributes.put("meanValue", Double.toString(snapshot.getEstimatedMeanValue()));
+		attributes.put("upperLimit", Double.toString(snapshot.getUpperLimit()));
+		attributes.put("lowerLimit", Double.toString(snapshot.getLowerLimit()));
+		return attributes;
+	}
+
+	/**
+	 * Formats the element of a measure, preceded by its indentation
+	 * @param attributes the attributes of the measure
+	 * @return the element
+	 */
+	private String getElement(Map<String, String> attributes) throws XMLStreamException {
+		StringWriter out = new StringWriter();
+		out.write(INDENT);
+		XMLStreamWriter writer = outputFactory.createXMLStreamWriter(out);
+		writer.writeEmptyElement("measure");
+		writeAttributes(writer, attributes);
+		// closes the empty element
+		writer.writeCharacters("");
+		writer.close();
+		return out.toString();
+	}
+
+	private static void writeAttributes(XMLStreamWriter writer, Map<String, String> attributes) throws XMLStreamException {
+		// namespace declarations come first, as in the results written by XMLSimulationOutput
+		for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+			if (attribute.getKey().startsWith(NAMESPACE_PREFIX)) {
+				writer.writeNamespace(attribute.getKey().substring(NAMESPACE_PREFIX.length()), attribute.getValue());
+			}
+		}
+		for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+			if (!attribute.getKey().startsWith(NAMESPACE_PREFIX)) {
+				writer.writeAttribute(attribute.getKey(), attribute.getValue());
+			}
+		}
+	}
+
+}
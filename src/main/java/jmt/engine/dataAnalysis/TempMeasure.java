@@ -123,24 +123,38 @@ public class TempMeasure {
 		}
 	}
 
+	/**
+	 * Refreshes the values of the measure with the latest ones published by the
+	 * simulation thread. It never blocks the simulation.
+	 */
 	public void refreshMeasure() {
+		if (!finished) {
+			refresh(measure.getSnapshot());
+		}
+	}
+
+	/**
+	 * Publishes the current values of the measure and refreshes them. It must be
+	 * called while the simulation is paused or finished.
+	 */
+	public void refreshPausedMeasure() {
+		if (!finished) {
+			refresh(measure.hasFinished() ? measure.getSnapshot() : measure.publishSnapshot());
+		}
+	}
+
+	private void refresh(MeasureSnapshot snapshot) {
+		nsamples = snapshot.getAnalyzedSamples();
+		discarded = snapshot.getDiscardedSamples();
+		tempMean = snapshot.getEstimatedMeanValue();
+		upperBound = snapshot.getUpperLimit();
+		lowerBound = snapshot.getLowerLimit();
+		lastIntervalAvgValue = snapshot.getLastIntervalAvgValue();
+		simulationTime = snapshot.getSimTime();
+		finished = snapshot.hasFinished();
 		if (finished) {
-			//no need to refresh measure
-			return;
-		} else {
-			//refresh
-			nsamples = measure.getAnalyzedSamples();
-			discarded = measure.getDiscardedSamples();
-			tempMean = measure.getEstimatedMeanValue();
-			upperBound = measure.getUpperLimit();
-			lowerBound = measure.getLowerLimit();
-			lastIntervalAvgValue = measure.getLastIntervalAvgValue();
-			simulationTime= measure.getSimTime(); 
-			finished = measure.hasFinished();
-			if (finished) {
-				success = measure.getSuccess();
-				noSamplesTest = measure.receivedNoSamples();
-			}
+			success = snapshot.getSuccess();
+			noSamplesTest = snapshot.receivedNoSamples();
 		}
 	}
 
@@ -21,6 +21,8 @@ package jmt.engine.dataAnalysis;
 import java.io.File;
 import java.io.IOException;
 import java.text.ParseException;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -91,91 +93,83 @@ public class XMLSimulationOutput extends SimulationOutput {
 		isTerminalSimulation = simulation.isTerminalSimulation();
 		parametricStep = simulation.getParametricStep();
 
-		try {
-			/////////////////////////////
-			//Creating an empty XML Document
-
-			DocumentBuilderFactory dbfac = DocumentBuilderFactory.newInstance();
-
-			DocumentBuilder docBuilder = dbfac.newDocumentBuilder();
-			doc = docBuilder.newDocument();
-
-			////////////////////////
-			//Creating the XML tree
-
-			//create the root element and add it to the document
-			root = doc.createElement("solutions");
-			doc.appendChild(root);
-
-			//sets the attribute of the root
-			if (sim.getName() != null) {
-				root.setAttribute("modelName", sim.getName());
-			} else {
-				root.setAttribute("modelName", "Unknown Model Name");
-			}
-			root.setAttribute("xmlns:xsi", "http://www.w3.org/2001/XMLSchema-instance");
-			//sets the xsd schema of the results xml file
-			root.setAttribute("xsi:noNamespaceSchemaLocation", "SIMmodeloutput.xsd");
-			//these results have been obtained through a simulation
-			root.setAttribute("solutionMethod", "simulation");
-
-			//in the results file, we need the name of the xml file containing
-			//the model definition
-			String name = sim.getXmlModelDefPath();
-			if (name != null) {
-				mvaModelDefinition = new File(name);
-			}
-
-			//only file name is passed, not the absolute path
-			//in fact definition and results will be put in the same directory
+		//in the results file, we need the name of the xml file containing
+		//the model definition
+		String name = sim.getXmlModelDefPath();
+		if (name != null) {
+			mvaModelDefinition = new File(name);
+		}
 
-			//root.setAttribute("modelDefinitionPath", simModelDefinition.getName());
-			if (name != null) {
-				root.setAttribute("modelDefinitionPath", name);
-			} else {
-				root.setAttribute("modelDefinitionPath", ".");
-			}
+		// Write CSV definition for verbose measures load.
+		logDecimalSeparator = simulation.getSimParameters().getLogDecimalSeparator();
+		logDelimiter = simulation.getSimParameters().getLogDelimiter();
+	}
 
-			// Write CSV definition for verbose measures load.
-			logDecimalSeparator = simulation.getSimParameters().getLogDecimalSeparator();
-			logDelimiter = simulation.getSimParameters().getLogDelimiter();
-			root.setAttribute("logDecimalSeparator", simulation.getSimParameters().getLogDecimalSeparator());
-			root.setAttribute("logDelimiter", simulation.getSimParameters().getLogDelimiter());
-			root.setAttribute("logPath", simulation.getSimParameters().getLogPath());
-		} catch (Exception e) {
-			logger.error("Error while writing simulator output XML", e);
+	/**
+	 * Returns the attributes of the root element of the results.
+	 * @return the attributes by name, sorted by name
+	 */
+	protected Map<String, String> getSolutionsAttributes() {
+		Map<String, String> attributes = new TreeMap<String, String>();
+		//sets the attribute of the root
+		if (sim.getName() != null) {
+			attributes.put("modelName", sim.getName());
+		} else {
+			attributes.put("modelName", "Unknown Model Name");
+		}
+		attributes.put("xmlns:xsi", "http://www.w3.org/2001/XMLSchema-instance");
+		//sets the xsd schema of the results xml file
+		attributes.put("xsi:noNamespaceSchemaLocation", "SIMmodeloutput.xsd");
+		//these results have been obtained through a simulation
+		attributes.put("solutionMethod", "simulation");
+
+		//only file name is passed, not the absolute path
+		//in fact definition and results will be put in the same directory
+
+		//root.setAttribute("modelDefinitionPath", simModelDefinition.getName());
+		String name = sim.getXmlModelDefPath();
+		if (name != null) {
+			attributes.put("modelDefinitionPath", name);
+		} else {
+			attributes.put("modelDefinitionPath", ".");
 		}
+
+		attributes.put("logDecimalSeparator", sim.getSimParameters().getLogDecimalSeparator());
+		attributes.put("logDelimiter", sim.getSimParameters().getLogDelimiter());
+		attributes.put("logPath", sim.getSimParameters().getLogPath());
+		return attributes;
 	}
 
 	/**
-	 * Writes the output of the specified measure.
+	 * Returns the attributes of a measure which do not depend on its results: the target of
+	 * the measure and its confidence requirements.
+	 * @param measure the measure
+	 * @return the attributes by name, sorted by name
 	 */
-	private void writeMeasure(Measure measure) {
-		Element elem = doc.createElement("measure");
-		root.appendChild(elem);
-
+	protected Map<String, String> getMeasureDefinitionAttributes(Measure measure) {
+		Map<String, String> attributes = new TreeMap<String, String>();
 		DynamicDataAnalyzer analyzer = measure.getAnalyzer();
 
 		// Checks null values to avoid problems under linux
 		if (measure.getNodeName() == null || measure.getNodeName().equals("")) {
 			// aggregate measure
-			elem.setAttribute("station", "");
-			elem.setAttribute("nodeType", "");
+			attributes.put("station", "");
+			attributes.put("nodeType", "");
 		} else {
 			NetNode node = measure.getNetwork().getNode(measure.getNodeName());
 			if (node != null && node.isBlockingRegionInputStation()) {
 				// region measure
-				elem.setAttribute("station", node.getBlockingRegionInputStation().getName());
-				elem.setAttribute("nodeType", SimConstants.NODE_TYPE_REGION);
+				attributes.put("station", node.getBlockingRegionInputStation().getName());
+				attributes.put("nodeType", SimConstants.NODE_TYPE_REGION);
 			} else {
 				// station measure
-				elem.setAttribute("station", measure.getNodeName());
-				elem.setAttribute("nodeType", SimConstants.NODE_TYPE_STATION);
+				attributes.put("station", measure.getNodeName());
+				attributes.put("nodeType", SimConstants.NODE_TYPE_STATION);
 				// Check if it is a server type measure
 				if (node != null && node.getServerTypes() != null) {
 					for (Server.ServerType serverType : node.getServerTypes()) {
 						if (measure.getName().startsWith(serverType.getName())) {
-							elem.setAttribute("serverType", serverType.getName());
+							attributes.put("serverType", serverType.getName());
 							break;
 						}
 					}
@@ -185,63 +179,146 @@ public class XMLSimulationOutput extends SimulationOutput {
 		// Checks null values to avoid problems under linux
 		if (measure.getJobClassName() == null || measure.getJobClassName().equals("")) {
 			//aggregate measure
-			elem.setAttribute("class", "");
+			attributes.put("class", "");
 		} else {
 			//class measure
-			elem.setAttribute("class", measure.getJobClassName());
+			attributes.put("class", measure.getJobClassName());
 		}
 
 		//finds and sets measure type
 		String type = EngineUtils.encodeMeasureType(measure.getMeasureType());
-		elem.setAttribute("measureType", type);
+		attributes.put("measureType", type);
 
 		//analyzer confidence requirements
-		elem.setAttribute("maxSamples", Integer.toString(analyzer.getMaxData()));
-		elem.setAttribute("precision", Double.toString(analyzer.getPrecision()));
-		elem.setAttribute("alfa", Double.toString(analyzer.getAlfa()));
+		attributes.put("maxSamples", Integer.toString(analyzer.getMaxData()));
+		attributes.put("precision", Double.toString(analyzer.getPrecision()));
+		attributes.put("alfa", Double.toString(analyzer.getAlfa()));
+		return attributes;
+	}
+
+	/**
+	 * Returns all the attributes of a measure. It must be called by the simulation
+	 * thread, or once the measure has finished.
+	 * @param measure the measure
+	 * @param statistics true to compute the statistics of the samples of a verbose measure
+	 * in a terminal simulation
+	 * @return the attributes by name, sorted by name
+	 */
+	protected Map<String, String> getMeasureAttributes(Measure measure, boolean statistics) {
+		Map<String, String> attributes = getMeasureDefinitionAttributes(measure);
+		DynamicDataAnalyzer analyzer = measure.getAnalyzer();
 
 		//analyzer has been successful?
 		boolean success = analyzer.getSuccess();
-		elem.setAttribute("successful", Boolean.toString(success));
+		attributes.put("successful", Boolean.toString(success));
 
 		//number of analyzed and discarded samples
-		elem.setAttribute("analyzedSamples", Integer.toString(measure.getAnalyzedSamples()));
-		elem.setAttribute("discardedSamples", Integer.toString(measure.getDiscardedSamples()));
+		attributes.put("analyzedSamples", Integer.toString(measure.getAnalyzedSamples()));
+		attributes.put("discardedSamples", Integer.toString(measure.getDiscardedSamples()));
 
 		//this is the estimated mean, but it may be wrong
-		elem.setAttribute("meanValue", Double.toString(measure.getEstimatedMeanValue()));
-		elem.setAttribute("upperLimit", Double.toString(measure.getUpperLimit()));
-		elem.setAttribute("lowerLimit", Double.toString(measure.getLowerLimit()));
+		attributes.put("meanValue", Double.toString(measure.getEstimatedMeanValue()));
+		attributes.put("upperLimit", Double.toString(measure.getUpperLimit()));
+		attributes.put("lowerLimit", Double.toString(measure.getLowerLimit()));
+
+		//requested quantiles, with their confidence intervals
+		double[] quantiles = measure.getQuantileResults();
+		if (quantiles != null) {
+			double[][] intervals = measure.getQuantileConfIntervals();
+			double[] lowerLimits = new double[intervals.length];
+			double[] upperLimits = new double[intervals.length];
+			for (int i = 0; i < intervals.length; i++) {
+				lowerLimits[i] = intervals[i][0];
+				upperLimits[i] = intervals[i][1];
+			}
+			attributes.put("quantileProbabilities", toList(measure.getQuantileProbabilities()));
+			attributes.put("quantileValues", toList(quantiles));
+			attributes.put("quantileLowerLimits", toList(lowerLimits));
+			attributes.put("quantileUpperLimits", toList(upperLimits));
+			if (analyzer instanceof StreamingQuantileDataAnalyzer) {
+				attributes.put("quantileAccuracy", Double.toString(((StreamingQuantileDataAnalyzer) analyzer).getAccuracy()));
+			}
+		}
 
 		//log file if verbose measure was selected
 		if (measure.getOutput() != null && measure.getOutput().getOutputFile() != null) {
-			elem.setAttribute("logFile", measure.getOutput().getOutputFile().getAbsolutePath());
-			if (isTerminalSimulation) {
+			attributes.put("logFile", measure.getOutput().getOutputFile().getAbsolutePath());
+			if (statistics && isTerminalSimulation) {
 				try {
 					StatisticalOutputsLoader loader = new StatisticalOutputsLoader(measure, logDecimalSeparator, logDelimiter);
 					SampleStatistics stat = loader.getStatistics();
-					elem.setAttribute("mean", Double.toString(stat.getMean()));
-					elem.setAttribute("variance", Double.toString(stat.getVariance()));
-					elem.setAttribute("standardDeviation", Double.toString(stat.getStandardDeviation()));
-					elem.setAttribute("coefficientOfVariation", Double.toString(stat.getCoefficienfOfVariation()));
-					elem.setAttribute("skeweness", Double.toString(stat.getSkew()));
-					elem.setAttribute("kurtosis", Double.toString(stat.getKurtosis()));
-					elem.setAttribute("firstPowerMoment", Double.toString(stat.getMean()));
-					elem.setAttribute("secondPowerMoment", Double.toString(stat.getMoment2()));
-					elem.setAttribute("thirdPowerMoment", Double.toString(stat.getMoment3()));
-					elem.setAttribute("fourthPowerMoment", Double.toString(stat.getMoment4()));
-					elem.setAttribute("minValue", Double.toString(stat.getMin()));
-					elem.setAttribute("maxValue", Double.toString(stat.getMax()));
-					elem.setAttribute("minSimulationTime", Double.toString(stat.getMinSimTime()));
-					elem.setAttribute("maxSimulationTime", Double.toString(stat.getMaxSimTime()));
+					attributes.put("mean", Double.toString(stat.getMean()));
+					attributes.put("variance", Double.toString(stat.getVariance()));
+					attributes.put("standardDeviation", Double.toString(stat.getStandardDeviation()));
+					attributes.put("coefficientOfVariation", Double.toString(stat.getCoefficienfOfVariation()));
+					attributes.put("skeweness", Double.toString(stat.getSkew()));
+					attributes.put("kurtosis", Double.toString(stat.getKurtosis()));
+					attributes.put("firstPowerMoment", Double.toString(stat.getMean()));
+					attributes.put("secondPowerMoment", Double.toString(stat.getMoment2()));
+					attributes.put("thirdPowerMoment", Double.toString(stat.getMoment3()));
+					attributes.put("fourthPowerMoment", Double.toString(stat.getMoment4()));
+					attributes.put("minValue", Double.toString(stat.getMin()));
+					attributes.put("maxValue", Double.toString(stat.getMax()));
+					attributes.put("minSimulationTime", Double.toString(stat.getMinSimTime()));
+					attributes.put("maxSimulationTime", Double.toString(stat.getMaxSimTime()));
 				} catch (IOException | ParseException ex) {
 					Logger.getLogger(XMLSimulationOutput.class.getName()).log(Level.SEVERE, null, ex);
 				}
 			}
 		}
+		return attributes;
+	}
+
+	/**
+	 * Formats values as a list separated by spaces.
+	 * @param values the values
+	 * @return the list
+	 */
+	private static String toList(double[] values) {
+		StringBuilder list = new StringBuilder();
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				list.append(' ');
+			}
+			list.append(Double.toString(values[i]));
+		}
+		return list.toString();
+	}
+
+	/**
+	 * Writes the output of the specified measure.
+	 */
+	private void writeMeasure(Measure measure) {
+		Element elem = doc.createElement("measure");
+		root.appendChild(elem);
+		for (Map.Entry<String, String> attribute : getMeasureAttributes(measure, true).entrySet()) {
+			elem.setAttribute(attribute.getKey(), attribute.getValue());
+		}
 	}
 
 	public File writeAllMeasures() {
+		try {
+			/////////////////////////////
+			//Creating an empty XML Document
+
+			DocumentBuilderFactory dbfac = DocumentBuilderFactory.newInstance();
+
+			DocumentBuilder docBuilder = dbfac.newDocumentBuilder();
+			doc = docBuilder.newDocument();
+
+			////////////////////////
+			//Creating the XML tree
+
+			//create the root element and add it to the document
+			root = doc.createElement("solutions");
+			doc.appendChild(root);
+			for (Map.Entry<String, String> attribute : getSolutionsAttributes().entrySet()) {
+				root.setAttribute(attribute.getKey(), attribute.getValue());
+			}
+		} catch (Exception e) {
+			logger.error("Error while writing simulator output XML", e);
+		}
+
 		for (Measure element : measureList) {
 			//writes all the measures in a Document
 			writeMeasure(element);
@@ -256,52 +333,8 @@ public class XMLSimulationOutput extends SimulationOutput {
 			trans.setOutputProperty(OutputKeys.INDENT, "yes");
 			trans.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "no");
 
-			//we want to save the xml results in the same directory of the model definition file
-			String parent = null;
-			String xmlResultsName = null;
-
-			if (mvaModelDefinition != null) {
-				//mvaModelDefinition defined
-				if (mvaModelDefinition.isAbsolute()) {
-					//the passed filename is absolute
-					parent = mvaModelDefinition.getParent();
-					if (parent.endsWith(SEPARATOR)) {
-						xmlResultsName = parent + "res_sim_" + mvaModelDefinition.getName();
-					} else {
-						xmlResultsName = parent + SEPARATOR + "res_sim_" + mvaModelDefinition.getName();
-					}
-				} else {
-					//the passed filename is not absolute
-					xmlResultsName = SEPARATOR + "res_sim_" + mvaModelDefinition.getName();
-				}
-			} else {
-				//mvaModelDefinition not defined
-				//use sim model path
-				String simModelPath = sim.getXmlSimModelDefPath();
-				File simModelFile;
-
-				if (simModelPath != null) {
-					//sim model file exist
-					simModelFile = new File(simModelPath);
-					xmlResultsName = simModelFile.getParent() + SEPARATOR + "res_sim_" + sim.getName();
-				} else {
-					//get the user dir
-					String curDir = System.getProperty("user.dir");
-					String name;
-					if (sim.getName() == null) {
-						name = "";
-					} else {
-						name = "_" + sim.getName();
-					}
-					xmlResultsName = curDir + SEPARATOR + "res_sim_JMT" + name;
-				}
-			}
-
 			//creates the results file
-			resultsFile = new File(xmlResultsName);
-			if (DEBUG) {
-				System.out.println(resultsFile.getAbsolutePath());
-			}
+			resultsFile = getResultsFile();
 
 			DOMSource source = new DOMSource(doc);
 
@@ -312,19 +345,7 @@ public class XMLSimulationOutput extends SimulationOutput {
 			// Write the DOM document to the file
 			trans.transform(source, result);
 
-			// commit
-			if (resultsFile.exists()) {
-				resultsFile.delete();
-			}
-
-			temp.renameTo(resultsFile);
-
-			// Check because sometimes rename fails...
-			if (resultsFile.exists()) {
-				return resultsFile;
-			} else {
-				return temp;
-			}
+			return commit(temp);
 		} catch (javax.xml.transform.TransformerConfigurationException exc) {
 			exc.printStackTrace();
 		} catch (javax.xml.transform.TransformerException exc) {
@@ -337,4 +358,78 @@ public class XMLSimulationOutput extends SimulationOutput {
 		return null;
 	}
 
+	/**
+	 * Returns the file of the results: we want to save the xml results in the same
+	 * directory of the model definition file
+	 * @return the results file
+	 */
+	protected File getResultsFile() {
+		String parent = null;
+		String xmlResultsName = null;
+
+		if (mvaModelDefinition != null) {
+			//mvaModelDefinition defined
+			if (mvaModelDefinition.isAbsolute()) {
+				//the passed filename is absolute
+				parent = mvaModelDefinition.getParent();
+				if (parent.endsWith(SEPARATOR)) {
+					xmlResultsName = parent + "res_sim_" + mvaModelDefinition.getName();
+				} else {
+					xmlResultsName = parent + SEPARATOR + "res_sim_" + mvaModelDefinition.getName();
+				}
+			} else {
+				//the passed filename is not absolute
+				xmlResultsName = SEPARATOR + "res_sim_" + mvaModelDefinition.getName();
+			}
+		} else {
+			//mvaModelDefinition not defined
+			//use sim model path
+			String simModelPath = sim.getXmlSimModelDefPath();
+			File simModelFile;
+
+			if (simModelPath != null) {
+				//sim model file exist
+				simModelFile = new File(simModelPath);
+				xmlResultsName = simModelFile.getParent() + SEPARATOR + "res_sim_" + sim.getName();
+			} else {
+				//get the user dir
+				String curDir = System.getProperty("user.dir");
+				String name;
+				if (sim.getName() == null) {
+					name = "";
+				} else {
+					name = "_" + sim.getName();
+				}
+				xmlResultsName = curDir + SEPARATOR + "res_sim_JMT" + name;
+			}
+		}
+
+		File file = new File(xmlResultsName);
+		if (DEBUG) {
+			System.out.println(file.getAbsolutePath());
+		}
+		return file;
+	}
+
+	/**
+	 * Replaces the results file with a complete temporary file
+	 * @param temp the temporary file, in the same directory of the results file
+	 * @return the results file, or the temporary file if it could not be renamed
+	 */
+	protected File commit(File temp) {
+		// commit
+		if (resultsFile.exists()) {
+			resultsFile.delete();
+		}
+
+		temp.renameTo(resultsFile);
+
+		// Check because sometimes rename fails...
+		if (resultsFile.exists()) {
+			return resultsFile;
+		} else {
+			return temp;
+		}
+	}
+
 }
@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.dataAnalysis.measureOutputs;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.swing.JOptionPane;
+
+import jmt.engine.dataAnalysis.Measure;
+import jmt.engine.dataAnalysis.MeasureOutput;
+import jmt.engine.dataAnalysis.SimParameters;
+import jmt.engine.log.BinaryLogger;
+import jmt.engine.log.JSimLoggerFactory;
+import jmt.engine.log.LoggerParameters;
+
+/**
+ * This class implements a binary output for measure class, with the same columns
+ * of VerboseCSVMeasureOutput written by a BinaryLogger. <br>
+ * File output: <br>
+ * <table border="1"> <tr>
+ * <td>Timestamp (simulation time)</td>
+ * <td>Sample</td>
+ * <td>Weight</td>
+ * </tr></table>
+ */
+public class VerboseBinaryMeasureOutput extends MeasureOutput {
+
+	private static final byte[] TYPES = { BinaryLogger.TYPE_DOUBLE, BinaryLogger.TYPE_DOUBLE, BinaryLogger.TYPE_DOUBLE };
+
+	private static final int INDEX_TS = 0;
+	private static final int INDEX_SAMPLEVALUE = 1;
+	private static final int INDEX_WEIGHTVALUE = 2;
+
+	boolean isTerminalSimulation;
+	int parametricStep;
+
+	private BinaryLogger logger;
+	private File file;
+
+	/**
+	 * Constructor of a VerboseBinaryMeasureOutput object, using a file.
+	 * @param Measure the measure to be sent in output
+	 * @param simParameters the simulation parameters, with the path and format of the logs
+	 * @param isTerminalSimulation true if the simulation is run from the command line
+	 * @param parametricStep the step of the parametric analysis, or -1
+	 * @throws java.io.IOException
+	 */
+	public VerboseBinaryMeasureOutput(Measure Measure, SimParameters simParameters, boolean isTerminalSimulation, int parametricStep) throws IOException {
+		super(Measure);
+		this.isTerminalSimulation = isTerminalSimulation;
+		this.parametricStep = parametricStep;
+		if (parametricStep < 0) {
+			file = new File(simParameters.getLogPath(), measure.getName() + BinaryLogger.FILE_EXTENSION);
+		} else {
+			file = new File(simParameters.getLogPath(), measure.getName() + "_" + (parametricStep + 1) + BinaryLogger.FILE_EXTENSION);
+		}
+		int intReplacePolicy = Integer.parseInt(simParameters.getLogReplaceMode());
+		logger = JSimLoggerFactory.getBinaryLogger(file, VerboseCSVMeasureOutput.COLUMNS, TYPES, intReplacePolicy == LoggerParameters.LOGGER_AR_APPEND,
+				LoggerParameters.LOG_FORMAT_COMPRESSED_BINARY.equals(simParameters.getLogFormat()));
+	}
+
+	@Override
+	public void write(double sample, double weight) {
+		if (logger == null) {
+			return;
+		}
+
+		logger.setDouble(INDEX_TS, measure.getNetSystem().getTime());
+		logger.setDouble(INDEX_SAMPLEVALUE, sample);
+		logger.setDouble(INDEX_WEIGHTVALUE, weight);
+		try {
+			logger.writeRow();
+		} catch (IOException e1) {
+			if (isTerminalSimulation) {
+				System.out.println("JSIMengine - Warning: Failed to write the log file: " + file.getAbsolutePath());
+			} else {
+				new Thread(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							Thread.sleep(800);
+						} catch (InterruptedException e) {
+						}
+						JOptionPane.showMessageDialog(null, "Failed to write the log file: " + file.getAbsolutePath(),
+								"JSIMengine - Warning", JOptionPane.WARNING_MESSAGE);
+					}
+				}).start();
+			}
+			try {
+				JSimLoggerFactory.remove(logger);
+			} catch (IOException e2) {
+				e2.printStackTrace();
+			}
+			logger = null;
+		}
+	}
+
+	@Override
+	public void finalizeMeasure() {
+		if (logger == null) {
+			return;
+		}
+
+		try {
+			JSimLoggerFactory.remove(logger);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		logger = null;
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.dataAnalysis.MeasureOutput#getOutputFile()
+	 */
+	@Override
+	public File getOutputFile() {
+		return file;
+	}
+
+}
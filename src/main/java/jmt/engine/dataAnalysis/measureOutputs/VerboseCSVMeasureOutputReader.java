@@ -30,8 +30,12 @@ import java.text.ParseException;
 import java.text.ParsePosition;
 import java.util.Locale;
 
+import jmt.engine.log.BinaryLogReader;
+
 /**
  * Reads a Verbose CSV measure output file, providing all the samples and weights.
+ * Binary measure output files (see VerboseBinaryMeasureOutput) are read directly,
+ * the header of the CSV file being line 0.
  *
  * @author Bertoli Marco 2014-09-14
  */
@@ -48,6 +52,11 @@ public class VerboseCSVMeasureOutputReader {
 	private double parsedWeight;
 	private boolean hasMoreLines;
 	private long fileSize;
+	private boolean binary;
+	private BinaryLogReader binaryReader;
+	private int timestampColumn;
+	private int sampleColumn;
+	private int weightColumn;
 
 	/**
 	 * Builds a new CSV measure reader
@@ -62,6 +71,7 @@ public class VerboseCSVMeasureOutputReader {
 		dfs.setDecimalSeparator(logDecimalSeparator.charAt(0));
 		numberParser = new DecimalFormat("#.#", dfs);
 		fileSize = measureCsvFile.length();
+		binary = BinaryLogReader.isBinaryLog(measureCsvFile);
 	}
 
 	/**
@@ -70,6 +80,10 @@ public class VerboseCSVMeasureOutputReader {
 	 * @throws IOException
 	 */
 	public void openFile(int initialLine) throws IOException {
+		if (binary) {
+			openBinaryFile(initialLine);
+			return;
+		}
 		if (file != null) {
 			file.seek(0L);
 		}
@@ -85,11 +99,44 @@ public class VerboseCSVMeasureOutputReader {
 		hasMoreLines = file.getFilePointer() < fileSize;
 	}
 
+	/**
+	 * Opens a binary measure file
+	 * @param initialLine the initial line to read, as in the equivalent CSV file.
+	 * @throws IOException
+	 */
+	private void openBinaryFile(int initialLine) throws IOException {
+		closeFile();
+		binaryReader = new BinaryLogReader(measureCsvFile);
+		timestampColumn = getColumnIndex(VerboseCSVMeasureOutput.COLUMN_TS);
+		sampleColumn = getColumnIndex(VerboseCSVMeasureOutput.COLUMN_SAMPLEVALUE);
+		weightColumn = getColumnIndex(VerboseCSVMeasureOutput.COLUMN_WEIGHTVALUE);
+
+		// Line 0 is the header, that is not stored as a row.
+		lineNumber = 0;
+		if (initialLine > 0) {
+			lineNumber = 1 + (int) binaryReader.skip(initialLine - 1);
+		}
+		hasMoreLines = binaryReader.hasNext();
+	}
+
+	private int getColumnIndex(String name) throws IOException {
+		int index = binaryReader.getColumnIndex(name);
+		if (index < 0) {
+			throw new IOException("Column " + name + " not found in " + measureCsvFile.getAbsolutePath());
+		}
+		return index;
+	}
+
 	/**
 	 * Closes the reader if it is open
 	 * @throws IOException if there is an error closing the file.
 	 */
 	public void closeFile() throws IOException {
+		if (binaryReader != null) {
+			binaryReader.close();
+			binaryReader = null;
+			hasMoreLines = false;
+		}
 		if (file != null) {
 			reader.close();
 			file.close();
@@ -105,6 +152,9 @@ public class VerboseCSVMeasureOutputReader {
 	 * @throws IOException
 	 */
 	public boolean hasMoreLines() throws IOException {
+		if (binaryReader != null) {
+			return binaryReader.hasNext();
+		}
 		return hasMoreLines;
 	}
 
@@ -115,6 +165,9 @@ public class VerboseCSVMeasureOutputReader {
 	 * @throws ParseException when data is not well formed
 	 */
 	public boolean readLine() throws IOException, ParseException {
+		if (binary) {
+			return readBinaryLine();
+		}
 		String str = reader.readLine();
 		// Close file when read is end
 		if (str == null) {
@@ -126,6 +179,23 @@ public class VerboseCSVMeasureOutputReader {
 		return true;
 	}
 
+	/**
+	 * Reads a row of the binary measure file
+	 * @return true if more lines are available, false otherwise
+	 * @throws IOException when a data access error happens
+	 */
+	private boolean readBinaryLine() throws IOException {
+		if (binaryReader == null || !binaryReader.next()) {
+			closeFile();
+			return false;
+		}
+		this.lineNumber++;
+		parsedSimTime = binaryReader.getDouble(timestampColumn);
+		parsedSample = binaryReader.getDouble(sampleColumn);
+		parsedWeight = binaryReader.getDouble(weightColumn);
+		return true;
+	}
+
 	/**
 	 * Parses a CSV file line
 	 * @param line the output data structure
@@ -172,7 +242,9 @@ public class VerboseCSVMeasureOutputReader {
 	 * @throws IOException
 	 */
 	public double getParsedPercentage() throws IOException {
-		if (file != null) {
+		if (binaryReader != null) {
+			return binaryReader.getReadPercentage();
+		} else if (file != null) {
 			return (double) file.getFilePointer() / fileSize;
 		} else {
 			return 1.0;
@@ -46,6 +46,9 @@ package jmt.engine.dataAnalysis.sorting;
  */
 
 public class EQSort implements SortAlgorithm {
+
+	private static final long serialVersionUID = 1L;
+
 	void brute(double a[], int lo, int hi) {
 		if ((hi - lo) == 1) {
 			if (a[hi] < a[lo]) {
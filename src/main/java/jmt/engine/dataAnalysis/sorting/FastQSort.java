@@ -5,6 +5,9 @@ package jmt.engine.dataAnalysis.sorting;
  *
  */
 public class FastQSort implements SortAlgorithm {
+
+	private static final long serialVersionUID = 1L;
+
 	/** This is a generic version of C.A.R Hoare's Quick Sort
 	 * algorithm.  This will handle arrays that are already
 	 * sorted, and arrays with duplicate keys.<BR>
@@ -27,6 +27,8 @@ package jmt.engine.dataAnalysis.sorting;
  */
 public class HeapSort implements SortAlgorithm {
 
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Sorts data in a data vector & substitutes it.
 	 * @param data
@@ -32,6 +32,8 @@ package jmt.engine.dataAnalysis.sorting;
  */
 public class MergeSort implements SortAlgorithm {
 
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 *   pre :  0 <= p <= r <= A.length
 	 *
@@ -18,6 +18,8 @@
 
 package jmt.engine.dataAnalysis.sorting;
 
+import java.io.Serializable;
+
 /**
 
  * Interface which must be implemented by a sorting algorithm.
@@ -25,7 +27,7 @@ package jmt.engine.dataAnalysis.sorting;
  * @author Federico Granata
  * @version Date: 25-lug-2003 Time: 11.42.21
  */
-public interface SortAlgorithm {
+public interface SortAlgorithm extends Serializable {
 
 	public void sort(double[] data);
 
@@ -2,7 +2,6 @@ package jmt.engine.jwat.input;
 
 import java.io.BufferedReader;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.util.ArrayList;
 
 import jmt.engine.jwat.MatrixObservations;
@@ -24,7 +23,7 @@ public abstract class InputLoader extends TimeConsumingWorker {
 		this.param = param;
 		this.map = map;
 		valori = new ArrayList<Observation>();
-		reader = new BufferedReader(new FileReader(fileName));
+		reader = Loader.openReader(fileName);
 	}
 
 	@Override
@@ -27,13 +27,35 @@ import java.io.IOException;
 import jmt.engine.jwat.JwatSession;
 import jmt.engine.jwat.ProgressStatusListener;
 import jmt.engine.jwat.workloadAnalysis.utils.FormatFileReader;
+import jmt.engine.log.BinaryLogReader;
+import jmt.engine.log.BinaryLogTextReader;
 import jmt.gui.jwat.JWATConstants;
 
 public class Loader implements JWATConstants {
 
+	/**
+	 * Opens a file to be read line by line. Binary logs written by the simulator are
+	 * read as the CSV files with the same content.
+	 * @param filePath the path of the file
+	 * @return the reader
+	 * @throws FileNotFoundException if the file cannot be opened
+	 */
+	public static BufferedReader openReader(String filePath) throws FileNotFoundException {
+		File file = new File(filePath);
+		if (BinaryLogReader.isBinaryLog(file)) {
+			try {
+				return new BufferedReader(new BinaryLogTextReader(new BinaryLogReader(file), BinaryLogTextReader.DEFAULT_COLUMN_SEPARATOR,
+						BinaryLogTextReader.DEFAULT_DECIMAL_SEPARATOR));
+			} catch (IOException e) {
+				throw new FileNotFoundException(e.getMessage());
+			}
+		}
+		return new BufferedReader(new FileReader(file));
+	}
+
 	public static int calcNumOfObs(String filePath) throws FileNotFoundException, IOException {
 		int numObs = 0;
-		BufferedReader reader = new BufferedReader(new FileReader(filePath));
+		BufferedReader reader = openReader(filePath);
 		while (reader.readLine() != null) {
 			numObs++;
 		}
@@ -0,0 +1,333 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * <p><b>Name:</b> AsyncLogger</p>
+ * <p><b>Description:</b>
+ * Moves the formatting and the writing of the rows of another RowLogger (a CSVLogger or
+ * a BinaryLogger) to a dedicated writer thread, so that the simulation thread does not
+ * block on disk I/O.
+ * </p>
+ * <p>The rows are stored as primitive values in a buffer of a fixed number of rows, and are
+ * formatted only by the writer thread. When the buffer is full it is handed over to the writer
+ * thread, and the logger goes on with a second buffer (double buffering): the buffers work as a
+ * bounded ring buffer split in blocks of rows, so that the simulation thread synchronizes with
+ * the writer thread only once per buffer instead of once per row. If the writer thread is still
+ * busy with the previous buffer when the next one is full, the backpressure policy decides whether
+ * to wait for it (BACKPRESSURE_BLOCK), to discard the rows of the full buffer (BACKPRESSURE_DROP)
+ * or to queue it in memory anyway (BACKPRESSURE_SPILL). At most MAX_SPILLED_BUFFERS buffers are
+ * queued in memory: beyond them the spill policy waits like the block one, so that a slow disk
+ * cannot exhaust the heap.</p>
+ * <p>Rows must be logged by a single thread. dispose() writes all the queued rows and
+ * closes the target logger: rows logged after it are discarded and counted as dropped.</p>
+ *
+ * @author Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+ */
+public class AsyncLogger extends RowLogger {
+
+	public static final int BACKPRESSURE_BLOCK = 0;
+	public static final int BACKPRESSURE_DROP = 1;
+	public static final int BACKPRESSURE_SPILL = 2;
+
+	public static final int DEFAULT_BUFFER_ROWS = 4096;
+
+	/** Maximum number of full buffers waiting for the writer thread before backpressure is applied */
+	private static final int MAX_PENDING_BUFFERS = 1;
+	/** Maximum number of full buffers waiting for the writer thread with the BACKPRESSURE_SPILL policy, before it blocks */
+	static final int MAX_SPILLED_BUFFERS = 16;
+	/** Maximum number of empty buffers kept for reuse */
+	private static final int MAX_FREE_BUFFERS = 2;
+
+	private RowLogger target;
+	private byte[] types;
+	private int bufferRows;
+	private int backpressure;
+
+	// buffer filled by the logging thread
+	private Buffer current;
+	// full buffers, the first one is being written by the writer thread
+	private ArrayDeque<Buffer> pending = new ArrayDeque<Buffer>();
+	private ArrayDeque<Buffer> free = new ArrayDeque<Buffer>();
+	private Thread writerThread;
+	private boolean closing;
+	// read without locking by the logging thread
+	private volatile boolean closed;
+	private volatile IOException failure;
+	private long droppedRows;
+
+	/**
+	 * Creates a new AsyncLogger
+	 * @param target the logger that writes the rows, used only by the writer thread from now on
+	 * @param types the type of each column (see BinaryLogger.TYPE_* constants); at most 64 columns
+	 * @param bufferRows the number of rows of each buffer
+	 * @param backpressure the policy used when the writer thread cannot keep up (see BACKPRESSURE_* constants)
+	 */
+	public AsyncLogger(RowLogger target, byte[] types, int bufferRows, int backpressure) {
+		if (types.length > 64) {
+			throw new IllegalArgumentException("At most 64 columns can be logged asynchronously");
+		}
+		if (bufferRows <= 0) {
+			throw new IllegalArgumentException("Invalid buffer size: " + bufferRows);
+		}
+		this.target = target;
+		this.types = types;
+		this.bufferRows = bufferRows;
+		this.backpressure = backpressure;
+		current = new Buffer(types.length, bufferRows);
+
+		writerThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				writeBuffers();
+			}
+		}, "JSIM log writer - " + target.getFile().getName());
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	@Override
+	public void setDouble(int column, double value) {
+		set(column, Double.doubleToRawLongBits(value));
+	}
+
+	@Override
+	public void setLong(int column, long value) {
+		set(column, value);
+	}
+
+	@Override
+	public void setString(int column, String value) {
+		if (value != null) {
+			current.strings[current.rows * types.length + column] = value;
+			current.present[current.rows] |= 1L << column;
+		}
+	}
+
+	private void set(int column, long value) {
+		current.values[current.rows * types.length + column] = value;
+		current.present[current.rows] |= 1L << column;
+	}
+
+	/**
+	 * Ends the current row. The row is written later by the writer thread.
+	 * @throws IOException if the writer thread failed to write a previous row
+	 */
+	@Override
+	public void writeRow() throws IOException {
+		if (failure != null) {
+			throw failure;
+		}
+		if (closed) {
+			dropRow();
+			return;
+		}
+		current.rows++;
+		if (current.rows == bufferRows) {
+			handOver(false);
+		}
+	}
+
+	/**
+	 * Hands the current buffer over to the writer thread and takes an empty one.
+	 * @param flush true to hand the buffer over regardless of the backpressure policy
+	 */
+	private synchronized void handOver(boolean flush) {
+		if (closed) {
+			// Rows logged after the logger was disposed are dropped
+			droppedRows += current.rows;
+			current.clear();
+			return;
+		}
+		int maxPending = backpressure == BACKPRESSURE_SPILL ? MAX_SPILLED_BUFFERS : MAX_PENDING_BUFFERS;
+		if (!flush && pending.size() >= maxPending) {
+			if (backpressure == BACKPRESSURE_DROP) {
+				droppedRows += current.rows;
+				current.clear();
+				return;
+			} else {
+				// The spill policy blocks as well once too many buffers are queued
+				boolean interrupted = false;
+				while (pending.size() >= maxPending && failure == null) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						interrupted = true;
+					}
+				}
+				if (interrupted) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+		pending.addLast(current);
+		notifyAll();
+		current = free.isEmpty() ? new Buffer(types.length, bufferRows) : free.removeFirst();
+	}
+
+	/**
+	 * Discards the current row, logged after the logger was disposed.
+	 */
+	private synchronized void dropRow() {
+		droppedRows++;
+		current.clear();
+	}
+
+	/**
+	 * Body of the writer thread: writes the pending buffers until the logger is disposed.
+	 */
+	private void writeBuffers() {
+		while (true) {
+			Buffer buffer;
+			synchronized (this) {
+				while (pending.isEmpty() && !closing) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						// Keeps waiting, as rows may still be pending
+					}
+				}
+				if (pending.isEmpty()) {
+					return;
+				}
+				buffer = pending.getFirst();
+			}
+			if (failure == null) {
+				try {
+					write(buffer);
+				} catch (IOException e) {
+					failure = e;
+				}
+			}
+			synchronized (this) {
+				pending.removeFirst();
+				buffer.clear();
+				if (free.size() < MAX_FREE_BUFFERS) {
+					free.addLast(buffer);
+				}
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Writes the rows of a buffer with the target logger. Called only by the writer thread.
+	 * @param buffer the buffer
+	 * @throws IOException if the target logger fails
+	 */
+	private void write(Buffer buffer) throws IOException {
+		int columns = types.length;
+		for (int r = 0; r < buffer.rows; r++) {
+			long present = buffer.present[r];
+			int offset = r * columns;
+			for (int i = 0; i < columns; i++) {
+				if ((present & (1L << i)) == 0) {
+					continue;
+				}
+				switch (types[i]) {
+				case BinaryLogger.TYPE_DOUBLE:
+					target.setDouble(i, Double.longBitsToDouble(buffer.values[offset + i]));
+					break;
+				case BinaryLogger.TYPE_LONG:
+					target.setLong(i, buffer.values[offset + i]);
+					break;
+				default:
+					target.setString(i, buffer.strings[offset + i]);
+					break;
+				}
+			}
+			target.writeRow();
+		}
+	}
+
+	/**
+	 * Writes all the rows logged so far, stops the writer thread and closes the target logger.
+	 * @throws IOException if the rows could not be written or the target logger could not be closed
+	 */
+	@Override
+	protected void dispose() throws IOException {
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			if (current.rows > 0) {
+				handOver(true);
+			}
+			closing = true;
+			closed = true;
+			notifyAll();
+		}
+		boolean interrupted = false;
+		while (writerThread.isAlive()) {
+			try {
+				writerThread.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		target.dispose();
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	@Override
+	public File getFile() {
+		return target.getFile();
+	}
+
+	/**
+	 * @return the number of rows discarded by the BACKPRESSURE_DROP policy or logged after the logger was disposed
+	 */
+	public synchronized long getDroppedRows() {
+		return droppedRows;
+	}
+
+	/**
+	 * Rows of primitive values, by row and then by column.
+	 */
+	private static class Buffer {
+		private long[] values;
+		private String[] strings;
+		// columns with a value, by row
+		private long[] present;
+		private int rows;
+
+		private Buffer(int columns, int rows) {
+			values = new long[columns * rows];
+			strings = new String[columns * rows];
+			present = new long[rows];
+		}
+
+		private void clear() {
+			Arrays.fill(present, 0, Math.min(rows + 1, present.length), 0L);
+			Arrays.fill(strings, null);
+			rows = 0;
+		}
+	}
+
+}
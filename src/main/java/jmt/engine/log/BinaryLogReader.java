@@ -0,0 +1,478 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * <p><b>Name:</b> BinaryLogReader</p>
+ * <p><b>Description:</b>
+ * Reads, row by row, a log written by BinaryLogger. Header of the file:
+ * </p>
+ * <table border="1">
+ * <tr><td>int</td><td>magic number "JMTB"</td></tr>
+ * <tr><td>short</td><td>version</td></tr>
+ * <tr><td>byte</td><td>flags (1 if the chunks are compressed)</td></tr>
+ * <tr><td>int</td><td>number of columns, followed by the name (UTF) and type (byte) of each column</td></tr>
+ * </table>
+ * <p>Each chunk is made of the number of rows (int), the number of strings of its dictionary (int) followed
+ * by the strings (UTF), the length of the uncompressed and of the stored data (int, int) and the stored data.
+ * For each column the data contain a presence flag (byte: none, all, or bitmap followed by a long for each
+ * 64 rows) and, unless no row has a value, the values of all the rows (longs for doubles and longs, ints
+ * for dictionary indexes of strings).</p>
+ *
+ * @author Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+ */
+public class BinaryLogReader {
+
+	private File file;
+	private CountingInputStream counter;
+	private DataInputStream in;
+	private boolean compressed;
+	private String[] columns;
+	private byte[] types;
+
+	// current chunk
+	private int chunkRows;
+	private String[] dictionary;
+	private long[][] values;
+	private long[][] present;
+	private byte[] buffer = new byte[0];
+	private int storedLength;
+	private byte[] raw = new byte[0];
+	private int rawLength;
+	private Inflater inflater;
+
+	// index of the current row in the chunk, -1 before the first call to next()
+	private int row;
+	private long rowNumber;
+
+	/**
+	 * Opens a binary log and reads its header.
+	 * @param file the log file
+	 * @throws IOException if the file cannot be read or it is not a binary log
+	 */
+	public BinaryLogReader(File file) throws IOException {
+		this.file = file;
+		counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+		in = new DataInputStream(counter);
+		try {
+			if (in.readInt() != BinaryLogger.MAGIC) {
+				throw new IOException(file.getAbsolutePath() + " is not a binary log");
+			}
+			short version = in.readShort();
+			if (version != BinaryLogger.VERSION) {
+				throw new IOException("Unsupported binary log version " + version + ": " + file.getAbsolutePath());
+			}
+			compressed = (in.readByte() & BinaryLogger.FLAG_COMPRESSED) != 0;
+			int n = in.readInt();
+			columns = new String[n];
+			types = new byte[n];
+			for (int i = 0; i < n; i++) {
+				columns[i] = in.readUTF();
+				types[i] = in.readByte();
+			}
+		} catch (IOException e) {
+			in.close();
+			throw e;
+		}
+		values = new long[columns.length][];
+		present = new long[columns.length][];
+		if (compressed) {
+			inflater = new Inflater();
+		}
+		row = -1;
+	}
+
+	/**
+	 * Tells if the given file is a binary log.
+	 * @param file the file
+	 * @return true if the file starts with the magic number of binary logs
+	 */
+	public static boolean isBinaryLog(File file) {
+		if (!file.isFile() || file.length() < 4) {
+			return false;
+		}
+		try {
+			DataInputStream stream = new DataInputStream(new FileInputStream(file));
+			try {
+				return stream.readInt() == BinaryLogger.MAGIC;
+			} finally {
+				stream.close();
+			}
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Tells if there are more rows to be read.
+	 * @return true if next() will find a row
+	 * @throws IOException if the file cannot be read
+	 */
+	public boolean hasNext() throws IOException {
+		if (row + 1 < chunkRows) {
+			return true;
+		}
+		return counter.getCount() < file.length();
+	}
+
+	/**
+	 * Moves to the next row.
+	 * @return true if there was a next row, false at the end of the log
+	 * @throws IOException if the file cannot be read or it is corrupted
+	 */
+	public boolean next() throws IOException {
+		while (row + 1 >= chunkRows) {
+			if (!readChunk(false)) {
+				return false;
+			}
+		}
+		row++;
+		rowNumber++;
+		return true;
+	}
+
+	/**
+	 * Skips some rows, without decoding the chunks that are skipped entirely.
+	 * @param n the number of rows to be skipped
+	 * @return the number of rows skipped, less than n at the end of the log
+	 * @throws IOException if the file cannot be read or it is corrupted
+	 */
+	public long skip(long n) throws IOException {
+		long skipped = 0;
+		while (skipped < n) {
+			int available = chunkRows - row - 1;
+			if (available > 0) {
+				int step = (int) Math.min(available, n - skipped);
+				row += step;
+				rowNumber += step;
+				skipped += step;
+			} else {
+				// Reads only the header of the chunk if all its rows are skipped
+				if (!readChunk(true)) {
+					break;
+				}
+				if (chunkRows <= n - skipped) {
+					skipped += chunkRows;
+					rowNumber += chunkRows;
+					chunkRows = 0;
+				} else {
+					decode();
+				}
+			}
+		}
+		return skipped;
+	}
+
+	/**
+	 * Reads the next chunk.
+	 * @param headerOnly true to skip its data, which must be decoded by decode() if needed
+	 * @return false at the end of the log
+	 */
+	private boolean readChunk(boolean headerOnly) throws IOException {
+		int rows;
+		try {
+			rows = in.readInt();
+		} catch (EOFException e) {
+			chunkRows = 0;
+			row = -1;
+			return false;
+		}
+		int entries = in.readInt();
+		dictionary = new String[entries];
+		for (int i = 0; i < entries; i++) {
+			dictionary[i] = in.readUTF();
+		}
+		rawLength = in.readInt();
+		storedLength = in.readInt();
+		if (buffer.length < storedLength) {
+			buffer = new byte[storedLength];
+		}
+		in.readFully(buffer, 0, storedLength);
+		chunkRows = rows;
+		row = -1;
+		if (!headerOnly) {
+			decode();
+		}
+		return true;
+	}
+
+	/**
+	 * Decodes the data of the chunk just read.
+	 */
+	private void decode() throws IOException {
+		byte[] data = buffer;
+		if (compressed) {
+			if (raw.length < rawLength) {
+				raw = new byte[rawLength];
+			}
+			inflater.reset();
+			inflater.setInput(buffer, 0, storedLength);
+			try {
+				int length = 0;
+				while (length < rawLength) {
+					int n = inflater.inflate(raw, length, rawLength - length);
+					if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+						break;
+					}
+					length += n;
+				}
+				if (length != rawLength) {
+					throw new IOException("Corrupted binary log: " + file.getAbsolutePath());
+				}
+			} catch (DataFormatException e) {
+				throw new IOException("Corrupted binary log: " + file.getAbsolutePath());
+			}
+			data = raw;
+		}
+		DataInputStream payload = new DataInputStream(new ByteArrayInputStream(data, 0, rawLength));
+		int words = (chunkRows + 63) / 64;
+		for (int i = 0; i < columns.length; i++) {
+			if (present[i] == null || present[i].length < words) {
+				present[i] = new long[words];
+				values[i] = new long[Math.max(chunkRows, BinaryLogger.CHUNK_ROWS)];
+			} else if (values[i].length < chunkRows) {
+				values[i] = new long[chunkRows];
+			}
+			byte presence = payload.readByte();
+			if (presence == BinaryLogger.PRESENCE_NONE) {
+				Arrays.fill(present[i], 0, words, 0L);
+				continue;
+			} else if (presence == BinaryLogger.PRESENCE_ALL) {
+				Arrays.fill(present[i], 0, words, -1L);
+			} else {
+				for (int w = 0; w < words; w++) {
+					present[i][w] = payload.readLong();
+				}
+			}
+			long[] column = values[i];
+			if (types[i] == BinaryLogger.TYPE_STRING) {
+				for (int r = 0; r < chunkRows; r++) {
+					column[r] = payload.readInt();
+				}
+			} else {
+				for (int r = 0; r < chunkRows; r++) {
+					column[r] = payload.readLong();
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param column the index of the column
+	 * @return true if the current row has a value for the column
+	 */
+	public boolean isPresent(int column) {
+		return (present[column][row >> 6] & (1L << row)) != 0;
+	}
+
+	/**
+	 * @param column the index of a double column
+	 * @return the value of the column in the current row, NaN if it is missing
+	 */
+	public double getDouble(int column) {
+		if (!isPresent(column)) {
+			return Double.NaN;
+		}
+		if (types[column] == BinaryLogger.TYPE_LONG) {
+			return values[column][row];
+		}
+		return Double.longBitsToDouble(values[column][row]);
+	}
+
+	/**
+	 * @param column the index of a long column
+	 * @return the value of the column in the current row, 0 if it is missing
+	 */
+	public long getLong(int column) {
+		if (!isPresent(column)) {
+			return 0L;
+		}
+		if (types[column] == BinaryLogger.TYPE_DOUBLE) {
+			return (long) Double.longBitsToDouble(values[column][row]);
+		}
+		return values[column][row];
+	}
+
+	/**
+	 * @param column the index of the column
+	 * @return the value of the column in the current row, null if it is missing
+	 */
+	public String getString(int column) {
+		if (!isPresent(column)) {
+			return null;
+		}
+		switch (types[column]) {
+		case BinaryLogger.TYPE_STRING:
+			return dictionary[(int) values[column][row]];
+		case BinaryLogger.TYPE_LONG:
+			return Long.toString(values[column][row]);
+		default:
+			return Double.toString(Double.longBitsToDouble(values[column][row]));
+		}
+	}
+
+	/**
+	 * @param name the name of a column
+	 * @return the index of the column, -1 if there is no such column
+	 */
+	public int getColumnIndex(String name) {
+		for (int i = 0; i < columns.length; i++) {
+			if (columns[i].equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public String[] getColumnNames() {
+		return columns.clone();
+	}
+
+	public byte[] getColumnTypes() {
+		return types.clone();
+	}
+
+	public boolean isCompressed() {
+		return compressed;
+	}
+
+	/**
+	 * @return the number of rows read (or skipped) so far
+	 */
+	public long getRowNumber() {
+		return rowNumber;
+	}
+
+	/**
+	 * @return the fraction of the file read so far
+	 */
+	public double getReadPercentage() {
+		long length = file.length();
+		return length > 0 ? (double) counter.getCount() / length : 1.0;
+	}
+
+	/**
+	 * Closes the file.
+	 * @throws IOException if an IO problem is risen closing the file.
+	 */
+	public void close() throws IOException {
+		in.close();
+		if (inflater != null) {
+			inflater.end();
+			inflater = null;
+		}
+	}
+
+	/**
+	 * Converts a binary log into a CSV file with the same content CSVLogger would have written.
+	 * @param input the binary log
+	 * @param output the CSV file
+	 * @param colSep the column separator
+	 * @param digitSep the decimal digit separator
+	 * @throws IOException if a problem is risen reading or writing the files
+	 */
+	public static void toCSV(File input, File output, String colSep, String digitSep) throws IOException {
+		BinaryLogTextReader reader = new BinaryLogTextReader(new BinaryLogReader(input), colSep, digitSep);
+		try {
+			Writer writer = new BufferedWriter(new FileWriter(output));
+			try {
+				char[] chars = new char[1 << 14];
+				int n;
+				while ((n = reader.read(chars, 0, chars.length)) >= 0) {
+					writer.write(chars, 0, n);
+				}
+			} finally {
+				writer.close();
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Converts a binary log into a CSV file.
+	 * Usage: BinaryLogReader input output.csv [column separator] [decimal separator]
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: BinaryLogReader <input" + BinaryLogger.FILE_EXTENSION + "> <output.csv> [column separator] [decimal separator]");
+			System.exit(1);
+		}
+		toCSV(new File(args[0]), new File(args[1]), args.length > 2 ? args[2] : BinaryLogTextReader.DEFAULT_COLUMN_SEPARATOR,
+				args.length > 3 ? args[3] : BinaryLogTextReader.DEFAULT_DECIMAL_SEPARATOR);
+	}
+
+	/**
+	 * Counts the bytes read from the file, to know where the reader is.
+	 */
+	private static class CountingInputStream extends FilterInputStream {
+
+		private long count;
+
+		private CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b >= 0) {
+				count++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n > 0) {
+				count += n;
+			}
+			return n;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			count += skipped;
+			return skipped;
+		}
+
+		private long getCount() {
+			return count;
+		}
+	}
+
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.log;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ * <p><b>Name:</b> BinaryLogTextReader</p>
+ * <p><b>Description:</b>
+ * Provides a binary log as the text CSVLogger would have written for the same rows
+ * (a header line followed by a line for each row), so that readers of CSV logs can read
+ * binary logs directly. Rows are converted one at a time while the text is read.
+ * </p>
+ *
+ * @author Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+ */
+public class BinaryLogTextReader extends Reader {
+
+	/** Separators used when the ones of the simulation are not known */
+	public static final String DEFAULT_COLUMN_SEPARATOR = ";";
+	public static final String DEFAULT_DECIMAL_SEPARATOR = ".";
+
+	private BinaryLogReader reader;
+	private String colSep;
+	private NumberFormat numberFormat;
+	private byte[] types;
+	private StringBuilder line = new StringBuilder(100);
+	private int position;
+	private boolean header = true;
+	private String lineSeparator = System.getProperty("line.separator");
+
+	/**
+	 * Creates a new BinaryLogTextReader
+	 * @param reader the binary log, positioned before its first row
+	 * @param colSep the column separator
+	 * @param digitSep the decimal digit separator
+	 */
+	public BinaryLogTextReader(BinaryLogReader reader, String colSep, String digitSep) {
+		this.reader = reader;
+		this.colSep = colSep;
+		types = reader.getColumnTypes();
+
+		// Same format used by CSVLogger
+		DecimalFormatSymbols dfs = new DecimalFormatSymbols(Locale.US);
+		dfs.setDecimalSeparator(digitSep.charAt(0));
+		numberFormat = new DecimalFormat("#.#", dfs);
+		numberFormat.setMaximumFractionDigits(340);
+		numberFormat.setMaximumIntegerDigits(340);
+	}
+
+	@Override
+	public int read(char[] cbuf, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		while (position == line.length()) {
+			if (!nextLine()) {
+				return -1;
+			}
+		}
+		int n = Math.min(len, line.length() - position);
+		line.getChars(position, position + n, cbuf, off);
+		position += n;
+		return n;
+	}
+
+	/**
+	 * Converts the next row into a line of text.
+	 * @return false at the end of the log
+	 */
+	private boolean nextLine() throws IOException {
+		line.setLength(0);
+		position = 0;
+		if (header) {
+			String[] columns = reader.getColumnNames();
+			for (int i = 0; i < columns.length; i++) {
+				if (i > 0) {
+					line.append(colSep);
+				}
+				line.append(columns[i]);
+			}
+			header = false;
+			return true;
+		}
+		if (!reader.next()) {
+			return false;
+		}
+		line.append(lineSeparator);
+		for (int i = 0; i < types.length; i++) {
+			if (i > 0) {
+				line.append(colSep);
+			}
+			if (reader.isPresent(i)) {
+				switch (types[i]) {
+				case BinaryLogger.TYPE_DOUBLE:
+					line.append(numberFormat.format(reader.getDouble(i)));
+					break;
+				case BinaryLogger.TYPE_LONG:
+					line.append(numberFormat.format(reader.getLong(i)));
+					break;
+				default:
+					line.append(reader.getString(i));
+					break;
+				}
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+}
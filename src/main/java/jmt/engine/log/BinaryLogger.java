@@ -0,0 +1,311 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.log;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * <p><b>Name:</b> BinaryLogger</p>
+ * <p><b>Description:</b>
+ * Writes a log in a binary columnar format, an alternative to CSVLogger for traces with
+ * millions of rows. Values are set by column index and written as fixed-width doubles, longs
+ * or string dictionary indexes, so no string is built while logging.
+ * </p>
+ * <p>The file starts with a header (see BinaryLogReader) followed by chunks of at most
+ * CHUNK_ROWS rows. Each chunk is self-contained: it stores its string dictionary, then the
+ * values of each column one after the other, optionally compressed with Deflater. Columns
+ * without a value in a row are marked as missing and written as empty CSV fields by the
+ * converter (see BinaryLogTextReader).</p>
+ * <p>Like the simulation engine, the logger is meant to be used by a single thread.</p>
+ *
+ * @author Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+ */
+public class BinaryLogger extends RowLogger {
+
+	public static final String FILE_EXTENSION = ".jlog";
+
+	public static final byte TYPE_DOUBLE = 0;
+	public static final byte TYPE_LONG = 1;
+	public static final byte TYPE_STRING = 2;
+
+	static final int MAGIC = 0x4A4D5442; // "JMTB"
+	static final short VERSION = 1;
+	static final byte FLAG_COMPRESSED = 1;
+
+	static final byte PRESENCE_NONE = 0;
+	static final byte PRESENCE_ALL = 1;
+	static final byte PRESENCE_BITMAP = 2;
+
+	static final int CHUNK_ROWS = 4096;
+
+	private File file;
+	private String[] columns;
+	private byte[] types;
+	private boolean append;
+	private boolean compressed;
+	private boolean initialized;
+	private DataOutputStream out;
+
+	// values of the rows of the current chunk, by column (doubles as raw bits, strings as dictionary indexes)
+	private long[][] values;
+	// rows of the current chunk with a value, by column
+	private long[][] present;
+	private boolean[] rowPresent;
+	private int rows;
+	private Map<String, Integer> dictionary = new HashMap<String, Integer>();
+	private List<String> dictionaryEntries = new ArrayList<String>();
+
+	/**
+	 * Creates a new BinaryLogger that writes to the given file
+	 * @param file the file we should write to
+	 * @param columns the columns for the log file
+	 * @param types the type of each column (see TYPE_* constants)
+	 * @param append true to append to an existing file. False to create a new file
+	 * @param compressed true to compress the chunks of a new file
+	 */
+	public BinaryLogger(File file, String[] columns, byte[] types, boolean append, boolean compressed) {
+		if (columns.length != types.length) {
+			throw new IllegalArgumentException("A type is needed for each column");
+		}
+		this.file = file;
+		this.columns = columns;
+		this.types = types;
+		this.append = append;
+		this.compressed = compressed;
+		values = new long[columns.length][CHUNK_ROWS];
+		present = new long[columns.length][(CHUNK_ROWS + 63) / 64];
+		rowPresent = new boolean[columns.length];
+	}
+
+	/**
+	 * Sets the value of a double column in the current row.
+	 * @param column the index of the column
+	 * @param value the value
+	 */
+	@Override
+	public void setDouble(int column, double value) {
+		set(column, Double.doubleToRawLongBits(value));
+	}
+
+	/**
+	 * Sets the value of a long column in the current row.
+	 * @param column the index of the column
+	 * @param value the value
+	 */
+	@Override
+	public void setLong(int column, long value) {
+		set(column, value);
+	}
+
+	/**
+	 * Sets the value of a string column in the current row.
+	 * @param column the index of the column
+	 * @param value the value, null for a missing value
+	 */
+	@Override
+	public void setString(int column, String value) {
+		if (value == null) {
+			return;
+		}
+		Integer index = dictionary.get(value);
+		if (index == null) {
+			index = Integer.valueOf(dictionaryEntries.size());
+			dictionary.put(value, index);
+			dictionaryEntries.add(value);
+		}
+		set(column, index.intValue());
+	}
+
+	private void set(int column, long value) {
+		values[column][rows] = value;
+		rowPresent[column] = true;
+	}
+
+	/**
+	 * Ends the current row: the columns which were not set in it are missing.
+	 * @throws IOException if a problem is risen opening or writing to the log file
+	 */
+	@Override
+	public void writeRow() throws IOException {
+		for (int i = 0; i < columns.length; i++) {
+			if (rowPresent[i]) {
+				present[i][rows >> 6] |= 1L << rows;
+				rowPresent[i] = false;
+			}
+		}
+		rows++;
+		if (rows == CHUNK_ROWS) {
+			writeChunk();
+		}
+	}
+
+	/**
+	 * Writes the rows of the current chunk to the file.
+	 * @throws IOException if a problem is risen opening or writing to the log file
+	 */
+	private void writeChunk() throws IOException {
+		if (!initialized) {
+			init();
+		}
+		if (rows == 0) {
+			return;
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(rows * columns.length * 8 + 64);
+		DataOutputStream payload = new DataOutputStream(bytes);
+		int words = (rows + 63) / 64;
+		for (int i = 0; i < columns.length; i++) {
+			int count = 0;
+			for (int w = 0; w < words; w++) {
+				count += Long.bitCount(present[i][w]);
+			}
+			if (count == 0) {
+				payload.writeByte(PRESENCE_NONE);
+			} else {
+				if (count == rows) {
+					payload.writeByte(PRESENCE_ALL);
+				} else {
+					payload.writeByte(PRESENCE_BITMAP);
+					for (int w = 0; w < words; w++) {
+						payload.writeLong(present[i][w]);
+					}
+				}
+				long[] column = values[i];
+				if (types[i] == TYPE_STRING) {
+					for (int r = 0; r < rows; r++) {
+						payload.writeInt((int) column[r]);
+					}
+				} else {
+					for (int r = 0; r < rows; r++) {
+						payload.writeLong(column[r]);
+					}
+				}
+			}
+			Arrays.fill(present[i], 0, words, 0L);
+		}
+		payload.flush();
+		byte[] raw = bytes.toByteArray();
+		byte[] stored = raw;
+		int storedLength = raw.length;
+		if (compressed) {
+			Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+			deflater.setInput(raw);
+			deflater.finish();
+			stored = new byte[raw.length + raw.length / 1000 + 64];
+			storedLength = 0;
+			while (!deflater.finished()) {
+				if (storedLength == stored.length) {
+					stored = Arrays.copyOf(stored, stored.length * 2);
+				}
+				storedLength += deflater.deflate(stored, storedLength, stored.length - storedLength);
+			}
+			deflater.end();
+		}
+
+		out.writeInt(rows);
+		out.writeInt(dictionaryEntries.size());
+		for (String entry : dictionaryEntries) {
+			out.writeUTF(entry);
+		}
+		out.writeInt(raw.length);
+		out.writeInt(storedLength);
+		out.write(stored, 0, storedLength);
+
+		rows = 0;
+		dictionary.clear();
+		dictionaryEntries.clear();
+	}
+
+	/**
+	 * Initialize this logger. This method has no effect if the logger is already initialized.
+	 * @throws IOException if an IO problem is risen opening the log file, or if the file to be
+	 * appended is not a binary log with the same columns.
+	 */
+	private void init() throws IOException {
+		boolean needHeader = true;
+		if (append && file.exists() && file.length() > 0) {
+			BinaryLogReader reader = new BinaryLogReader(file);
+			try {
+				if (!Arrays.equals(reader.getColumnNames(), columns) || !Arrays.equals(reader.getColumnTypes(), types)) {
+					throw new IOException("Cannot append to " + file.getAbsolutePath() + ": columns do not match");
+				}
+				compressed = reader.isCompressed();
+			} finally {
+				reader.close();
+			}
+			needHeader = false;
+		}
+		out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, append), 1 << 16));
+
+		// Write header if needed
+		if (needHeader) {
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+			out.writeByte(compressed ? FLAG_COMPRESSED : 0);
+			out.writeInt(columns.length);
+			for (int i = 0; i < columns.length; i++) {
+				out.writeUTF(columns[i]);
+				out.writeByte(types[i]);
+			}
+		}
+		initialized = true;
+	}
+
+	/**
+	 * Writes the pending rows and closes the file.
+	 * @throws IOException if an IO problem is risen closing the log file.
+	 */
+	@Override
+	protected synchronized void dispose() throws IOException {
+		if (rows > 0) {
+			writeChunk();
+		}
+		if (initialized) {
+			out.close();
+			out = null;
+			initialized = false;
+		}
+	}
+
+	/**
+	 * @return the file this logger is writing on.
+	 */
+	@Override
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @return the columns of the log
+	 */
+	public String[] getColumns() {
+		return columns;
+	}
+
+}
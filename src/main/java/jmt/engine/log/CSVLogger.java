@@ -21,7 +21,7 @@ import java.util.Map;
  * @author Bertoli Marco
  * @version 1.0
  */
-public class CSVLogger {
+public class CSVLogger extends RowLogger {
 	private File file;
 	private boolean initialized;
 	private boolean append;
@@ -29,6 +29,8 @@ public class CSVLogger {
 	private String colSep;
 	private NumberFormat numberFormat;
 	private BufferedWriter writer;
+	// values of the current row, when logged by column index
+	private Object[] row;
 
 	/**
 	 * Creates a new CSVLogger that writes to the given file
@@ -83,6 +85,52 @@ public class CSVLogger {
 		writer.append(logLine);
 	}
 
+	@Override
+	public void setDouble(int column, double value) {
+		getRow()[column] = Double.valueOf(value);
+	}
+
+	@Override
+	public void setLong(int column, long value) {
+		getRow()[column] = Long.valueOf(value);
+	}
+
+	@Override
+	public void setString(int column, String value) {
+		getRow()[column] = value;
+	}
+
+	private Object[] getRow() {
+		if (row == null) {
+			row = new Object[columns.length];
+		}
+		return row;
+	}
+
+	/**
+	 * Logs the values set by column index since the previous row, as log() does.
+	 * @throws IOException if a problem is risen opening or writing to the log file
+	 */
+	@Override
+	public synchronized void writeRow() throws IOException {
+		if (!initialized) {
+			init();
+		}
+		Object[] values = getRow();
+		StringBuilder logLine = new StringBuilder(100);
+		for (int i = 0; i < columns.length; i++) {
+			if (i > 0) {
+				logLine.append(colSep);
+			}
+			if (!isEmpty(values[i])) {
+				logLine.append(toString(values[i]));
+			}
+			values[i] = null;
+		}
+		writer.newLine();
+		writer.append(logLine);
+	}
+
 	/**
 	 * Initialize this logger. This method has no effect if the logger is already initialized.
 	 * @throws IOException if an IO problem is risen opening the log file.
@@ -110,6 +158,7 @@ public class CSVLogger {
 	 * Disposes this logger object, closing the writer.
 	 * @throws IOException if an IO problem is risen closing the log file.
 	 */
+	@Override
 	protected synchronized void dispose() throws IOException {
 		if (initialized) {
 			writer.flush();
@@ -121,6 +170,7 @@ public class CSVLogger {
 	/**
 	 * @return the file this logger is writing on.
 	 */
+	@Override
 	public File getFile() {
 		return file;
 	}
@@ -19,7 +19,11 @@ package jmt.engine.log;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -34,6 +38,9 @@ import java.util.Map;
  */
 public class JSimLoggerFactory {
 	private static Map<File, CSVLogger> csvLoggerCache = new HashMap<File, CSVLogger>();
+	private static Map<File, BinaryLogger> binaryLoggerCache = new HashMap<File, BinaryLogger>();
+	// asynchronous loggers by simulation, as each of them must be used by a single thread
+	private static Map<Object, Map<File, AsyncLogger>> asyncLoggerCache = new HashMap<Object, Map<File, AsyncLogger>>();
 
 	/**
 	 * Returns an instance of CSVLogger on a given file 
@@ -65,13 +72,156 @@ public class JSimLoggerFactory {
 		logger.dispose();
 	}
 
+	/**
+	 * Returns an instance of BinaryLogger on a given file
+	 * @param file the file we should write to
+	 * @param columns the columns for the log file
+	 * @param types the type of each column (see BinaryLogger.TYPE_* constants)
+	 * @param append true to append to an existing file. False to create a new file
+	 * @param compressed true to compress the chunks of a new file
+	 * @return the logger instance
+	 */
+	public static synchronized BinaryLogger getBinaryLogger(File file, String[] columns, byte[] types, boolean append, boolean compressed) {
+		BinaryLogger ret = binaryLoggerCache.get(file);
+		if (ret == null) {
+			ret = new BinaryLogger(file, columns, types, append, compressed);
+			binaryLoggerCache.put(file, ret);
+		}
+		return ret;
+	}
+
+	/**
+	 * Removes a binary logger from the list of all loggers and disposes it.
+	 * @param logger the logger that should be removed
+	 */
+	public static synchronized void remove(BinaryLogger logger) throws IOException {
+		File file = logger.getFile();
+		if (binaryLoggerCache.containsKey(file)) {
+			binaryLoggerCache.remove(file);
+		}
+		logger.dispose();
+	}
+
+	/**
+	 * Returns an instance of AsyncLogger that writes a CSV file from a writer thread.
+	 * The logger is shared only by the loggers of the same simulation.
+	 * @param owner the simulation logging the rows (its NetSystem)
+	 * @param file the file we should write to
+	 * @param columns the columns for the log file
+	 * @param types the type of each column (see BinaryLogger.TYPE_* constants)
+	 * @param append true to append to an existing file. False to create a new file
+	 * @param colSep the column separator
+	 * @param digitSep the decimal digit separator
+	 * @param bufferRows the number of rows of each buffer of the logger
+	 * @param backpressure the backpressure policy (see AsyncLogger.BACKPRESSURE_* constants)
+	 * @return the logger instance
+	 */
+	public static synchronized AsyncLogger getAsyncCSVLogger(Object owner, File file, String[] columns, byte[] types, boolean append,
+			String colSep, String digitSep, int bufferRows, int backpressure) {
+		Map<File, AsyncLogger> loggers = getAsyncLoggers(owner);
+		AsyncLogger ret = loggers.get(file);
+		if (ret == null) {
+			ret = new AsyncLogger(new CSVLogger(file, columns, append, colSep, digitSep), types, bufferRows, backpressure);
+			loggers.put(file, ret);
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns an instance of AsyncLogger that writes a binary log from a writer thread.
+	 * The logger is shared only by the loggers of the same simulation.
+	 * @param owner the simulation logging the rows (its NetSystem)
+	 * @param file the file we should write to
+	 * @param columns the columns for the log file
+	 * @param types the type of each column (see BinaryLogger.TYPE_* constants)
+	 * @param append true to append to an existing file. False to create a new file
+	 * @param compressed true to compress the chunks of a new file
+	 * @param bufferRows the number of rows of each buffer of the logger
+	 * @param backpressure the backpressure policy (see AsyncLogger.BACKPRESSURE_* constants)
+	 * @return the logger instance
+	 */
+	public static synchronized AsyncLogger getAsyncBinaryLogger(Object owner, File file, String[] columns, byte[] types, boolean append,
+			boolean compressed, int bufferRows, int backpressure) {
+		Map<File, AsyncLogger> loggers = getAsyncLoggers(owner);
+		AsyncLogger ret = loggers.get(file);
+		if (ret == null) {
+			ret = new AsyncLogger(new BinaryLogger(file, columns, types, append, compressed), types, bufferRows, backpressure);
+			loggers.put(file, ret);
+		}
+		return ret;
+	}
+
+	private static Map<File, AsyncLogger> getAsyncLoggers(Object owner) {
+		Map<File, AsyncLogger> loggers = asyncLoggerCache.get(owner);
+		if (loggers == null) {
+			loggers = new HashMap<File, AsyncLogger>();
+			asyncLoggerCache.put(owner, loggers);
+		}
+		return loggers;
+	}
+
+	/**
+	 * Removes an asynchronous logger from the list of all loggers and disposes it,
+	 * waiting for all its rows to be written.
+	 * @param logger the logger that should be removed
+	 */
+	public static synchronized void remove(AsyncLogger logger) throws IOException {
+		File file = logger.getFile();
+		for (Iterator<Map<File, AsyncLogger>> it = asyncLoggerCache.values().iterator(); it.hasNext();) {
+			Map<File, AsyncLogger> loggers = it.next();
+			if (loggers.get(file) == logger) {
+				loggers.remove(file);
+				if (loggers.isEmpty()) {
+					it.remove();
+				}
+				break;
+			}
+		}
+		logger.dispose();
+	}
+
+	/**
+	 * Removes the asynchronous loggers of a simulation, waiting for all their rows
+	 * to be written. Called when the simulation stops.
+	 * @param owner the simulation (its NetSystem)
+	 * @throws IOException if an IO problem occurs
+	 */
+	public static synchronized void removeAsyncLoggers(Object owner) throws IOException {
+		Map<File, AsyncLogger> loggers = asyncLoggerCache.get(owner);
+		if (loggers != null) {
+			removeAsyncLoggers(loggers.values());
+		}
+	}
+
+	private static void removeAsyncLoggers(Collection<AsyncLogger> loggers) throws IOException {
+		IOException failure = null;
+		for (AsyncLogger logger : new ArrayList<AsyncLogger>(loggers)) {
+			try {
+				remove(logger);
+			} catch (IOException e) {
+				failure = e;
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
 	/**
 	 * Removes all the loggers built by this factory.
 	 * @throws IOException if an IO problem occurs
 	 */
 	public static synchronized void removeAllLoggers() throws IOException {
-		for (CSVLogger logger : csvLoggerCache.values()) {
+		for (CSVLogger logger : new ArrayList<CSVLogger>(csvLoggerCache.values())) {
+			remove(logger);
+		}
+		for (BinaryLogger logger : new ArrayList<BinaryLogger>(binaryLoggerCache.values())) {
 			remove(logger);
 		}
+		List<AsyncLogger> asyncLoggers = new ArrayList<AsyncLogger>();
+		for (Map<File, AsyncLogger> loggers : asyncLoggerCache.values()) {
+			asyncLoggers.addAll(loggers.values());
+		}
+		removeAsyncLoggers(asyncLoggers);
 	}
 }
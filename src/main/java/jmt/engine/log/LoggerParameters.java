@@ -39,6 +39,16 @@ public class LoggerParameters {
 	public static final int LOGGER_AR_APPEND = 2;
 	public static final String GLOBALLOGNAME = "global.csv";
 
+	/* Formats of the log files */
+	public static final String LOG_FORMAT_CSV = "csv";
+	public static final String LOG_FORMAT_BINARY = "binary";
+	public static final String LOG_FORMAT_COMPRESSED_BINARY = "compressedBinary";
+
+	/* Backpressure policies of asynchronous loggers (see AsyncLogger) */
+	public static final String LOG_BACKPRESSURE_BLOCK = "block";
+	public static final String LOG_BACKPRESSURE_DROP = "drop";
+	public static final String LOG_BACKPRESSURE_SPILL = "spill";
+
 	/**
 	 * Creates a logger with default parameters.
 	 */
@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.log;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * <p><b>Name:</b> RowLogger</p>
+ * <p><b>Description:</b>
+ * A logger whose rows are built by setting the value of each column by index and
+ * then calling writeRow(). The columns which were not set in a row are missing.
+ * A row must be built by a single thread.
+ * </p>
+ *
+ * @author Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+ */
+public abstract class RowLogger {
+
+	/**
+	 * Sets the value of a numeric column in the current row.
+	 * @param column the index of the column
+	 * @param value the value
+	 */
+	public abstract void setDouble(int column, double value);
+
+	/**
+	 * Sets the value of an integer column in the current row.
+	 * @param column the index of the column
+	 * @param value the value
+	 */
+	public abstract void setLong(int column, long value);
+
+	/**
+	 * Sets the value of a string column in the current row.
+	 * @param column the index of the column
+	 * @param value the value, null for a missing value
+	 */
+	public abstract void setString(int column, String value);
+
+	/**
+	 * Ends the current row.
+	 * @throws IOException if a problem is risen opening or writing to the log file
+	 */
+	public abstract void writeRow() throws IOException;
+
+	/**
+	 * Writes the pending rows and closes the file.
+	 * @throws IOException if an IO problem is risen closing the log file.
+	 */
+	protected abstract void dispose() throws IOException;
+
+	/**
+	 * @return the file this logger is writing on.
+	 */
+	public abstract File getFile();
+
+}
@@ -18,6 +18,8 @@
 
 package jmt.engine.math;
 
+import java.io.Serializable;
+
 /**
  * <p>Title: Batch Circular List data structure</p>
  * <p>Description: This class provides a data structure used to collect
@@ -30,7 +32,10 @@ package jmt.engine.math;
  *         Date: 17-gen-2006
  *         Time: 13.59.14
  */
-public class BatchCircularList {
+public class BatchCircularList implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
 	// Current batch size
 	protected int batchSize;
 	// Maximum number of batches
@@ -17,6 +17,7 @@
  */
 package jmt.engine.math;
 
+import java.io.Serializable;
 import java.util.Arrays;
 
 /**
@@ -28,7 +29,10 @@ import java.util.Arrays;
  *         Date: 14-feb-2006
  *         Time: 11.17.24
  */
-public class DirectCircularList<E> {
+public class DirectCircularList<E> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
 	// Pointer to last inserted element and its index for direct access
 	protected int last;
 	protected int lastIndex;
@@ -18,6 +18,8 @@
 
 package jmt.engine.math;
 
+import java.io.Serializable;
+
 /** this class creates a dynamic list of double. it is useful to use when you want
  * to access the elements randomly, but you have often to cancel the first part of list
  *  or to add elements in the end but in general the size is approximately
@@ -25,7 +27,10 @@ package jmt.engine.math;
  *
  * @author  Federico Granata
  */
-public class DoubleArrayList {
+public class DoubleArrayList implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
 	double[] data;
 	int start;
 	int end;
@@ -0,0 +1,310 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.math;
+
+import java.io.Serializable;
+
+/**
+ * A bounded-memory sketch of a stream of samples that estimates its quantiles with a
+ * guaranteed relative error (see C. Masson, J. E. Rim, H. K. Lee, "DDSketch: a fast and
+ * fully-mergeable quantile sketch with relative-error guarantees", VLDB 2019).
+ * <br>
+ * The magnitude of each sample is counted in a logarithmic bucket (g^(i-1), g^i], with
+ * g = (1 + accuracy) / (1 - accuracy), so every sample of a bucket is within the relative
+ * accuracy of the value returned for it. Positive and negative samples are kept in two
+ * separate sets of buckets, samples whose magnitude is smaller than the smallest normal
+ * double are counted as zeros.
+ * <br>
+ * The quantile with probability p is the sample of rank floor(p * n) (counted from 0) among
+ * the n sorted samples: the value returned is within the relative accuracy of that sample,
+ * as long as the number of buckets of each sign does not exceed the maximum one. Otherwise
+ * the lowest buckets are collapsed together and the guarantee only holds for the quantiles
+ * falling above them. With the default accuracy of 1% the default 2048 buckets span about
+ * 17 orders of magnitude, so in practice they are never collapsed.
+ *
+ * @author Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+ */
+public class QuantileSketch implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final double DEFAULT_ACCURACY = 0.01;
+
+	public static final int DEFAULT_MAX_BUCKETS = 2048;
+
+	private static final int INITIAL_BUCKETS = 64;
+
+	private double accuracy;
+	private double gamma;
+	private double logGamma;
+	private int maxBuckets;
+
+	private Buckets positive;
+	private Buckets negative;
+	private long zeroCount;
+	private long count;
+	private double min;
+	private double max;
+
+	/**
+	 * Creates a sketch with the default relative accuracy and number of buckets.
+	 */
+	public QuantileSketch() {
+		this(DEFAULT_ACCURACY, DEFAULT_MAX_BUCKETS);
+	}
+
+	/**
+	 * Creates a sketch.
+	 * @param accuracy the relative accuracy of the estimated quantiles, in (0, 1)
+	 * @param maxBuckets the maximum number of buckets kept for each sign
+	 */
+	public QuantileSketch(double accuracy, int maxBuckets) {
+		if (!(accuracy > 0.0 && accuracy < 1.0) || maxBuckets < 1) {
+			throw new IllegalArgumentException("Wrong quantile sketch parameter " + accuracy + " " + maxBuckets);
+		}
+		this.accuracy = accuracy;
+		this.maxBuckets = maxBuckets;
+		gamma = (1.0 + accuracy) / (1.0 - accuracy);
+		logGamma = Math.log(gamma);
+		positive = new Buckets();
+		negative = new Buckets();
+		min = Double.POSITIVE_INFINITY;
+		max = Double.NEGATIVE_INFINITY;
+	}
+
+	/**
+	 * Adds a sample to the sketch.
+	 * @param value the sample, which must not be NaN
+	 */
+	public void add(double value) {
+		if (value > Double.MIN_NORMAL) {
+			positive.add(index(value));
+		} else if (value < -Double.MIN_NORMAL) {
+			negative.add(index(-value));
+		} else {
+			zeroCount++;
+		}
+		count++;
+		if (value < min) {
+			min = value;
+		}
+		if (value > max) {
+			max = value;
+		}
+	}
+
+	/**
+	 * Returns the estimated quantile with the given probability.
+	 * @param prob the probability of the quantile, in [0, 1]
+	 * @return the estimated quantile, NaN if no sample was added
+	 */
+	public double getQuantile(double prob) {
+		if (count == 0) {
+			return Double.NaN;
+		}
+		long rank = (long) (prob * count);
+		if (rank >= count) {
+			rank = count - 1;
+		} else if (rank < 0) {
+			rank = 0;
+		}
+		double value;
+		if (rank < negative.count) {
+			value = -value(negative.indexOf(negative.count - 1 - rank));
+		} else if (rank < negative.count + zeroCount) {
+			value = 0.0;
+		} else {
+			value = value(positive.indexOf(rank - negative.count - zeroCount));
+		}
+		// The extremes are known exactly
+		return Math.max(min, Math.min(max, value));
+	}
+
+	/**
+	 * Returns the estimated fraction of samples that are less than or equal to the given value.
+	 * @param value the value
+	 * @return the estimated fraction of samples, NaN if no sample was added
+	 */
+	public double getProbability(double value) {
+		if (count == 0) {
+			return Double.NaN;
+		}
+		long below;
+		if (value > Double.MIN_NORMAL) {
+			below = negative.count + zeroCount + positive.countUpTo(index(value));
+		} else if (value < -Double.MIN_NORMAL) {
+			below = negative.count - negative.countUpTo(index(-value) - 1);
+		} else {
+			below = negative.count + zeroCount;
+		}
+		return (double) below / count;
+	}
+
+	/**
+	 * @return the number of samples added to the sketch
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the smallest sample added to the sketch
+	 */
+	public double getMin() {
+		return min;
+	}
+
+	/**
+	 * @return the greatest sample added to the sketch
+	 */
+	public double getMax() {
+		return max;
+	}
+
+	/**
+	 * @return the relative accuracy of the estimated quantiles
+	 */
+	public double getAccuracy() {
+		return accuracy;
+	}
+
+	private int index(double magnitude) {
+		return (int) Math.ceil(Math.log(magnitude) / logGamma);
+	}
+
+	private double value(int index) {
+		// Within the relative accuracy of both bounds of (g^(index-1), g^index]
+		return 2.0 * Math.exp(index * logGamma) / (gamma + 1.0);
+	}
+
+	/**
+	 * Counters of a contiguous range of bucket indexes, grown on demand and collapsed
+	 * from the lowest index when they exceed the maximum number of buckets.
+	 */
+	private class Buckets implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private long[] counts;
+		// bucket index of counts[0]
+		private int offset;
+		// lowest and highest bucket indexes used
+		private int lowest;
+		private int highest;
+		private long count;
+
+		private void add(int index) {
+			if (count == 0) {
+				counts = new long[INITIAL_BUCKETS];
+				offset = index - INITIAL_BUCKETS / 2;
+				lowest = index;
+				highest = index;
+			} else if (index < lowest) {
+				if (highest - index >= maxBuckets) {
+					// Counted in the lowest bucket kept
+					index = lowest;
+				} else {
+					lowest = index;
+				}
+			} else if (index > highest) {
+				if (index - lowest >= maxBuckets) {
+					collapse(index - maxBuckets + 1);
+				}
+				highest = index;
+			}
+			if (index < offset || index >= offset + counts.length) {
+				resize();
+			}
+			counts[index - offset]++;
+			count++;
+		}
+
+		/**
+		 * Moves the counters of the buckets below the given index to it.
+		 */
+		private void collapse(int newLowest) {
+			long collapsed = 0;
+			for (int i = lowest; i < newLowest && i <= highest; i++) {
+				collapsed += counts[i - offset];
+				counts[i - offset] = 0;
+			}
+			if (newLowest > highest) {
+				highest = newLowest;
+			}
+			lowest = newLowest;
+			if (lowest < offset || lowest >= offset + counts.length) {
+				resize();
+			}
+			counts[lowest - offset] += collapsed;
+		}
+
+		/**
+		 * Reallocates the counters so that they cover [lowest, highest] with some room on both sides.
+		 */
+		private void resize() {
+			int used = highest - lowest + 1;
+			int length = counts.length;
+			while (length < 2 * used) {
+				length *= 2;
+			}
+			long[] newCounts = new long[length];
+			int newOffset = lowest - (length - used) / 2;
+			for (int i = lowest; i <= highest; i++) {
+				int old = i - offset;
+				if (old >= 0 && old < counts.length) {
+					newCounts[i - newOffset] = counts[old];
+				}
+			}
+			counts = newCounts;
+			offset = newOffset;
+		}
+
+		/**
+		 * Returns the bucket index of the sample with the given rank (counted from 0 in increasing order).
+		 */
+		private int indexOf(long rank) {
+			long cumulative = 0;
+			for (int i = lowest; i < highest; i++) {
+				cumulative += counts[i - offset];
+				if (cumulative > rank) {
+					return i;
+				}
+			}
+			return highest;
+		}
+
+		/**
+		 * Returns the number of samples in the buckets with index up to the given one.
+		 */
+		private long countUpTo(int index) {
+			if (count == 0 || index < lowest) {
+				return 0;
+			}
+			if (index >= highest) {
+				return count;
+			}
+			long cumulative = 0;
+			for (int i = lowest; i <= index; i++) {
+				cumulative += counts[i - offset];
+			}
+			return cumulative;
+		}
+	}
+
+}
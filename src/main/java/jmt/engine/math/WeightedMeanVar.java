@@ -18,11 +18,15 @@
 
 package jmt.engine.math;
 
+import java.io.Serializable;
+
 /**
  *
  * @author  Stefano Omini
  */
-public class WeightedMeanVar {
+public class WeightedMeanVar implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	protected double mean;//mean of all data ( E[x] )
 	protected double var;//variance of data
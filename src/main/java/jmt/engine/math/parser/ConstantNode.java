@@ -26,6 +26,9 @@ package jmt.engine.math.parser;
  * @version 1.0
  */
 public class ConstantNode implements ExpressionNode {
+
+	private static final long serialVersionUID = 1L;
+
 	/** List of built-in constant names */
 	public static final String[] CONSTANTS = new String[] { "pi", "e" };
 	/** List of built-in constant values */
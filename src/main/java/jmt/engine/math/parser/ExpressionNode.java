@@ -15,6 +15,8 @@
   */
 package jmt.engine.math.parser;
 
+import java.io.Serializable;
+
 /**
  * <p><b>Name:</b> ExpressionNode</p> 
  * <p><b>Description:</b> 
@@ -25,7 +27,7 @@ package jmt.engine.math.parser;
  * @author Bertoli Marco
  * @version 1.0
  */
-public interface ExpressionNode extends Cloneable {
+public interface ExpressionNode extends Cloneable, Serializable {
 	public static final int CONSTANT_NODE = 0;
 	public static final int VARIABLE_NODE = 1;
 	public static final int OPERATOR_NODE = 2;
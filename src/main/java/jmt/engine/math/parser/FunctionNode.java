@@ -29,6 +29,9 @@ import jmt.engine.random.engine.RandomEngine;
  * @version 1.0
  */
 public class FunctionNode implements ExpressionNode {
+
+	private static final long serialVersionUID = 1L;
+
 	/** List of supported functions */
 	public static final String[] FUNCTIONS = new String[] { "-", "sin", "cos", "tan", "asin", "acos", "atan", "sinh", "cosh", "tanh", "asinh",
 			"acosh", "atanh", "ln", "log", "abs", "rand", "sqrt", "erf", "erfc", "gamma", "exp", "cot", "log2" };
@@ -26,6 +26,9 @@ package jmt.engine.math.parser;
  * @version 1.0
  */
 public class OperatorNode implements ExpressionNode {
+
+	private static final long serialVersionUID = 1L;
+
 	/** List of supported operators */
 	public static final char[] OPERATIONS = new char[] { '+', '-', '*', '/', '%', '^' };
 	/** Children nodes */
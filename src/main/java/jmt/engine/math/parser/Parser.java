@@ -15,6 +15,7 @@
   */
 package jmt.engine.math.parser;
 
+import java.io.Serializable;
 import java.util.HashSet;
 
 import jmt.engine.random.engine.RandomEngine;
@@ -39,7 +40,10 @@ import jmt.engine.random.engine.RandomEngine;
  * @author Bertoli Marco
  * @version 1.0
  */
-public class Parser {
+public class Parser implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
 	// Special tokens
 	private static final char TERM = '@'; // Input end character
 	private static final char NUM = 'n'; // number
@@ -404,7 +408,10 @@ public class Parser {
 	/**
 	 * Data structure used internally to return parsed elements.
 	 */
-	private class Element {
+	private class Element implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		private char token;
 		public double number = Double.NaN;
 		public int position = -1;
@@ -26,6 +26,9 @@ package jmt.engine.math.parser;
  * @version 1.0
  */
 public class VariableNode implements ExpressionNode {
+
+	private static final long serialVersionUID = 1L;
+
 	/** Value of the variable */
 	protected double value;
 	/** True if variable was not initialized */
@@ -18,9 +18,13 @@
 
 package jmt.engine.random;
 
+import java.io.Serializable;
+
 import jmt.engine.random.engine.RandomEngine;
 
-public abstract class AbstractDistribution {
+public abstract class AbstractDistribution implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * Represents the random generator of uniformly distributed 32 bits numbers
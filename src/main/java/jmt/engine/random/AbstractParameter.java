@@ -18,6 +18,8 @@
 
 package jmt.engine.random;
 
+import java.io.Serializable;
+
 import jmt.common.exception.IncorrectDistributionParameterException;
 
 /**
@@ -32,7 +34,9 @@ import jmt.common.exception.IncorrectDistributionParameterException;
  * @author Bertoli Marco, 10-oct-2005
  * 
  */
-public abstract class AbstractParameter {
+public abstract class AbstractParameter implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * It provide a method for the user to verify if the parameter that he is using
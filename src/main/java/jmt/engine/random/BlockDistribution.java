@@ -0,0 +1,45 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.random;
+
+import jmt.common.exception.IncorrectDistributionParameterException;
+
+/**
+ * This interface is implemented by the distributions that can generate a whole block of random
+ * numbers at once. Parameters are checked once per block and uniform random numbers are drawn from
+ * the engine in bulk, so that the transformation loop has no calls and can be optimized by the JIT.
+ * <br>
+ * A block always contains the same numbers of <tt>length</tt> consecutive calls to
+ * {@link Distribution#nextRand(Parameter)}, and consumes the same uniform random numbers of the
+ * engine in the same order.
+ */
+public interface BlockDistribution extends Distribution {
+
+	/**
+	 * Fills a block of an array with random numbers distributed according to this distribution.
+	 *
+	 * @param p parameter of the distribution.
+	 * @param values the array to fill.
+	 * @param offset the index of the first number of the block.
+	 * @param length the number of random numbers.
+	 * @throws IncorrectDistributionParameterException
+	 */
+	public void nextRand(Parameter p, double[] values, int offset, int length) throws IncorrectDistributionParameterException;
+
+}
@@ -36,6 +36,8 @@ import jmt.engine.random.engine.RandomEngine;
  */
 public class Burst extends NetNode implements Distribution {
 
+	private static final long serialVersionUID = 1L;
+
 	/** static counter to ensure that two distribution will not have the same name */
 	private static int count = 0;
 	/** if <tt>true</tt> the next EVENT_DISTRIBUTION_CHANGE message will be discarded */
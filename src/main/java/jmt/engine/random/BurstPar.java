@@ -29,6 +29,8 @@ package jmt.engine.random;
  */
 public class BurstPar extends AbstractParameter implements Parameter {
 
+	private static final long serialVersionUID = 1L;
+
 	/** parameter of value distribution A */
 	private Parameter valueParameterA;
 
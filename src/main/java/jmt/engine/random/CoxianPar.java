@@ -32,6 +32,8 @@ import jmt.common.exception.IncorrectDistributionParameterException;
  */
 public class CoxianPar extends AbstractParameter implements Parameter {
 
+	private static final long serialVersionUID = 1L;
+
 	private double lambda0;
 	private double lambda1;
 	private double phi0;
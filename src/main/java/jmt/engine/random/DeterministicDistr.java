@@ -18,6 +18,8 @@
 
 package jmt.engine.random;
 
+import java.util.Arrays;
+
 import jmt.common.exception.IncorrectDistributionParameterException;
 
 /**
@@ -31,7 +33,9 @@ import jmt.common.exception.IncorrectDistributionParameterException;
  * @author Modified by Stefano Omini, 7/5/2004
  * 
  */
-public class DeterministicDistr extends AbstractDistribution implements Distribution {
+public class DeterministicDistr extends AbstractDistribution implements BlockDistribution {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * This method is used to obtain from the distribution its probability distribution
@@ -126,4 +130,22 @@ public class DeterministicDistr extends AbstractDistribution implements Distribu
 		}
 	}
 
+	/**
+	 * This method is used to fill a block of an array with numbers distributed according
+	 * to the distribution parameter, as <tt>length</tt> consecutive calls to nextRand(p).
+	 *
+	 * @param p parameter of the deterministic distribution.
+	 * @param values the array to fill.
+	 * @param offset the index of the first number of the block.
+	 * @param length the number of random numbers.
+	 * @throws IncorrectDistributionParameterException
+	 */
+	public void nextRand(Parameter p, double[] values, int offset, int length) throws IncorrectDistributionParameterException {
+		if (p.check()) {
+			Arrays.fill(values, offset, offset + length, ((DeterministicDistrPar) p).getParameterValue());
+		} else {
+			throw new IncorrectDistributionParameterException("parameter t must be > 0");
+		}
+	}
+
 } // end DeterministicDistr
@@ -18,6 +18,8 @@
 
 package jmt.engine.random;
 
+import java.io.Serializable;
+
 import jmt.common.exception.IncorrectDistributionParameterException;
 
 /**
@@ -30,7 +32,7 @@ import jmt.common.exception.IncorrectDistributionParameterException;
  * @author Modified by Stefano Omini, 7/5/2004
  * 
  */
-public interface Distribution {
+public interface Distribution extends Serializable {
 
 	/**
 	 * This method is used to ask all the distribution to return a new random number
@@ -32,6 +32,8 @@ import jmt.common.exception.IncorrectDistributionParameterException;
  */
 public class Empirical extends AbstractDistribution implements Distribution {
 
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * This is the constructor. It creates a new empirical distribution.
 	 */
@@ -153,14 +155,13 @@ public class Empirical extends AbstractDistribution implements Distribution {
 	public double nextRand(Parameter p) throws IncorrectDistributionParameterException {
 		if (p.check()) {
 			double rand = engine.raw();
-			double[] cdf = ((EmpiricalPar) p).getCDF();
-			for (int ptn = 0; ptn < cdf.length - 1; ptn++) {
-				if (cdf[ptn + 1] >= rand) {
-					return ptn;
-				}
-			}
 			double[] pdf = ((EmpiricalPar) p).getPDF();
-			for (int ptn = pdf.length - 1; ptn > 0; ptn--) {
+			//first position whose cumulative probability reaches rand
+			int ptn = ((EmpiricalPar) p).getGuideTable().search(rand);
+			if (ptn < pdf.length) {
+				return ptn;
+			}
+			for (ptn = pdf.length - 1; ptn > 0; ptn--) {
 				if (pdf[ptn] > 0.0) {
 					return ptn;
 				}
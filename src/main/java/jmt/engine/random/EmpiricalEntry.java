@@ -18,6 +18,8 @@
 
 package jmt.engine.random;
 
+import java.io.Serializable;
+
 /**
 
  * Class used for the empirical distribution, through which the user provides
@@ -28,7 +30,9 @@ package jmt.engine.random;
  * @version Date: 27-nov-2003 Time: 10.27.00
 
  */
-public class EmpiricalEntry {
+public class EmpiricalEntry implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/** The <code>EmpiricalEntry</code> value. */
 	protected Object value;
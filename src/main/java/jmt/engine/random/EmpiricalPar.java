@@ -18,6 +18,8 @@
 
 package jmt.engine.random;
 
+import java.util.Arrays;
+
 import jmt.common.exception.IncorrectDistributionParameterException;
 
 /**
@@ -32,10 +34,14 @@ import jmt.common.exception.IncorrectDistributionParameterException;
  */
 public class EmpiricalPar extends AbstractParameter implements Parameter {
 
+	private static final long serialVersionUID = 1L;
+
 	/** cumulative distribution function*/
 	protected double[] cdf;
 	/** probability distribution function*/
 	protected double[] pdf;
+	/** guide table used to sample the distribution*/
+	private GuideTable guideTable;
 
 	/** values of the parameter*/
 	protected Object[] values;
@@ -117,6 +123,17 @@ public class EmpiricalPar extends AbstractParameter implements Parameter {
 		return cdf;
 	}
 
+	/**
+	 * It returns the guide table used to sample the empirical distribution. The table
+	 * is built together with the cumulative distribution function and searches its
+	 * values after the first one, so the returned index is the position of the value.
+	 *
+	 * @return the guide table of the cumulative distribution function.
+	 */
+	public GuideTable getGuideTable() {
+		return guideTable;
+	}
+
 	/**
 	 * It allows the user to change the value of the parameter of the empirical distribution.
 	 * Takes an existent array of pdf and tries to convert it in a pdf for an empirical
@@ -161,6 +178,7 @@ public class EmpiricalPar extends AbstractParameter implements Parameter {
 		for (int ptn = 0; ptn < nBins; ptn++) {
 			this.cdf[ptn + 1] = cdf[ptn] + pdf[ptn];
 		}
+		this.guideTable = new GuideTable(Arrays.copyOfRange(cdf, 1, cdf.length));
 	}
 
 	/**
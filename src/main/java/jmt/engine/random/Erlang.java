@@ -34,6 +34,8 @@ import jmt.engine.math.Gamma;
  */
 public class Erlang extends AbstractDistribution implements Distribution {
 
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * This is the constructor. It creates a new erlang distribution which
 	 * is defined from pdf:
@@ -32,6 +32,8 @@ import jmt.common.exception.IncorrectDistributionParameterException;
  */
 public class ErlangPar extends AbstractParameter implements Parameter {
 
+	private static final long serialVersionUID = 1L;
+
 	private double alpha;
 	private long r;
 
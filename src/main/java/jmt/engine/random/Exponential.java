@@ -19,6 +19,7 @@
 package jmt.engine.random;
 
 import jmt.common.exception.IncorrectDistributionParameterException;
+import jmt.engine.random.engine.RandomEngine;
 
 /**
  * 
@@ -31,7 +32,9 @@ import jmt.common.exception.IncorrectDistributionParameterException;
  * @author Modified by Stefano Omini, 7/5/2004
  * 
  */
-public class Exponential extends AbstractDistribution implements Distribution {
+public class Exponential extends AbstractDistribution implements BlockDistribution {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * This is the constructor. It creates a new exponential distribution
@@ -139,4 +142,42 @@ public class Exponential extends AbstractDistribution implements Distribution {
 		}
 	}
 
+	/**
+	 * This method is used to fill a block of an array with numbers distributed according
+	 * to the distribution parameter, as <tt>length</tt> consecutive calls to nextRand(p).
+	 *
+	 * @param p parameter of the exponential distribution.
+	 * @param values the array to fill.
+	 * @param offset the index of the first number of the block.
+	 * @param length the number of random numbers.
+	 * @throws IncorrectDistributionParameterException
+	 */
+	public void nextRand(Parameter p, double[] values, int offset, int length) throws IncorrectDistributionParameterException {
+		if (p.check()) {
+			double lambda = ((ExponentialPar) p).getLambda();
+			engine.raw(values, offset, length);
+			for (int i = offset, end = offset + length; i < end; i++) {
+				values[i] = -Math.log(values[i]) / lambda;
+			}
+		} else {
+			throw new IncorrectDistributionParameterException("Remember: parameter lambda must be gtz");
+		}
+	}
+
+	/**
+	 * This method is used by the distributions made of exponential phases to draw the
+	 * duration of a phase with the given rate, without setting it into a parameter.
+	 *
+	 * @param engine the random engine.
+	 * @param lambda the rate of the phase.
+	 * @throws IncorrectDistributionParameterException
+	 * @return double with the duration of the phase.
+	 */
+	static double nextRand(RandomEngine engine, double lambda) throws IncorrectDistributionParameterException {
+		if (lambda <= 0) {
+			throw new IncorrectDistributionParameterException("Remember: parameter lambda must be gtz");
+		}
+		return -Math.log(engine.raw()) / lambda;
+	}
+
 } // end Exponential
@@ -35,6 +35,8 @@ import jmt.engine.math.Sfun;
  */
 public class GammaDistr extends AbstractDistribution implements Distribution {
 
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * This is the constructor. It creates a new gamma distribution which
 	 * is defined from pdf:
@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.random;
+
+import java.io.Serializable;
+
+/**
+ * Guide table (Chen and Asau) for the inverse transform sampling of a discrete
+ * distribution given its cumulative distribution function. The table splits [0, 1)
+ * into as many intervals as there are values and stores, for each interval, the
+ * first value whose cumulative probability reaches it, so that a search takes a
+ * constant expected number of comparisons instead of a scan of the whole function.
+ * <br>
+ * A search returns exactly the same value as a linear scan, therefore replacing a
+ * scan with a guide table does not change the samples drawn from a random engine.
+ */
+public class GuideTable implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Cumulative distribution function, must be non decreasing. */
+	private final double[] cdf;
+
+	/** First index of each interval of [0, 1). */
+	private final int[] guide;
+
+	/**
+	 * Creates a guide table for the given cumulative distribution function.
+	 * @param cdf the non decreasing cumulative probabilities; the array is not copied
+	 * and must not be changed afterwards.
+	 */
+	public GuideTable(double[] cdf) {
+		this.cdf = cdf;
+		int m = Math.max(cdf.length, 1);
+		guide = new int[m];
+		int i = 0;
+		for (int j = 0; j < m; j++) {
+			double threshold = (double) j / m;
+			while (i < cdf.length && cdf[i] < threshold) {
+				i++;
+			}
+			guide[j] = i;
+		}
+	}
+
+	/**
+	 * Finds the first index whose cumulative probability is equal to or greater than
+	 * the given probability.
+	 * @param probability the probability, usually a uniform sample in [0, 1).
+	 * @return the index, or the length of the cumulative distribution function if
+	 * all its values are less than the given probability.
+	 */
+	public int search(double probability) {
+		int j = (int) (probability * guide.length);
+		if (j < 0) {
+			j = 0;
+		} else if (j >= guide.length) {
+			j = guide.length - 1;
+		}
+		// the guide is only a starting point, the two scans make the result exact
+		int i = guide[j];
+		while (i > 0 && cdf[i - 1] >= probability) {
+			i--;
+		}
+		while (i < cdf.length && cdf[i] < probability) {
+			i++;
+		}
+		return i;
+	}
+
+}
@@ -33,6 +33,8 @@ import jmt.engine.random.engine.RandomEngine;
  */
 public class HyperExp extends AbstractDistribution implements Distribution {
 
+	private static final long serialVersionUID = 1L;
+
 	private Exponential expDistr;
 
 	/**
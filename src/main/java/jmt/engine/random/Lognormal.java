@@ -33,6 +33,8 @@ import jmt.engine.math.Normal;
  */
 public class Lognormal extends AbstractDistribution implements Distribution {
 
+	private static final long serialVersionUID = 1L;
+
 	private double cache; // cache for Box-Mueller algorithm
 	private boolean cacheFilled; // Box-Mueller
 
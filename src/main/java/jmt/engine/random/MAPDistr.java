@@ -19,7 +19,6 @@
 package jmt.engine.random;
 
 import jmt.common.exception.IncorrectDistributionParameterException;
-import jmt.engine.random.engine.RandomEngine;									 
 
 /**
  * 
@@ -32,9 +31,9 @@ import jmt.engine.random.engine.RandomEngine;
  */
 public class MAPDistr extends AbstractDistribution implements Distribution {
 
+	private static final long serialVersionUID = 1L;
+
 	private int curState;
-	private Exponential expDistr;
-	private ExponentialPar expPar;
 
 	/**
 	 * This is the constructor. It creates a new MAP distribution which
@@ -43,14 +42,6 @@ public class MAPDistr extends AbstractDistribution implements Distribution {
 	 */
 	public MAPDistr() {
 		curState = -1;
-		expDistr = new Exponential();
-		expPar = new ExponentialPar();
-	}
-
-	@Override
-	public void setRandomEngine(RandomEngine engine) {
-		this.engine = engine;
-		this.expDistr.setRandomEngine(engine);
 	}
 
 	/**
@@ -132,8 +123,7 @@ public class MAPDistr extends AbstractDistribution implements Distribution {
 
 		OUTER_LOOP:
 		while (true) {
-			expPar.setLambda(lambda[curState]);
-			sample += expDistr.nextRand(expPar);
+			sample += Exponential.nextRand(engine, lambda[curState]);
 
 			double rand = engine.raw();
 			double sum = 0.0;
@@ -33,6 +33,8 @@ import jmt.common.exception.IncorrectDistributionParameterException;
  */
 public class MAPPar extends AbstractParameter implements Parameter {
 
+	private static final long serialVersionUID = 1L;
+
 	private double[][] D0;
 	private double[][] D1;
 	private double mean;
@@ -32,6 +32,8 @@ import jmt.engine.random.engine.RandomEngine;
  */
 public class MMPP2Distr extends AbstractDistribution implements Distribution {
 
+	private static final long serialVersionUID = 1L;
+
 	private int curState;
 	private Exponential expDistr;
 
@@ -32,6 +32,8 @@ import jmt.common.exception.IncorrectDistributionParameterException;
  */
 public class MMPP2Par extends AbstractParameter implements Parameter {
 
+	private static final long serialVersionUID = 1L;
+
 	private double sigma0;
 	private double sigma1;
 	private double lambda0;
@@ -35,6 +35,8 @@ import jmt.engine.math.Probability;
  */
 public class Normal extends AbstractDistribution implements Distribution {
 
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * This is the constructor. It creates a new normal distribution which is
 	 * defined from pdf:
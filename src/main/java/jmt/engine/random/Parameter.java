@@ -18,6 +18,8 @@
 
 package jmt.engine.random;
 
+import java.io.Serializable;
+
 import jmt.common.AutoCheck;
 import jmt.common.exception.IncorrectDistributionParameterException;
 
@@ -32,7 +34,7 @@ import jmt.common.exception.IncorrectDistributionParameterException;
  * @author Bertoli Marco, 10-oct-2005
  * 
  */
-public interface Parameter extends AutoCheck {
+public interface Parameter extends AutoCheck, Serializable {
 
 	/**
 	 * It provide a method for the user to verify if the parameter that he is using
@@ -31,7 +31,9 @@ import jmt.common.exception.IncorrectDistributionParameterException;
  * @author Modified by Stefano Omini, 7/5/2004
  * 
  */
-public class Pareto extends AbstractDistribution implements Distribution {
+public class Pareto extends AbstractDistribution implements BlockDistribution {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * This is the constructor. It creates a new empty pareto distribution which
@@ -150,4 +152,28 @@ public class Pareto extends AbstractDistribution implements Distribution {
 		}
 	}
 
+	/**
+	 * This method is used to fill a block of an array with numbers distributed according
+	 * to the distribution parameter, as <tt>length</tt> consecutive calls to nextRand(p).
+	 *
+	 * @param p parameter of the pareto distribution.
+	 * @param values the array to fill.
+	 * @param offset the index of the first number of the block.
+	 * @param length the number of random numbers.
+	 * @throws IncorrectDistributionParameterException
+	 */
+	public void nextRand(Parameter p, double[] values, int offset, int length) throws IncorrectDistributionParameterException {
+		if (p.check()) {
+			double alpha = ((ParetoPar) p).getAlpha();
+			double k = ((ParetoPar) p).getK();
+			engine.raw(values, offset, length);
+			for (int i = offset, end = offset + length; i < end; i++) {
+				values[i] = Math.pow((1.0 - values[i]), (-1.0 / alpha)) * k;
+			}
+		} else {
+			throw new IncorrectDistributionParameterException(
+					"Remember: parameter alpha must be > 0; parameter k must be > 0");
+		}
+	}
+
 } // end Pareto
@@ -31,9 +31,9 @@ import jmt.common.exception.IncorrectDistributionParameterException;
  */
 public class PhaseTypeDistr extends AbstractDistribution implements Distribution {
 
+	private static final long serialVersionUID = 1L;
+
 	private int curState;
-	private Exponential expDistr;
-	private ExponentialPar expPar;
 
 	/**
 	 * This is the constructor. It creates a new phase-type distribution which
@@ -42,8 +42,6 @@ public class PhaseTypeDistr extends AbstractDistribution implements Distribution
 	 */
 	public PhaseTypeDistr() {
 		curState = -1;
-		expDistr = new Exponential();
-		expPar = new ExponentialPar();
 	}
 
 	/**
@@ -120,14 +118,9 @@ public class PhaseTypeDistr extends AbstractDistribution implements Distribution
 			}
 		}
 
-		if (expDistr.engine == null) {
-			expDistr.setRandomEngine(engine);
-		}
-		
 		OUTER_LOOP:
 		while (true) {
-			expPar.setLambda(lambda[curState]);
-			sample += expDistr.nextRand(expPar);
+			sample += Exponential.nextRand(engine, lambda[curState]);
 
 			rand = engine.raw();
 			sum = 0.0;
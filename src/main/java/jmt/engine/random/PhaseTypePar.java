@@ -33,6 +33,8 @@ import jmt.common.exception.IncorrectDistributionParameterException;
  */
 public class PhaseTypePar extends AbstractParameter implements Parameter {
 
+	private static final long serialVersionUID = 1L;
+
 	private double[] alpha;
 	private double[][] T;
 	private double mean;
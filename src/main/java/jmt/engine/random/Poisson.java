@@ -29,6 +29,8 @@ import jmt.common.exception.IncorrectDistributionParameterException;
  */
 public class Poisson extends AbstractDistribution implements Distribution {
 
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * This is the constructor. It creates a new Poisson distribution.
 	 */
@@ -30,6 +30,8 @@ import jmt.common.exception.IncorrectDistributionParameterException;
  */
 public class PoissonPar extends AbstractParameter implements Parameter {
 
+	private static final long serialVersionUID = 1L;
+
 	private double lambda;
 
 	/**
@@ -36,6 +36,8 @@ import jmt.engine.math.Sfun;
  */
 public class StudentT extends AbstractDistribution implements Distribution {
 
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * This is the constructor. It creates a new student T distribution which
 	 * is defined from pdf:
@@ -35,7 +35,9 @@ import jmt.common.exception.IncorrectDistributionParameterException;
  * @author Modified by Stefano Omini, 7/5/2004
  * 
  */
-public class Uniform extends AbstractDistribution implements Distribution {
+public class Uniform extends AbstractDistribution implements BlockDistribution {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * This is the constructor. It creates a new uniform distribution which is
@@ -259,4 +261,28 @@ public class Uniform extends AbstractDistribution implements Distribution {
 		}
 	}
 
+	/**
+	 * This method is used to fill a block of an array with numbers distributed according
+	 * to the distribution parameter, as <tt>length</tt> consecutive calls to nextRand(p).
+	 *
+	 * @param p parameter of the uniform distribution.
+	 * @param values the array to fill.
+	 * @param offset the index of the first number of the block.
+	 * @param length the number of random numbers.
+	 * @throws IncorrectDistributionParameterException
+	 */
+	public void nextRand(Parameter p, double[] values, int offset, int length) throws IncorrectDistributionParameterException {
+		if (p.check()) {
+			double min = ((UniformPar) p).getMin();
+			double max = ((UniformPar) p).getMax();
+			engine.raw(values, offset, length);
+			for (int i = offset, end = offset + length; i < end; i++) {
+				values[i] = min + (max - min) * values[i];
+			}
+		} else {
+			throw new IncorrectDistributionParameterException(
+					"Remember: the *max* parameter must be greater than the *min* one because min and max represent the bounds of the distribution");
+		}
+	}
+
 } // end Uniform
@@ -30,7 +30,9 @@ import jmt.engine.math.Gamma;
  * @author Giuliano Casale, g.casale@imperial.ac.uk
  * 
  */
-public class Weibull extends AbstractDistribution implements Distribution {
+public class Weibull extends AbstractDistribution implements BlockDistribution {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * This is the constructor. It creates a new Weibull distribution 
@@ -139,4 +141,27 @@ public class Weibull extends AbstractDistribution implements Distribution {
 		}
 	}
 
+	/**
+	 * This method is used to fill a block of an array with numbers distributed according
+	 * to the distribution parameter, as <tt>length</tt> consecutive calls to nextRand(p).
+	 *
+	 * @param p parameter of the weibull distribution.
+	 * @param values the array to fill.
+	 * @param offset the index of the first number of the block.
+	 * @param length the number of random numbers.
+	 * @throws IncorrectDistributionParameterException
+	 */
+	public void nextRand(Parameter p, double[] values, int offset, int length) throws IncorrectDistributionParameterException {
+		if (p.check()) {
+			double alpha = ((WeibullPar) p).getAlpha();
+			double r = ((WeibullPar) p).getR();
+			engine.raw(values, offset, length);
+			for (int i = offset, end = offset + length; i < end; i++) {
+				values[i] = alpha * Math.pow(-Math.log(1 - values[i]), 1 / r);
+			}
+		} else {
+			throw new IncorrectDistributionParameterException("Remember: alpha and r must be gtz");
+		}
+	}
+
 } // end Weibull
@@ -7,6 +7,8 @@ import jmt.engine.random.Parameter;
 // implement the `DiscreteDistribution` to define the behavior of this distribution.
 public class Bernoulli extends DiscreteDistribution {
 
+	private static final long serialVersionUID = 1L;
+
 	private double probability;
 
 	// Constructor with NO parameter, because the XML initialized the distribution parameter through Parameter.
@@ -5,6 +5,8 @@ import jmt.engine.random.AbstractParameter;
 
 public class BernoulliPar extends AbstractParameter {
 
+	private static final long serialVersionUID = 1L;
+
 	private double p;
 
 	public BernoulliPar(double p) throws IncorrectDistributionParameterException {
@@ -4,10 +4,10 @@ import jmt.common.exception.IncorrectDistributionParameterException;
 import jmt.engine.math.Arithmetic;
 import jmt.engine.random.Parameter;
 
-import java.util.Hashtable;
-
 public class Binomial extends DiscreteDistribution {
 
+	private static final long serialVersionUID = 1L;
+
 	private int n;
 	private double p;
 
@@ -133,11 +133,11 @@ public class Binomial extends DiscreteDistribution {
 			int num = up.getNumberOfExperiment();
 			double p = up.getProbability();
 
-			Hashtable<Integer,Double> lst = new Hashtable<Integer,Double>();
+			double[] lst = new double[num + 1];
 			double CDF = 0.0;
 			for(int i=0; i<=num; i++){
 				CDF += binomial_pmf(num, i, p);
-				lst.put(i, CDF);
+				lst[i] = CDF;
 			}
 			return binarySearch(0, num, engine.nextDouble(), lst)+1;
 		} else {
@@ -220,6 +220,27 @@ public class Binomial extends DiscreteDistribution {
 		}
 	}
 
+	// Same values as `cdf()`, but the probabilities are accumulated once for the whole list
+	// instead of being summed again for each variable.
+	@Override
+	protected double[] createdCDFList(int lower, int upper){
+		if(cached){
+			double[] cdf = new double[upper - lower + 1];
+			double result = 0.0;
+			for(int x=0; x<=upper && x<n; x++){
+				result += binomial_pmf(n, x, p);
+				if(x >= lower){
+					cdf[x - lower] = result;
+				}
+			}
+			for(int x=Math.max(lower, n); x<=upper; x++){
+				cdf[x - lower] = 1.0;
+			}
+			return cdf;
+		}
+		return null;
+	}
+
 	private static double binomial_pmf(int n, int x, double p){
 		return Arithmetic.binomial(n, x) * Math.pow(p, x) * Math.pow((1-p), (n-x));
 	}
@@ -2,12 +2,13 @@ package jmt.engine.random.discrete;
 
 import jmt.common.exception.IncorrectDistributionParameterException;
 import jmt.engine.random.AbstractDistribution;
+import jmt.engine.random.GuideTable;
 import jmt.engine.random.Parameter;
 
-import java.util.Hashtable;
-
 public abstract class DiscreteDistribution extends AbstractDistribution{
 
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 This Class extends from `AbstractDistribution`, also has a field - RandomEngine and its corresponding setter.
 	 This function is invoked by `SimLoader`, if is is an instance of AbstractDistribution
@@ -16,7 +17,7 @@ public abstract class DiscreteDistribution extends AbstractDistribution{
 	*/
 
 	protected boolean cached;
-	protected Hashtable<Integer,Double> CDFList;
+	protected GuideTable CDFList;
 	protected boolean CDFListCalculated;
 
 	public DiscreteDistribution(){
@@ -31,6 +32,7 @@ public abstract class DiscreteDistribution extends AbstractDistribution{
 	public void outdated(){
 		this.cached = false;
 		this.CDFListCalculated = false;
+		this.CDFList = null;
 	}
 
 	/**
@@ -48,17 +50,17 @@ public abstract class DiscreteDistribution extends AbstractDistribution{
 	 * 	 the upper bound of target section is the random variable that follow the specific distribution.
 	 *  <br><br>
 	 *  In each implementation of discrete distribution, the cumulative probability is calculated through `cdf()`
-	 *  this function will create the CDF List for each unit, because the cumulative probability is monotone increasing,
-	 *  use binary search to find the target section.
+	 *  this function will create the CDF List for each unit once, then a guide table over the list finds
+	 *  the target section in constant expected time. The list is rebuilt only after `outdated()`.
 	 */
 	protected int inverseTransformSampling(final int lower, final int upper){
 		if(cached){
 			if(!CDFListCalculated){
-				this.CDFList = createdCDFList(lower, upper);
+				this.CDFList = new GuideTable(createdCDFList(lower, upper));
 				this.CDFListCalculated = true;
 			}
 			// should call `setRandomEngine()` first ,and engine.nextDouble() should not be null.
-			return binarySearch(lower, upper, engine.nextDouble(), this.CDFList);
+			return lower + Math.min(CDFList.search(engine.nextDouble()), upper - lower);
 		}
 		return -1;
 	}
@@ -66,44 +68,42 @@ public abstract class DiscreteDistribution extends AbstractDistribution{
 	/**
 	 * Calculate the cumulative distribution value for each discrete random variable.
 	 * It depends on the `cdf()` implementation from its subclass.
-	 * result include lower and upper [lower, upper]
+	 * result include lower and upper [lower, upper], the value of `i` is stored at `i - lower`
 	 */
-	protected Hashtable<Integer,Double> createdCDFList(int lower, int upper){
+	protected double[] createdCDFList(int lower, int upper){
 		if(cached){
-			Hashtable<Integer, Double> hmap = new Hashtable<>();
+			double[] cdf = new double[upper - lower + 1];
 			for(int i=lower; i<=upper; i++){
-				hmap.put((Integer) i, (Double) this.cdf(i));
+				cdf[i - lower] = this.cdf(i);
 			}
-			return hmap;
+			return cdf;
 		}
 		return null;
 	}
 
-	protected Hashtable<Integer,Double> createdCDFList(int lower, int upper, Parameter p) throws IncorrectDistributionParameterException {
-		Hashtable<Integer, Double> hmap = new Hashtable<>();
+	protected double[] createdCDFList(int lower, int upper, Parameter p) throws IncorrectDistributionParameterException {
+		double[] cdf = new double[upper - lower + 1];
 		for(int i=lower; i<=upper; i++){
-			hmap.put((Integer) i, (Double) this.cdf(i, p));
+			cdf[i - lower] = this.cdf(i, p);
 		}
-		return hmap;
+		return cdf;
 	}
 
-	// The index returned is rounded up.
-	// Both lower and upper are included
-	protected static int binarySearch(final int lower, final int upper, final double probability, final Hashtable<Integer,Double> CDF_List){
-		if(probability<=CDF_List.get(lower)){
-			return lower;
-		} else {
-			if (lower + 1 == upper) {
-				return upper;
+	// Returns the first variable in [lower, upper] whose cumulative probability is equal to or
+	// greater than the given probability, upper if there is none.
+	// The value of `i` is stored at `i - lower` of the CDF list.
+	protected static int binarySearch(final int lower, final int upper, final double probability, final double[] CDF_List){
+		int low = 0;
+		int high = upper - lower;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (CDF_List[mid] < probability) {
+				low = mid + 1;
 			} else {
-				int mid = (int) (lower + upper) / 2;
-				if (probability > CDF_List.get(lower) && probability < CDF_List.get(mid)) {
-					return binarySearch(lower, mid, probability, CDF_List);
-				} else {
-					return binarySearch(mid, upper, probability, CDF_List);
-				}
+				high = mid;
 			}
 		}
+		return lower + low;
 	}
 
 
@@ -5,6 +5,8 @@ import jmt.engine.random.Parameter;
 
 public class FixProbability extends DiscreteDistribution{
 
+	private static final long serialVersionUID = 1L;
+
 	private double[] p;
 	private final int size;
 	private int total;
@@ -7,6 +7,8 @@ import jmt.engine.random.Parameter;
 // implement the `DiscreteDistribution` to define the behavior of this distribution.
 public class Uniform extends DiscreteDistribution {
 
+	private static final long serialVersionUID = 1L;
+
 	private int min;
 	private int max;
 
@@ -5,6 +5,8 @@ import jmt.engine.random.AbstractParameter;
 
 public class UniformPar extends AbstractParameter {
 
+	private static final long serialVersionUID = 1L;
+
 	private int min;
 	private int max;
 
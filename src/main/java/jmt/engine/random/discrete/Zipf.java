@@ -1,12 +1,13 @@
 package jmt.engine.random.discrete;
 
 import jmt.common.exception.IncorrectDistributionParameterException;
+import jmt.engine.random.GuideTable;
 import jmt.engine.random.Parameter;
 
-import java.util.Hashtable;
-
 public class Zipf extends DiscreteDistribution {
 
+	private static final long serialVersionUID = 1L;
+
 	private double alpha;
 	private int numberOfElements;
 
@@ -16,6 +17,11 @@ public class Zipf extends DiscreteDistribution {
 	private boolean varCalculated;
 	private double variance;
 
+	// Guide table used by `nextRand(Parameter p)`, rebuilt only when the parameter values change.
+	private GuideTable parCDFList;
+	private double parAlpha;
+	private int parNumberOfElements;
+
 
 	// This constructor is used for method with outside `Parameter`
 	// In XML the `distribution` and `distributionPar` initialize separately.
@@ -163,8 +169,12 @@ public class Zipf extends DiscreteDistribution {
 			int max = up.getNumberOfElements();
 
 			// the Parameter p is used to call `cdf(int x, Parameter p)`
-			Hashtable<Integer,Double> cdf_array = createdCDFList(0, max, p);
-			return binarySearch(0, max, engine.nextDouble(), cdf_array);
+			if (parCDFList == null || parAlpha != up.getAlpha() || parNumberOfElements != max) {
+				parCDFList = new GuideTable(createdCDFList(0, max, p));
+				parAlpha = up.getAlpha();
+				parNumberOfElements = max;
+			}
+			return Math.min(parCDFList.search(engine.nextDouble()), max);
 		} else {
 			throw new IncorrectDistributionParameterException(
 				"Error: Max must be a integer > 0\n" +
@@ -249,6 +259,46 @@ public class Zipf extends DiscreteDistribution {
 	}
 
 
+	@Override
+	protected double[] createdCDFList(int lower, int upper){
+		if(cached){
+			return createdCDFList(lower, upper, alpha, numberOfElements, Hmax);
+		}
+		return null;
+	}
+
+	@Override
+	protected double[] createdCDFList(int lower, int upper, Parameter p) throws IncorrectDistributionParameterException {
+		if (p instanceof ZipfPar && p.check()) {
+			ZipfPar up = (ZipfPar) p;
+			double alpha = up.getAlpha();
+			int max = up.getNumberOfElements();
+			return createdCDFList(lower, upper, alpha, max, Harmonic(max, alpha));
+		} else {
+			throw new IncorrectDistributionParameterException(
+				"Error: Max must be a integer > 0\n" +
+				"Error: Alpha must be (0, 100), to avoid the data oveflow\n" +
+				"Error: the Parameter must be the `ZipfPar`");
+		}
+	}
+
+	// Same values as `cdf()`, but the harmonic numbers are accumulated once for the whole list
+	// instead of being computed again for each variable.
+	private static double[] createdCDFList(int lower, int upper, double alpha, int max, double hmax){
+		double[] cdf = new double[upper - lower + 1];
+		double total = 0.0;
+		for(int x=1; x<=upper && x<max; x++){
+			total += 1 / Math.pow(x, alpha);
+			if(x >= lower){
+				cdf[x - lower] = total / hmax;
+			}
+		}
+		for(int x=Math.max(lower, max); x<=upper; x++){
+			cdf[x - lower] = 1.0;
+		}
+		return cdf;
+	}
+
 	private static double Harmonic(int num, double alpha){
 		double total = 0.0;
 		for(int i=1; i<=num; i++){
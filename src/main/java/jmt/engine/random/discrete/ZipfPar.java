@@ -5,6 +5,8 @@ import jmt.engine.random.AbstractParameter;
 
 public class ZipfPar extends AbstractParameter {
 
+	private static final long serialVersionUID = 1L;
+
 	private int numberOfElements;
 	private double alpha;
 
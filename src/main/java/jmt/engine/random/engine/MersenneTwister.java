@@ -50,6 +50,8 @@ package jmt.engine.random.engine;
  */
 public class MersenneTwister extends RandomEngine {
 
+	private static final long serialVersionUID = 1L;
+
 	private int mti;
 	private int[] mt = new int[N]; /* set initial seeds: N = 624 words */
 
@@ -164,27 +166,33 @@ public class MersenneTwister extends RandomEngine {
 		mt[0] = 0x80000000; /* MSB is 1; assuring non-zero initial array */
 	}
 
+	/* generates N words at one time */
+	private void generate() {
+		int kk;
+		int y;
+		if (mti == N + 1) {
+			init_genrand(0x1571L); /* a default initial seed is used */
+		}
+		for (kk = 0; kk < N - M; kk++) {
+			y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
+			mt[kk] = mt[kk + M] ^ (y >>> 1) ^ ((y & 0x1) == 0 ? mag0 : mag1);
+		}
+		for (; kk < N - 1; kk++) {
+			y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
+			mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ ((y & 0x1) == 0 ? mag0 : mag1);
+		}
+		y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
+		mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ ((y & 0x1) == 0 ? mag0 : mag1);
+
+		mti = 0;
+	}
+
 	/* generates a random number on [0,0xffffffff]-interval */
 	int genrand_int32() {
 		int y;
 
 		if (mti >= N) { /* generate N words at one time */
-			int kk;
-			if (mti == N + 1) {
-				init_genrand(0x1571L); /* a default initial seed is used */
-			}
-			for (kk = 0; kk < N - M; kk++) {
-				y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-				mt[kk] = mt[kk + M] ^ (y >>> 1) ^ ((y & 0x1) == 0 ? mag0 : mag1);
-			}
-			for (; kk < N - 1; kk++) {
-				y = (mt[kk] & UPPER_MASK) | (mt[kk + 1] & LOWER_MASK);
-				mt[kk] = mt[kk + (M - N)] ^ (y >>> 1) ^ ((y & 0x1) == 0 ? mag0 : mag1);
-			}
-			y = (mt[N - 1] & UPPER_MASK) | (mt[0] & LOWER_MASK);
-			mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ ((y & 0x1) == 0 ? mag0 : mag1);
-
-			mti = 0;
+			generate();
 		}
 		y = mt[mti++];
 
@@ -226,7 +234,11 @@ public class MersenneTwister extends RandomEngine {
 
 	/* generates a random number on (0,1)-real-interval */
 	private final double genrand_real3() {
-		int i = genrand_int32();
+		return real3(genrand_int32());
+	}
+
+	/* maps a random number on [0,0xffffffff]-interval to (0,1)-real-interval */
+	private static double real3(int i) {
 		if (i > 0) {
 			return (i + 0.5) / 4294967296.0;
 			/* divided by 2^32 */
@@ -323,6 +335,33 @@ public class MersenneTwister extends RandomEngine {
 		return genrand_real3();
 	}
 
+	/**
+	 * Fills a block of an array with the same numbers of <tt>length</tt> consecutive calls
+	 * to {@link #raw()}, tempering whole runs of the internal state at once.
+	 */
+	@Override
+	public void raw(double[] values, int offset, int length) {
+		int i = offset;
+		int end = offset + length;
+		while (i < end) {
+			if (mti >= N) {
+				generate();
+			}
+			int count = Math.min(end - i, N - mti);
+			for (int k = 0; k < count; k++) {
+				int y = mt[mti + k];
+				/* Tempering */
+				y ^= (y >>> 11);
+				y ^= (y << 7) & 0x9d2c5680;
+				y ^= (y << 15) & 0xefc60000;
+				y ^= (y >>> 18);
+				values[i + k] = real3(y);
+			}
+			mti += count;
+			i += count;
+		}
+	}
+
 	/**
 	 * test
 	 */
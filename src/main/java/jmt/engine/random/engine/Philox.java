@@ -0,0 +1,242 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.random.engine;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counter-based random engine implementing the Philox4x32-10 generator of Salmon,
+ * Moraes, Dror and Shaw ("Parallel random numbers: as easy as 1, 2, 3", SC 2011).
+ * <br>
+ * Each block of four 32 bit numbers is obtained by encrypting a 128 bit counter with
+ * a 64 bit key. The key is derived from the seed, the upper 64 bits of the counter
+ * hold the identifier of the stream and the lower 64 bits the position inside the
+ * stream. Different streams of the same engine therefore never overlap, whatever
+ * the number of values drawn from each of them, and drawing values from one stream
+ * does not change the values of the others.
+ * <br>
+ * Streams are created with {@link #getStream(long)} and follow the seed of the
+ * engine that created them: calling {@link #setNewSeed(long)} on that engine
+ * restarts all its streams with the new seed.
+ */
+public class Philox extends RandomEngine {
+
+	private static final long serialVersionUID = 1L;
+
+	/* Multipliers and key increments of Philox4x32 */
+	private static final int M0 = 0xD2511F53;
+	private static final int M1 = 0xCD9E8D57;
+	private static final int W0 = 0x9E3779B9;
+	private static final int W1 = 0xBB67AE85;
+
+	private static final long MASK32 = 0xffffffffL;
+
+	private int key0;
+	private int key1;
+
+	/** Identifier of the stream, upper half of the counter */
+	private final long stream;
+	/** Index of the next block, lower half of the counter */
+	private long position;
+
+	/** Last generated block and index of its next unused number */
+	private final int[] block = new int[4];
+	private int index;
+
+	/** Streams created by this engine, by identifier */
+	private Map<Long, Philox> streams;
+
+	/**
+	 * Creates a new engine seeded with the current time.
+	 */
+	public Philox() {
+		this((long) (Math.random() * Long.MAX_VALUE));
+	}
+
+	/**
+	 * Creates a new engine, whose numbers are taken from stream 0.
+	 * @param seed seed used to generate the sequence
+	 */
+	public Philox(long seed) {
+		this(seed, 0L);
+	}
+
+	/**
+	 * Creates a new engine, whose numbers are taken from the given stream.
+	 * @param seed seed used to generate the sequence
+	 * @param stream identifier of the stream
+	 */
+	public Philox(long seed, long stream) {
+		this.stream = stream;
+		setKey(seed);
+	}
+
+	@Override
+	public void setNewSeed(long seed) {
+		setKey(seed);
+		if (streams != null) {
+			for (Philox s : streams.values()) {
+				s.setKey(seed);
+			}
+		}
+	}
+
+	private void setKey(long seed) {
+		key0 = (int) seed;
+		key1 = (int) (seed >>> 32);
+		position = 0;
+		index = block.length;
+	}
+
+	/**
+	 * Returns the engine of a stream, creating it at the first request. The stream
+	 * starts from the current seed of this engine and is restarted by each following
+	 * call to {@link #setNewSeed(long)}.
+	 * @param streamId identifier of the stream, see {@link #getStreamId(String)}
+	 * @return the engine of the stream
+	 */
+	public Philox getStream(long streamId) {
+		if (streams == null) {
+			streams = new HashMap<Long, Philox>();
+		}
+		Philox s = streams.get(streamId);
+		if (s == null) {
+			s = new Philox(0L, streamId);
+			s.key0 = key0;
+			s.key1 = key1;
+			streams.put(streamId, s);
+		}
+		return s;
+	}
+
+	/**
+	 * Returns the identifier of the stream with the given name. The identifier only
+	 * depends on the name, so names taken from the model (for example the name of a
+	 * station and of a class) identify the same stream in all the models where they
+	 * are used.
+	 * @param name the name of the stream
+	 * @return the 64 bit identifier of the stream
+	 */
+	public static long getStreamId(String name) {
+		// FNV-1a hash, followed by the finalizer of SplitMix64 to spread the bits
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < name.length(); i++) {
+			h ^= name.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+		h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+		return h ^ (h >>> 31);
+	}
+
+	/**
+	 * Computes the block of the given counter and key.
+	 * @param counter the four words of the counter, replaced by the block
+	 * @param k0 lower word of the key
+	 * @param k1 upper word of the key
+	 */
+	static void encrypt(int[] counter, int k0, int k1) {
+		int c0 = counter[0];
+		int c1 = counter[1];
+		int c2 = counter[2];
+		int c3 = counter[3];
+		for (int round = 0; round < 10; round++) {
+			long p0 = (M0 & MASK32) * (c0 & MASK32);
+			long p1 = (M1 & MASK32) * (c2 & MASK32);
+			int n0 = (int) (p1 >>> 32) ^ c1 ^ k0;
+			int n2 = (int) (p0 >>> 32) ^ c3 ^ k1;
+			c1 = (int) p1;
+			c3 = (int) p0;
+			c0 = n0;
+			c2 = n2;
+			k0 += W0;
+			k1 += W1;
+		}
+		counter[0] = c0;
+		counter[1] = c1;
+		counter[2] = c2;
+		counter[3] = c3;
+	}
+
+	/* generates the next block of four numbers */
+	private void generate() {
+		block[0] = (int) position;
+		block[1] = (int) (position >>> 32);
+		block[2] = (int) stream;
+		block[3] = (int) (stream >>> 32);
+		encrypt(block, key0, key1);
+		position++;
+		index = 0;
+	}
+
+	/**
+	 *Returns a 32 bit uniformly distributed random number in the closed interval
+	 * [Integer.MIN_VALUE,Integer.MAX_VALUE]
+	 * (including Integer.MIN_VALUE and  Integer.MAX_VALUE)
+	 */
+	@Override
+	public int nextInt() {
+		if (index == block.length) {
+			generate();
+		}
+		return block[index++];
+	}
+
+	/**
+	 *Returns a 64 bit uniformly distributed random number in the closed interval
+	 * [Long.MIN_VALUE,Long.MAX_VALUE]
+	 * (including Long.MIN_VALUE and  Long.MAX_VALUE)
+	 */
+	@Override
+	public long nextLong64() {
+		long high = nextInt();
+		return (high << 32) | (nextInt() & MASK32);
+	}
+
+	/**
+	 * Returns a 53 bit uniformly distributed random number in the
+	 * interval [0.0,1.0) (including 0.0 and excluding 1.0).
+	 */
+	@Override
+	public double nextDouble() {
+		int a = nextInt() >>> 5;
+		int b = nextInt() >>> 6;
+		return (a * 67108864.0 + b) * (1.0 / 9007199254740992.0);
+	}
+
+	/**
+	 * Returns a 32 bit uniformly distributed random number in the open unit
+	 * interval (0.0,1.0) (excluding 0.0 and 1.0).
+	 */
+	@Override
+	public double raw() {
+		return ((nextInt() & MASK32) + 0.5) * (1.0 / 4294967296.0);
+	}
+
+	/**
+	 * Returns a 32 bit uniformly distributed random number in the open unit
+	 * interval (0.0,1.0) (excluding 0.0 and 1.0).
+	 */
+	@Override
+	public double raw2() {
+		return raw();
+	}
+
+}
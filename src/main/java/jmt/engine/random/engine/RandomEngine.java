@@ -24,12 +24,16 @@
 
 package jmt.engine.random.engine;
 
+import java.io.Serializable;
+
 /**
  * Interface for all random numbers generators.
  *
  * @author  Federico Granata
  */
-public abstract class RandomEngine {
+public abstract class RandomEngine implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * Makes this class non instantiable, but still lets others inherit from it.
@@ -55,6 +59,18 @@ public abstract class RandomEngine {
 	 */
 	public abstract void setNewSeed(long seed);
 
+	/**
+	 * Sets the seed of the engine for one of several replications of the same simulation.
+	 * Replication 0 uses the given seed, the others a seed derived from it and from the
+	 * replication number, which is different for each replication.
+	 * @param seed the seed of the simulation.
+	 * @param replication the number of the replication.
+	 */
+	public void setNewSeed(long seed, long replication) {
+		// multiplication by an odd constant is a bijection: no two replications share a seed
+		setNewSeed(seed + replication * 0x9E3779B97F4A7C15L);
+	}
+
 	/**
 	 * Returns a 64 bit uniformly distributed random number in the open unit
 	 * interval (0.0,1.0) (excluding 0.0 and 1.0).
@@ -87,4 +103,18 @@ public abstract class RandomEngine {
 	 */
 	public abstract double raw2();
 
+	/**
+	 * Fills a block of an array with 32 bit uniformly distributed random numbers in the open unit
+	 * interval (0.0,1.0). The block contains the same numbers of <tt>length</tt> consecutive calls
+	 * to {@link #raw()}, and leaves the engine in the same state.
+	 * @param values the array to fill.
+	 * @param offset the index of the first number of the block.
+	 * @param length the number of random numbers.
+	 */
+	public void raw(double[] values, int offset, int length) {
+		for (int i = offset, end = offset + length; i < end; i++) {
+			values[i] = raw();
+		}
+	}
+
 } //end RandomStrategy Engine
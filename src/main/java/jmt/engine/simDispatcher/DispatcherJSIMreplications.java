@@ -0,0 +1,431 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.simDispatcher;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import jmt.common.exception.LoadException;
+import jmt.common.exception.NetException;
+import jmt.engine.NodeSections.LogTunnel;
+import jmt.engine.QueueNet.NetNode;
+import jmt.engine.QueueNet.NodeSection;
+import jmt.engine.dataAnalysis.DynamicDataAnalyzer;
+import jmt.engine.dataAnalysis.Measure;
+import jmt.engine.dataAnalysis.MeasureSnapshot;
+import jmt.engine.dataAnalysis.ReplicationAnalyzer;
+import jmt.engine.dataAnalysis.ReplicationsSimulationOutput;
+import jmt.engine.log.JSimLogger;
+import jmt.engine.simEngine.CompiledModel;
+import jmt.engine.simEngine.Simulation;
+
+/**
+ * Solves a model by running independent replications of the same simulation concurrently
+ * on a thread pool, instead of a single long simulation. Each replication is a separate
+ * Simulation object, with its own SimSystem, NetSystem and random engine, seeded for its
+ * replication number (see Simulation.setRandomEngineSeed(long, long)).
+ * <br>
+ * Each replication is a short run: its measures do not stop on their own confidence interval
+ * (as with the disableStatisticStop attribute of the model), but after a fixed number of samples
+ * (see setReplicationSamples()), so that each replication only gives one estimate of each measure.
+ * The estimates of the replications are combined into replication-based confidence intervals
+ * (see ReplicationAnalyzer), which decide when to stop: new replications are started until the
+ * confidence interval of every measure meets its precision, with at least the minimum and at
+ * most the maximum number of replications. The results only depend on the seed and not on the
+ * number of threads: the first n replications are always the ones combined, n being the smallest
+ * number of replications meeting the precision, and the replications following them are aborted.
+ * If a maximum duration is set, the replications running when it expires are aborted, and the
+ * ones completed before them are combined: a single completed replication is reported with its
+ * own confidence intervals, and the simulation fails if no replication was completed.
+ * <br>
+ * Models with logger nodes or verbose measures are refused, as all the replications would
+ * write to the same log files.
+ *
+ * @author Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+ */
+public class DispatcherJSIMreplications {
+
+	public static final int DEFAULT_MIN_REPLICATIONS = 5;
+	public static final int DEFAULT_MAX_REPLICATIONS = 100;
+	public static final int DEFAULT_REPLICATION_SAMPLES = 20000;
+	//the minimum number of samples accepted by the dynamic data analyzers
+	private static final int MIN_REPLICATION_SAMPLES = 5000;
+
+	private JSimLogger logger = JSimLogger.getLogger(JSimLogger.STD_LOGGER);
+
+	private CompiledModel compiledModel;
+	//path of the xml file containing the model, used to place the results
+	private String simModelDefinitionPath;
+
+	private boolean automaticSeed = true;
+	private long simulationSeed;
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private int minReplications = DEFAULT_MIN_REPLICATIONS;
+	private int maxReplications = DEFAULT_MAX_REPLICATIONS;
+	private int replicationSamples = DEFAULT_REPLICATION_SAMPLES;
+	//maximum duration of the simulation in milliseconds, -1 for no limit
+	private long maxDuration = -1;
+
+	//if not null, overrides the event queue implementation specified in the model
+	private String eventQueue = null;
+	//if positive, overrides the random block size specified in the model
+	private int randomBlockSize = -1;
+
+	//simulations being run, by replication
+	private Simulation[] simulations;
+	//number of replications whose results must be kept, the following ones are aborted
+	private int keptReplications;
+	private int replications;
+	private File outputFile;
+
+	/**
+	 * Creates a new DispatcherJSIMreplications
+	 * @param compiledModel the model to be solved
+	 * @param absolutePath absolute path of the xml file containing the model,
+	 * used to place the results
+	 */
+	public DispatcherJSIMreplications(CompiledModel compiledModel, String absolutePath) {
+		this.compiledModel = compiledModel;
+		simModelDefinitionPath = absolutePath;
+	}
+
+	/**
+	 * Specifies the seed to be used in the simulation.
+	 * @param seed the simulation seed
+	 */
+	public void setSimulationSeed(long seed) {
+		simulationSeed = seed;
+		automaticSeed = false;
+	}
+
+	/**
+	 * Sets the number of replications run concurrently
+	 * @param threads the number of threads, by default the number of processors
+	 */
+	public void setThreads(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Invalid number of threads: " + threads);
+		}
+		this.threads = threads;
+	}
+
+	/**
+	 * Sets the minimum and the maximum number of replications
+	 * @param minReplications the minimum number of replications, at least 2
+	 * @param maxReplications the maximum number of replications, at least the minimum one
+	 */
+	public void setReplications(int minReplications, int maxReplications) {
+		if (minReplications < 2 || maxReplications < minReplications) {
+			throw new IllegalArgumentException("Invalid number of replications: " + minReplications + "-" + maxReplications);
+		}
+		this.minReplications = minReplications;
+		this.maxReplications = maxReplications;
+	}
+
+	/**
+	 * Sets the number of samples collected by each measure in each replication, after which the
+	 * replication stops. Fewer samples give shorter replications, whose estimates are less precise
+	 * and more biased by the initial transient, hence more replications are needed.
+	 * @param replicationSamples the number of samples, at least 5000
+	 */
+	public void setReplicationSamples(int replicationSamples) {
+		if (replicationSamples < MIN_REPLICATION_SAMPLES) {
+			throw new IllegalArgumentException("Invalid number of samples per replication: " + replicationSamples);
+		}
+		this.replicationSamples = replicationSamples;
+	}
+
+	/**
+	 * Sets the maximum duration of the simulation: when it expires, the running replications are
+	 * aborted, and the results of the ones completed before them are combined. If no replication
+	 * was completed, solveModel() fails.
+	 * @param maxDuration the maximum duration in milliseconds, -1 for no limit
+	 */
+	public void setSimulationMaxDuration(long maxDuration) {
+		this.maxDuration = maxDuration;
+	}
+
+	/**
+	 * Sets the implementation of the future event queue, overriding the one specified in the model
+	 * @param eventQueue one of the SimSystem.EVENT_QUEUE_* constants
+	 */
+	public void setEventQueue(String eventQueue) {
+		this.eventQueue = eventQueue;
+	}
+
+	/**
+	 * Sets the number of random variates drawn at once by each service time strategy,
+	 * overriding the one specified in the model
+	 * @param randomBlockSize the block size, 1 to draw variates one at a time
+	 */
+	public void setRandomBlockSize(int randomBlockSize) {
+		this.randomBlockSize = randomBlockSize;
+	}
+
+	public boolean solveModel() throws Exception {
+		Simulation first = createSimulation();
+		if (automaticSeed) {
+			//generate only positive integers (to facilitate replay in the gui)
+			simulationSeed = first.getEngine().nextInt();
+			if (simulationSeed < 0) {
+				simulationSeed = -simulationSeed;
+			}
+		}
+		//the first replication is initialized here, to check its network before running any replication
+		first.setRandomEngineSeed(simulationSeed, 0);
+		first.initialize();
+		checkLogs(first);
+		simulations = new Simulation[maxReplications];
+		simulations[0] = first;
+		keptReplications = maxReplications;
+
+		long start = System.currentTimeMillis();
+		long deadline = maxDuration > 0 ? start + maxDuration : -1;
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, maxReplications), new ThreadFactory() {
+			private int count = 0;
+
+			public synchronized Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "JSIM replication thread " + (count++));
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		CompletionService<ReplicationResult> completion = new ExecutorCompletionService<ReplicationResult>(executor);
+		MeasureSnapshot[][] results = new MeasureSnapshot[maxReplications][];
+		try {
+			int submitted = 0;
+			int running = 0;
+			while (submitted < Math.min(threads, maxReplications)) {
+				submit(completion, submitted++);
+				running++;
+			}
+			int completed = 0;
+			boolean done = false;
+			while (running > 0) {
+				Future<ReplicationResult> future;
+				if (deadline > 0 && !done) {
+					future = completion.poll(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+				} else {
+					future = completion.take();
+				}
+				if (future == null) {
+					//maximum duration expired: the running replications are aborted
+					logger.info("Maximum simulation duration expired after " + completed + " replications");
+					done = true;
+					keep(completed);
+					continue;
+				}
+				ReplicationResult result = future.get();
+				running--;
+				results[result.replication] = result.snapshots;
+				if (done) {
+					continue;
+				}
+				//only the first consecutive replications are considered
+				while (completed < maxReplications && results[completed] != null) {
+					completed++;
+				}
+				if (completed == maxReplications || (completed >= minReplications && isPrecise(first, results, completed))) {
+					done = true;
+					keep(completed);
+				} else if (submitted < maxReplications) {
+					submit(completion, submitted++);
+					running++;
+				}
+			}
+			replications = keptReplications;
+		} finally {
+			executor.shutdownNow();
+		}
+		if (replications == 0) {
+			throw new NetException("Maximum simulation duration expired before the first replication completed");
+		}
+		if (replications == 1) {
+			logger.warn("Only one replication completed: its own confidence intervals are reported");
+		}
+
+		ReplicationsSimulationOutput output = new ReplicationsSimulationOutput(first, Arrays.asList(results), replications);
+		outputFile = output.writeAllMeasures();
+
+		long elapsed = (System.currentTimeMillis() - start) / 1000;
+		logger.info("Model " + simModelDefinitionPath + " solved by JSIM with " + replications + " replications in "
+				+ Double.toString(elapsed) + " seconds");
+		return true;
+	}
+
+	/**
+	 * Checks that the model does not write log files, which would be shared by all the replications
+	 * @throws LoadException if the model has logger nodes or verbose measures
+	 */
+	private static void checkLogs(Simulation sim) throws LoadException, NetException {
+		ListIterator<NetNode> nodes = sim.getNetwork().getNodes().listIterator();
+		while (nodes.hasNext()) {
+			NetNode node = nodes.next();
+			if (node.getSection(NodeSection.SERVICE) instanceof LogTunnel) {
+				throw new LoadException("Logger node " + node.getName() + " is not supported with replications");
+			}
+		}
+		for (Measure measure : sim.getNetwork().getMeasures()) {
+			if (measure.getVerbose()) {
+				throw new LoadException("Verbose measure " + measure.getName() + " is not supported with replications");
+			}
+		}
+	}
+
+	/**
+	 * Instantiates a replication of the model, which stops after the samples of a replication
+	 */
+	private Simulation createSimulation() throws Exception {
+		Map<String, String> simAttributes = new HashMap<String, String>();
+		simAttributes.put("maxSamples", Integer.toString(replicationSamples));
+		simAttributes.put("disableStatisticStop", "true");
+		Simulation sim = compiledModel.instantiate(simModelDefinitionPath, simAttributes);
+		sim.setXmlSimModelDefPath(simModelDefinitionPath);
+		sim.setTerminalSimulation(true);
+		sim.setWriteResults(false);
+		if (eventQueue != null) {
+			sim.getSimParameters().setEventQueue(eventQueue);
+		}
+		if (randomBlockSize > 0) {
+			sim.getSimParameters().setRandomBlockSize(randomBlockSize);
+		}
+		return sim;
+	}
+
+	private void submit(CompletionService<ReplicationResult> completion, final int replication) {
+		completion.submit(new Callable<ReplicationResult>() {
+			public ReplicationResult call() throws Exception {
+				return new ReplicationResult(replication, runReplication(replication));
+			}
+		});
+	}
+
+	/**
+	 * Runs a replication. Called by the threads of the pool.
+	 * @param replication the number of the replication
+	 * @return the snapshots of the measures at the end of the replication, or null if it was aborted
+	 */
+	private MeasureSnapshot[] runReplication(int replication) throws Exception {
+		Simulation sim;
+		synchronized (this) {
+			sim = simulations[replication];
+		}
+		if (sim == null) {
+			sim = createSimulation();
+			sim.setRandomEngineSeed(simulationSeed, replication);
+			sim.initialize();
+		}
+		synchronized (this) {
+			if (replication >= keptReplications) {
+				return null;
+			}
+			simulations[replication] = sim;
+		}
+		sim.run();
+		synchronized (this) {
+			simulations[replication] = replication == 0 ? sim : null;
+			if (replication >= keptReplications) {
+				return null;
+			}
+		}
+		LinkedList<Measure> measures = sim.getNetwork().getMeasures();
+		MeasureSnapshot[] snapshots = new MeasureSnapshot[measures.size()];
+		for (int i = 0; i < snapshots.length; i++) {
+			snapshots[i] = measures.get(i).publishSnapshot();
+		}
+		return snapshots;
+	}
+
+	/**
+	 * Keeps the results of the first replications and stops the following ones,
+	 * aborting their measures
+	 * @param replications the number of replications to be kept
+	 */
+	private synchronized void keep(int replications) {
+		keptReplications = replications;
+		for (int i = replications; i < simulations.length; i++) {
+			if (simulations[i] != null) {
+				simulations[i].getNetwork().getNetSystem().abortAllMeasures();
+				simulations[i] = null;
+			}
+		}
+	}
+
+	/**
+	 * @return true if the confidence interval of every measure meets its precision
+	 */
+	private static boolean isPrecise(Simulation sim, MeasureSnapshot[][] results, int replications) {
+		List<MeasureSnapshot[]> list = Arrays.asList(results);
+		LinkedList<Measure> measures = sim.getNetwork().getMeasures();
+		for (int i = 0; i < measures.size(); i++) {
+			DynamicDataAnalyzer analyzer = measures.get(i).getAnalyzer();
+			ReplicationAnalyzer replicationAnalyzer = new ReplicationAnalyzer(analyzer.getAlfa(), analyzer.getPrecision());
+			replicationAnalyzer.analyze(list, replications, i);
+			if (!replicationAnalyzer.getSuccess()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the number of replications whose results were combined
+	 */
+	public int getReplications() {
+		return replications;
+	}
+
+	/**
+	 * @return the seed of the simulation
+	 */
+	public long getSimulationSeed() {
+		return simulationSeed;
+	}
+
+	public File getOutputFile() {
+		return outputFile;
+	}
+
+	/**
+	 * The result of a completed replication
+	 */
+	private static class ReplicationResult {
+		private int replication;
+		private MeasureSnapshot[] snapshots;
+
+		private ReplicationResult(int replication, MeasureSnapshot[] snapshots) {
+			this.replication = replication;
+			this.snapshots = snapshots;
+		}
+	}
+
+}
@@ -19,18 +19,31 @@
 package jmt.engine.simDispatcher;
 
 import java.io.File;
+import java.io.FileWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
 import java.util.LinkedList;
 import java.util.Vector;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import jmt.common.exception.NetException;
+import jmt.engine.QueueNet.EngineStatistics;
 import jmt.engine.QueueNet.QueueNetwork;
 import jmt.engine.dataAnalysis.Measure;
 import jmt.engine.dataAnalysis.TempMeasure;
 import jmt.engine.log.JSimLogger;
+import jmt.engine.simEngine.CompiledModel;
 import jmt.engine.simEngine.SimLoader;
 import jmt.engine.simEngine.Simulation;
+import jmt.engine.simEngine.SimulationCheckpoint;
+import jmt.engine.simEngine.StreamingSimLoader;
+import jmt.engine.simEngine.WarmStartState;
 
 /**
  * Receives the absolute path of a xml file which describes the model using the
@@ -78,6 +91,43 @@ public class DispatcherJSIMschema {
 
 	private long maxDuration = -1;
 
+	//if not null, overrides the event queue implementation specified in the model
+	private String eventQueue = null;
+
+	//if positive, overrides the random block size specified in the model
+	private int randomBlockSize = -1;
+
+	//number of the replication, used to derive the random streams from the seed
+	private int replication = 0;
+
+	//if non negative, the results are written by a streaming writer with partial results of this period
+	private long partialResultsPeriod = -1;
+
+	//if not null, engine statistics are collected and periodically written to this file
+	private File statisticsFile = null;
+	//period of the engine statistics dump, in milliseconds
+	private long statisticsPeriod = 10000;
+
+	//if not null, the model is instantiated from it instead of being loaded from the xml file
+	private CompiledModel compiledModel = null;
+
+	//if not null, the model is read with a streaming parser from this file instead of the xml file
+	private File streamingModel = null;
+
+	//if not null, the state of the simulation is periodically saved to this file
+	private File checkpointFile = null;
+	//wall clock period of the checkpoints, in milliseconds
+	private long checkpointPeriod = 0;
+	//simulated time between two checkpoints
+	private double checkpointSimulatedTime = 0.0;
+	//if not null, the simulation is resumed from this checkpoint instead of being loaded from the xml file
+	private File resumeFile = null;
+
+	//if not null, the simulation starts from this state instead of the initial populations
+	private WarmStartState warmStartState = null;
+	//if true, the state of the network is captured at the end of the simulation
+	private boolean captureFinalState = false;
+
 	private Simulation sim;
 	boolean isTerminalSimulation = false;
 	int parametricStep = -1;
@@ -108,6 +158,29 @@ public class DispatcherJSIMschema {
 		simModelDefinitionPath = model.getAbsolutePath();
 	}
 
+	/**
+	 * This constructor receives a model that was already parsed and validated, so that
+	 * it is not loaded again from the xml file.
+	 *
+	 * @param compiledModel the model to be solved
+	 * @param absolutePath absolute path of the xml file containing the model,
+	 * used to place the results
+	 */
+	public DispatcherJSIMschema(CompiledModel compiledModel, String absolutePath) {
+		this(absolutePath);
+		this.compiledModel = compiledModel;
+	}
+
+	/**
+	 * Reads the model with a streaming parser, in a single pass and without schema validation,
+	 * from the given file instead of the xml file passed to the constructor, which is only used
+	 * to place the results (see StreamingSimLoader).
+	 * @param model the xml model definition or the JSIM archive
+	 */
+	public void setStreamingModel(File model) {
+		streamingModel = model;
+	}
+
 	/**
 	 * By invoking this method, simulation will generate a random simulation seed
 	 */
@@ -132,12 +205,123 @@ public class DispatcherJSIMschema {
 		maxDuration = durationMillis;
 	}
 
+	/**
+	 * Sets the implementation of the future event queue, overriding the one specified in the model
+	 * @param eventQueue one of the SimSystem.EVENT_QUEUE_* constants
+	 */
+	public void setEventQueue(String eventQueue) {
+		this.eventQueue = eventQueue;
+	}
+
+	/**
+	 * Sets the number of random variates drawn at once by each service time strategy,
+	 * overriding the one specified in the model
+	 * @param randomBlockSize the block size, 1 to draw variates one at a time
+	 */
+	public void setRandomBlockSize(int randomBlockSize) {
+		this.randomBlockSize = randomBlockSize;
+	}
+
+	/**
+	 * Sets the number of the replication of the simulation. Each replication of a model with
+	 * the same seed draws different random numbers.
+	 * @param replication the number of the replication, 0 for the first one
+	 */
+	public void setReplication(int replication) {
+		this.replication = replication;
+	}
+
+	/**
+	 * Writes the results one measure at a time, without building a DOM document, and
+	 * periodically writes partial results while the simulation is running, so that a
+	 * crashed run still leaves a results file (see StreamingXMLSimulationOutput).
+	 * @param periodMillis the period of the partial results in milliseconds, 0 to write
+	 * only the final results
+	 */
+	public void setPartialResultsPeriod(long periodMillis) {
+		partialResultsPeriod = periodMillis;
+	}
+
+	/**
+	 * Enables the collection of engine statistics (processed events, events per second, messages dispatched
+	 * by each node and time spent by each node section class). Statistics are published as a JMX MBean
+	 * and periodically appended to the given CSV file.
+	 * @param statisticsFile the CSV file
+	 */
+	public void setStatisticsFile(File statisticsFile) {
+		this.statisticsFile = statisticsFile;
+	}
+
+	/**
+	 * Sets the period of the engine statistics dump
+	 * @param periodMillis the period in milliseconds
+	 */
+	public void setStatisticsPeriod(long periodMillis) {
+		statisticsPeriod = periodMillis;
+	}
+
+	/**
+	 * Periodically saves the state of the running simulation to the given file, so that it can
+	 * be resumed (see setResumeFile()). Checkpoints are triggered by wall clock time, by simulated
+	 * time or by both (see SimulationCheckpoint).
+	 * @param checkpointFile the checkpoint file
+	 * @param periodMillis the wall clock period of the checkpoints in milliseconds, 0 not to trigger
+	 * them by wall clock time
+	 * @param simulatedTime the simulated time between two checkpoints, 0 not to trigger them by
+	 * simulated time
+	 */
+	public void setCheckpoint(File checkpointFile, long periodMillis, double simulatedTime) {
+		this.checkpointFile = checkpointFile;
+		checkpointPeriod = periodMillis;
+		checkpointSimulatedTime = simulatedTime;
+	}
+
+	/**
+	 * Resumes the simulation from a checkpoint instead of loading the model and starting a new
+	 * simulation. The seed and the options of the model are the ones of the saved simulation.
+	 * @param resumeFile the checkpoint file
+	 */
+	public void setResumeFile(File resumeFile) {
+		this.resumeFile = resumeFile;
+	}
+
+	/**
+	 * Starts the simulation from the state reached by a previous simulation of the same model,
+	 * possibly with different parameters, skipping most of the initial transient
+	 * (see Simulation.setWarmStartState()).
+	 * @param warmStartState the state, null to start from the initial populations
+	 */
+	public void setWarmStartState(WarmStartState warmStartState) {
+		this.warmStartState = warmStartState;
+	}
+
+	/**
+	 * Captures the state of the network at the end of the simulation, so that it can be used to
+	 * warm start another simulation (see getFinalState()).
+	 * @param captureFinalState true to capture the state
+	 */
+	public void setCaptureFinalState(boolean captureFinalState) {
+		this.captureFinalState = captureFinalState;
+	}
+
+	/**
+	 * @return the state of the network at the end of the simulation, or null if it was not captured
+	 */
+	public WarmStartState getFinalState() {
+		return sim != null ? sim.getFinalState() : null;
+	}
+
 	public boolean solveModel() throws Exception {
+		if (resumeFile != null) {
+			return resumeModel();
+		}
+
 		/*********************SIM DEFINITION MODEL*********************/
 		//does model file exist??
-		if (!simModelDefinition.exists()) {
+		File modelFile = streamingModel != null ? streamingModel : simModelDefinition;
+		if (compiledModel == null && !modelFile.exists()) {
 			//the passed file does not exist
-			logger.error("The sim model file " + simModelDefinitionPath + " does not exist...");
+			logger.error("The sim model file " + modelFile.getAbsolutePath() + " does not exist...");
 			return false;
 		} else {
 			logger.debug("Sim model definition path: " + simModelDefinitionPath);
@@ -145,8 +329,14 @@ public class DispatcherJSIMschema {
 
 		/*********************SIMULATION LOADING AND RUNNING*********************/
 		//now prepare simulation
-		SimLoader simLoader = new SimLoader(simModelDefinitionPath);
-		sim = simLoader.getSim();
+		if (compiledModel != null) {
+			sim = compiledModel.instantiate(simModelDefinitionPath);
+		} else if (streamingModel != null) {
+			sim = new StreamingSimLoader(streamingModel, simModelDefinitionPath).getSim();
+		} else {
+			SimLoader simLoader = new SimLoader(simModelDefinitionPath);
+			sim = simLoader.getSim();
+		}
 		sim.setTerminalSimulation(isTerminalSimulation);
 		sim.setParametricStep(parametricStep);
 
@@ -161,10 +351,51 @@ public class DispatcherJSIMschema {
 			}
 		}
 
-		sim.setRandomEngineSeed(simulationSeed);
+		sim.setRandomEngineSeed(simulationSeed, replication);
+		if (eventQueue != null) {
+			sim.getSimParameters().setEventQueue(eventQueue);
+		}
+		if (randomBlockSize > 0) {
+			sim.getSimParameters().setRandomBlockSize(randomBlockSize);
+		}
+		if (partialResultsPeriod >= 0) {
+			sim.getSimParameters().setStreamingResults(true);
+			sim.getSimParameters().setPartialResultsPeriod(partialResultsPeriod);
+		}
+		if (checkpointFile != null) {
+			setCheckpointParameters();
+		}
+		sim.setWarmStartState(warmStartState);
+		sim.setCaptureFinalState(captureFinalState);
 		sim.initialize();
 		logger.debug("JSIM correctly initialized with simulation seed = " + simulationSeed);
+		return runModel(false);
+	}
+
+	/**
+	 * Resumes the simulation saved in the checkpoint file and runs it until it finishes
+	 */
+	private boolean resumeModel() throws Exception {
+		sim = SimulationCheckpoint.read(resumeFile);
+		sim.setXmlSimModelDefPath(simModelDefinitionPath);
+		if (checkpointFile != null) {
+			setCheckpointParameters();
+		}
+		logger.debug("JSIM resumed from checkpoint " + resumeFile.getAbsolutePath() + " at simulation time " + sim.getNetSystem().getTime());
+		return runModel(true);
+	}
+
+	private void setCheckpointParameters() {
+		sim.getSimParameters().setCheckpointFile(checkpointFile.getAbsolutePath());
+		sim.getSimParameters().setCheckpointPeriod(checkpointPeriod);
+		sim.getSimParameters().setCheckpointSimulatedTime(checkpointSimulatedTime);
+	}
 
+	/**
+	 * Runs the simulation, which was initialized or restored from a checkpoint
+	 * @param resume true if the simulation was restored from a checkpoint
+	 */
+	private boolean runModel(boolean resume) throws Exception {
 		//find QueueNetwork reference
 		net = sim.getNetwork();
 
@@ -185,12 +416,51 @@ public class DispatcherJSIMschema {
 			});
 		}
 
+		//publish engine statistics (if required)
+		final EngineStatistics statistics;
+		final PrintWriter statisticsWriter;
+		ScheduledExecutorService statisticsTimer = null;
+		ObjectName statisticsName = null;
+		if (statisticsFile != null) {
+			statistics = sim.getNetSystem().enableStatistics();
+			statisticsWriter = new PrintWriter(new FileWriter(statisticsFile));
+			statisticsWriter.println(EngineStatistics.CSV_HEADER);
+			statisticsTimer = Executors.newSingleThreadScheduledExecutor();
+			statisticsTimer.scheduleAtFixedRate(new Runnable() {
+				public void run() {
+					synchronized (statisticsWriter) {
+						statistics.writeCSV(statisticsWriter);
+					}
+				}
+			}, statisticsPeriod, statisticsPeriod, TimeUnit.MILLISECONDS);
+			statisticsName = registerStatistics(statistics);
+		} else {
+			statistics = null;
+			statisticsWriter = null;
+		}
+
 		simStarted = true;
 		//start time
 		start = System.currentTimeMillis();
 
 		//run simulation
-		sim.run();
+		try {
+			if (resume) {
+				sim.resume();
+			} else {
+				sim.run();
+			}
+		} finally {
+			if (statisticsTimer != null) {
+				statisticsTimer.shutdownNow();
+				statisticsTimer.awaitTermination(statisticsPeriod, TimeUnit.MILLISECONDS);
+				synchronized (statisticsWriter) {
+					statistics.writeCSV(statisticsWriter);
+					statisticsWriter.close();
+				}
+				unregisterStatistics(statisticsName);
+			}
+		}
 
 		//stop time
 		stop = System.currentTimeMillis();
@@ -207,6 +477,41 @@ public class DispatcherJSIMschema {
 		return true;
 	}
 
+	/**
+	 * Registers the engine statistics with the platform MBean server
+	 * @param statistics the engine statistics
+	 * @return the name of the registered MBean, or null if registration failed
+	 */
+	private ObjectName registerStatistics(EngineStatistics statistics) {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName("jmt.engine:type=EngineStatistics,name=" + ObjectName.quote(sim.getName()));
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+			server.registerMBean(statistics, name);
+			return name;
+		} catch (Exception ex) {
+			logger.warn("Unable to register engine statistics MBean: " + ex.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Unregisters the engine statistics from the platform MBean server
+	 * @param name the name of the registered MBean, may be null
+	 */
+	private void unregisterStatistics(ObjectName name) {
+		if (name == null) {
+			return;
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+		} catch (Exception ex) {
+			logger.warn("Unable to unregister engine statistics MBean: " + ex.getMessage());
+		}
+	}
+
 	public boolean solveHandlingExceptions() {
 		try {
 			return solveModel();
@@ -289,14 +594,14 @@ public class DispatcherJSIMschema {
 
 					for (int m = 0; m < measures.size(); m++) {
 						tempMeasures[m] = new TempMeasure(measures.get(m));
-						tempMeasures[m].refreshMeasure();
+						tempMeasures[m].refreshPausedMeasure();
 					}
 				}
 			} else {
 				//temp measures have already been retrieved
 				//only refresh temp values
 				for (TempMeasure tempMeasure : tempMeasures) {
-					tempMeasure.refreshMeasure();
+					tempMeasure.refreshPausedMeasure();
 				}
 			}
 			// Updates simulation progress
@@ -311,7 +616,7 @@ public class DispatcherJSIMschema {
 
 		} else if (simFinished) { // Gets last value for each measure
 			for (TempMeasure tempMeasure : tempMeasures) {
-				tempMeasure.refreshMeasure();
+				tempMeasure.refreshPausedMeasure();
 			}
 		}
 	}
@@ -0,0 +1,442 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.simEngine;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import jmt.framework.data.CircularList;
+
+/**
+ * <p><b>Name:</b> CalendarEventQueue</p>
+ * <p><b>Description:</b>
+ * An implementation of the EventQueue interface based on a calendar queue (R. Brown, 1988). Future events
+ * are hashed by time into an array of buckets ("days") of fixed width, each one kept sorted. The number of
+ * buckets and their width are automatically adapted to the number of events and to their spacing, so that
+ * add and pop operations have an amortized O(1) cost. Events for the current time interval are kept in
+ * an unbounded circular list, as in HybridEventQueue.
+ * </p>
+ * <p>Future events are ordered by event time and insertion order, so events are retrieved exactly in the same
+ * order of HybridEventQueue.</p>
+ */
+public class CalendarEventQueue implements EventQueue {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int MIN_BUCKETS = 16;
+	private static final int INITIAL_BUCKET_CAPACITY = 4;
+	/** Number of events sampled to estimate the bucket width */
+	private static final int WIDTH_SAMPLES = 25;
+
+	/** Current events */
+	private CircularList<SimEvent> current;
+	/** Current time. All events in current event queue will have this time. */
+	private double currentTime;
+	/** A counter used to order future events basing on event time and insertion order */
+	private int order;
+
+	/** Future events, hashed by time. Each bucket is sorted by time and insertion order. */
+	private SimEvent[][] buckets;
+	/** Number of events in each bucket */
+	private int[] bucketSizes;
+	/** Width of a bucket */
+	private double width;
+	/** Number of future events */
+	private int futureSize;
+	/** Virtual bucket (time / width) of the last dequeued future event. No future event is before it. */
+	private long lastVirtualBucket;
+	/** True while the calendar is being resized, to avoid nested resizes */
+	private boolean resizing;
+
+	public CalendarEventQueue() {
+		clear();
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.simEngine.EventQueue#add(jmt.engine.simEngine.SimEvent)
+	 */
+	public boolean add(SimEvent event) {
+		double eventTime = event.eventTime();
+		if (eventTime == currentTime) {
+			current.add(event);
+		} else if (eventTime > currentTime) {
+			addToFuture(event);
+		} else {
+			// Same policy of HybridEventQueue: we leave to the simulation engine the choice to deal with past events.
+			moveCurrentToFuture();
+			current.add(event);
+			currentTime = eventTime;
+		}
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.simEngine.EventQueue#clear()
+	 */
+	public void clear() {
+		current = new CircularList<SimEvent>();
+		currentTime = 0.0;
+		order = Integer.MIN_VALUE;
+		buckets = new SimEvent[MIN_BUCKETS][];
+		bucketSizes = new int[MIN_BUCKETS];
+		width = 1.0;
+		futureSize = 0;
+		lastVirtualBucket = 0;
+		resizing = false;
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.simEngine.EventQueue#iterator()
+	 */
+	public Iterator<SimEvent> iterator() {
+		return new Iter();
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.simEngine.EventQueue#peek()
+	 */
+	public SimEvent peek() {
+		handleCurrent();
+		if (current.size() > 0) {
+			return current.getFirst();
+		} else {
+			return null;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.simEngine.EventQueue#pop()
+	 */
+	public SimEvent pop() {
+		handleCurrent();
+		if (current.size() > 0) {
+			return current.removeFirst();
+		} else {
+			return null;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.simEngine.EventQueue#remove(jmt.engine.simEngine.SimEvent)
+	 */
+	public boolean remove(SimEvent event) {
+		if (event.eventTime() == currentTime) {
+			return current.remove(event);
+		}
+		int bucket = bucketOf(event.eventTime());
+		SimEvent[] events = buckets[bucket];
+		int size = bucketSizes[bucket];
+		for (int i = 0; i < size; i++) {
+			if (events[i] == event) {
+				removeFromBucket(bucket, i);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.simEngine.EventQueue#size()
+	 */
+	public int size() {
+		return current.size() + futureSize;
+	}
+
+	/**
+	 * This method will move events from future to current queue if it is empty.
+	 */
+	private void handleCurrent() {
+		if (current.size() == 0 && futureSize > 0) {
+			SimEvent first = removeFirstFuture();
+			current.add(first);
+			currentTime = first.eventTime();
+			while (futureSize > 0) {
+				int bucket = bucketOf(currentTime);
+				if (bucketSizes[bucket] == 0 || buckets[bucket][0].eventTime() != currentTime) {
+					break;
+				}
+				current.add(removeFromBucket(bucket, 0));
+			}
+		}
+	}
+
+	/**
+	 * This method will move the entire current queue to future. This is needed when an event
+	 * older than current one is queued.
+	 */
+	private void moveCurrentToFuture() {
+		while (current.size() > 0) {
+			addToFuture(current.removeFirst());
+		}
+	}
+
+	/**
+	 * This method will assign new order indices to future events, preserving their relative order.
+	 * As the total number of indices is 2^32 this method probably will never be called.
+	 */
+	private void rebuildOrderIndices() {
+		int count = futureSize;
+		SimEvent[] sorted = new SimEvent[count];
+		for (int i = 0; i < count; i++) {
+			sorted[i] = removeFirstFuture();
+		}
+		order = Integer.MIN_VALUE;
+		for (int i = 0; i < count; i++) {
+			sorted[i].internalOrdering = order++;
+			insert(sorted[i]);
+		}
+	}
+
+	/**
+	 * Adds an event to future queue.
+	 * @param event
+	 */
+	private void addToFuture(SimEvent event) {
+		if (order == Integer.MAX_VALUE) {
+			rebuildOrderIndices();
+		}
+		event.internalOrdering = order++;
+		insert(event);
+		if (futureSize > 2 * buckets.length) {
+			resize(buckets.length * 2);
+		}
+	}
+
+	/**
+	 * Inserts an event in its bucket, keeping the bucket sorted. The ordering index of the event is not changed.
+	 * @param event the event to insert
+	 */
+	private void insert(SimEvent event) {
+		long virtualBucket = virtualBucketOf(event.eventTime());
+		if (futureSize == 0 || virtualBucket < lastVirtualBucket) {
+			lastVirtualBucket = virtualBucket;
+		}
+		int bucket = bucketOf(virtualBucket);
+		SimEvent[] events = buckets[bucket];
+		int size = bucketSizes[bucket];
+		if (events == null) {
+			events = new SimEvent[INITIAL_BUCKET_CAPACITY];
+			buckets[bucket] = events;
+		} else if (size == events.length) {
+			SimEvent[] tmp = new SimEvent[size * 2];
+			System.arraycopy(events, 0, tmp, 0, size);
+			events = tmp;
+			buckets[bucket] = events;
+		}
+		// Events are usually scheduled after the ones already in the bucket, so we search from the tail.
+		int i = size;
+		while (i > 0 && precedes(event, events[i - 1])) {
+			events[i] = events[i - 1];
+			i--;
+		}
+		events[i] = event;
+		bucketSizes[bucket] = size + 1;
+		futureSize++;
+	}
+
+	/**
+	 * Removes the event at the given position of a bucket.
+	 * @param bucket the bucket
+	 * @param index the position of the event in the bucket
+	 * @return the removed event
+	 */
+	private SimEvent removeFromBucket(int bucket, int index) {
+		SimEvent[] events = buckets[bucket];
+		int size = bucketSizes[bucket] - 1;
+		SimEvent removed = events[index];
+		System.arraycopy(events, index + 1, events, index, size - index);
+		events[size] = null;
+		bucketSizes[bucket] = size;
+		futureSize--;
+		if (!resizing && buckets.length > MIN_BUCKETS && futureSize < buckets.length / 2) {
+			resize(buckets.length / 2);
+		}
+		return removed;
+	}
+
+	/**
+	 * Removes the first future event, scanning the calendar from the last dequeued bucket.
+	 * @return the first future event
+	 */
+	private SimEvent removeFirstFuture() {
+		int nBuckets = buckets.length;
+		long virtualBucket = lastVirtualBucket;
+		for (int i = 0; i < nBuckets; i++, virtualBucket++) {
+			int bucket = bucketOf(virtualBucket);
+			if (bucketSizes[bucket] > 0 && virtualBucketOf(buckets[bucket][0].eventTime()) == virtualBucket) {
+				lastVirtualBucket = virtualBucket;
+				return removeFromBucket(bucket, 0);
+			}
+		}
+
+		// No event in the next year of the calendar: performs a direct search of the first event.
+		int best = -1;
+		for (int bucket = 0; bucket < nBuckets; bucket++) {
+			if (bucketSizes[bucket] > 0 && (best < 0 || precedes(buckets[bucket][0], buckets[best][0]))) {
+				best = bucket;
+			}
+		}
+		lastVirtualBucket = virtualBucketOf(buckets[best][0].eventTime());
+		return removeFromBucket(best, 0);
+	}
+
+	/**
+	 * Changes the number of buckets, estimating a new bucket width from the first future events.
+	 * @param nBuckets the new number of buckets
+	 */
+	private void resize(int nBuckets) {
+		resizing = true;
+		double newWidth = estimateWidth();
+		SimEvent[][] oldBuckets = buckets;
+		int[] oldSizes = bucketSizes;
+		buckets = new SimEvent[nBuckets][];
+		bucketSizes = new int[nBuckets];
+		width = newWidth;
+		futureSize = 0;
+		for (int bucket = 0; bucket < oldBuckets.length; bucket++) {
+			for (int i = 0; i < oldSizes[bucket]; i++) {
+				insert(oldBuckets[bucket][i]);
+			}
+		}
+		resizing = false;
+	}
+
+	/**
+	 * Estimates the bucket width as three times the average separation of the first future events,
+	 * ignoring separations larger than twice the average.
+	 * @return the estimated width
+	 */
+	private double estimateWidth() {
+		int samples = Math.min(futureSize, WIDTH_SAMPLES);
+		if (samples < 2) {
+			return width;
+		}
+		SimEvent[] sampled = new SimEvent[samples];
+		long savedVirtualBucket = lastVirtualBucket;
+		for (int i = 0; i < samples; i++) {
+			sampled[i] = removeFirstFuture();
+		}
+		for (int i = 0; i < samples; i++) {
+			insert(sampled[i]);
+		}
+		lastVirtualBucket = savedVirtualBucket;
+
+		double average = (sampled[samples - 1].eventTime() - sampled[0].eventTime()) / (samples - 1);
+		double sum = 0.0;
+		int count = 0;
+		for (int i = 1; i < samples; i++) {
+			double separation = sampled[i].eventTime() - sampled[i - 1].eventTime();
+			if (separation <= 2.0 * average) {
+				sum += separation;
+				count++;
+			}
+		}
+		double newWidth = count > 0 ? 3.0 * sum / count : 0.0;
+		if (newWidth > 0.0 && !Double.isInfinite(newWidth)) {
+			return newWidth;
+		}
+		return width;
+	}
+
+	/**
+	 * @return the virtual bucket of the given time, i.e. the number of bucket widths since time zero
+	 */
+	private long virtualBucketOf(double time) {
+		return (long) Math.floor(time / width);
+	}
+
+	/**
+	 * @return the bucket of the given time
+	 */
+	private int bucketOf(double time) {
+		return bucketOf(virtualBucketOf(time));
+	}
+
+	/**
+	 * @return the bucket of the given virtual bucket
+	 */
+	private int bucketOf(long virtualBucket) {
+		int bucket = (int) (virtualBucket % buckets.length);
+		return bucket < 0 ? bucket + buckets.length : bucket;
+	}
+
+	/**
+	 * @return true if event e1 must be processed before event e2
+	 */
+	private static boolean precedes(SimEvent e1, SimEvent e2) {
+		double t1 = e1.eventTime();
+		double t2 = e2.eventTime();
+		return t1 < t2 || (t1 == t2 && e1.internalOrdering < e2.internalOrdering);
+	}
+
+	/**
+	 * Internal Iterator implementation. It works on a snapshot of the queue, so that
+	 * events can be safely removed while iterating.
+	 */
+	private class Iter implements Iterator<SimEvent> {
+		private Object[] events;
+		private int cursor;
+		private SimEvent lastReturned;
+
+		public Iter() {
+			events = new Object[current.size() + futureSize];
+			int i = 0;
+			for (SimEvent event : current) {
+				events[i++] = event;
+			}
+			for (int bucket = 0; bucket < buckets.length; bucket++) {
+				if (bucketSizes[bucket] > 0) {
+					System.arraycopy(buckets[bucket], 0, events, i, bucketSizes[bucket]);
+					i += bucketSizes[bucket];
+				}
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.Iterator#hasNext()
+		 */
+		public boolean hasNext() {
+			return cursor < events.length;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.Iterator#next()
+		 */
+		public SimEvent next() {
+			if (cursor >= events.length) {
+				throw new NoSuchElementException();
+			}
+			lastReturned = (SimEvent) events[cursor++];
+			return lastReturned;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.Iterator#remove()
+		 */
+		public void remove() {
+			if (lastReturned == null) {
+				throw new IllegalStateException();
+			}
+			CalendarEventQueue.this.remove(lastReturned);
+			lastReturned = null;
+		}
+
+	}
+
+}
@@ -32,6 +32,8 @@ import java.util.NoSuchElementException;
  */
 public class CircularEventQueue implements EventQueue {
 
+	private static final long serialVersionUID = 1L;
+
 	private static final boolean DEBUG = false;
 
 	private SimEvent[] data;//data Objects
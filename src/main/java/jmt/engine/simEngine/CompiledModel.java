@@ -0,0 +1,229 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.simEngine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+
+import jmt.common.exception.LoadException;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * A model definition parsed and validated once, that can be instantiated as many Simulation
+ * objects as needed (e.g. with different seeds, or with some attributes of the model overridden)
+ * without parsing and validating the XML again. The classes and constructors of the sections and
+ * of their parameters are also looked up only once (see SimLoader.getConstructor()).
+ * <br>
+ * A compiled model can be stored in a cache directory, in a file named after the hash of the
+ * model definition, so that the following runs of the same model skip the XML parsing.
+ *
+ * @author Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+ */
+public class CompiledModel implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Extension of the files in the cache directory */
+	public static final String CACHE_EXTENSION = ".jsimc";
+
+	private final Document document;
+	private final String hash;
+
+	private CompiledModel(Document document, String hash) {
+		this.document = document;
+		this.hash = hash;
+	}
+
+	/**
+	 * Parses and validates a model definition
+	 * @param definition the stream of the xml model definition (SIMmodeldefinition.xsd schema)
+	 * @param hash the hash of the model, used as key in the cache (see hash())
+	 * @return the compiled model
+	 * @throws LoadException if the model definition is not valid
+	 */
+	public static CompiledModel compile(InputStream definition, String hash) throws LoadException {
+		Document document = SimLoader.parse(definition, false);
+		if (document == null) {
+			throw new LoadException("Problems while parsing");
+		}
+		return new CompiledModel(document, hash);
+	}
+
+	/**
+	 * Parses and validates the model definition in a file
+	 * @param definition the xml model definition (SIMmodeldefinition.xsd schema)
+	 * @return the compiled model
+	 * @throws IOException if the file cannot be read
+	 * @throws LoadException if the model definition is not valid
+	 */
+	public static CompiledModel compile(File definition) throws IOException, LoadException {
+		String hash = hash(definition);
+		InputStream is = new BufferedInputStream(new FileInputStream(definition));
+		try {
+			return compile(is, hash);
+		} finally {
+			is.close();
+		}
+	}
+
+	/**
+	 * Computes the hash of the content of a model file
+	 * @param model the model file
+	 * @return the hash, as an hexadecimal string
+	 * @throws IOException if the file cannot be read
+	 */
+	public static String hash(File model) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+		InputStream is = new FileInputStream(model);
+		try {
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = is.read(buffer)) > 0) {
+				digest.update(buffer, 0, read);
+			}
+		} finally {
+			is.close();
+		}
+		StringBuilder hex = new StringBuilder();
+		for (byte b : digest.digest()) {
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+
+	/**
+	 * Reads a compiled model from the cache
+	 * @param cacheDirectory the cache directory
+	 * @param hash the hash of the model
+	 * @return the compiled model, or null if it is not in the cache or it was stored by an
+	 * incompatible version
+	 */
+	public static CompiledModel readCache(File cacheDirectory, String hash) {
+		File file = new File(cacheDirectory, hash + CACHE_EXTENSION);
+		if (!file.isFile()) {
+			return null;
+		}
+		try {
+			ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+			try {
+				CompiledModel model = (CompiledModel) in.readObject();
+				return hash.equals(model.hash) ? model : null;
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			return null;
+		} catch (ClassNotFoundException e) {
+			return null;
+		} catch (ClassCastException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Stores this compiled model in the cache. The file is replaced atomically, so that
+	 * concurrent runs never read a partially written file.
+	 * @param cacheDirectory the cache directory, created if it does not exist
+	 * @throws IOException if the file cannot be written
+	 */
+	public synchronized void writeCache(File cacheDirectory) throws IOException {
+		if (!cacheDirectory.isDirectory() && !cacheDirectory.mkdirs()) {
+			throw new IOException("Cannot create the cache directory " + cacheDirectory.getAbsolutePath());
+		}
+		File temp = File.createTempFile(hash, ".tmp", cacheDirectory);
+		try {
+			ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			try {
+				out.writeObject(this);
+			} finally {
+				out.close();
+			}
+			File file = new File(cacheDirectory, hash + CACHE_EXTENSION);
+			if (!temp.renameTo(file)) {
+				file.delete();
+				if (!temp.renameTo(file)) {
+					throw new IOException("Cannot write " + file.getAbsolutePath());
+				}
+			}
+		} finally {
+			temp.delete();
+		}
+	}
+
+	/**
+	 * @return the hash of the model, used as key in the cache
+	 */
+	public String getHash() {
+		return hash;
+	}
+
+	/**
+	 * Creates a new Simulation object for this model.
+	 * @param xmlPath the path of the xml model definition, used to place the results
+	 * @return the simulation
+	 * @throws LoadException if the simulation cannot be created
+	 */
+	public Simulation instantiate(String xmlPath) throws LoadException {
+		return instantiate(xmlPath, null);
+	}
+
+	/**
+	 * Creates a new Simulation object for this model, overriding some attributes of the
+	 * root sim element (e.g. seed or maxSamples).
+	 * @param xmlPath the path of the xml model definition, used to place the results
+	 * @param simAttributes the values of the overridden attributes by name, may be null
+	 * @return the simulation
+	 * @throws LoadException if the simulation cannot be created
+	 */
+	public synchronized Simulation instantiate(String xmlPath, Map<String, String> simAttributes) throws LoadException {
+		// The DOM is not safe for concurrent reads, hence instances are created one at a time
+		Document model = document;
+		if (simAttributes != null && !simAttributes.isEmpty()) {
+			model = (Document) document.cloneNode(true);
+			Element root = model.getDocumentElement();
+			for (Map.Entry<String, String> attribute : simAttributes.entrySet()) {
+				root.setAttribute(attribute.getKey(), attribute.getValue());
+			}
+		}
+		Simulation sim = new SimLoader(model, xmlPath).getSim();
+		if (sim == null) {
+			throw new LoadException("Problems loading");
+		}
+		return sim;
+	}
+
+}
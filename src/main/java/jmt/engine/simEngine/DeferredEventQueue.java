@@ -0,0 +1,381 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.simEngine;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * <p><b>Name:</b> DeferredEventQueue</p>
+ * <p><b>Description:</b>
+ * The queue of deferred events managed by SimSystem. Events are indexed by destination entity
+ * and by tag, so that counting and selecting the events waiting for an entity does not require
+ * a scan of the whole queue. Counting costs O(1) and selecting costs O(t), where t is the number
+ * of distinct tags received by the entity, when the predicate is a SimAnyP, a SimNoneP or a SimTypeP.
+ * Other predicates are matched by scanning the events of the destination entity only.
+ * </p>
+ * <p>Events for the same destination are kept ordered by time and, for the same time, by insertion
+ * order, exactly as in ListEventQueue, so the first matching event is always the oldest one.</p>
+ */
+public class DeferredEventQueue implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Orders events basing on event time and insertion order */
+	private static final Comparator<SimEvent> ORDER = new Comparator<SimEvent>() {
+		public int compare(SimEvent e1, SimEvent e2) {
+			if (precedes(e1, e2)) {
+				return -1;
+			} else if (precedes(e2, e1)) {
+				return 1;
+			}
+			return 0;
+		}
+	};
+
+	/** Deferred events, indexed by destination entity id */
+	private Destination[] destinations;
+	/** Total number of deferred events */
+	private int size;
+	/** A counter used to order events with the same time basing on insertion order */
+	private long order;
+
+	public DeferredEventQueue() {
+		clear();
+	}
+
+	/**
+	 * Adds an event to the queue.
+	 * @param event the event to be added
+	 */
+	public void add(SimEvent event) {
+		int dest = event.getDest();
+		if (dest >= destinations.length) {
+			Destination[] tmp = new Destination[Math.max(dest + 1, destinations.length * 2)];
+			System.arraycopy(destinations, 0, tmp, 0, destinations.length);
+			destinations = tmp;
+		}
+		Destination d = destinations[dest];
+		if (d == null) {
+			d = new Destination();
+			destinations[dest] = d;
+		}
+		event.deferredOrdering = order++;
+		d.add(event);
+		size++;
+	}
+
+	/**
+	 * Removes the given event from the queue.
+	 * @param event the event to be removed
+	 * @return true if the event was found and removed, false otherwise
+	 */
+	public boolean remove(SimEvent event) {
+		int dest = event.getDest();
+		if (dest < 0 || dest >= destinations.length || destinations[dest] == null) {
+			return false;
+		}
+		if (destinations[dest].remove(event)) {
+			size--;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Counts the events waiting for the given entity and matched by the given predicate.
+	 * @param dest the id of the destination entity
+	 * @param p the event selection predicate
+	 * @return the number of matching events
+	 */
+	public int count(int dest, SimPredicate p) {
+		if (dest < 0 || dest >= destinations.length || destinations[dest] == null) {
+			return 0;
+		}
+		Destination d = destinations[dest];
+		if (p instanceof SimAnyP) {
+			return d.size;
+		} else if (p instanceof SimNoneP) {
+			return 0;
+		} else if (p instanceof SimTypeP) {
+			SimTypeP typeP = (SimTypeP) p;
+			int w = 0;
+			for (int i = 0; i < typeP.getTagCount(); i++) {
+				if (!isDuplicateTag(typeP, i)) {
+					EventList list = d.get(typeP.getTag(i));
+					if (list != null) {
+						w += list.size();
+					}
+				}
+			}
+			return w;
+		} else {
+			int w = 0;
+			for (int i = 0; i < d.tagCount; i++) {
+				for (int j = 0; j < d.lists[i].size(); j++) {
+					if (p.match(d.lists[i].get(j))) {
+						w++;
+					}
+				}
+			}
+			return w;
+		}
+	}
+
+	/**
+	 * Removes and returns the first event waiting for the given entity and matched by the given predicate.
+	 * @param dest the id of the destination entity
+	 * @param p the event selection predicate
+	 * @return the first matching event, or null if no event matches
+	 */
+	public SimEvent select(int dest, SimPredicate p) {
+		if (dest < 0 || dest >= destinations.length || destinations[dest] == null) {
+			return null;
+		}
+		Destination d = destinations[dest];
+		EventList best = null;
+		if (p instanceof SimAnyP) {
+			for (int i = 0; i < d.tagCount; i++) {
+				best = earliest(best, d.lists[i]);
+			}
+		} else if (p instanceof SimNoneP) {
+			return null;
+		} else if (p instanceof SimTypeP) {
+			SimTypeP typeP = (SimTypeP) p;
+			for (int i = 0; i < typeP.getTagCount(); i++) {
+				best = earliest(best, d.get(typeP.getTag(i)));
+			}
+		} else {
+			List<SimEvent> events = new ArrayList<SimEvent>(d.size);
+			for (int i = 0; i < d.tagCount; i++) {
+				d.lists[i].addTo(events);
+			}
+			Collections.sort(events, ORDER);
+			for (SimEvent event : events) {
+				if (p.match(event)) {
+					d.remove(event);
+					size--;
+					return event;
+				}
+			}
+			return null;
+		}
+		if (best == null) {
+			return null;
+		}
+		d.size--;
+		size--;
+		return best.removeFirst();
+	}
+
+	/**
+	 * @return the total number of deferred events
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes all the events from the queue.
+	 */
+	public void clear() {
+		destinations = new Destination[16];
+		size = 0;
+		order = 0;
+	}
+
+	/**
+	 * Returns the list whose first event must be processed first, skipping empty lists.
+	 */
+	private static EventList earliest(EventList l1, EventList l2) {
+		if (l2 == null || l2.size() == 0) {
+			return l1;
+		}
+		if (l1 == null || precedes(l2.getFirst(), l1.getFirst())) {
+			return l2;
+		}
+		return l1;
+	}
+
+	/**
+	 * @return true if the tag at the given position was already listed by the predicate
+	 */
+	private static boolean isDuplicateTag(SimTypeP p, int index) {
+		for (int i = 0; i < index; i++) {
+			if (p.getTag(i) == p.getTag(index)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return true if event e1 was deferred before event e2
+	 */
+	private static boolean precedes(SimEvent e1, SimEvent e2) {
+		double t1 = e1.eventTime();
+		double t2 = e2.eventTime();
+		return t1 < t2 || (t1 == t2 && e1.deferredOrdering < e2.deferredOrdering);
+	}
+
+	/**
+	 * The deferred events of a single destination entity, split by tag. As an entity
+	 * receives only a few distinct tags, they are searched linearly.
+	 */
+	private static class Destination implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private int[] tags = new int[4];
+		private EventList[] lists = new EventList[4];
+		private int tagCount;
+		private int size;
+
+		/**
+		 * @return the events with the given tag, or null if no event with that tag was ever deferred
+		 */
+		private EventList get(int tag) {
+			for (int i = 0; i < tagCount; i++) {
+				if (tags[i] == tag) {
+					return lists[i];
+				}
+			}
+			return null;
+		}
+
+		private void add(SimEvent event) {
+			int tag = event.getTag();
+			EventList list = get(tag);
+			if (list == null) {
+				if (tagCount == tags.length) {
+					int[] tmpTags = new int[tagCount * 2];
+					System.arraycopy(tags, 0, tmpTags, 0, tagCount);
+					tags = tmpTags;
+					EventList[] tmpLists = new EventList[tagCount * 2];
+					System.arraycopy(lists, 0, tmpLists, 0, tagCount);
+					lists = tmpLists;
+				}
+				list = new EventList();
+				tags[tagCount] = tag;
+				lists[tagCount] = list;
+				tagCount++;
+			}
+			list.add(event);
+			size++;
+		}
+
+		private boolean remove(SimEvent event) {
+			EventList list = get(event.getTag());
+			if (list == null) {
+				return false;
+			}
+			if (list.remove(event)) {
+				size--;
+				return true;
+			}
+			return false;
+		}
+
+	}
+
+	/**
+	 * A list of events ordered by time and, for the same time, by insertion order,
+	 * stored in a circular array.
+	 */
+	private static class EventList implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private SimEvent[] elements = new SimEvent[8];
+		private int head;
+		private int size;
+
+		private int size() {
+			return size;
+		}
+
+		private SimEvent get(int index) {
+			return elements[(head + index) & (elements.length - 1)];
+		}
+
+		private SimEvent getFirst() {
+			return elements[head];
+		}
+
+		private SimEvent removeFirst() {
+			SimEvent first = elements[head];
+			elements[head] = null;
+			head = (head + 1) & (elements.length - 1);
+			size--;
+			return first;
+		}
+
+		/**
+		 * Adds an event preserving the order. Deferred events usually arrive in time order,
+		 * so the position is searched from the tail.
+		 */
+		private void add(SimEvent event) {
+			if (size == elements.length) {
+				SimEvent[] tmp = new SimEvent[elements.length * 2];
+				for (int i = 0; i < size; i++) {
+					tmp[i] = get(i);
+				}
+				elements = tmp;
+				head = 0;
+			}
+			int mask = elements.length - 1;
+			int index = size;
+			while (index > 0 && event.eventTime() < get(index - 1).eventTime()) {
+				elements[(head + index) & mask] = get(index - 1);
+				index--;
+			}
+			elements[(head + index) & mask] = event;
+			size++;
+		}
+
+		private boolean remove(SimEvent event) {
+			int mask = elements.length - 1;
+			for (int index = 0; index < size; index++) {
+				if (get(index) == event) {
+					for (int i = index; i < size - 1; i++) {
+						elements[(head + i) & mask] = get(i + 1);
+					}
+					elements[(head + size - 1) & mask] = null;
+					size--;
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Adds all the events of this list to the given collection.
+		 */
+		private void addTo(List<SimEvent> events) {
+			for (int i = 0; i < size; i++) {
+				events.add(get(i));
+			}
+		}
+
+	}
+
+}
@@ -18,6 +18,7 @@
 
 package jmt.engine.simEngine;
 
+import java.io.Serializable;
 import java.util.Iterator;
 
 /**
@@ -31,7 +32,7 @@ import java.util.Iterator;
  * @author Bertoli Marco
  * @version 1.0
  */
-public interface EventQueue extends Iterable<SimEvent> {
+public interface EventQueue extends Iterable<SimEvent>, Serializable {
 	/**
 	 * @return the number of events in this queue
 	 */
@@ -18,6 +18,7 @@
 
 package jmt.engine.simEngine;
 
+import java.io.Serializable;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.PriorityQueue;
@@ -39,6 +40,8 @@ import jmt.framework.data.CircularList;
  */
 public class HybridEventQueue implements EventQueue {
 
+	private static final long serialVersionUID = 1L;
+
 	private static final int DEFAULT_INITIAL_CAPACITY = 111;
 
 	/** Current events */
@@ -225,7 +228,10 @@ public class HybridEventQueue implements EventQueue {
 
 	}
 
-	private static class SimEventComparator implements Comparator<SimEvent> {
+	private static class SimEventComparator implements Comparator<SimEvent>, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		/* (non-Javadoc)
 		 * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
 		 */
@@ -0,0 +1,335 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.simEngine;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import jmt.framework.data.CircularList;
+
+/**
+ * <p><b>Name:</b> IndexedEventQueue</p>
+ * <p><b>Description:</b>
+ * An implementation of the EventQueue interface that behaves as HybridEventQueue, but keeps future events
+ * in an indexed 4-ary heap. Each event stores its own slot in the heap, so that the removal of an arbitrary
+ * event (e.g. the cancellation of a departure or of a timer) costs log(n) instead of n. Events for the
+ * current time interval are still kept in an unbounded circular list.
+ * </p>
+ * <p>Events with the same time are retrieved in insertion order, exactly as in HybridEventQueue.</p>
+ */
+public class IndexedEventQueue implements EventQueue {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int DEFAULT_INITIAL_CAPACITY = 111;
+	/** Number of children of each heap node */
+	private static final int ARITY = 4;
+
+	/** Current events */
+	private CircularList<SimEvent> current;
+	/** Future events, stored as an implicit heap */
+	private SimEvent[] heap;
+	/** Number of future events */
+	private int heapSize;
+	/** Current time. All events in current event queue will have this time. */
+	private double currentTime;
+	/** A counter used to order future events basing on event time and insertion order */
+	private int order;
+
+	public IndexedEventQueue() {
+		clear();
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.simEngine.EventQueue#add(jmt.engine.simEngine.SimEvent)
+	 */
+	public boolean add(SimEvent event) {
+		double eventTime = event.eventTime();
+		if (eventTime == currentTime) {
+			current.add(event);
+		} else if (eventTime > currentTime) {
+			addToFuture(event);
+		} else {
+			// Same policy of HybridEventQueue: we leave to the simulation engine the choice to deal with past events.
+			moveCurrentToFuture();
+			current.add(event);
+			currentTime = eventTime;
+		}
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.simEngine.EventQueue#clear()
+	 */
+	public void clear() {
+		if (heap != null) {
+			for (int i = 0; i < heapSize; i++) {
+				heap[i].heapIndex = -1;
+			}
+		}
+		current = new CircularList<SimEvent>();
+		heap = new SimEvent[DEFAULT_INITIAL_CAPACITY];
+		heapSize = 0;
+		currentTime = 0.0;
+		order = Integer.MIN_VALUE;
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.simEngine.EventQueue#iterator()
+	 */
+	public Iterator<SimEvent> iterator() {
+		return new Iter();
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.simEngine.EventQueue#peek()
+	 */
+	public SimEvent peek() {
+		handleCurrent();
+		if (current.size() > 0) {
+			return current.getFirst();
+		} else {
+			return null;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.simEngine.EventQueue#pop()
+	 */
+	public SimEvent pop() {
+		handleCurrent();
+		if (current.size() > 0) {
+			return current.removeFirst();
+		} else {
+			return null;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.simEngine.EventQueue#remove(jmt.engine.simEngine.SimEvent)
+	 */
+	public boolean remove(SimEvent event) {
+		int index = event.heapIndex;
+		if (index >= 0 && index < heapSize && heap[index] == event) {
+			removeAt(index);
+			return true;
+		} else {
+			return current.remove(event);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.simEngine.EventQueue#size()
+	 */
+	public int size() {
+		return current.size() + heapSize;
+	}
+
+	/**
+	 * This method will move events from future to current queue if it is empty.
+	 */
+	private void handleCurrent() {
+		if (current.size() == 0 && heapSize > 0) {
+			SimEvent first = removeAt(0);
+			current.add(first);
+			currentTime = first.eventTime();
+			while (heapSize > 0 && heap[0].eventTime() == currentTime) {
+				current.add(removeAt(0));
+			}
+		}
+	}
+
+	/**
+	 * This method will move the entire current queue to future. This is needed when an event
+	 * older than current one is queued.
+	 */
+	private void moveCurrentToFuture() {
+		while (current.size() > 0) {
+			addToFuture(current.removeFirst());
+		}
+	}
+
+	/**
+	 * This method will assign new order indices to future events, preserving their relative order.
+	 * As the total number of indices is 2^32 this method probably will never be called.
+	 */
+	private void rebuildOrderIndices() {
+		SimEvent[] sorted = new SimEvent[heap.length];
+		int count = heapSize;
+		for (int i = 0; i < count; i++) {
+			sorted[i] = removeAt(0);
+		}
+		// A sorted array is a valid heap, so events are put back in place.
+		order = Integer.MIN_VALUE;
+		for (int i = 0; i < count; i++) {
+			sorted[i].internalOrdering = order++;
+			sorted[i].heapIndex = i;
+		}
+		heap = sorted;
+		heapSize = count;
+	}
+
+	/**
+	 * Adds an event to future queue.
+	 * @param event
+	 */
+	private void addToFuture(SimEvent event) {
+		if (order == Integer.MAX_VALUE) {
+			rebuildOrderIndices();
+		}
+		event.internalOrdering = order++;
+		if (heapSize == heap.length) {
+			SimEvent[] tmp = new SimEvent[heap.length * 2];
+			System.arraycopy(heap, 0, tmp, 0, heapSize);
+			heap = tmp;
+		}
+		heapSize++;
+		siftUp(heapSize - 1, event);
+	}
+
+	/**
+	 * Removes the event at the given heap slot, restoring the heap property.
+	 * @param index the heap slot
+	 * @return the removed event
+	 */
+	private SimEvent removeAt(int index) {
+		SimEvent removed = heap[index];
+		removed.heapIndex = -1;
+		heapSize--;
+		SimEvent last = heap[heapSize];
+		heap[heapSize] = null;
+		if (index != heapSize) {
+			if (index > 0 && precedes(last, heap[(index - 1) / ARITY])) {
+				siftUp(index, last);
+			} else {
+				siftDown(index, last);
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * Moves the given event up from the given slot until its parent precedes it.
+	 * @param index the starting slot
+	 * @param event the event to place
+	 */
+	private void siftUp(int index, SimEvent event) {
+		while (index > 0) {
+			int parent = (index - 1) / ARITY;
+			SimEvent p = heap[parent];
+			if (!precedes(event, p)) {
+				break;
+			}
+			heap[index] = p;
+			p.heapIndex = index;
+			index = parent;
+		}
+		heap[index] = event;
+		event.heapIndex = index;
+	}
+
+	/**
+	 * Moves the given event down from the given slot until it precedes all of its children.
+	 * @param index the starting slot
+	 * @param event the event to place
+	 */
+	private void siftDown(int index, SimEvent event) {
+		while (true) {
+			int child = index * ARITY + 1;
+			if (child >= heapSize) {
+				break;
+			}
+			int end = Math.min(child + ARITY, heapSize);
+			int best = child;
+			for (int i = child + 1; i < end; i++) {
+				if (precedes(heap[i], heap[best])) {
+					best = i;
+				}
+			}
+			SimEvent c = heap[best];
+			if (!precedes(c, event)) {
+				break;
+			}
+			heap[index] = c;
+			c.heapIndex = index;
+			index = best;
+		}
+		heap[index] = event;
+		event.heapIndex = index;
+	}
+
+	/**
+	 * @return true if event e1 must be processed before event e2
+	 */
+	private static boolean precedes(SimEvent e1, SimEvent e2) {
+		double t1 = e1.eventTime();
+		double t2 = e2.eventTime();
+		return t1 < t2 || (t1 == t2 && e1.internalOrdering < e2.internalOrdering);
+	}
+
+	/**
+	 * Internal Iterator implementation. It works on a snapshot of the queue, so that
+	 * events can be safely removed while iterating.
+	 */
+	private class Iter implements Iterator<SimEvent> {
+		private Object[] events;
+		private int cursor;
+		private SimEvent lastReturned;
+
+		public Iter() {
+			events = new Object[current.size() + heapSize];
+			int i = 0;
+			for (SimEvent event : current) {
+				events[i++] = event;
+			}
+			System.arraycopy(heap, 0, events, i, heapSize);
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.Iterator#hasNext()
+		 */
+		public boolean hasNext() {
+			return cursor < events.length;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.Iterator#next()
+		 */
+		public SimEvent next() {
+			if (cursor >= events.length) {
+				throw new NoSuchElementException();
+			}
+			lastReturned = (SimEvent) events[cursor++];
+			return lastReturned;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.Iterator#remove()
+		 */
+		public void remove() {
+			if (lastReturned == null) {
+				throw new IllegalStateException();
+			}
+			IndexedEventQueue.this.remove(lastReturned);
+			lastReturned = null;
+		}
+
+	}
+
+}
@@ -18,56 +18,34 @@
 
 package jmt.engine.simEngine;
 
+import java.io.Serializable;
+
 /**
  * <p><b>Name:</b> RemoveToken</p> 
  * <p><b>Description:</b> 
  * This class works as a token to remove future and deferred events. it is designed to disallow access to the internal
  * data structure.
  * </p>
+ * <p>Each SimEvent is the remove token of itself, so no object is allocated to schedule a removable event.</p>
  * <p><b>Date:</b> 25/mag/2009
  * <b>Time:</b> 09:52:11</p>
  * @author Bertoli Marco
  * @version 1.0
  */
-public class RemoveToken {
-
-	private SimEvent event;
-	private boolean deferred;
+public abstract class RemoveToken implements Serializable {
 
-	/**
-	 * Builds a new future remove token for given event.
-	 * @param event the event to remove
-	 */
-	// Please do not change visibility
-	RemoveToken(SimEvent event) {
-		this(event, false);
-	}
-
-	/**
-	 * Builds a new remove token for given event.
-	 * @param event the event
-	 * @param deferred true if event is deferred, false otherwise
-	 */
-	// Please do not change visibility
-	RemoveToken(SimEvent event, boolean deferred) {
-		this.event = event;
-		this.deferred = deferred;
-	}
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * @return the event to remove from future events
 	 */
 	// Please do not change visibility
-	SimEvent getEvent() {
-		return event;
-	}
+	abstract SimEvent getEvent();
 
 	/**
 	 * @return if the event was deferred
 	 */
 	// Please do not change visibility
-	boolean isDeferred() {
-		return deferred;
-	}
+	abstract boolean isDeferred();
 
 }
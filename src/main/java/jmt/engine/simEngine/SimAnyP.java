@@ -30,6 +30,9 @@ package jmt.engine.simEngine;
  */
 
 public class SimAnyP extends SimPredicate {
+
+	private static final long serialVersionUID = 1L;
+
 	/** Constructor.
 	 */
 	public SimAnyP() {
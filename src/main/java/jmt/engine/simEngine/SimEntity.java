@@ -18,6 +18,8 @@
 
 package jmt.engine.simEngine;
 
+import java.io.Serializable;
+
 import jmt.common.exception.NetException;
 
 /**
@@ -30,7 +32,10 @@ import jmt.common.exception.NetException;
  * @author      Federico Granata
  */
 
-public abstract class SimEntity {
+public abstract class SimEntity implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
 	// Private data members
 	public String name; // The entities name
 	private int me; // Unique id
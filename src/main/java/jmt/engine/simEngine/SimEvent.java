@@ -23,7 +23,10 @@ package jmt.engine.simEngine;
  * in the simulation.
  */
 
-public class SimEvent implements Cloneable {
+public class SimEvent extends RemoveToken implements Cloneable {
+
+	private static final long serialVersionUID = 1L;
+
 	// Private data members
 	private int etype; // internal event type
 	public double time; // simulation time in which event should occur
@@ -33,6 +36,12 @@ public class SimEvent implements Cloneable {
 	private Object data; // any data the event is carrying
 	/** This field should never be set explicitly. it is used by the EventQueue for ordering purposes. */
 	int internalOrdering;
+	/** This field should never be set explicitly. it is used by the IndexedEventQueue to track the heap slot of the event. */
+	int heapIndex = -1;
+	/** This field should never be set explicitly. it is used by the DeferredEventQueue for ordering purposes. */
+	long deferredOrdering;
+	/** True if this event was put back on the deferred queue by SimSystem.putback() */
+	boolean deferred;
 
 	//
 	// Public library interface
@@ -158,6 +167,22 @@ public class SimEvent implements Cloneable {
 	// Package level methods
 	//
 
+	/* (non-Javadoc)
+	 * @see jmt.engine.simEngine.RemoveToken#getEvent()
+	 */
+	@Override
+	SimEvent getEvent() {
+		return this;
+	}
+
+	/* (non-Javadoc)
+	 * @see jmt.engine.simEngine.RemoveToken#isDeferred()
+	 */
+	@Override
+	boolean isDeferred() {
+		return deferred;
+	}
+
 	int getType() {
 		return etype;
 	} // The internal type
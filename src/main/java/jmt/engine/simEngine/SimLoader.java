@@ -31,6 +31,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.xml.parsers.DocumentBuilderFactory;
 
@@ -50,9 +52,13 @@ import jmt.engine.QueueNet.NodeSection;
 import jmt.engine.dataAnalysis.InverseMeasure;
 import jmt.engine.dataAnalysis.Measure;
 import jmt.engine.dataAnalysis.SimParameters;
+import jmt.engine.log.AsyncLogger;
+import jmt.engine.log.LoggerParameters;
 import jmt.engine.random.AbstractDistribution;
 import jmt.engine.random.Burst;
 import jmt.engine.random.Distribution;
+import jmt.engine.random.engine.Philox;
+import jmt.engine.random.engine.RandomEngine;
 
 import org.apache.xerces.parsers.DOMParser;
 import org.w3c.dom.Document;
@@ -98,6 +104,14 @@ public class SimLoader {
 	//path of the xml file containing the sim model
 	private String simModelPath;
 
+	//classes and constructors found by reflection, shared by all the loaders
+	private static final ConcurrentMap<String, Class<?>> classCache = new ConcurrentHashMap<String, Class<?>>();
+	private static final ConcurrentMap<List<Class<?>>, Constructor<?>> constructorCache = new ConcurrentHashMap<List<Class<?>>, Constructor<?>>();
+
+	//name of the random stream of the parameter being created (see NetSystem.getEngine(String)),
+	//made of the names of its node, section, parameter and class
+	private String randomStream;
+
 	/**
 	 * Creates a Simulation object, loading all the model definition from the
 	 * passed xml file
@@ -111,7 +125,45 @@ public class SimLoader {
 		load(is);
 	}
 
+	/**
+	 * Creates a Simulation object from a model definition that was already parsed and
+	 * validated, without parsing it again (see CompiledModel)
+	 *
+	 * @param document the model definition
+	 * @param xmlPath the path of the xml model definition, used to place the results
+	 */
+	SimLoader(Document document, String xmlPath) throws LoadException {
+		simModelPath = xmlPath;
+		load(document);
+	}
+
+	/**
+	 * Creates a Simulation object from the attributes of the root sim element only.
+	 * The other elements of the model are added one at a time (see StreamingSimLoader).
+	 *
+	 * @param root the sim element, its children are ignored
+	 * @param xmlPath the path of the xml model definition, used to place the results
+	 */
+	SimLoader(Element root, String xmlPath) throws IOException, LoadException {
+		simModelPath = xmlPath;
+		loadSim(root);
+	}
+
 	private void load(InputStream is) throws LoadException {
+		Document document = parse(is, true);
+		if (document != null) {
+			load(document);
+		}
+	}
+
+	/**
+	 * Parses a model definition, validating it against the SIMmodeldefinition.xsd schema
+	 * @param is the stream of the xml model definition
+	 * @param deferNodeExpansion false to build all the nodes of the document while parsing
+	 * @return the document, or null if it could not be parsed
+	 * @throws LoadException if the stream cannot be read
+	 */
+	static Document parse(InputStream is, boolean deferNodeExpansion) throws LoadException {
 		if (is == null) {
 			throw new LoadException("File not Found");
 		}
@@ -128,6 +180,9 @@ public class SimLoader {
 			parser.setFeature("http://xml.org/sax/features/validation", true);
 			parser.setFeature("http://apache.org/xml/features/validation/schema", true);
 			parser.setFeature("http://apache.org/xml/features/validation/schema-full-checking", true);
+			if (!deferNodeExpansion) {
+				parser.setFeature("http://apache.org/xml/features/dom/defer-node-expansion", false);
+			}
 
 			//NEW
 			//TODO: set the schema to do parsing
@@ -143,10 +198,35 @@ public class SimLoader {
 			}
 
 			//get the w3c document
-			document = parser.getDocument();
 			if (DEBUG) {
 				System.out.println(" created document");
 			}
+			return parser.getDocument();
+		} catch (SAXNotRecognizedException e) {
+			e.printStackTrace();
+		} catch (SAXNotSupportedException e) {
+			e.printStackTrace();
+		} catch (SAXException sxe) {
+			// Error generated during parsing)
+			Exception x = sxe;
+			if (sxe.getException() != null) {
+				x = sxe.getException();
+			}
+			x.printStackTrace();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+
+	/**
+	 * Creates the Simulation object from the DOM description of the model
+	 * @param document the model definition
+	 * @throws LoadException if the model cannot be loaded
+	 */
+	private void load(Document document) throws LoadException {
+		this.document = document;
+		try {
 			//gets root - node name = 'sim'
 			Element root = document.getDocumentElement();
 			if (DEBUG) {
@@ -161,62 +241,134 @@ public class SimLoader {
 				throw new LoadException("Problems loading");
 			}
 
-			//OLD
-			//sim = new Simulation(root.getAttribute("name"), root.getAttribute("debug").equals("true"));
+			loadSim(root);
+
+			//FIXME read measure logging attributes here...
+
+			//Returns a NodeList of all the Elements with a given tag name in the order in which they
+			//are encountered in a preordering traversal of the Document tree.
+			NodeList nodeList = root.getElementsByTagName("node");
+			NodeList classList = root.getElementsByTagName("userClass");
+			NodeList measureList = root.getElementsByTagName("measure");
+			NodeList connectionList = root.getElementsByTagName("connection");
+
+			List<Element> classes = new ArrayList<Element>(classList.getLength());
+			for (int i = 0; i < classList.getLength(); i++) {
+				classes.add((Element) classList.item(i));
+			}
+			loadClasses(classes);
+
+			//creates the nodes from xml & adds them to the simulation object
+			for (int i = 0; i < nodeList.getLength(); i++) {
+				loadNode((Element) nodeList.item(i));
+			}
+			if (DEBUG) {
+				System.out.println("");
+			}
+
+			//adds all connections
+			for (int i = 0; i < connectionList.getLength(); i++) {
+				loadConnection((Element) connectionList.item(i));
+			}
+			if (DEBUG) {
+				System.out.println("");
+			}
+
+			//adds all measures
+			for (int i = 0; i < measureList.getLength(); i++) {
+				loadMeasure((Element) measureList.item(i));
+			}
+			if (DEBUG) {
+				System.out.println("");
+			}
 
 			//NEW
 			//@author Stefano Omini
-			//default values
-			long seed = -1;
-			String simName = "";
+			NodeList regionList = root.getElementsByTagName("blockingRegion");
 
-			if (root.hasAttribute("name")) {
-				simName = root.getAttribute("name");
+			// Use external method
+			loadBlockingRegions(regionList);
+			if (DEBUG) {
+				System.out.println("");
 			}
+			//end NEW
 
-			//variable debug is no longer USED
+			//Preloading
 
-			if (root.getAttribute("seed") != "") {
-				seed = Long.parseLong(root.getAttribute("seed"));
+			NodeList preloadList = root.getElementsByTagName("preload");
+			Element preload = (Element) preloadList.item(0);
+			if (preload != null) {
+				//preload has been defined by user
+				loadPreload(preload);
 			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
 
-			if (simName.equalsIgnoreCase("")) {
-				//NEW
-				//@author Stefano Omini
-				//no name specified: uses current time as name
-				String datePattern = "yyyyMMdd_HHmmss";
-				SimpleDateFormat formatter = new SimpleDateFormat(datePattern);
+	/**
+	 * Creates the Simulation object and its parameters from the attributes of the root sim element
+	 * @param root the sim element
+	 * @throws IOException if the simulation cannot be created
+	 * @throws LoadException if an attribute is not valid
+	 */
+	void loadSim(Element root) throws IOException, LoadException {
+		//OLD
+		//sim = new Simulation(root.getAttribute("name"), root.getAttribute("debug").equals("true"));
+
+		//NEW
+		//@author Stefano Omini
+		//default values
+		long seed = -1;
+		String simName = "";
+
+		if (root.hasAttribute("name")) {
+			simName = root.getAttribute("name");
+		}
 
-				Date today = new Date();
-				String todayString = formatter.format(today);
+		//variable debug is no longer USED
 
-				simName = "JSIM_" + todayString;
+		if (root.getAttribute("seed") != "") {
+			seed = Long.parseLong(root.getAttribute("seed"));
+		}
 
-				//OLD
-				//sim = new Simulation(seed, null, debug);
-				sim = new Simulation(seed, simName);
-				//end NEW
-			} else {
-				//OLD
-				//sim = new Simulation(seed, simName, debug);
-				sim = new Simulation(seed, simName);
-			}
+		if (simName.equalsIgnoreCase("")) {
+			//NEW
+			//@author Stefano Omini
+			//no name specified: uses current time as name
+			String datePattern = "yyyyMMdd_HHmmss";
+			SimpleDateFormat formatter = new SimpleDateFormat(datePattern);
+
+			Date today = new Date();
+			String todayString = formatter.format(today);
 
-			sim.setXmlSimModelDefPath(simModelPath);
+			simName = "JSIM_" + todayString;
+
+			//OLD
+			//sim = new Simulation(seed, null, debug);
+			sim = new Simulation(seed, simName);
 			//end NEW
+		} else {
+			//OLD
+			//sim = new Simulation(seed, simName, debug);
+			sim = new Simulation(seed, simName);
+		}
+
+		sim.setXmlSimModelDefPath(simModelPath);
+		//end NEW
 
-			//-------------- SIM PARAMETERS -------------------//
+		//-------------- SIM PARAMETERS -------------------//
 
-			//TODO: code to set sim parameters
+		//TODO: code to set sim parameters
 
-			// Create a class SimParameter, whose parameters will be shared by all
-			// dynamic data analyzer in order to compute confidence intervals.
-			// For example, number of batches, batch size, ecc..
+		// Create a class SimParameter, whose parameters will be shared by all
+		// dynamic data analyzer in order to compute confidence intervals.
+		// For example, number of batches, batch size, ecc..
 
-			//this constructor will use default values
-			SimParameters simParam = new SimParameters();
+		//this constructor will use default values
+		SimParameters simParam = new SimParameters();
 
-		//TODO: here I should put blocks like if (has attribute("batch")) then set(..) etc
+	//TODO: here I should put blocks like if (has attribute("batch")) then set(..) etc
 //once added in the xml schema, they must be read and
 //inserted with the respective set methods
 
@@ -225,343 +377,408 @@ public class SimLoader {
 //TODO: finished the part with parsing and set of attributes, put this method
 //(which for the moment is limited to setting the default values)
 
-			//sets the reference in sim object
-			sim.setSimParameters(simParam);
+		//sets the reference in sim object
+		sim.setSimParameters(simParam);
+
+		//gets the default value of maxSamples
+		//(max number of samples for each measure)
+		int maxSamples = simParam.getMaxSamples();
+		//gets the default value of minSamples
+		//(min number of samples for each measure)
+		int minSamples = simParam.getMinSamples();
+		//gets the default value of maxSimulatedTime
+		double maxSimulatedTime = simParam.getMaxSimulatedTime();
+		//gets the default value of maxProcessedEvents
+		int maxProcessedEvents = simParam.getMaxProcessedEvents();
+		//gets the default value of disableStatisticStop
+		boolean disableStatisticStop = simParam.isDisableStatisticStop();
+
+		// Gets the timestamp value
+		simParam.setTimestampValue(Long.toString(System.currentTimeMillis()));
+
+		//-------------- end SIM PARAMETERS -------------------//
+
+		// Read maxSamples if specified
+		if (root.getAttribute("maxSamples") != "") {
+			maxSamples = Integer.parseInt(root.getAttribute("maxSamples"));
+			simParam.setMaxSamples(maxSamples);
+		}
 
-			//gets the default value of maxSamples
-			//(max number of samples for each measure)
-			int maxSamples = simParam.getMaxSamples();
-			//gets the default value of minSamples
-			//(min number of samples for each measure)
-			int minSamples = simParam.getMinSamples();
-			//gets the default value of maxSimulatedTime
-			double maxSimulatedTime = simParam.getMaxSimulatedTime();
-			//gets the default value of maxProcessedEvents
-			int maxProcessedEvents = simParam.getMaxProcessedEvents();
-			//gets the default value of disableStatisticStop
-			boolean disableStatisticStop = simParam.isDisableStatisticStop();
+		// Read minSamples if specified
+		if (root.getAttribute("minSamples") != "") {
+			minSamples = Integer.parseInt(root.getAttribute("minSamples"));
+			simParam.setMinSamples(minSamples);
+		}
 
-			// Gets the timestamp value
-			simParam.setTimestampValue(Long.toString(System.currentTimeMillis()));
+		// Read maxSimulatedTime if specified
+		if (root.getAttribute("maxSimulated") != "") {
+			maxSimulatedTime = Double.parseDouble(root.getAttribute("maxSimulated"));
+			simParam.setMaxSimulatedTime(maxSimulatedTime);
+		}
 
-			//-------------- end SIM PARAMETERS -------------------//
+		// Read maxProcessedEvents if specified
+		if (root.getAttribute("maxEvents") != "") {
+			maxProcessedEvents = Integer.parseInt(root.getAttribute("maxEvents"));
+			simParam.setMaxProcessedEvents(maxProcessedEvents);
+		}
 
-			// Read maxSamples if specified
-			if (root.getAttribute("maxSamples") != "") {
-				maxSamples = Integer.parseInt(root.getAttribute("maxSamples"));
-				simParam.setMaxSamples(maxSamples);
-			}
+		// Disables confidence interval as stopping criteria
+		if (root.hasAttribute("disableStatisticStop")) {
+			disableStatisticStop = Boolean.parseBoolean(root.getAttribute("disableStatisticStop"));
+			simParam.setDisableStatisticStop(disableStatisticStop);
+		}
 
-			// Read minSamples if specified
-			if (root.getAttribute("minSamples") != "") {
-				minSamples = Integer.parseInt(root.getAttribute("minSamples"));
-				simParam.setMinSamples(minSamples);
+		// Read the implementation of the future event queue if specified
+		if (root.hasAttribute("eventQueue")) {
+			String eventQueue = root.getAttribute("eventQueue");
+			if (!SimSystem.isValidEventQueueType(eventQueue)) {
+				throw new LoadException("Unknown event queue: " + eventQueue);
 			}
+			simParam.setEventQueue(eventQueue);
+		}
 
-			// Read maxSimulatedTime if specified
-			if (root.getAttribute("maxSimulated") != "") {
-				maxSimulatedTime = Double.parseDouble(root.getAttribute("maxSimulated"));
-				simParam.setMaxSimulatedTime(maxSimulatedTime);
+		// Read the number of random variates drawn at once by service time strategies if specified
+		if (root.hasAttribute("randomBlockSize")) {
+			String randomBlockSize = root.getAttribute("randomBlockSize");
+			try {
+				simParam.setRandomBlockSize(Integer.parseInt(randomBlockSize));
+			} catch (NumberFormatException e) {
+				throw new LoadException("Invalid random block size: " + randomBlockSize);
 			}
+			if (simParam.getRandomBlockSize() < 1) {
+				throw new LoadException("Invalid random block size: " + randomBlockSize);
+			}
+		}
 
-			// Read maxProcessedEvents if specified
-			if (root.getAttribute("maxEvents") != "") {
-				maxProcessedEvents = Integer.parseInt(root.getAttribute("maxEvents"));
-				simParam.setMaxProcessedEvents(maxProcessedEvents);
+		// Read the maximum number of samples above which quantiles are estimated by a sketch if specified
+		if (root.hasAttribute("quantileSketchThreshold")) {
+			String quantileSketchThreshold = root.getAttribute("quantileSketchThreshold");
+			try {
+				simParam.setQuantileSketchThreshold(Integer.parseInt(quantileSketchThreshold));
+			} catch (NumberFormatException e) {
+				throw new LoadException("Invalid quantile sketch threshold: " + quantileSketchThreshold);
 			}
+			if (simParam.getQuantileSketchThreshold() < 0) {
+				throw new LoadException("Invalid quantile sketch threshold: " + quantileSketchThreshold);
+			}
+		}
 
-			// Disables confidence interval as stopping criteria
-			if (root.hasAttribute("disableStatisticStop")) {
-				disableStatisticStop = Boolean.parseBoolean(root.getAttribute("disableStatisticStop"));
-				simParam.setDisableStatisticStop(disableStatisticStop);
+		// Uses an independent random stream for each component of the model if specified
+		if (root.hasAttribute("randomStreams") && Boolean.parseBoolean(root.getAttribute("randomStreams"))) {
+			sim.getNetSystem().setEngine(new Philox());
+			if (seed != -1) {
+				sim.setRandomEngineSeed(seed);
 			}
+		}
 
-			// MF08 0.7.4  Michael Fercu (Bertoli Marco) -- re-defines global logger attributes
-			// for the purpose of passing them to the Logger constructor
-			if (root.hasAttribute("logPath")) {
-				String temp_lp = root.getAttribute("logPath");
-				simParam.setLogPath(temp_lp);
+		// MF08 0.7.4  Michael Fercu (Bertoli Marco) -- re-defines global logger attributes
+		// for the purpose of passing them to the Logger constructor
+		if (root.hasAttribute("logPath")) {
+			String temp_lp = root.getAttribute("logPath");
+			simParam.setLogPath(temp_lp);
+		}
+		if (root.hasAttribute("logDelimiter")) {
+			String temp_ld = root.getAttribute("logDelimiter");
+			simParam.setLogDelimiter(temp_ld);
+		}
+		if (root.hasAttribute("logDecimalSeparator")) {
+			String temp_ld = root.getAttribute("logDecimalSeparator");
+			simParam.setLogDecimalSeparator(temp_ld);
+		}
+		if (root.hasAttribute("logReplaceMode")) {
+			String temp_lr = root.getAttribute("logReplaceMode");
+			simParam.setLogReplaceMode(temp_lr);
+		}
+		//END MF08
+		if (root.hasAttribute("logFormat")) {
+			String logFormat = root.getAttribute("logFormat");
+			if (!LoggerParameters.LOG_FORMAT_CSV.equals(logFormat) && !LoggerParameters.LOG_FORMAT_BINARY.equals(logFormat)
+					&& !LoggerParameters.LOG_FORMAT_COMPRESSED_BINARY.equals(logFormat)) {
+				throw new LoadException("Unknown log format: " + logFormat);
+			}
+			simParam.setLogFormat(logFormat);
+		}
+		if (root.hasAttribute("asyncLogging")) {
+			simParam.setAsyncLogging(Boolean.parseBoolean(root.getAttribute("asyncLogging")));
+		}
+		if (root.hasAttribute("logBufferSize")) {
+			String logBufferSize = root.getAttribute("logBufferSize");
+			try {
+				simParam.setLogBufferSize(Integer.parseInt(logBufferSize));
+			} catch (NumberFormatException e) {
+				throw new LoadException("Invalid log buffer size: " + logBufferSize);
 			}
-			if (root.hasAttribute("logDelimiter")) {
-				String temp_ld = root.getAttribute("logDelimiter");
-				simParam.setLogDelimiter(temp_ld);
+			if (simParam.getLogBufferSize() <= 0) {
+				throw new LoadException("Invalid log buffer size: " + logBufferSize);
 			}
-			if (root.hasAttribute("logDecimalSeparator")) {
-				String temp_ld = root.getAttribute("logDecimalSeparator");
-				simParam.setLogDecimalSeparator(temp_ld);
+		}
+		if (root.hasAttribute("logBackpressure")) {
+			String logBackpressure = root.getAttribute("logBackpressure");
+			if (LoggerParameters.LOG_BACKPRESSURE_BLOCK.equals(logBackpressure)) {
+				simParam.setLogBackpressure(AsyncLogger.BACKPRESSURE_BLOCK);
+			} else if (LoggerParameters.LOG_BACKPRESSURE_DROP.equals(logBackpressure)) {
+				simParam.setLogBackpressure(AsyncLogger.BACKPRESSURE_DROP);
+			} else if (LoggerParameters.LOG_BACKPRESSURE_SPILL.equals(logBackpressure)) {
+				simParam.setLogBackpressure(AsyncLogger.BACKPRESSURE_SPILL);
+			} else {
+				throw new LoadException("Unknown log backpressure policy: " + logBackpressure);
 			}
-			if (root.hasAttribute("logReplaceMode")) {
-				String temp_lr = root.getAttribute("logReplaceMode");
-				simParam.setLogReplaceMode(temp_lr);
+		}
+		if (root.hasAttribute("streamingResults")) {
+			simParam.setStreamingResults(Boolean.parseBoolean(root.getAttribute("streamingResults")));
+		}
+		if (root.hasAttribute("partialResultsPeriod")) {
+			String partialResultsPeriod = root.getAttribute("partialResultsPeriod");
+			try {
+				simParam.setPartialResultsPeriod(Long.parseLong(partialResultsPeriod));
+			} catch (NumberFormatException e) {
+				throw new LoadException("Invalid partial results period: " + partialResultsPeriod);
 			}
-			//END MF08
-
-			//FIXME read measure logging attributes here...
+			if (simParam.getPartialResultsPeriod() < 0) {
+				throw new LoadException("Invalid partial results period: " + partialResultsPeriod);
+			}
+		}
+	}
 
-			//Returns a NodeList of all the Elements with a given tag name in the order in which they
-			//are encountered in a preordering traversal of the Document tree.
-			NodeList nodeList = root.getElementsByTagName("node");
-			NodeList classList = root.getElementsByTagName("userClass");
-			NodeList measureList = root.getElementsByTagName("measure");
-			NodeList connectionList = root.getElementsByTagName("connection");
+	/**
+	 * Creates the job classes and adds them to the simulation. Must be called before the
+	 * other elements of the model are loaded.
+	 * @param classList the userClass elements, in the order of the model definition
+	 */
+	void loadClasses(List<Element> classList) {
+		//class array creation
+		jobClasses = new JobClass[classList.size()];
+		for (int i = 0; i < classList.size(); i++) {
+			//OLD
+			//jobClasses[i] = new JobClass(((Element) classList.item(i)).getAttribute("name"));
 
-			//class array creation
-			jobClasses = new JobClass[classList.getLength()];
-			for (int i = 0; i < classList.getLength(); i++) {
-				//OLD
-				//jobClasses[i] = new JobClass(((Element) classList.item(i)).getAttribute("name"));
-
-				//NEW
-				//@author Stefano Omini
-				Element currentJobClass = (Element) classList.item(i);
-
-				//parse class attributes: name, type and priority
-				String currentClassName = currentJobClass.getAttribute("name");
-				String currentClassType = currentJobClass.getAttribute("type");
-				String currentClassPriority = currentJobClass.getAttribute("priority");
-				String referenceNode = currentJobClass.getAttribute("referenceSource");
-				String currentClassSoftDeadline = currentJobClass.getAttribute("softDeadline");
-				String cacheMissClass = currentJobClass.getAttribute("cacheMissClass");
-				String cacheHitClass = currentJobClass.getAttribute("cacheHitClass");
-
-				int type, priority;
-				double softDeadline;
-
-				if (currentClassType.equalsIgnoreCase("closed")) {
-					type = JobClass.CLOSED_CLASS;
-				} else {
-					type = JobClass.OPEN_CLASS;
-				}
+			//NEW
+			//@author Stefano Omini
+			Element currentJobClass = classList.get(i);
+
+			//parse class attributes: name, type and priority
+			String currentClassName = currentJobClass.getAttribute("name");
+			String currentClassType = currentJobClass.getAttribute("type");
+			String currentClassPriority = currentJobClass.getAttribute("priority");
+			String referenceNode = currentJobClass.getAttribute("referenceSource");
+			String currentClassSoftDeadline = currentJobClass.getAttribute("softDeadline");
+			String cacheMissClass = currentJobClass.getAttribute("cacheMissClass");
+			String cacheHitClass = currentJobClass.getAttribute("cacheHitClass");
+
+			int type, priority;
+			double softDeadline;
+
+			if (currentClassType.equalsIgnoreCase("closed")) {
+				type = JobClass.CLOSED_CLASS;
+			} else {
+				type = JobClass.OPEN_CLASS;
+			}
 
-				priority = Integer.parseInt(currentClassPriority);
-				if (priority < 0) {
-					//negative priorities not allowed
-					priority = 0;
-				}
+			priority = Integer.parseInt(currentClassPriority);
+			if (priority < 0) {
+				//negative priorities not allowed
+				priority = 0;
+			}
 
-				softDeadline = currentClassSoftDeadline.isEmpty() ? 0 : Double.parseDouble(currentClassSoftDeadline);
+			softDeadline = currentClassSoftDeadline.isEmpty() ? 0 : Double.parseDouble(currentClassSoftDeadline);
 
-				//add job class
-				jobClasses[i] = new JobClass(currentClassName, priority, type, referenceNode);
-				//end NEW
+			//add job class
+			jobClasses[i] = new JobClass(currentClassName, priority, type, referenceNode);
+			//end NEW
 
-				jobClasses[i].setSoftDeadline(softDeadline);
+			jobClasses[i].setSoftDeadline(softDeadline);
 
-				if (DEBUG) {
-					System.out.println("Class " + jobClasses[i].getName() + " created");
-				}
-			}
-			//inserts all JobClasses in the Simulation object
-			sim.addClasses(jobClasses);
 			if (DEBUG) {
-				System.out.println("classes added\n");
+				System.out.println("Class " + jobClasses[i].getName() + " created");
 			}
+		}
+		//inserts all JobClasses in the Simulation object
+		sim.addClasses(jobClasses);
+		if (DEBUG) {
+			System.out.println("classes added\n");
+		}
+	}
 
-			//creates the nodes from xml & adds them to the simulation object
-			for (int i = 0; i < nodeList.getLength(); i++) {
-				Element node = (Element) nodeList.item(i);
-				if (DEBUG) {
-					System.out.println("start creation of node = " + node.getAttribute("name"));
-				}
-				// Process soft deadlines.
-				double[] softDeadlinesArr = null;
-				if (node.getElementsByTagName("classSoftDeadlines").getLength() != 0) {
-					List<Double> softDeadlines = new ArrayList<>();
-					NodeList classSoftDeadlinesChildren = node.getElementsByTagName("classSoftDeadlines").item(0).getChildNodes();
-					for (int j = 0; j < classSoftDeadlinesChildren.getLength(); j++) {
-						Node item = classSoftDeadlinesChildren.item(j);
-						if (item.getNodeType() == Node.ELEMENT_NODE) {
-							// This is a soft deadline element.
-							softDeadlines.add(Double.parseDouble(item.getTextContent()));
-						}
-					}
-					if (softDeadlines.size() > 0) {
-						softDeadlinesArr = new double[softDeadlines.size()];
-						for (int j = 0; j < softDeadlines.size(); j++) {
-							softDeadlinesArr[j] = softDeadlines.get(j);
-						}
-					}
-				}
-				double quantaSize = 0.0;
-				if (node.getElementsByTagName("quantaSize").getLength() != 0) {
-					quantaSize = Double.parseDouble(node.getElementsByTagName("quantaSize").item(0).getTextContent());
-				}
-				double switchTime = 0.0;
-				if (node.getElementsByTagName("quantumSwitchoverTime").getLength() != 0) {
-					switchTime = Double.parseDouble(node.getElementsByTagName("quantumSwitchoverTime").item(0).getTextContent());
-				}
-
-				//gets list of sections
-				NodeList sectionList = node.getElementsByTagName("section");
-				NodeSection[] sections = new NodeSection[4];
-				//creates all sections (max is 3)
-				for (int j = 0; j < sectionList.getLength(); j++) {
-					if (DEBUG) {
-						System.out.println("    start creation of section = " + ((Element) sectionList.item(j)).getAttribute("className"));
-					}
-					NodeSection ns = createSection((Element) sectionList.item(j));
-					if (DEBUG) {
-						System.out.println("    finished creation of " + ((Element) sectionList.item(j)).getAttribute("className") + "\n");
-					}
-					if (ns instanceof InputSection) {
-						if (ns instanceof Queue) {
-							((Queue) ns).setSoftDeadlines(softDeadlinesArr);
-
-						}
-						sections[0] = ns;
-					} else if (ns instanceof ServiceSection) {
-						if(ns instanceof PSServer){
-							((PSServer) ns).setQuantumSize(quantaSize);
-							((PSServer) ns).setSwitchTime(switchTime);
-						}
-						sections[1] = ns;
-					} else if (ns instanceof OutputSection) {
-						sections[2] = ns;
-					} else {
-						throw new LoadException("trying to cast the wrong Class type");
-					}
-				}
-
-				//adds node.
-				sim.addNode(node.getAttribute("name"), (InputSection) sections[0], (ServiceSection) sections[1], (OutputSection) sections[2]);
-				if (DEBUG) {
-					System.out.println("node added\n");
+	/**
+	 * Creates a node from its dom description and adds it to the simulation
+	 * @param node the node element
+	 * @throws LoadException if a section of the node cannot be created
+	 */
+	void loadNode(Element node) throws LoadException {
+		if (DEBUG) {
+			System.out.println("start creation of node = " + node.getAttribute("name"));
+		}
+		// Process soft deadlines.
+		double[] softDeadlinesArr = null;
+		if (node.getElementsByTagName("classSoftDeadlines").getLength() != 0) {
+			List<Double> softDeadlines = new ArrayList<>();
+			NodeList classSoftDeadlinesChildren = node.getElementsByTagName("classSoftDeadlines").item(0).getChildNodes();
+			for (int j = 0; j < classSoftDeadlinesChildren.getLength(); j++) {
+				Node item = classSoftDeadlinesChildren.item(j);
+				if (item.getNodeType() == Node.ELEMENT_NODE) {
+					// This is a soft deadline element.
+					softDeadlines.add(Double.parseDouble(item.getTextContent()));
 				}
 			}
-			if (DEBUG) {
-				System.out.println("");
+			if (softDeadlines.size() > 0) {
+				softDeadlinesArr = new double[softDeadlines.size()];
+				for (int j = 0; j < softDeadlines.size(); j++) {
+					softDeadlinesArr[j] = softDeadlines.get(j);
+				}
 			}
+		}
+		double quantaSize = 0.0;
+		if (node.getElementsByTagName("quantaSize").getLength() != 0) {
+			quantaSize = Double.parseDouble(node.getElementsByTagName("quantaSize").item(0).getTextContent());
+		}
+		double switchTime = 0.0;
+		if (node.getElementsByTagName("quantumSwitchoverTime").getLength() != 0) {
+			switchTime = Double.parseDouble(node.getElementsByTagName("quantumSwitchoverTime").item(0).getTextContent());
+		}
 
-			//adds all connections
-			for (int i = 0; i < connectionList.getLength(); i++) {
-				Element e = (Element) connectionList.item(i);
-				sim.addConnection(e.getAttribute("source"), e.getAttribute("target"));
-				if (DEBUG) {
-					System.out.println("added connection = " + e.getAttribute("source") + " to " + e.getAttribute("target"));
-				}
+		//gets list of sections
+		NodeList sectionList = node.getElementsByTagName("section");
+		NodeSection[] sections = new NodeSection[4];
+		//creates all sections (max is 3)
+		for (int j = 0; j < sectionList.getLength(); j++) {
+			if (DEBUG) {
+				System.out.println("    start creation of section = " + ((Element) sectionList.item(j)).getAttribute("className"));
 			}
+			randomStream = node.getAttribute("name") + "/" + ((Element) sectionList.item(j)).getAttribute("className");
+			NodeSection ns = createSection((Element) sectionList.item(j));
 			if (DEBUG) {
-				System.out.println("");
+				System.out.println("    finished creation of " + ((Element) sectionList.item(j)).getAttribute("className") + "\n");
 			}
+			if (ns instanceof InputSection) {
+				if (ns instanceof Queue) {
+					((Queue) ns).setSoftDeadlines(softDeadlinesArr);
 
-			//adds all measures
-			for (int i = 0; i < measureList.getLength(); i++) {
-				Element e = (Element) measureList.item(i);
-
-				int measureType = EngineUtils.decodeMeasureType(e.getAttribute("type"));
-				//throughput measure requires an InverseMeasure object!!
-				if (EngineUtils.isInverseMeasure(measureType)) {
-					//throughput measure
-					InverseMeasure invMeasure = new InverseMeasure(e.getAttribute("name"), Double.parseDouble(e.getAttribute("alpha")),
-							Double.parseDouble(e.getAttribute("precision")), maxSamples, e.getAttribute("verbose").equalsIgnoreCase("true"));
-
-					sim.addMeasure(measureType, e.getAttribute("referenceNode"), invMeasure, e.getAttribute("referenceUserClass"),
-							e.getAttribute("nodeType"));
-				} else {
-					//other measures
-					Measure measure = new Measure(e.getAttribute("name"), Double.parseDouble(e.getAttribute("alpha")),
-							Double.parseDouble(e.getAttribute("precision")), maxSamples, e.getAttribute("verbose").equalsIgnoreCase("true"), null);
-
-					sim.addMeasure(measureType, e.getAttribute("referenceNode"), measure, e.getAttribute("referenceUserClass"),
-							e.getAttribute("nodeType"));
 				}
-
-				if (DEBUG) {
-					System.out.println("added measure = " + e.getAttribute("name"));
+				sections[0] = ns;
+			} else if (ns instanceof ServiceSection) {
+				if(ns instanceof PSServer){
+					((PSServer) ns).setQuantumSize(quantaSize);
+					((PSServer) ns).setSwitchTime(switchTime);
 				}
+				sections[1] = ns;
+			} else if (ns instanceof OutputSection) {
+				sections[2] = ns;
+			} else {
+				throw new LoadException("trying to cast the wrong Class type");
 			}
-			if (DEBUG) {
-				System.out.println("");
-			}
-
-			//NEW
-			//@author Stefano Omini
-			NodeList regionList = root.getElementsByTagName("blockingRegion");
-
-			// Use external method
-			loadBlockingRegions(root, regionList);
-			if (DEBUG) {
-				System.out.println("");
-			}
-			//end NEW
+		}
 
-			//Preloading
+		//adds node.
+		sim.addNode(node.getAttribute("name"), (InputSection) sections[0], (ServiceSection) sections[1], (OutputSection) sections[2]);
+		if (DEBUG) {
+			System.out.println("node added\n");
+		}
+	}
 
-			NodeList preloadList = root.getElementsByTagName("preload");
-			Element preload = (Element) preloadList.item(0);
+	/**
+	 * Adds a connection to the simulation
+	 * @param e the connection element
+	 * @throws LoadException if a node of the connection does not exist
+	 */
+	void loadConnection(Element e) throws LoadException {
+		sim.addConnection(e.getAttribute("source"), e.getAttribute("target"));
+		if (DEBUG) {
+			System.out.println("added connection = " + e.getAttribute("source") + " to " + e.getAttribute("target"));
+		}
+	}
 
-			//station names
-			String[] stationNames;
-			//initial populations [station, class]
-			int[][] initialP;
+	/**
+	 * Creates a measure from its dom description and adds it to the simulation
+	 * @param e the measure element
+	 * @throws LoadException if the measure refers to a node or class that does not exist
+	 */
+	void loadMeasure(Element e) throws LoadException {
+		//gets the value of maxSamples
+		//(max number of samples for each measure)
+		int maxSamples = sim.getSimParameters().getMaxSamples();
+
+		int measureType = EngineUtils.decodeMeasureType(e.getAttribute("type"));
+		//throughput measure requires an InverseMeasure object!!
+		if (EngineUtils.isInverseMeasure(measureType)) {
+			//throughput measure
+			InverseMeasure invMeasure = new InverseMeasure(e.getAttribute("name"), Double.parseDouble(e.getAttribute("alpha")),
+					Double.parseDouble(e.getAttribute("precision")), maxSamples, e.getAttribute("verbose").equalsIgnoreCase("true"));
+
+			sim.addMeasure(measureType, e.getAttribute("referenceNode"), invMeasure, e.getAttribute("referenceUserClass"),
+					e.getAttribute("nodeType"));
+		} else {
+			//other measures
+			Measure measure = new Measure(e.getAttribute("name"), Double.parseDouble(e.getAttribute("alpha")),
+					Double.parseDouble(e.getAttribute("precision")), maxSamples, e.getAttribute("verbose").equalsIgnoreCase("true"), null);
+
+			sim.addMeasure(measureType, e.getAttribute("referenceNode"), measure, e.getAttribute("referenceUserClass"),
+					e.getAttribute("nodeType"));
+		}
 
-			if (preload != null) {
-				//preload has been defined by user
-				NodeList stations;
-				NodeList initialPops;
-				Element station;
-
-				//gets all station elements
-				stations = preload.getElementsByTagName("stationPopulations");
-				//number of stations to be preloaded
-				int stationsNumber = stations.getLength();
-				int classNumber = jobClasses.length;
-
-				//create the array of station names to be preloaded
-				// (not ALL the stations!!)
-				stationNames = new String[stationsNumber];
-				//create the population matrix
-				initialP = new int[stationsNumber][classNumber];
-
-				//initializes matrix
-				for (int s = 0; s < stationsNumber; s++) {
-					for (int c = 0; c < classNumber; c++) {
-						initialP[s][c] = 0;
-					}
-				}
+		if (DEBUG) {
+			System.out.println("added measure = " + e.getAttribute("name"));
+		}
+	}
 
-				//loop over stations
-				for (int s = 0; s < stationsNumber; s++) {
-					//current station
-					station = (Element) stations.item(s);
+	/**
+	 * Sets the initial populations of the stations
+	 * @param preload the preload element
+	 */
+	void loadPreload(Element preload) {
+		//station names
+		String[] stationNames;
+		//initial populations [station, class]
+		int[][] initialP;
+
+		NodeList stations;
+		NodeList initialPops;
+		Element station;
+
+		//gets all station elements
+		stations = preload.getElementsByTagName("stationPopulations");
+		//number of stations to be preloaded
+		int stationsNumber = stations.getLength();
+		int classNumber = jobClasses.length;
+
+		//create the array of station names to be preloaded
+		// (not ALL the stations!!)
+		stationNames = new String[stationsNumber];
+		//create the population matrix
+		initialP = new int[stationsNumber][classNumber];
+
+		//initializes matrix
+		for (int s = 0; s < stationsNumber; s++) {
+			for (int c = 0; c < classNumber; c++) {
+				initialP[s][c] = 0;
+			}
+		}
 
-					//set station name
-					stationNames[s] = station.getAttribute("stationName");
+		//loop over stations
+		for (int s = 0; s < stationsNumber; s++) {
+			//current station
+			station = (Element) stations.item(s);
 
-					//retrieves the class initial populations
-					initialPops = station.getElementsByTagName("classPopulation");
-					int entries = initialPops.getLength();
+			//set station name
+			stationNames[s] = station.getAttribute("stationName");
 
-					for (int c = 0; c < entries; c++) {
-						String pop = ((Element) initialPops.item(c)).getAttribute("population");
-						String className = ((Element) initialPops.item(c)).getAttribute("refClass");
+			//retrieves the class initial populations
+			initialPops = station.getElementsByTagName("classPopulation");
+			int entries = initialPops.getLength();
 
-						int classPosition = findClassPosition(className);
-						//sets the value in the correct position (using the class ID)
-						initialP[s][classPosition] = Integer.parseInt(pop);
-					}
-				}
+			for (int c = 0; c < entries; c++) {
+				String pop = ((Element) initialPops.item(c)).getAttribute("population");
+				String className = ((Element) initialPops.item(c)).getAttribute("refClass");
 
-				//copies the preload info into simulation object
-				sim.setPreloadEnabled(true);
-				sim.setPreload_stationNames(stationNames);
-				sim.setPreload_initialPopulations(initialP);
+				int classPosition = findClassPosition(className);
+				//sets the value in the correct position (using the class ID)
+				initialP[s][classPosition] = Integer.parseInt(pop);
 			}
-			//end NEW
-		} catch (SAXNotRecognizedException e) {
-			e.printStackTrace();
-		} catch (SAXNotSupportedException e) {
-			e.printStackTrace();
-		} catch (SAXException sxe) {
-			// Error generated during parsing)
-			Exception x = sxe;
-			if (sxe.getException() != null) {
-				x = sxe.getException();
-			}
-			x.printStackTrace();
-		} catch (IOException e) {
-			e.printStackTrace();
 		}
+
+		//copies the preload info into simulation object
+		sim.setPreloadEnabled(true);
+		sim.setPreload_stationNames(stationNames);
+		sim.setPreload_initialPopulations(initialP);
 	}
 
 	/**
@@ -587,7 +804,7 @@ public class SimLoader {
 		NodeList parameterList = section.getElementsByTagName("parameter");
 		try {
 			//gets appropriate Class Object
-			Class<?> c = Class.forName("jmt.engine.NodeSections." + section.getAttribute("className"));
+			Class<?> c = findClass("jmt.engine.NodeSections." + section.getAttribute("className"));
 			if (DEBUG) {
 				System.out.println("    class found");
 			}
@@ -602,11 +819,13 @@ public class SimLoader {
 				//creates the array with all parameters & the array with all their classes
 				Object[] initargs = new Object[parameterList.getLength()];
 				Class<?>[] parameterTypes = new Class[parameterList.getLength()];
+				String sectionStream = randomStream;
 				for (int i = 0; i < parameterList.getLength(); i++) {
 					//creates the parameter
 					//if (DEBUG) {
 					//	System.out.println("parameterList.item(i): " + parameterList.item(i).toString());
 					//}
+					randomStream = sectionStream + "/" + ((Element) parameterList.item(i)).getAttribute("name");
 					initargs[i] = createParameter((Element) parameterList.item(i));
 					if (initargs[i] != null) {
 						//gets the class of the parameter
@@ -618,10 +837,10 @@ public class SimLoader {
 					} else {
 						if (!((Element) parameterList.item(i)).getAttribute("array").equals("true")) {
 							//the parameter is not an array
-							parameterTypes[i] = Class.forName(((Element) parameterList.item(i)).getAttribute("classPath"));
+							parameterTypes[i] = findClass(((Element) parameterList.item(i)).getAttribute("classPath"));
 						} else {
 							// array parameter
-							parameterTypes[i] = Array.newInstance(Class.forName(((Element) parameterList.item(i)).getAttribute("classPath")), 0)
+							parameterTypes[i] = Array.newInstance(findClass(((Element) parameterList.item(i)).getAttribute("classPath")), 0)
 									.getClass();
 						}
 						if (DEBUG) {
@@ -674,7 +893,7 @@ public class SimLoader {
 				}
 				return null;
 			}
-			Class<?> c = Class.forName(classPath);
+			Class<?> c = findClass(classPath);
 			if (DEBUG) {
 				System.out.println("        parameter class found = " + classPath);
 			}
@@ -694,6 +913,7 @@ public class SimLoader {
 
 				//first situation: just an array without classes
 				Object[] arrayElements;
+				String parameterStream = randomStream;
 				if (XMLParser.getElementsByTagName(param, "refClass").getLength() == 0) {
 					//gets list of first level subParameters
 					NodeList childList = XMLParser.getElementsByTagName(param, "subParameter");
@@ -707,8 +927,10 @@ public class SimLoader {
 						if (DEBUG) {
 							System.out.println("creating subparemter = " + ((Element) childList.item(i)).getAttribute("name"));
 						}
+						randomStream = parameterStream + "/" + i;
 						arrayElements[i] = createSubParameter((Element) childList.item(i));
 					}
+					randomStream = parameterStream;
 					//creates a fake array object
 					Object parameter = Array.newInstance(c, childList.getLength());
 					//copy inside all the elements
@@ -750,8 +972,10 @@ public class SimLoader {
 										System.out.println("        creating subParameter " + ((Element) n).getAttribute("name") + " for class "
 												+ classVect.get(j));
 									}
+									randomStream = parameterStream + "/" + classVect.get(j);
 									arrayElements[positions[j]] = createSubParameter((Element) n);
 								}
+								randomStream = parameterStream;
 								//clears the classes vector
 								classVect.clear();
 							}
@@ -839,7 +1063,7 @@ public class SimLoader {
 				}
 				return null;
 			}
-			Class<?> c = Class.forName(subp.getAttribute("classPath"));
+			Class<?> c = findClass(subp.getAttribute("classPath"));
 			if (DEBUG) {
 				System.out.println("            subparameter class found = " + c.getName());
 			}
@@ -887,7 +1111,7 @@ public class SimLoader {
 				}
 				Object o = c.newInstance();
 				if (o instanceof AbstractDistribution) {
-					((AbstractDistribution) o).setRandomEngine(sim.getEngine());
+					((AbstractDistribution) o).setRandomEngine(getRandomEngine());
 				}
 				return o;
 			}
@@ -937,25 +1161,25 @@ public class SimLoader {
 					n.setSimSystem(simSystem);
 
 					Burst b = (Burst) o; //any distribution will do?
-					b.setRandomEngine(sim.getNetSystem().getEngine());
+					b.setRandomEngine(getRandomEngine());
 					b.initialize();
 
 					sim.addDistrNetNode((NetNode) o);
 				}
 				if (o instanceof ForkStrategy) {
-					((ForkStrategy) o).setRandomEngine(sim.getEngine());
+					((ForkStrategy) o).setRandomEngine(getRandomEngine());
 				}
 				if (o instanceof EmpiricalStrategy) {
-					((EmpiricalStrategy) o).setRandomEngine(sim.getEngine());	
+					((EmpiricalStrategy) o).setRandomEngine(getRandomEngine());
 				}
 				if (o instanceof LoadDependentRoutingParameter) {
-					((LoadDependentRoutingParameter) o).setRandomEngine(sim.getEngine());
+					((LoadDependentRoutingParameter) o).setRandomEngine(getRandomEngine());
 				}
 				if (o instanceof LDParameter) {
-					((LDParameter) o).setRandomEngine(sim.getEngine());
+					((LDParameter) o).setRandomEngine(getRandomEngine());
 				}
 				if(o instanceof ClassSwitchRoutingStrategy) {
-					((ClassSwitchRoutingStrategy) o).setRandomEngine(sim.getEngine());
+					((ClassSwitchRoutingStrategy) o).setRandomEngine(getRandomEngine());
 				}
 
 				return o;
@@ -981,12 +1205,51 @@ public class SimLoader {
 	}
 
 	/**
-	 * Gets an appropriate constructor for c given the paramClasses
+	 * Gets the random engine of the parameter being created.
+	 * @return the engine of the current random stream
+	 */
+	private RandomEngine getRandomEngine() {
+		if (randomStream == null) {
+			return sim.getEngine();
+		}
+		return sim.getNetSystem().getEngine(randomStream);
+	}
+
+	/**
+	 * Gets an appropriate constructor for c given the paramClasses. Constructors are looked
+	 * up only the first time they are needed.
 	 * @param c
 	 * @param paramClasses
 	 * @return found constructor
 	 */
 	public Constructor<?> getConstructor(Class<?> c, Class<?>[] paramClasses) throws NoSuchMethodException {
+		List<Class<?>> key = new ArrayList<Class<?>>(paramClasses.length + 1);
+		key.add(c);
+		key.addAll(Arrays.asList(paramClasses));
+		Constructor<?> constr = constructorCache.get(key);
+		if (constr == null) {
+			constr = findConstructor(c, paramClasses);
+			constructorCache.put(key, constr);
+		}
+		return constr;
+	}
+
+	/**
+	 * Gets a class by name, looking it up only the first time
+	 * @param className the fully qualified name of the class
+	 * @return the class
+	 * @throws ClassNotFoundException if the class cannot be found
+	 */
+	private static Class<?> findClass(String className) throws ClassNotFoundException {
+		Class<?> c = classCache.get(className);
+		if (c == null) {
+			c = Class.forName(className);
+			classCache.put(className, c);
+		}
+		return c;
+	}
+
+	private static Constructor<?> findConstructor(Class<?> c, Class<?>[] paramClasses) throws NoSuchMethodException {
 		try {
 			return c.getConstructor(paramClasses);
 		} catch (NoSuchMethodException e) {
@@ -1047,285 +1310,289 @@ public class SimLoader {
 
 	/**
 	 * Loads blocking region from input XML file
-	 * @param root root element of XML file
 	 * @param regionList a NodeList data structure with all blocking regions
 	 * @throws LoadException if some problems occurs during loading
 	 */
-	private void loadBlockingRegions(Element root, NodeList regionList) throws LoadException {
-		int classNumber = root.getElementsByTagName("userClass").getLength();
-
+	private void loadBlockingRegions(NodeList regionList) throws LoadException {
 		//adds all regions
 		for (int i = 0; i < regionList.getLength(); i++) {
+			loadBlockingRegion((Element) regionList.item(i));
+		}
+	}
 
-			//get i-th region
-			Element region = (Element) regionList.item(i);
+	/**
+	 * Loads a blocking region and adds it to the simulation
+	 * @param region the blocking region element
+	 * @throws LoadException if some problems occurs during loading
+	 */
+	void loadBlockingRegion(Element region) throws LoadException {
+		int classNumber = jobClasses.length;
 
-			//name
-			String regionName = region.getAttribute("name");
+		//name
+		String regionName = region.getAttribute("name");
 
-			if (DEBUG) {
-				System.out.println("start adding region = " + regionName);
-			}
+		if (DEBUG) {
+			System.out.println("start adding region = " + regionName);
+		}
 
-			//NOT USED
-			//String regionType = region.getAttribute("type");
+		//NOT USED
+		//String regionType = region.getAttribute("type");
 
-			//--------------REGION NODES----------------//
-			//gets the names of the stations contained in the region
-			NodeList regionNodesList = region.getElementsByTagName("regionNode");
+		//--------------REGION NODES----------------//
+		//gets the names of the stations contained in the region
+		NodeList regionNodesList = region.getElementsByTagName("regionNode");
 
-			String[] stationNames = new String[regionNodesList.getLength()];
+		String[] stationNames = new String[regionNodesList.getLength()];
 
-			for (int j = 0; j < regionNodesList.getLength(); j++) {
-				Element rn = (Element) regionNodesList.item(j);
-				stationNames[j] = rn.getAttribute("nodeName");
-				if (DEBUG) {
-					System.out.println("   region contains node = " + stationNames[j]);
-				}
+		for (int j = 0; j < regionNodesList.getLength(); j++) {
+			Element rn = (Element) regionNodesList.item(j);
+			stationNames[j] = rn.getAttribute("nodeName");
+			if (DEBUG) {
+				System.out.println("   region contains node = " + stationNames[j]);
 			}
+		}
 
-			//---------GLOBAL CONSTRAINT-----------//
-			double maxCapacity = -1;
+		//---------GLOBAL CONSTRAINT-----------//
+		double maxCapacity = -1;
 
-			NodeList globalConstraints = region.getElementsByTagName("globalConstraint");
+		NodeList globalConstraints = region.getElementsByTagName("globalConstraint");
 
-			if (globalConstraints.item(0) != null) {
-				Element globalConstraint = (Element) globalConstraints.item(0);
-				maxCapacity = Double.parseDouble(globalConstraint.getAttribute("maxJobs"));
-				if (DEBUG) {
-					System.out.println("   global constraint = " + Double.toString(maxCapacity));
-				}
-			} else {
-				throw new LoadException("Element \"globalConstraint\" missing...");
+		if (globalConstraints.item(0) != null) {
+			Element globalConstraint = (Element) globalConstraints.item(0);
+			maxCapacity = Double.parseDouble(globalConstraint.getAttribute("maxJobs"));
+			if (DEBUG) {
+				System.out.println("   global constraint = " + Double.toString(maxCapacity));
 			}
+		} else {
+			throw new LoadException("Element \"globalConstraint\" missing...");
+		}
 
-			//--------------GLOBAL MEMORY CONSTRAINT-------------//
-			double maxMemory = -1;
+		//--------------GLOBAL MEMORY CONSTRAINT-------------//
+		double maxMemory = -1;
 
-			NodeList globalMemoryConstraints = region.getElementsByTagName("globalMemoryConstraint");
+		NodeList globalMemoryConstraints = region.getElementsByTagName("globalMemoryConstraint");
 
-			if (globalMemoryConstraints.item(0) != null) {
-				Element globalMemoryConstraint = (Element) globalMemoryConstraints.item(0);
-				maxMemory = Double.parseDouble(globalMemoryConstraint.getAttribute("maxMemory"));
-				if (DEBUG) {
-					System.out.println("   global memory constraint = " + Double.toString(maxMemory));
-				}
-			} else {
-				throw new LoadException("Element \"globalMemoryConstraint\" missing...");
+		if (globalMemoryConstraints.item(0) != null) {
+			Element globalMemoryConstraint = (Element) globalMemoryConstraints.item(0);
+			maxMemory = Double.parseDouble(globalMemoryConstraint.getAttribute("maxMemory"));
+			if (DEBUG) {
+				System.out.println("   global memory constraint = " + Double.toString(maxMemory));
 			}
+		} else {
+			throw new LoadException("Element \"globalMemoryConstraint\" missing...");
+		}
 
-			//--------------DROP RULES---------------//
-			NodeList dropRules = region.getElementsByTagName("dropRules");
+		//--------------DROP RULES---------------//
+		NodeList dropRules = region.getElementsByTagName("dropRules");
 
-			//drop rules (one for each class)
-			boolean[] dropThisClass = new boolean[classNumber];
-			//init
-			if (dropRules.getLength() == 0) {
-				//no drop rules specified: use default drop values (drop open and keep closed)
-				if (DEBUG) {
-					System.out.println("Loading default drop rules...");
-				}
+		//drop rules (one for each class)
+		boolean[] dropThisClass = new boolean[classNumber];
+		//init
+		if (dropRules.getLength() == 0) {
+			//no drop rules specified: use default drop values (drop open and keep closed)
+			if (DEBUG) {
+				System.out.println("Loading default drop rules...");
+			}
 
-				for (int c = 0; c < classNumber; c++) {
-					int classType = jobClasses[c].getType();
-					if (classType == JobClass.OPEN_CLASS) {
-						//drop open class jobs
-						dropThisClass[c] = true;
-					} else {
-						//block closed class jobs
-						dropThisClass[c] = false;
-					}
-				}
-			} else {
-				//drop rules specified by user
-				if (DEBUG) {
-					System.out.println("Loading specified drop rules...");
+			for (int c = 0; c < classNumber; c++) {
+				int classType = jobClasses[c].getType();
+				if (classType == JobClass.OPEN_CLASS) {
+					//drop open class jobs
+					dropThisClass[c] = true;
+				} else {
+					//block closed class jobs
+					dropThisClass[c] = false;
 				}
+			}
+		} else {
+			//drop rules specified by user
+			if (DEBUG) {
+				System.out.println("Loading specified drop rules...");
+			}
 
-				Element dropRule = null;
-				String className;
-				int classPosition;
+			Element dropRule = null;
+			String className;
+			int classPosition;
 
-				for (int dr = 0; dr < dropRules.getLength(); dr++) {
-					dropRule = (Element) dropRules.item(dr);
-					className = dropRule.getAttribute("jobClass");
-					//entries may be in a wrong order: find the right position
-					classPosition = findClassPosition(className);
-					dropThisClass[classPosition] = dropRule.getAttribute("dropThisClass").equalsIgnoreCase("true");
+			for (int dr = 0; dr < dropRules.getLength(); dr++) {
+				dropRule = (Element) dropRules.item(dr);
+				className = dropRule.getAttribute("jobClass");
+				//entries may be in a wrong order: find the right position
+				classPosition = findClassPosition(className);
+				dropThisClass[classPosition] = dropRule.getAttribute("dropThisClass").equalsIgnoreCase("true");
 
-					if (DEBUG) {
-						System.out.println("   drop for class " + className + " = " + dropThisClass[classPosition]);
-					}
+				if (DEBUG) {
+					System.out.println("   drop for class " + className + " = " + dropThisClass[classPosition]);
 				}
 			}
+		}
 
-			//-----------------CLASS CONSTRAINTS-----------------//
-			NodeList classConstraints = region.getElementsByTagName("classConstraint");
+		//-----------------CLASS CONSTRAINTS-----------------//
+		NodeList classConstraints = region.getElementsByTagName("classConstraint");
 
-			//max capacity for each class (-1 means no constraint)
-			double[] maxCapacityPerClass = new double[classNumber];
-			//init
-			Arrays.fill(maxCapacityPerClass, -1.0);
+		//max capacity for each class (-1 means no constraint)
+		double[] maxCapacityPerClass = new double[classNumber];
+		//init
+		Arrays.fill(maxCapacityPerClass, -1.0);
 
-			if (classConstraints.getLength() > 0) {
-				Element clsConst = null;
-				String className;
-				int classPosition;
+		if (classConstraints.getLength() > 0) {
+			Element clsConst = null;
+			String className;
+			int classPosition;
 
-				for (int cc = 0; cc < classConstraints.getLength(); cc++) {
-					clsConst = (Element) classConstraints.item(cc);
-					className = clsConst.getAttribute("jobClass");
-					//entries may be in a wrong order: find the right position
-					classPosition = findClassPosition(className);
-					maxCapacityPerClass[classPosition] = Double.parseDouble(clsConst.getAttribute("maxJobsPerClass"));
+			for (int cc = 0; cc < classConstraints.getLength(); cc++) {
+				clsConst = (Element) classConstraints.item(cc);
+				className = clsConst.getAttribute("jobClass");
+				//entries may be in a wrong order: find the right position
+				classPosition = findClassPosition(className);
+				maxCapacityPerClass[classPosition] = Double.parseDouble(clsConst.getAttribute("maxJobsPerClass"));
 
-					if (DEBUG) {
-						System.out.println("   constraint for class " + className + " = " + Double.toString(maxCapacityPerClass[classPosition]));
-					}
+				if (DEBUG) {
+					System.out.println("   constraint for class " + className + " = " + Double.toString(maxCapacityPerClass[classPosition]));
 				}
 			}
+		}
 
-			//-----------------CLASS MEMORY CONSTRAINTS-----------------//
-			NodeList classMemoryConstraints = region.getElementsByTagName("classMemoryConstraint");
+		//-----------------CLASS MEMORY CONSTRAINTS-----------------//
+		NodeList classMemoryConstraints = region.getElementsByTagName("classMemoryConstraint");
 
-			//max memory for each class (-1 means no constraint)
-			double[] maxMemoryPerClass = new double[classNumber];
-			//init
-			Arrays.fill(maxMemoryPerClass, -1.0);
+		//max memory for each class (-1 means no constraint)
+		double[] maxMemoryPerClass = new double[classNumber];
+		//init
+		Arrays.fill(maxMemoryPerClass, -1.0);
 
-			if (classMemoryConstraints.getLength() > 0) {
-				Element clsMemConst = null;
-				String className;
-				int classPosition;
+		if (classMemoryConstraints.getLength() > 0) {
+			Element clsMemConst = null;
+			String className;
+			int classPosition;
 
-				for (int cmc = 0; cmc < classMemoryConstraints.getLength(); cmc++) {
-					clsMemConst = (Element) classMemoryConstraints.item(cmc);
-					className = clsMemConst.getAttribute("jobClass");
-					//entries may be in a wrong order: find the right position
-					classPosition = findClassPosition(className);
-					maxMemoryPerClass[classPosition] = Double.parseDouble(clsMemConst.getAttribute("maxMemoryPerClass"));
+			for (int cmc = 0; cmc < classMemoryConstraints.getLength(); cmc++) {
+				clsMemConst = (Element) classMemoryConstraints.item(cmc);
+				className = clsMemConst.getAttribute("jobClass");
+				//entries may be in a wrong order: find the right position
+				classPosition = findClassPosition(className);
+				maxMemoryPerClass[classPosition] = Double.parseDouble(clsMemConst.getAttribute("maxMemoryPerClass"));
 
-					if (DEBUG) {
-						System.out.println("   memory constraint for class " + className + " = " + Double.toString(maxMemoryPerClass[classPosition]));
-					}
+				if (DEBUG) {
+					System.out.println("   memory constraint for class " + className + " = " + Double.toString(maxMemoryPerClass[classPosition]));
 				}
 			}
+		}
 
-			//----------------CLASS WEIGHTS----------------//
-			NodeList classWeights = region.getElementsByTagName("classWeight");
+		//----------------CLASS WEIGHTS----------------//
+		NodeList classWeights = region.getElementsByTagName("classWeight");
 
-			double[] regionClassWeights = new double[classNumber];
-			//init
-			Arrays.fill(regionClassWeights, 1.0);
+		double[] regionClassWeights = new double[classNumber];
+		//init
+		Arrays.fill(regionClassWeights, 1.0);
 
-			if (classWeights.getLength() > 0) {
-				Element clsWeight = null;
-				String className;
-				int classPosition;
+		if (classWeights.getLength() > 0) {
+			Element clsWeight = null;
+			String className;
+			int classPosition;
 
-				for (int cw = 0; cw < classWeights.getLength(); cw++) {
-					clsWeight = (Element) classWeights.item(cw);
-					className = clsWeight.getAttribute("jobClass");
-					//entries may be in a wrong order: find the right position
-					classPosition = findClassPosition(className);
-					regionClassWeights[classPosition] = Double.parseDouble(clsWeight.getAttribute("weight"));
+			for (int cw = 0; cw < classWeights.getLength(); cw++) {
+				clsWeight = (Element) classWeights.item(cw);
+				className = clsWeight.getAttribute("jobClass");
+				//entries may be in a wrong order: find the right position
+				classPosition = findClassPosition(className);
+				regionClassWeights[classPosition] = Double.parseDouble(clsWeight.getAttribute("weight"));
 
-					if (DEBUG) {
-						System.out.println("   weight for class " + className + " = " + Double.toString(regionClassWeights[classPosition]));
-					}
+				if (DEBUG) {
+					System.out.println("   weight for class " + className + " = " + Double.toString(regionClassWeights[classPosition]));
 				}
 			}
+		}
 
-			//----------------CLASS SIZES----------------//
-			NodeList classSizes = region.getElementsByTagName("classSize");
+		//----------------CLASS SIZES----------------//
+		NodeList classSizes = region.getElementsByTagName("classSize");
 
-			double[] regionClassSizes = new double[classNumber];
-			//init
-			Arrays.fill(regionClassSizes, 1.0);
+		double[] regionClassSizes = new double[classNumber];
+		//init
+		Arrays.fill(regionClassSizes, 1.0);
 
-			if (classSizes.getLength() > 0) {
-				Element clsSize = null;
-				String className;
-				int classPosition;
+		if (classSizes.getLength() > 0) {
+			Element clsSize = null;
+			String className;
+			int classPosition;
 
-				for (int cs = 0; cs < classSizes.getLength(); cs++) {
-					clsSize = (Element) classSizes.item(cs);
-					className = clsSize.getAttribute("jobClass");
-					//entries may be in a wrong order: find the right position
-					classPosition = findClassPosition(className);
-					regionClassSizes[classPosition] = Double.parseDouble(clsSize.getAttribute("size"));
+			for (int cs = 0; cs < classSizes.getLength(); cs++) {
+				clsSize = (Element) classSizes.item(cs);
+				className = clsSize.getAttribute("jobClass");
+				//entries may be in a wrong order: find the right position
+				classPosition = findClassPosition(className);
+				regionClassSizes[classPosition] = Double.parseDouble(clsSize.getAttribute("size"));
 
-					if (DEBUG) {
-						System.out.println("   size for class " + className + " = " + Double.toString(regionClassSizes[classPosition]));
-					}
+				if (DEBUG) {
+					System.out.println("   size for class " + className + " = " + Double.toString(regionClassSizes[classPosition]));
 				}
 			}
+		}
 
-			//----------------CLASS DUE DATES----------------//
-			NodeList classSoftDeadlines = region.getElementsByTagName("classSoftDeadline");
+		//----------------CLASS DUE DATES----------------//
+		NodeList classSoftDeadlines = region.getElementsByTagName("classSoftDeadline");
 
-			double[] regionClassSoftDeadlines = new double[classNumber];
-			//init
-			Arrays.fill(regionClassSoftDeadlines, 1.0);
+		double[] regionClassSoftDeadlines = new double[classNumber];
+		//init
+		Arrays.fill(regionClassSoftDeadlines, 1.0);
 
-			if (classSoftDeadlines.getLength() > 0) {
-				Element clsSoftDeadline = null;
-				String className;
-				int classPosition;
+		if (classSoftDeadlines.getLength() > 0) {
+			Element clsSoftDeadline = null;
+			String className;
+			int classPosition;
 
-				for (int cdd = 0; cdd < classSoftDeadlines.getLength(); cdd++) {
-					clsSoftDeadline = (Element) classSoftDeadlines.item(cdd);
-					className = clsSoftDeadline.getAttribute("jobClass");
-					//entries may be in a wrong order: find the right position
-					classPosition = findClassPosition(className);
-					regionClassSoftDeadlines[classPosition] = Double.parseDouble(clsSoftDeadline.getAttribute("softDeadline"));
+			for (int cdd = 0; cdd < classSoftDeadlines.getLength(); cdd++) {
+				clsSoftDeadline = (Element) classSoftDeadlines.item(cdd);
+				className = clsSoftDeadline.getAttribute("jobClass");
+				//entries may be in a wrong order: find the right position
+				classPosition = findClassPosition(className);
+				regionClassSoftDeadlines[classPosition] = Double.parseDouble(clsSoftDeadline.getAttribute("softDeadline"));
 
-					if (DEBUG) {
-						System.out.println("   soft deadline for class " + className + " = " + Double.toString(regionClassSoftDeadlines[classPosition]));
-					}
+				if (DEBUG) {
+					System.out.println("   soft deadline for class " + className + " = " + Double.toString(regionClassSoftDeadlines[classPosition]));
 				}
 			}
+		}
 
-			//----------------GROUP CONSTRAINTS----------------//
-			NodeList groupConstraints = region.getElementsByTagName("groupConstraint");
-			int groupNumber = groupConstraints.getLength();
-			String[] groupNames = new String[groupNumber];
-			double[] maxCapacityPerGroup = new double[groupNumber];
-			for (int j = 0; j < groupNumber; j++) {
-				Element groupConstraint = (Element) groupConstraints.item(j);
-				groupNames[j] = groupConstraint.getAttribute("jobGroup");
-				maxCapacityPerGroup[j] = Double.parseDouble(groupConstraint.getAttribute("maxJobsPerGroup"));
-			}
-
-			//----------------GROUP MEMORY CONSTRAINTS----------------//
-			NodeList groupMemoryConstraints = region.getElementsByTagName("groupMemoryConstraint");
-			double[] maxMemoryPerGroup = new double[groupNumber];
-			for (int j = 0; j < groupNumber; j++) {
-				Element groupMemoryConstraint = (Element) groupMemoryConstraints.item(j);
-				maxMemoryPerGroup[j] = Double.parseDouble(groupMemoryConstraint.getAttribute("maxMemoryPerGroup"));
-			}
-
-			//----------------GROUP CLASSLISTS----------------//
-			NodeList groupClassLists  = region.getElementsByTagName("groupClassList");
-			List<List<Integer>> groupClassIndexLists = new ArrayList<List<Integer>>();
-			for (int j = 0; j < groupNumber; j++) {
-				Element groupClassList = (Element) groupClassLists.item(j);
-				NodeList groupClasses = groupClassList.getElementsByTagName("groupClass");
-				groupClassIndexLists.add(new ArrayList<Integer>());
-				for (int k = 0; k < groupClasses.getLength(); k++) {
-					Element groupClass = (Element) groupClasses.item(k);
-					int classIndex = findClassPosition(groupClass.getAttribute("jobClass"));
-					groupClassIndexLists.get(j).add(classIndex);
-				}
-			}
+		//----------------GROUP CONSTRAINTS----------------//
+		NodeList groupConstraints = region.getElementsByTagName("groupConstraint");
+		int groupNumber = groupConstraints.getLength();
+		String[] groupNames = new String[groupNumber];
+		double[] maxCapacityPerGroup = new double[groupNumber];
+		for (int j = 0; j < groupNumber; j++) {
+			Element groupConstraint = (Element) groupConstraints.item(j);
+			groupNames[j] = groupConstraint.getAttribute("jobGroup");
+			maxCapacityPerGroup[j] = Double.parseDouble(groupConstraint.getAttribute("maxJobsPerGroup"));
+		}
 
-			//------------------ADD BLOCKING REGION TO SIM------------------//
-			sim.addRegion(regionName, maxCapacity, maxMemory, maxCapacityPerClass, maxMemoryPerClass, dropThisClass, regionClassWeights, regionClassSizes,
-					regionClassSoftDeadlines, groupNames, maxCapacityPerGroup, maxMemoryPerGroup, groupClassIndexLists, stationNames);
-			if (DEBUG) {
-				System.out.println("added region " + regionName);
+		//----------------GROUP MEMORY CONSTRAINTS----------------//
+		NodeList groupMemoryConstraints = region.getElementsByTagName("groupMemoryConstraint");
+		double[] maxMemoryPerGroup = new double[groupNumber];
+		for (int j = 0; j < groupNumber; j++) {
+			Element groupMemoryConstraint = (Element) groupMemoryConstraints.item(j);
+			maxMemoryPerGroup[j] = Double.parseDouble(groupMemoryConstraint.getAttribute("maxMemoryPerGroup"));
+		}
+
+		//----------------GROUP CLASSLISTS----------------//
+		NodeList groupClassLists  = region.getElementsByTagName("groupClassList");
+		List<List<Integer>> groupClassIndexLists = new ArrayList<List<Integer>>();
+		for (int j = 0; j < groupNumber; j++) {
+			Element groupClassList = (Element) groupClassLists.item(j);
+			NodeList groupClasses = groupClassList.getElementsByTagName("groupClass");
+			groupClassIndexLists.add(new ArrayList<Integer>());
+			for (int k = 0; k < groupClasses.getLength(); k++) {
+				Element groupClass = (Element) groupClasses.item(k);
+				int classIndex = findClassPosition(groupClass.getAttribute("jobClass"));
+				groupClassIndexLists.get(j).add(classIndex);
 			}
 		}
+
+		//------------------ADD BLOCKING REGION TO SIM------------------//
+		sim.addRegion(regionName, maxCapacity, maxMemory, maxCapacityPerClass, maxMemoryPerClass, dropThisClass, regionClassWeights, regionClassSizes,
+				regionClassSoftDeadlines, groupNames, maxCapacityPerGroup, maxMemoryPerGroup, groupClassIndexLists, stationNames);
+		if (DEBUG) {
+			System.out.println("added region " + regionName);
+		}
 	}
 
 	// Cut and paste of old GUI code used by SimLoader (to clear up things) - Bertoli Marco
@@ -30,6 +30,9 @@ package jmt.engine.simEngine;
  * @author      Ross McNab
  */
 public class SimNoneP extends SimPredicate {
+
+	private static final long serialVersionUID = 1L;
+
 	/** Constructor.
 	 */
 	public SimNoneP() {
@@ -18,13 +18,18 @@
 
 package jmt.engine.simEngine;
 
+import java.io.Serializable;
+
 /**
  * Predicates are used to select events from the deferred queue.
  * This class is abstract and must be subclassed when writing new
  * predicate.
  */
 
-public abstract class SimPredicate {
+public abstract class SimPredicate implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * The match function which must be overridden when writing a new
 	 * predicate. The function is called with each event in the deferred
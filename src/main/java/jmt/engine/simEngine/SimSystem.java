@@ -18,42 +18,59 @@
 
 package jmt.engine.simEngine;
 
-import java.util.Hashtable;
+import java.io.IOException;
+import java.io.Serializable;
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 
 import jmt.common.exception.NetException;
 import jmt.engine.QueueNet.NetEvent;
 import jmt.engine.QueueNet.NetSystem;
+import jmt.engine.log.JSimLoggerFactory;
+import jmt.engine.random.engine.RandomEngine;
 
 /**
  * This is the system class which manages the simulation. All
  * the members of this class are static, so there is no need to
  * create an instance of this class.
+ * <p>This class is not thread safe: while the simulation is running it must be accessed only
+ * by the simulation thread. Other threads should use NetSystem, that forwards their requests
+ * to the simulation thread.</p>
  */
-public class SimSystem {
+public class SimSystem implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private static final boolean DEBUG = false;
 
+	/** Future events are kept in a HybridEventQueue */
+	public static final String EVENT_QUEUE_HYBRID = "hybrid";
+	/** Future events are kept in an IndexedEventQueue, with log(n) removal of scheduled events */
+	public static final String EVENT_QUEUE_INDEXED = "indexed";
+	/** Future events are kept in a CalendarEventQueue, with amortized O(1) operations */
+	public static final String EVENT_QUEUE_CALENDAR = "calendar";
+
 	// Private data members
 	private List<SimEntity> entities; // The current entity list
 
 	private EventQueue future; // The future event queue
 
-	private EventQueue deferred; // The deferred event queue
+	private String eventQueueType = EVENT_QUEUE_HYBRID; // The implementation of the future event queue
+
+	private DeferredEventQueue deferred; // The deferred event queue, indexed by destination
 
 	private EventQueue timing; // The timing event queue
 
 	private double clock; // Holds the current global simulation time
+	private long processedEvents; // Number of events processed since the simulation start
 	private boolean running; // Tells whether the run() member been called yet
 	private NumberFormat nf;
 
-	// cache for the entity IDs
-	private Hashtable<Integer,SimEntity> entityIdHash = new Hashtable<Integer,SimEntity>();
-	// cache for the entity Names
-	private Hashtable<String,SimEntity> entityNameHash = new Hashtable<String,SimEntity>();
+	// cache for the entity Names (entity IDs are the indices of the entities list)
+	private HashMap<String,SimEntity> entityNameHash = new HashMap<String,SimEntity>();
 
 	private NetSystem netSystem;
 	//
@@ -75,14 +92,15 @@ public class SimSystem {
 		// future = new ListEventQueue();
 		// future = new CircularEventQueue();
 		// future = new SuperEventQueue();
-		future = new HybridEventQueue();
+		future = createEventQueue(eventQueueType);
 
-		deferred = new ListEventQueue();
+		deferred = new DeferredEventQueue();
 
 		timing = new TimingEventQueue();
 		((TimingEventQueue) timing).setEngine(netSystem.getEngine());
 
 		clock = 0.0;
+		processedEvents = 0;
 		running = false;
 
 		// Set the default number format
@@ -91,6 +109,68 @@ public class SimSystem {
 		nf.setMinimumFractionDigits(2);
 	}
 
+	/**
+	 * Builds the future event queue of the given type.
+	 * @param type the type of the event queue
+	 * @return the new event queue
+	 */
+	private static EventQueue createEventQueue(String type) {
+		if (EVENT_QUEUE_INDEXED.equals(type)) {
+			return new IndexedEventQueue();
+		} else if (EVENT_QUEUE_CALENDAR.equals(type)) {
+			return new CalendarEventQueue();
+		}
+		return new HybridEventQueue();
+	}
+
+	/**
+	 * Tells if the given string is a valid event queue type.
+	 * @param type the type of the event queue
+	 * @return true if type is one of the EVENT_QUEUE_* constants
+	 */
+	public static boolean isValidEventQueueType(String type) {
+		return EVENT_QUEUE_HYBRID.equals(type) || EVENT_QUEUE_INDEXED.equals(type) || EVENT_QUEUE_CALENDAR.equals(type);
+	}
+
+	/**
+	 * Sets the implementation of the future event queue. If the system has already been
+	 * initialized, the queued events are moved into a new queue of the given type.
+	 * @param type the type of the event queue, one of the EVENT_QUEUE_* constants
+	 */
+	public void setEventQueueType(String type) {
+		if (!isValidEventQueueType(type)) {
+			type = EVENT_QUEUE_HYBRID;
+		}
+		if (type.equals(eventQueueType)) {
+			return;
+		}
+		eventQueueType = type;
+		if (future != null) {
+			EventQueue old = future;
+			future = createEventQueue(type);
+			while (old.size() > 0) {
+				future.add(old.pop());
+			}
+		}
+	}
+
+	/**
+	 * Sets the random engine used to break ties between timing events.
+	 * @param engine the random engine
+	 */
+	public void setRandomEngine(RandomEngine engine) {
+		if (timing != null) {
+			((TimingEventQueue) timing).setEngine(engine);
+		}
+	}
+
+	/**
+	 * @return the type of the future event queue
+	 */
+	public String getEventQueueType() {
+		return eventQueueType;
+	}
+
 	/** Returns the number format used for generating
 	 * times in trace lines
 	 */
@@ -120,6 +200,27 @@ public class SimSystem {
 		return clock;
 	}
 
+	/** Gets the number of events processed since the start of the simulation.
+	 * @return The number of processed events
+	 */
+	public long getProcessedEvents() {
+		return processedEvents;
+	}
+
+	/** Gets the number of events in the future event queue.
+	 * @return The size of the future event queue
+	 */
+	public int getFutureSize() {
+		return future.size();
+	}
+
+	/** Gets the number of events in the deferred event queue.
+	 * @return The size of the deferred event queue
+	 */
+	public int getDeferredSize() {
+		return deferred.size();
+	}
+
 	/** Gets the current number of entities in the simulation
 	 * @return A count of entities
 	 */
@@ -132,7 +233,10 @@ public class SimSystem {
 	 * @return A reference to the entity, or null if it could not be found
 	 */
 	final public SimEntity getEntity(int id) {
-		SimEntity found = entityIdHash.get(id);
+		SimEntity found = null;
+		if (id >= 0 && id < entities.size()) {
+			found = entities.get(id);
+		}
 		if (found == null) {
 			System.out.println("SimSystem: could not find entity " + id);
 		}
@@ -165,7 +269,6 @@ public class SimSystem {
 		} else {
 			e.setId(entities.size());
 			entities.add(e);
-			entityIdHash.put(e.getId(), e);
 			entityNameHash.put(e.getName(), e);
 		}
 	}
@@ -176,10 +279,9 @@ public class SimSystem {
 	 * on the fly.
 	 * @param e A reference to the new entity
 	 */
-	synchronized void addEntityDynamically(SimEntity e) {
+	void addEntityDynamically(SimEntity e) {
 		e.setId(entities.size());
 		entities.add(e);
-		entityIdHash.put(e.getId(), e);
 		entityNameHash.put(e.getName(), e);
 		e.start();
 	}
@@ -234,7 +336,8 @@ public class SimSystem {
 		return true;
 	}
 
-	/** Stops the simulation, by calling the poison() method of each SimEntity.
+	/** Stops the simulation, by calling the poison() method of each SimEntity, and waits
+	 * for the asynchronous loggers of this simulation to write all their rows.
 	 */
 	public void runStop() {
 		SimEntity ent;
@@ -243,6 +346,12 @@ public class SimSystem {
 			ent = it.next();
 			ent.poison();
 		}
+		// Loggers may still be writing rows in the background
+		try {
+			JSimLoggerFactory.removeAsyncLoggers(netSystem);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
 		if (DEBUG) {
 			System.out.println("Exiting SimSystem.run()");
 		}
@@ -258,20 +367,20 @@ public class SimSystem {
 
 	// Entity helper methods
 
-	synchronized RemoveToken hold(int src, double delay) {
+	RemoveToken hold(int src, double delay) {
 		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, clock + delay, src);
 		future.add(e);
-		return new RemoveToken(e);
+		return e;
 	}
 
-	synchronized RemoveToken send(int src, int dest, double delay, int tag, Object data) {
+	RemoveToken send(int src, int dest, double delay, int tag, Object data) {
 		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, src, dest, tag, data);
 		if ((tag & NetEvent.EVENT_MASK) == NetEvent.EVENT_TIMING) {
 			timing.add(e);
 		} else {
 			future.add(e);
 		}
-		return new RemoveToken(e);
+		return e;
 	}
 
 	/**
@@ -279,7 +388,7 @@ public class SimSystem {
 	 * @param token the remove token
 	 * @return true if the event was found and removed, false otherwise.
 	 */
-	synchronized boolean remove(RemoveToken token) {
+	boolean remove(RemoveToken token) {
 		SimEvent e = token.getEvent();
 		if (token.isDeferred()) {
 			return deferred.remove(e);
@@ -292,44 +401,23 @@ public class SimSystem {
 		}
 	}
 
-	synchronized void wait(int src) {
+	void wait(int src) {
 
 	}
 
-	synchronized int waiting(int d, SimPredicate p) {
-		SimEvent ev = null;
-		int w = 0;
-		for (Object element : deferred) {
-			ev = (SimEvent) element;
-			if (ev.getDest() == d) {
-				if (p.match(ev)) {
-					w++;
-				}
-			}
-		}
-		return w;
+	int waiting(int d, SimPredicate p) {
+		return deferred.count(d, p);
 	}
 
 	// Extract the first event whose destination is `src` on the
 	// deferred queue, matched by the `predicate`. And then put it
 	// into the `src`'s event buffer
-	synchronized void select(int src, SimPredicate p) {
-		SimEvent ev = null;
-		boolean found = false;
-
+	void select(int src, SimPredicate p) {
 		// retrieve + remove event with dest == src
-		for (Iterator<SimEvent> it = deferred.iterator(); it.hasNext() && !found;) {
-			ev = it.next();
-			if (ev.getDest() == src) {
-				if (p.match(ev)) {
-					deferred.remove(ev);
-					found = true;
-				}
-			}
-		}
+		SimEvent ev = deferred.select(src, p);
 
-		if (found) {
-			entities.get(src).setEvbuf((SimEvent) ev.clone());
+		if (ev != null) {
+			entities.get(src).setEvbuf(ev);
 		} else {
 			entities.get(src).setEvbuf(null);
 		}
@@ -338,7 +426,7 @@ public class SimSystem {
 	// Cancel the first event whose source is `src` on the
 	// future queue, matched by the `predicate`. Remove it and put it
 	// into the `src`'s event buffer
-	synchronized void cancel(int src, SimPredicate p) {
+	void cancel(int src, SimPredicate p) {
 		SimEvent ev = null;
 		boolean found = false;
 
@@ -354,21 +442,25 @@ public class SimSystem {
 		}
 
 		if (found) {
-			entities.get(src).setEvbuf((SimEvent) ev.clone());
+			entities.get(src).setEvbuf(ev);
 		} else {
 			entities.get(src).setEvbuf(null);
 		}
 	}
 
 	RemoveToken putback(SimEvent ev) {
+		ev.deferred = true;
 		deferred.add(ev);
-		return new RemoveToken(ev, true);
+		return ev;
 	}
 
 	//
 	// Private internal methods
 	//
 	// When ticks run to the nearest event in future/timing queue, call this to process it.
+	// Events removed from the queues are no longer referenced by the system, so they are
+	// delivered or deferred without being copied: the destination entity owns the event in
+	// its event buffer until the next event is delivered, and must not modify or reschedule it.
 	private void processEvent(SimEvent e) throws NetException {
 		int dest, src;
 		SimEntity destEnt;
@@ -379,6 +471,7 @@ public class SimSystem {
 					+ e.eventTime() + ", event type: " + e.getType() + future);
 		}
 		clock = e.eventTime();
+		processedEvents++;
 
 		// Ok now process it
 		switch (e.getType()) {
@@ -396,7 +489,7 @@ public class SimSystem {
 
 					if (p == null) {
 						//the entity was waiting for a generic predicate
-						destEnt.setEvbuf((SimEvent) e.clone());
+						destEnt.setEvbuf(e);
 						destEnt.setState(SimEntity.RUNNABLE);
 						try {
 							destEnt.execute();
@@ -409,7 +502,7 @@ public class SimSystem {
 						//this event matches with such predicate??
 						if (destEnt.getWaitingPred().match(e)) {
 							p = null;
-							destEnt.setEvbuf((SimEvent) e.clone());
+							destEnt.setEvbuf(e);
 							destEnt.setState(SimEntity.RUNNABLE);
 							try {
 								destEnt.execute();
@@ -419,7 +512,7 @@ public class SimSystem {
 							}
 						} else {
 							//the event does not match with the predicate, so it is put in the deferred queue
-							destEnt.simPutback(e);
+							deferred.add(e);
 						}
 					}
 				} else {
@@ -27,6 +27,9 @@ package jmt.engine.simEngine;
  */
 
 public class SimTypeP extends SimPredicate {
+
+	private static final long serialVersionUID = 1L;
+
 	private int tag1;
 	private int tag2;
 	private int tag3;
@@ -62,6 +65,28 @@ public class SimTypeP extends SimPredicate {
 		ntags = 3;
 	}
 
+	/**
+	 * @return the number of tags matched by this predicate
+	 */
+	int getTagCount() {
+		return ntags;
+	}
+
+	/**
+	 * @param index the position of the tag, between 0 and getTagCount() - 1
+	 * @return the tag at the given position
+	 */
+	int getTag(int index) {
+		switch (index) {
+			case 0:
+				return tag1;
+			case 1:
+				return tag2;
+			default:
+				return tag3;
+		}
+	}
+
 	/** The match function called by SimSystem.simSelect(),
 	 * not used directly by the user
 	 */
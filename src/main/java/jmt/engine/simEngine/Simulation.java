@@ -20,7 +20,9 @@ package jmt.engine.simEngine;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
@@ -34,9 +36,12 @@ import jmt.engine.QueueNet.NetSystem;
 import jmt.engine.QueueNet.NodeSection;
 import jmt.engine.QueueNet.QueueNetwork;
 import jmt.engine.QueueNet.SimConstants;
+import jmt.engine.QueueNet.SimulationOutput;
 import jmt.engine.dataAnalysis.Measure;
 import jmt.engine.dataAnalysis.SimParameters;
+import jmt.engine.dataAnalysis.StreamingXMLSimulationOutput;
 import jmt.engine.dataAnalysis.XMLSimulationOutput;
+import jmt.engine.dataAnalysis.measureOutputs.VerboseBinaryMeasureOutput;
 import jmt.engine.dataAnalysis.measureOutputs.VerboseCSVMeasureOutput;
 import jmt.engine.log.JSimLogger;
 import jmt.engine.random.engine.RandomEngine;
@@ -54,7 +59,9 @@ import jmt.engine.random.engine.RandomEngine;
  *              2. global throughput (Throughput per Sink)
  *              each sink per class.
  */
-public class Simulation {
+public class Simulation implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/** Output file handler */
 	File outputFile;
@@ -122,9 +129,23 @@ public class Simulation {
 
 	//---------------------- end PRELOAD -------------------------------//
 
+	//---------------------- WARM START ------------------------------------//
+
+	//if not null, the stations are preloaded with the jobs of this state
+	private WarmStartState warmStartState = null;
+	//if true, the state of the network is captured at the end of the run
+	private boolean captureFinalState = false;
+	//the state of the network at the end of the run
+	private WarmStartState finalState = null;
+
+	//---------------------- end WARM START -------------------------------//
+
 	private boolean isTerminalSimulation = false;
 	private int parametricStep = -1;
 
+	//if false, run() does not write the results file
+	private boolean writeResults = true;
+
 	//-------------------------CONSTRUCTORS-------------------------------//
 
 	private NetSystem netSystem;
@@ -281,6 +302,12 @@ public class Simulation {
 		// Sets the max processed events for the system, when reached the simulation is stopped
 		netSystem.setMaxProcessedEvents(simParameters.getMaxProcessedEvents());
 
+		// Sets the implementation of the future event queue
+		netSystem.getSimSystem().setEventQueueType(simParameters.getEventQueue());
+
+		// Sets the number of random variates drawn at once by service time strategies
+		netSystem.setRandomBlockSize(simParameters.getRandomBlockSize());
+
 		// creates network
 		network = new QueueNetwork("JSIM simulation: " + name);
 		network.setNetSystem(netSystem);
@@ -439,7 +466,11 @@ public class Simulation {
 					//if true, for each Measure sets the corresponding MeasureOutput
 					//a measure output can be a file (xml, txt, ...) which contains
 					//samples and final report of that measure
-					new VerboseCSVMeasureOutput(ms.getMeasure(), simParameters, isTerminalSimulation, parametricStep);
+					if (simParameters.isBinaryLogFormat()) {
+						new VerboseBinaryMeasureOutput(ms.getMeasure(), simParameters, isTerminalSimulation, parametricStep);
+					} else {
+						new VerboseCSVMeasureOutput(ms.getMeasure(), simParameters, isTerminalSimulation, parametricStep);
+					}
 				}
 				network.addMeasure(ms.getMeasure());
 			}
@@ -605,7 +636,10 @@ public class Simulation {
 			}
 
 			//Preload
-			if (preloadEnabled) {
+			if (warmStartState != null) {
+				//preload enabled: uses the state reached by a previous run
+				preloadWarmStartState();
+			} else if (preloadEnabled) {
 				//preload enabled: uses the info loaded by SimLoader
 				for (int s = 0; s < preload_stationNames.length; s++) {
 					//preload, in the specified station, the specified populations
@@ -630,21 +664,72 @@ public class Simulation {
 	 */
 	public void run() throws NetException, InterruptedException {
 		if (initialized) {
-			//runs the simulation
-			netSystem.start();
-			finished = true;
-
-			//simulation has finished
-			//results are put into a xml file
-			XMLSimulationOutput output = new XMLSimulationOutput(this);
-			outputFile = output.writeAllMeasures();
+			run(false);
+		} else {
+			throw new NetException("Simulation has not been initialized");
+		}
+	}
 
-			netSystem.terminate();
+	/**
+	 * Resumes this simulation after it has been restored from a checkpoint
+	 * (see SimulationCheckpoint.read()), and runs it until it finishes.
+	 * @throws NetException
+	 * @throws InterruptedException
+	 */
+	public void resume() throws NetException, InterruptedException {
+		if (initialized) {
+			run(true);
 		} else {
 			throw new NetException("Simulation has not been initialized");
 		}
 	}
 
+	private void run(boolean resume) throws NetException, InterruptedException {
+		//the streaming writer may write partial results while the simulation is running
+		StreamingXMLSimulationOutput streamingOutput = null;
+		if (simParameters.isStreamingResults()) {
+			streamingOutput = new StreamingXMLSimulationOutput(this);
+			streamingOutput.start(simParameters.getPartialResultsPeriod());
+		}
+		//the state of the simulation may be saved periodically
+		SimulationCheckpoint checkpoint = null;
+		if (simParameters.getCheckpointFile() != null) {
+			checkpoint = new SimulationCheckpoint(this, new File(simParameters.getCheckpointFile()),
+					simParameters.getCheckpointPeriod(), simParameters.getCheckpointSimulatedTime());
+			netSystem.setCheckpoint(checkpoint);
+		}
+
+		//runs the simulation
+		try {
+			if (resume) {
+				netSystem.resume();
+			} else {
+				netSystem.start();
+			}
+		} finally {
+			if (checkpoint != null) {
+				netSystem.setCheckpoint(null);
+				checkpoint.close();
+			}
+			if (streamingOutput != null) {
+				streamingOutput.stop();
+			}
+		}
+		finished = true;
+		if (captureFinalState) {
+			finalState = WarmStartState.capture(network);
+		}
+
+		//simulation has finished
+		//results are put into a xml file
+		if (writeResults) {
+			SimulationOutput output = streamingOutput != null ? streamingOutput : new XMLSimulationOutput(this);
+			outputFile = output.writeAllMeasures();
+		}
+
+		netSystem.terminate();
+	}
+
 	/**
 	 * Aborts simulation.
 	 */
@@ -725,6 +810,94 @@ public class Simulation {
 		}
 	}
 
+	/**
+	 * Preload jobs in a queue, in the specified order
+	 */
+	private void preload_stationSequence(String stationName, int[] jobClassIds) {
+		//find the node
+		NetNode node = netSystem.getNode(stationName);
+
+		if (node != null) {
+			try {
+				//retrieves the input section of the node
+				NodeSection section = node.getSection(NodeSection.INPUT);
+				if (section instanceof Queue) {
+					((Queue) section).preloadJobSequence(jobClassIds);
+				} else if (section instanceof Storage) {
+					((Storage) section).preloadJobSequence(jobClassIds);
+				}
+			} catch (NetException e) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Preloads the jobs of the warm start state. The jobs of a closed class are preloaded only if
+	 * the state has the same number of them as the initial population of the class (i.e. its
+	 * population was not changed), otherwise the initial population of the class is preloaded.
+	 * If the state is preloaded for all the classes, the detection of the initial transient is
+	 * skipped by all the measures.
+	 */
+	private void preloadWarmStartState() {
+		List<String> stationNames = new ArrayList<String>(Arrays.asList(warmStartState.getStationNames()));
+		int[] populations = new int[classes.length];
+		if (preloadEnabled) {
+			for (int s = 0; s < preload_stationNames.length; s++) {
+				if (!stationNames.contains(preload_stationNames[s])) {
+					stationNames.add(preload_stationNames[s]);
+				}
+				for (int c = 0; c < classes.length; c++) {
+					if (classes[c].getType() == JobClass.CLOSED_CLASS) {
+						populations[c] += preload_initialPopulations[s][c];
+					}
+				}
+			}
+		}
+		boolean[] preloaded = warmStartState.getPreloadedClasses(classes, populations);
+		boolean allPreloaded = true;
+		for (int c = 0; c < classes.length; c++) {
+			allPreloaded &= preloaded[c];
+		}
+
+		for (String stationName : stationNames) {
+			List<Integer> jobs = new ArrayList<Integer>();
+			for (int c : warmStartState.getJobs(stationName, classes)) {
+				if (preloaded[c]) {
+					jobs.add(c);
+				}
+			}
+			int s = preloadEnabled ? Arrays.asList(preload_stationNames).indexOf(stationName) : -1;
+			if (s >= 0) {
+				for (int c = 0; c < classes.length; c++) {
+					if (!preloaded[c]) {
+						for (int j = 0; j < preload_initialPopulations[s][c]; j++) {
+							jobs.add(c);
+						}
+					}
+				}
+			}
+			int[] jobClassIds = new int[jobs.size()];
+			for (int j = 0; j < jobClassIds.length; j++) {
+				jobClassIds[j] = jobs.get(j);
+			}
+			preload_stationSequence(stationName, jobClassIds);
+		}
+
+		if (allPreloaded) {
+			for (SimMeasure ms : measures) {
+				ms.getMeasure().getAnalyzer().skipTransientDetection();
+			}
+			for (SimMeasure ms : regionMeasures) {
+				ms.getMeasure().getAnalyzer().skipTransientDetection();
+			}
+			logger.debug("Simulation warm started from the state of a previous run");
+		} else {
+			logger.debug("Simulation warm started from the state of a previous run for the classes "
+					+ "whose closed populations were not changed");
+		}
+	}
+
 	//-------------------------end SUPPORT METHODS---------------------------------//
 
 	//------------------- GETTER AND SETTER ----------------------------------//
@@ -757,6 +930,17 @@ public class Simulation {
 		netSystem.getEngine().setNewSeed(seed);
 	}
 
+	/**
+	 * Sets the seed of the random engine for one of several replications of this simulation.
+	 * With independent random streams (randomStreams attribute of the model), each replication
+	 * draws its numbers from streams that do not overlap with the ones of the other replications.
+	 * @param seed the seed of the simulation
+	 * @param replication the number of the replication, 0 for the first one
+	 */
+	public void setRandomEngineSeed(long seed, long replication) {
+		netSystem.getEngine().setNewSeed(seed, replication);
+	}
+
 	/**
 	 * Returns true if the simulation has finished
 	 * @return true if the simulation has finished
@@ -813,6 +997,31 @@ public class Simulation {
 		this.preload_initialPopulations = preload_initialPopulations;
 	}
 
+	/**
+	 * Starts the simulation from the state reached by a previous run, instead of the initial
+	 * populations, skipping most of the initial transient. Must be called before initialize().
+	 * @param warmStartState the state reached by a simulation of the same model, possibly with
+	 * different parameters (see getFinalState())
+	 */
+	public void setWarmStartState(WarmStartState warmStartState) {
+		this.warmStartState = warmStartState;
+	}
+
+	/**
+	 * Sets whether the state of the network is captured at the end of the run
+	 * @param captureFinalState true to capture the state (see getFinalState())
+	 */
+	public void setCaptureFinalState(boolean captureFinalState) {
+		this.captureFinalState = captureFinalState;
+	}
+
+	/**
+	 * @return the state of the network at the end of the run, or null if it was not captured
+	 */
+	public WarmStartState getFinalState() {
+		return finalState;
+	}
+
 	public void addDistrNetNode(NetNode netNode) {
 		distrNetNodes.add(netNode);
 	}
@@ -825,6 +1034,15 @@ public class Simulation {
 		this.isTerminalSimulation = isTerminalSimulation;
 	}
 
+	/**
+	 * Sets whether run() writes the results file. It is not written, for example, when
+	 * the results of several replications are combined (see DispatcherJSIMreplications).
+	 * @param writeResults false not to write the results file
+	 */
+	public void setWriteResults(boolean writeResults) {
+		this.writeResults = writeResults;
+	}
+
 	public int getParametricStep() {
 		return parametricStep;
 	}
@@ -848,7 +1066,9 @@ public class Simulation {
 	/**
 	 * This is a connection between two nodes of the simulation.
 	 */
-	class Connection {
+	class Connection implements Serializable {
+
+		private static final long serialVersionUID = 1L;
 
 		private String start;
 		private String end;
@@ -876,7 +1096,9 @@ public class Simulation {
 	/**
 	 * Creates a measure to be estimated on the simulation model.
 	 */
-	class SimMeasure {
+	class SimMeasure implements Serializable {
+
+		private static final long serialVersionUID = 1L;
 
 		private String jClass;
 		private Measure measure;
@@ -926,7 +1148,9 @@ public class Simulation {
 	/**
 	 * Represents a service center in the simulation
 	 */
-	class SimNode {
+	class SimNode implements Serializable {
+
+		private static final long serialVersionUID = 1L;
 
 		private NetNode node;
 		//node sections
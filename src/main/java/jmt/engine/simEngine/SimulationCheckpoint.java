@@ -0,0 +1,305 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.simEngine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import jmt.engine.log.JSimLogger;
+
+/**
+ * Periodically saves the state of a running simulation to a file, so that a long
+ * simulation can be resumed from its last checkpoint (see read() and Simulation.resume())
+ * after a crash or a kill.
+ * <br>
+ * A checkpoint is taken by the simulation thread between two ticks, when the measures are
+ * refreshed, if the given wall clock period or simulated time has elapsed since the previous
+ * one. The whole Simulation object is serialized in memory, then it is compressed and written
+ * by a background thread to a temporary file, which atomically replaces the previous checkpoint:
+ * the event loop is only stopped for the in memory serialization, and a checkpoint is skipped
+ * if the previous one is still being written.
+ * <br>
+ * The serialization is not incremental, so its pause grows with the state of the model, mostly
+ * with the number of jobs in the network and of scheduled events. On a single core it took about
+ * 0.1 s with 10^4 jobs, 1 s with 10^5 jobs and 7-10 s with 10^6 jobs: the period of the checkpoints
+ * should be much longer than their pause, which is logged if it exceeds one second (see getLastPause()).
+ * If the state cannot be serialized at all, checkpoints are disabled and the simulation goes on.
+ * <br>
+ * Simulations with logger nodes or verbose measures cannot be checkpointed, as they hold open
+ * files: the first checkpoint fails and checkpoints are disabled. A checkpoint can only be
+ * resumed by the same version of the simulator that wrote it.
+ *
+ * @author Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+ */
+public class SimulationCheckpoint {
+
+	private static final int MAGIC = 0x4A534350;
+	private static final int VERSION = 1;
+	// long chains of objects (e.g. job lists) are serialized recursively
+	private static final long STACK_SIZE = 512L * 1024 * 1024;
+	// pauses of the simulation longer than this are logged, in milliseconds
+	private static final long LONG_PAUSE = 1000;
+
+	private JSimLogger logger = JSimLogger.getLogger(JSimLogger.STD_LOGGER);
+
+	private Simulation simulation;
+	private File file;
+	private long period;
+	private double simulatedTime;
+
+	private long lastWallTime;
+	private double lastClock;
+	private boolean disabled = false;
+	private int checkpoints = 0;
+	private long lastPause = 0;
+
+	private ExecutorService writer;
+	private Future<?> pendingWrite;
+
+	/**
+	 * Creates a new SimulationCheckpoint
+	 * @param simulation the simulation to be saved
+	 * @param file the checkpoint file, replaced by each checkpoint
+	 * @param period the wall clock period of the checkpoints in milliseconds, 0 if they are
+	 * not triggered by wall clock time
+	 * @param simulatedTime the simulated time between two checkpoints, 0 if they are not
+	 * triggered by simulated time
+	 */
+	public SimulationCheckpoint(Simulation simulation, File file, long period, double simulatedTime) {
+		this.simulation = simulation;
+		this.file = file;
+		this.period = period;
+		this.simulatedTime = simulatedTime;
+		lastWallTime = System.currentTimeMillis();
+		lastClock = simulation.getNetSystem().getTime();
+		writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "JSIM checkpoint writer");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Takes a checkpoint if it is due. Called by the simulation thread between two ticks.
+	 * @param clock the current simulation time
+	 */
+	public void check(double clock) {
+		if (disabled) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		if ((period > 0 && now - lastWallTime >= period) || (simulatedTime > 0 && clock - lastClock >= simulatedTime)) {
+			if (pendingWrite != null && !pendingWrite.isDone()) {
+				//the previous checkpoint is still being written
+				return;
+			}
+			lastWallTime = now;
+			lastClock = clock;
+			write();
+		}
+	}
+
+	/**
+	 * Takes a checkpoint. Called by the simulation thread between two ticks.
+	 */
+	public void write() {
+		final byte[] state;
+		long start = System.currentTimeMillis();
+		try {
+			state = callWithLargeStack(new Callable<byte[]>() {
+				public byte[] call() throws IOException {
+					ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+					ObjectOutputStream out = new ObjectOutputStream(bytes);
+					out.writeObject(simulation);
+					out.close();
+					return bytes.toByteArray();
+				}
+			}, "JSIM checkpoint serializer");
+		} catch (NotSerializableException e) {
+			disabled = true;
+			logger.warn("Checkpoints disabled, the simulation cannot be saved: " + e.getMessage() + " is not serializable");
+			return;
+		} catch (IOException e) {
+			logger.warn("Cannot take a checkpoint of the simulation: " + e.getMessage());
+			return;
+		} catch (StackOverflowError | OutOfMemoryError e) {
+			disabled = true;
+			logger.warn("Checkpoints disabled, the state of the simulation is too large to be saved: " + e);
+			return;
+		}
+		lastPause = System.currentTimeMillis() - start;
+		if (lastPause > LONG_PAUSE) {
+			logger.warn("Checkpoint " + (checkpoints + 1) + " paused the simulation for " + lastPause + " ms");
+		}
+		checkpoints++;
+		pendingWrite = writer.submit(new Runnable() {
+			public void run() {
+				try {
+					writeFile(state);
+				} catch (IOException e) {
+					logger.warn("Cannot write the checkpoint " + file.getAbsolutePath() + ": " + e.getMessage());
+				}
+			}
+		});
+	}
+
+	/**
+	 * Writes the serialized state to a temporary file, which then replaces the checkpoint file,
+	 * so that a crash while writing never corrupts the previous checkpoint.
+	 */
+	private void writeFile(byte[] state) throws IOException {
+		File directory = file.getAbsoluteFile().getParentFile();
+		File temp = File.createTempFile(file.getName(), ".tmp", directory);
+		try {
+			FileOutputStream stream = new FileOutputStream(temp);
+			try {
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				GZIPOutputStream zip = new GZIPOutputStream(out);
+				zip.write(state);
+				zip.finish();
+				out.flush();
+			} finally {
+				stream.close();
+			}
+			if (!temp.renameTo(file)) {
+				file.delete();
+				if (!temp.renameTo(file)) {
+					throw new IOException("Cannot replace " + file.getAbsolutePath());
+				}
+			}
+		} finally {
+			temp.delete();
+		}
+	}
+
+	/**
+	 * Waits for the checkpoint being written, if any, and stops the writer thread.
+	 */
+	public void close() {
+		writer.shutdown();
+		try {
+			while (!writer.awaitTermination(1, TimeUnit.SECONDS)) {
+				// waits for the checkpoint being written
+			}
+		} catch (InterruptedException e) {
+			writer.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * @return the number of checkpoints taken so far
+	 */
+	public int getCheckpoints() {
+		return checkpoints;
+	}
+
+	/**
+	 * @return the time for which the last checkpoint paused the simulation, in milliseconds
+	 */
+	public long getLastPause() {
+		return lastPause;
+	}
+
+	/**
+	 * Reads a simulation from a checkpoint file. The simulation is ready to be resumed
+	 * with Simulation.resume().
+	 * @param file the checkpoint file
+	 * @return the simulation
+	 * @throws IOException if the file cannot be read or it is not a valid checkpoint
+	 */
+	public static Simulation read(final File file) throws IOException {
+		return callWithLargeStack(new Callable<Simulation>() {
+			public Simulation call() throws IOException {
+				DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+				try {
+					if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+						throw new IOException(file.getAbsolutePath() + " is not a valid checkpoint");
+					}
+					ObjectInputStream objects = new ObjectInputStream(new GZIPInputStream(in));
+					return (Simulation) objects.readObject();
+				} catch (ClassNotFoundException e) {
+					throw new IOException(file.getAbsolutePath() + " was written by a different version", e);
+				} catch (ClassCastException e) {
+					throw new IOException(file.getAbsolutePath() + " is not a valid checkpoint", e);
+				} finally {
+					in.close();
+				}
+			}
+		}, "JSIM checkpoint reader");
+	}
+
+	/**
+	 * Runs a task on a new thread with a large stack and waits for its result.
+	 */
+	private static <T> T callWithLargeStack(Callable<T> callable, String name) throws IOException {
+		FutureTask<T> task = new FutureTask<T>(callable);
+		Thread thread = new Thread(null, task, name, STACK_SIZE);
+		thread.start();
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return task.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+}
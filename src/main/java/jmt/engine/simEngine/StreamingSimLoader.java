@@ -0,0 +1,212 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.simEngine;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import jmt.common.exception.LoadException;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Creates a Simulation object while reading the model definition with a StAX parser,
+ * in a single pass. Each top level element of the sim element (a class, a node, a measure,
+ * a connection...) is built as a small DOM fragment, added to the simulation by SimLoader
+ * and then discarded, so that the memory used for the XML does not grow with the size of
+ * the model.
+ * <br>
+ * The sim element is looked for anywhere in the document, so that both a model definition
+ * and a JSIM archive (.jsimg, .jsimw) can be read directly, without extracting the model
+ * definition to a temporary file. The rest of the archive is not read.
+ * <br>
+ * The model definition is not validated against the SIMmodeldefinition.xsd schema: this
+ * loader is meant for models written by JMT, which are always valid.
+ *
+ * @author Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+ */
+public class StreamingSimLoader {
+
+	private static final String SIM_ELEMENT = "sim";
+	private static final String CLASS_ELEMENT = "userClass";
+
+	// simulation object created by this loader
+	private Simulation sim;
+
+	/**
+	 * Creates a Simulation object, loading the model definition from a file
+	 *
+	 * @param model the xml model definition or the JSIM archive
+	 * @param xmlPath the path of the xml model definition, used to place the results
+	 * @throws IOException if the file cannot be read
+	 * @throws LoadException if the model cannot be loaded
+	 */
+	public StreamingSimLoader(File model, String xmlPath) throws IOException, LoadException {
+		InputStream is = new BufferedInputStream(new FileInputStream(model));
+		try {
+			load(is, xmlPath);
+		} finally {
+			is.close();
+		}
+	}
+
+	/**
+	 * Creates a Simulation object, loading the model definition from a stream
+	 *
+	 * @param is the stream of the xml model definition or of the JSIM archive
+	 * @param xmlPath the path of the xml model definition, used to place the results
+	 * @throws IOException if the stream cannot be read
+	 * @throws LoadException if the model cannot be loaded
+	 */
+	public StreamingSimLoader(InputStream is, String xmlPath) throws IOException, LoadException {
+		load(is, xmlPath);
+	}
+
+	private void load(InputStream is, String xmlPath) throws IOException, LoadException {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		try {
+			XMLStreamReader reader = factory.createXMLStreamReader(is);
+			try {
+				load(reader, xmlPath);
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			throw new LoadException("Problems while parsing", e);
+		}
+	}
+
+	private void load(XMLStreamReader reader, String xmlPath) throws XMLStreamException, IOException, LoadException {
+		// Skips the archive, if any, up to the sim element
+		boolean found = false;
+		while (!found && reader.hasNext()) {
+			found = reader.next() == XMLStreamConstants.START_ELEMENT && SIM_ELEMENT.equals(reader.getLocalName());
+		}
+		if (!found) {
+			throw new LoadException("Element \"" + SIM_ELEMENT + "\" missing...");
+		}
+
+		// Used only to create the fragments
+		Document document;
+		try {
+			document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+		} catch (ParserConfigurationException e) {
+			throw new LoadException("Problems while parsing", e);
+		}
+
+		SimLoader loader = new SimLoader(createElement(reader, document), xmlPath);
+		// Classes must be created before anything refers to them
+		List<Element> classes = new ArrayList<Element>();
+		boolean classesLoaded = false;
+		while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			Element element = readElement(reader, document);
+			String name = element.getTagName();
+			if (CLASS_ELEMENT.equals(name)) {
+				if (classesLoaded) {
+					throw new LoadException("Element \"" + CLASS_ELEMENT + "\" must precede the other elements...");
+				}
+				classes.add(element);
+				continue;
+			}
+			if (!classesLoaded) {
+				loader.loadClasses(classes);
+				classesLoaded = true;
+			}
+			if (name.equals("node")) {
+				loader.loadNode(element);
+			} else if (name.equals("measure")) {
+				loader.loadMeasure(element);
+			} else if (name.equals("connection")) {
+				loader.loadConnection(element);
+			} else if (name.equals("blockingRegion")) {
+				loader.loadBlockingRegion(element);
+			} else if (name.equals("preload")) {
+				loader.loadPreload(element);
+			}
+		}
+		if (!classesLoaded) {
+			loader.loadClasses(classes);
+		}
+		sim = loader.getSim();
+	}
+
+	/**
+	 * Creates an element with the name and the attributes of the current start element
+	 */
+	private static Element createElement(XMLStreamReader reader, Document document) {
+		Element element = document.createElement(reader.getLocalName());
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			String prefix = reader.getAttributePrefix(i);
+			String name = reader.getAttributeLocalName(i);
+			if (prefix != null && !prefix.isEmpty()) {
+				name = prefix + ":" + name;
+			}
+			element.setAttribute(name, reader.getAttributeValue(i));
+		}
+		return element;
+	}
+
+	/**
+	 * Reads the current start element with all its content, up to its end element
+	 */
+	private static Element readElement(XMLStreamReader reader, Document document) throws XMLStreamException {
+		Element element = createElement(reader, document);
+		while (true) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				element.appendChild(readElement(reader, document));
+				break;
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.SPACE:
+				element.appendChild(document.createTextNode(reader.getText()));
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				return element;
+			default:
+				// comments and processing instructions
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Returns the Simulation object which has been created by this loader.
+	 * @return The simulation created
+	 */
+	public Simulation getSim() {
+		return sim;
+	}
+
+}
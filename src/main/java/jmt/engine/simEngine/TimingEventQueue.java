@@ -18,6 +18,7 @@
 
 package jmt.engine.simEngine;
 
+import java.io.Serializable;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.PriorityQueue;
@@ -36,6 +37,8 @@ import jmt.framework.data.CircularList;
  */
 public class TimingEventQueue implements EventQueue {
 
+	private static final long serialVersionUID = 1L;
+
 	private static final int DEFAULT_INITIAL_CAPACITY = 111;
 
 	private TimingEventComparator comparator;
@@ -153,7 +156,9 @@ public class TimingEventQueue implements EventQueue {
 		}
 	}
 
-	private static class TimingEventComparator implements Comparator<SimEvent> {
+	private static class TimingEventComparator implements Comparator<SimEvent>, Serializable {
+
+		private static final long serialVersionUID = 1L;
 
 		public int compare(SimEvent e1, SimEvent e2) {
 			double time1 = e1.eventTime();
@@ -0,0 +1,271 @@
+/**
+ * Copyright (C) 2016, Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package jmt.engine.simEngine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+
+import jmt.common.exception.NetException;
+import jmt.engine.NodeSections.Queue;
+import jmt.engine.NodeSections.Storage;
+import jmt.engine.QueueNet.ForkJob;
+import jmt.engine.QueueNet.Job;
+import jmt.engine.QueueNet.JobClass;
+import jmt.engine.QueueNet.JobInfo;
+import jmt.engine.QueueNet.NetNode;
+import jmt.engine.QueueNet.NodeSection;
+import jmt.engine.QueueNet.QueueNetwork;
+
+/**
+ * The jobs in a network at the end of a simulation, used to start another simulation of the
+ * same model, or of a model differing only in its parameters (e.g. the next step of a what-if
+ * analysis), from a state close to the steady state instead of the initial populations
+ * (see Simulation.setWarmStartState()). The new simulation skips most of the initial transient,
+ * which the analyzers would otherwise detect and discard.
+ * <br>
+ * For each station whose jobs can be preloaded (queues and places), the state records the classes
+ * of its jobs, including the ones in service, in order of arrival: they are preloaded in the same
+ * order, so their service starts again when the simulation starts. Jobs of closed classes found
+ * at other nodes (e.g. routers or transitions) are recorded at the reference station of their class,
+ * so that closed populations are preserved, while jobs of open classes at such nodes are dropped.
+ * The jobs of a closed class are preloaded only if the class has the same population and reference
+ * station in the new simulation (see getPreloadedClasses()).
+ * Classes and stations are identified by their names.
+ *
+ * @author Laboratorio di Valutazione delle Prestazioni - Politecnico di Milano
+ */
+public class WarmStartState implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	//the names of the classes, the jobs are indexes in this array
+	private String[] classNames;
+	//the reference stations of the closed classes, null for open classes
+	private String[] referenceStations;
+	//the jobs at each station, in order of arrival
+	private LinkedHashMap<String, int[]> jobs;
+
+	WarmStartState(String[] classNames, String[] referenceStations, LinkedHashMap<String, int[]> jobs) {
+		this.classNames = classNames;
+		this.referenceStations = referenceStations;
+		this.jobs = jobs;
+	}
+
+	/**
+	 * Captures the jobs in a network
+	 * @param network the network of a simulation which has been run
+	 * @return the state of the network
+	 * @throws NetException
+	 */
+	public static WarmStartState capture(QueueNetwork network) throws NetException {
+		JobClass[] classes = network.getJobClasses().toArray();
+		String[] classNames = new String[classes.length];
+		String[] referenceStations = new String[classes.length];
+		for (JobClass jobClass : classes) {
+			classNames[jobClass.getId()] = jobClass.getName();
+			if (jobClass.getType() == JobClass.CLOSED_CLASS) {
+				referenceStations[jobClass.getId()] = jobClass.getReferenceNodeName();
+			}
+		}
+
+		//first the stations that can be preloaded
+		LinkedHashMap<String, List<Integer>> stations = new LinkedHashMap<String, List<Integer>>();
+		ListIterator<NetNode> nodes = network.getNodes().listIterator();
+		while (nodes.hasNext()) {
+			NetNode node = nodes.next();
+			NodeSection input = node.getSection(NodeSection.INPUT);
+			if (input instanceof Queue || input instanceof Storage) {
+				stations.put(node.getName(), new ArrayList<Integer>());
+			}
+		}
+
+		//then the jobs at each node
+		nodes = network.getNodes().listIterator();
+		while (nodes.hasNext()) {
+			NetNode node = nodes.next();
+			List<Integer> station = stations.get(node.getName());
+			for (JobInfo jobInfo : node.getJobInfoList().getInternalJobInfoList()) {
+				Job job = jobInfo.getJob();
+				if (job instanceof ForkJob) {
+					//tasks of forked jobs are not preloaded
+					continue;
+				}
+				JobClass jobClass = job.getJobClass();
+				if (station != null) {
+					station.add(jobClass.getId());
+				} else if (jobClass.getType() == JobClass.CLOSED_CLASS && stations.containsKey(jobClass.getReferenceNodeName())) {
+					stations.get(jobClass.getReferenceNodeName()).add(jobClass.getId());
+				}
+			}
+		}
+
+		LinkedHashMap<String, int[]> jobs = new LinkedHashMap<String, int[]>();
+		for (Map.Entry<String, List<Integer>> station : stations.entrySet()) {
+			if (!station.getValue().isEmpty()) {
+				int[] stationJobs = new int[station.getValue().size()];
+				for (int i = 0; i < stationJobs.length; i++) {
+					stationJobs[i] = station.getValue().get(i);
+				}
+				jobs.put(station.getKey(), stationJobs);
+			}
+		}
+		return new WarmStartState(classNames, referenceStations, jobs);
+	}
+
+	/**
+	 * @return the names of the stations with jobs
+	 */
+	public String[] getStationNames() {
+		return jobs.keySet().toArray(new String[jobs.size()]);
+	}
+
+	/**
+	 * Gets the jobs at a station, in order of arrival. Jobs of classes which are not
+	 * in the given ones are skipped.
+	 * @param stationName the name of the station
+	 * @param classes the classes of the simulation to be started
+	 * @return the ids of the classes of the jobs, in the given classes
+	 */
+	public int[] getJobs(String stationName, JobClass[] classes) {
+		int[] stationJobs = jobs.get(stationName);
+		if (stationJobs == null) {
+			return new int[0];
+		}
+		int[] ids = getClassIds(classes);
+		int count = 0;
+		int[] result = new int[stationJobs.length];
+		for (int job : stationJobs) {
+			if (ids[job] >= 0) {
+				result[count++] = ids[job];
+			}
+		}
+		return count == result.length ? result : Arrays.copyOf(result, count);
+	}
+
+	/**
+	 * Gets the number of jobs of each closed class
+	 * @param classes the classes of the simulation to be started
+	 * @return the number of jobs of each of the given classes, 0 for open classes
+	 */
+	public int[] getClosedJobs(JobClass[] classes) {
+		int[] ids = getClassIds(classes);
+		int[] count = new int[classes.length];
+		for (int[] stationJobs : jobs.values()) {
+			for (int job : stationJobs) {
+				if (ids[job] >= 0 && classes[ids[job]].getType() == JobClass.CLOSED_CLASS) {
+					count[ids[job]]++;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Checks for each class whether its jobs in this state can be preloaded in a simulation with
+	 * the given closed populations. The jobs of a closed class can be preloaded only if the state
+	 * has as many of them as the population of the class and, when both define one, the class has
+	 * the same reference station: otherwise the state was reached with another population (e.g. a
+	 * different population mix in a what-if analysis) and the initial population must be preloaded.
+	 * The jobs of open classes can always be preloaded.
+	 * @param classes the classes of the simulation to be started
+	 * @param populations the initial population of each of the given classes
+	 * @return true for each of the given classes whose jobs in this state can be preloaded
+	 */
+	public boolean[] getPreloadedClasses(JobClass[] classes, int[] populations) {
+		int[] ids = getClassIds(classes);
+		int[] closedJobs = getClosedJobs(classes);
+		boolean[] preloaded = new boolean[classes.length];
+		for (int c = 0; c < classes.length; c++) {
+			preloaded[c] = classes[c].getType() != JobClass.CLOSED_CLASS || closedJobs[c] == populations[c];
+		}
+		for (int c = 0; c < classNames.length; c++) {
+			String referenceStation = referenceStations != null ? referenceStations[c] : null;
+			if (ids[c] >= 0 && referenceStation != null && classes[ids[c]].getReferenceNodeName() != null
+					&& !referenceStation.equals(classes[ids[c]].getReferenceNodeName())) {
+				preloaded[ids[c]] = false;
+			}
+		}
+		return preloaded;
+	}
+
+	/**
+	 * Maps the classes of this state to the given ones by name
+	 * @return the index of each class of this state in the given classes, -1 if missing
+	 */
+	private int[] getClassIds(JobClass[] classes) {
+		Map<String, Integer> byName = new HashMap<String, Integer>();
+		for (int c = 0; c < classes.length; c++) {
+			byName.put(classes[c].getName(), c);
+		}
+		int[] ids = new int[classNames.length];
+		for (int c = 0; c < classNames.length; c++) {
+			Integer id = byName.get(classNames[c]);
+			ids[c] = id != null ? id.intValue() : -1;
+		}
+		return ids;
+	}
+
+	/**
+	 * Writes this state to a file
+	 * @param file the file
+	 * @throws IOException
+	 */
+	public void write(File file) throws IOException {
+		ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try {
+			out.writeObject(this);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Reads a state from a file
+	 * @param file the file written by write()
+	 * @return the state
+	 * @throws IOException if the file cannot be read or it does not contain a state
+	 */
+	public static WarmStartState read(File file) throws IOException {
+		ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			return (WarmStartState) in.readObject();
+		} catch (ClassNotFoundException e) {
+			throw new IOException(file.getAbsolutePath() + " is not a warm start state", e);
+		} catch (ClassCastException e) {
+			throw new IOException(file.getAbsolutePath() + " is not a warm start state", e);
+		} finally {
+			in.close();
+		}
+	}
+
+}
@@ -154,6 +154,7 @@ public class Defaults implements CommonConstants {
 
 		int logicalCores = Runtime.getRuntime().availableProcessors(); // hyper-threading doubles this
 		def.setProperty("whatIfParallelism", String.valueOf(logicalCores));
+		def.setProperty("whatIfWarmStart", "false");
 		// GUI default parameters.
 		def.setProperty("JMTManualWidth", "1024");
 		def.setProperty("JMTManualHeight", "520");
@@ -30,6 +30,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import jmt.engine.simDispatcher.DispatcherJSIMschema;
+import jmt.engine.simEngine.WarmStartState;
 import jmt.framework.gui.graph.MeasureValue;
 import jmt.gui.common.definitions.AbortMeasure;
 import jmt.gui.common.definitions.CommonModel;
@@ -78,6 +79,11 @@ public class PADispatcherThread extends Thread implements AbortMeasure {
 
 	private StoredResultsModel[] simulation_results;
 
+	// if not null, each step is warm started from the state reached by a previous one
+	private WarmStartState[] final_states;
+	private CountDownLatch[] final_state_latches;
+	private int parallelism;
+
 	/**
 	 * Construct a new Parametric Analysis Dispatcher Thread
 	 * @param gui reference to current gui object (can be JSIMMain or Mediator)
@@ -167,13 +173,20 @@ public class PADispatcherThread extends Thread implements AbortMeasure {
 		ParametricAnalysisDefinition pad = simd.getParametricAnalysisModel();
 		pad.createValuesSet();
 		int steps = pad.getNumberOfSteps();
-		int parallelism = simd.getWhatIfParallelism();
+		parallelism = simd.getWhatIfParallelism();
 
 		results_latch = new CountDownLatch(steps);
 		set_results_latch = new CountDownLatch(1);
 		parametricAnalysisResultsModel = new PAResultsModel((CommonModel) simd);
 		exec = Executors.newFixedThreadPool(parallelism);
 		simulation_results = new StoredResultsModel[steps];
+		if (simd.getWhatIfWarmStart().booleanValue()) {
+			final_states = new WarmStartState[steps];
+			final_state_latches = new CountDownLatch[steps];
+			for (int i = 0; i < steps; i++) {
+				final_state_latches[i] = new CountDownLatch(1);
+			}
+		}
 
 		for (currentStep = 0; currentStep < steps; currentStep++) {
 			pad.changeModel(currentStep);
@@ -187,6 +200,7 @@ public class PADispatcherThread extends Thread implements AbortMeasure {
 
 			DispatcherJSIMschema simulator = new DispatcherJSIMschema(simulationFile);
 			simulator.setParametricStep(currentStep);
+			simulator.setCaptureFinalState(final_states != null);
 			SimSolver ss = new SimSolver(simulator, currentStep, results_latch);
 			if (simd.getMaximumDuration().doubleValue() > 0) {
 				ss.setTimer(new TimerThread(simulator, simd.getMaximumDuration().doubleValue()));
@@ -257,6 +271,24 @@ public class PADispatcherThread extends Thread implements AbortMeasure {
 		@Override
 		public void run() {
 			try {
+				solve();
+			} finally {
+				if (final_states != null) {
+					final_states[step] = simulator.getFinalState();
+					final_state_latches[step].countDown();
+				}
+			}
+		}
+
+		private void solve() {
+			try {
+				if (final_states != null && step >= parallelism) {
+					// Starts from the state reached by the step that was submitted to the pool
+					// parallelism steps before, so that the results do not depend on the
+					// scheduling of the threads
+					final_state_latches[step - parallelism].await();
+					simulator.setWarmStartState(final_states[step - parallelism]);
+				}
 				PASimulation PASim = new PASimulation(simulator);
 				if (timer != null) {
 					PASim.setTimer(timer);
@@ -5505,4 +5505,9 @@ public class CommonModel implements CommonConstants, ClassDefinition, StationDef
 		return Defaults.getAsInteger("whatIfParallelism");
 	}
 
+	@Override
+	public Boolean getWhatIfWarmStart() {
+		return Defaults.getAsBoolean("whatIfWarmStart");
+	}
+
 }
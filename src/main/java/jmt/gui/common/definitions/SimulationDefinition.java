@@ -439,6 +439,12 @@ public interface SimulationDefinition {
 	 */
 	public Integer getWhatIfParallelism();
 
+	/**
+	 * Tells if each step of a what if analysis starts from the state reached by a previous step.
+	 * @return true if the steps of a what if analysis are warm started.
+	 */
+	public Boolean getWhatIfWarmStart();
+
 	// --- Methods to manage simulation results -- Bertoli Marco --------------------------------------------
 	/**
 	 * Returns last simulation results
@@ -446,6 +446,10 @@ public class DefaultsEditor extends JDialog implements CommonConstants {
 		simpanelnum++;		
 		addInputSpinner("What-if Analysis parallel threads", "whatIfParallelism", sim_panel, 1);
 
+		//What if warm start
+		simpanelnum++;
+		addBooleanComboBox("What-if Analysis warm start", "whatIfWarmStart", sim_panel);
+
 		SpringUtilities.makeCompactGrid(sim_panel, simpanelnum, 2, //rows, cols
 				6, 6, //initX, initY
 				6, 6);//xPad, yPad
@@ -688,14 +688,14 @@ public class DispatcherJMVAschema {
 
 					for (int m = 0; m < measures.size(); m++) {
 						tempMeasures[m] = new TempMeasure((Measure) measures.get(m));
-						tempMeasures[m].refreshMeasure();
+						tempMeasures[m].refreshPausedMeasure();
 					}
 				}
 			} else {
 				//temp measures have already been retrieved
 				//only refresh temp values
 				for (TempMeasure tempMeasure : tempMeasures) {
-					tempMeasure.refreshMeasure();
+					tempMeasure.refreshPausedMeasure();
 				}
 			}
 
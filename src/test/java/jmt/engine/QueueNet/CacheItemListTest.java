@@ -0,0 +1,239 @@
+package jmt.engine.QueueNet;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+
+import jmt.engine.NetStrategies.CacheStrategy;
+import jmt.engine.NetStrategies.CacheStrategies.LFUCache;
+import jmt.engine.NetStrategies.CacheStrategies.LRUCache;
+import jmt.engine.NetStrategies.CacheStrategies.MRUCache;
+import jmt.engine.NetStrategies.CacheStrategies.TTLCache;
+
+import org.junit.Test;
+
+public class CacheItemListTest {
+
+    private static final int LRU = 0;
+    private static final int MRU = 1;
+    private static final int LFU = 2;
+
+    private double time;
+
+    private final NetSystem netSystem = new NetSystem() {
+        @Override
+        public double getTime() {
+            return time;
+        }
+    };
+
+    /**
+     * Linear scans of the cache strategies before cache lists were indexed.
+     */
+    private static CacheItem scan(LinkedList<CacheItem> caches, int policy) {
+        int index = -1;
+        double best = policy == MRU ? Double.MIN_VALUE : Double.MAX_VALUE;
+        for (int i = 0; i < caches.size(); i++) {
+            CacheItem item = caches.get(i);
+            double value = policy == LFU ? item.getNumberOfAccess() : item.getLastAccessTime();
+            if (policy == MRU ? value > best : value < best) {
+                best = value;
+                index = i;
+            }
+        }
+        return caches.get(index);
+    }
+
+    private void scanExpired(LinkedList<CacheItem> caches) {
+        for (int i = 0; i < caches.size(); i++) {
+            CacheItem item = caches.get(i);
+            if (item.getLastAccessTime() + item.getTTL() < time) {
+                caches.remove(item);
+            }
+        }
+    }
+
+    /**
+     * Applies the same random sequence of accesses, insertions and removals to a CacheItemList and
+     * to a LinkedList, checking that the strategies select the same items of a linear scan.
+     */
+    private void checkSameItems(CacheStrategy strategy, int policy, boolean expiring) {
+        Random random = new Random(policy);
+        strategy.setNetSystem(netSystem);
+        time = 1.0;
+        CacheItem[] items = new CacheItem[60];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new CacheItem(i + 1);
+            items[i].setTTL(5.0);
+            items[i].access(time);
+        }
+        LinkedList<CacheItem> expected = new LinkedList<CacheItem>();
+        CacheItemList actual = new CacheItemList(strategy, expiring);
+
+        for (int i = 0; i < 50000; i++) {
+            // coarse clock increments produce many ties
+            time += random.nextInt(3) * 0.5;
+            CacheItem item = items[random.nextInt(items.length)];
+            int op = random.nextInt(12);
+            if (op < 3) {
+                item.access(time);
+                actual.update(item);
+            } else if (op < 5) {
+                if (!expected.contains(item)) {
+                    if (item.getNumberOfAccess() == 0) {
+                        item.access(time);
+                    }
+                    expected.add(item);
+                    actual.add(item);
+                }
+            } else if (op < 6) {
+                assertEquals(expected.remove(item), actual.remove(item));
+            } else if (op < 7 && !expected.isEmpty()) {
+                CacheItem replaced = expected.get(random.nextInt(expected.size()));
+                if (!expected.contains(item)) {
+                    if (item.getNumberOfAccess() == 0) {
+                        item.access(time);
+                    }
+                    expected.set(expected.indexOf(replaced), item);
+                    assertTrue(actual.replace(replaced, item));
+                }
+            } else if (op < 9 && !expected.isEmpty()) {
+                CacheItem removed = scan(expected, policy);
+                assertSame(removed, strategy.getRemoveItem(actual));
+                expected.remove(removed);
+                actual.remove(removed);
+            } else if (op == 10) {
+                // insertion in the middle of the list
+                if (!expected.contains(item)) {
+                    if (item.getNumberOfAccess() == 0) {
+                        item.access(time);
+                    }
+                    int index = random.nextInt(expected.size() + 1);
+                    expected.add(index, item);
+                    actual.add(index, item);
+                }
+            } else if (op == 11 && !expected.isEmpty()) {
+                if (!expected.contains(item)) {
+                    if (item.getNumberOfAccess() == 0) {
+                        item.access(time);
+                    }
+                    int index = random.nextInt(expected.size());
+                    assertSame(expected.set(index, item), actual.set(index, item));
+                }
+            } else if (expiring && op == 9) {
+                // the reference scan does not clear items, so it runs first on the same state
+                scanExpired(expected);
+                ((TTLCache) strategy).cleanExpiredItem(actual);
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void lruSameItemsAsScan() {
+        checkSameItems(new LRUCache(), LRU, false);
+    }
+
+    @Test
+    public void mruSameItemsAsScan() {
+        checkSameItems(new MRUCache(), MRU, false);
+    }
+
+    @Test
+    public void lfuSameItemsAsScan() {
+        checkSameItems(new LFUCache(), LFU, false);
+    }
+
+    @Test
+    public void ttlSameItemsAsScan() {
+        checkSameItems(new TTLCache(5.0, new LFUCache()), LFU, true);
+    }
+
+    /**
+     * Items inserted in the middle of a list are ranked by their position, also after
+     * the positions of the nodes are renumbered.
+     */
+    @Test
+    public void insertsLikeLinkedList() {
+        LRUCache strategy = new LRUCache();
+        strategy.setNetSystem(netSystem);
+        LinkedList<CacheItem> expected = new LinkedList<CacheItem>();
+        CacheItemList actual = new CacheItemList(strategy, false);
+        List<CacheItem> items = new ArrayList<CacheItem>();
+        for (int i = 0; i < 100; i++) {
+            CacheItem item = new CacheItem(i + 1);
+            item.access(1.0);
+            items.add(item);
+        }
+        // all the items have the same access time, so the first one of the list is evicted
+        expected.addAll(items.subList(0, 2));
+        actual.addAll(items.subList(0, 2));
+        for (int i = 2; i < 60; i++) {
+            expected.add(1, items.get(i));
+            actual.add(1, items.get(i));
+        }
+        expected.addAll(30, items.subList(60, 100));
+        actual.addAll(30, items.subList(60, 100));
+        assertEquals(expected, actual);
+
+        CacheItem replacement = new CacheItem(101);
+        replacement.access(1.0);
+        ListIterator<CacheItem> iterator = actual.listIterator(10);
+        iterator.next();
+        iterator.set(replacement);
+        expected.set(10, replacement);
+        assertEquals(expected, actual);
+        assertEquals(10, iterator.previousIndex());
+        assertTrue(actual.contains(replacement));
+
+        while (!expected.isEmpty()) {
+            CacheItem removed = strategy.getRemoveItem(actual);
+            assertSame(expected.removeFirst(), removed);
+            assertTrue(actual.remove(removed));
+        }
+        assertTrue(actual.isEmpty());
+    }
+
+    /**
+     * A deserialized list must keep the order of the items and its indexes.
+     */
+    @Test
+    public void serializesLists() throws Exception {
+        Random random = new Random(4);
+        CacheItemList list = new CacheItemList(new TTLCache(5.0, new LRUCache()), true);
+        for (int i = 0; i < 100000; i++) {
+            CacheItem item = new CacheItem(i + 1);
+            item.setTTL(5.0);
+            item.access(random.nextInt(1000));
+            list.add(item);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(list);
+        out.close();
+        CacheItemList copy = (CacheItemList) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+        assertEquals(list.size(), copy.size());
+        assertEquals(list.getFirst().getId(), copy.getFirst().getId());
+        assertEquals(list.getLast().getId(), copy.getLast().getId());
+        assertEquals(list.getExpired(500.0).size(), copy.getExpired(500.0).size());
+        while (!list.isEmpty()) {
+            CacheItem item = list.getFirstByKey();
+            CacheItem copied = copy.getFirstByKey();
+            assertEquals(item.getId(), copied.getId());
+            assertTrue(list.remove(item));
+            assertTrue(copy.remove(copied));
+        }
+        assertTrue(copy.isEmpty());
+    }
+
+}
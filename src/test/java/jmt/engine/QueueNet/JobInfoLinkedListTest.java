@@ -0,0 +1,138 @@
+package jmt.engine.QueueNet;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class JobInfoLinkedListTest {
+
+    private static JobInfo[] createJobInfos(int count) {
+        NetSystem netSystem = new NetSystem();
+        JobClass jobClass = new JobClass("Class0");
+        JobInfo[] jobInfos = new JobInfo[count];
+        for (int i = 0; i < count; i++) {
+            Job job = new Job(jobClass, null);
+            job.initialize(netSystem);
+            jobInfos[i] = new JobInfo(job);
+        }
+        return jobInfos;
+    }
+
+    /**
+     * Applies the same random sequence of operations to a JobInfoLinkedList and to a LinkedList.
+     * JobInfo objects are shared with a second list and may be added twice, so that handles
+     * are often stale or overwritten.
+     */
+    @Test
+    public void sameContentAsLinkedList() {
+        Random random = new Random(1);
+        JobInfo[] jobInfos = createJobInfos(50);
+        List<JobInfo> expected = new LinkedList<JobInfo>();
+        JobInfoLinkedList actual = new JobInfoLinkedList(false);
+        JobInfoLinkedList other = new JobInfoLinkedList(false);
+
+        for (int i = 0; i < 100000; i++) {
+            JobInfo jobInfo = jobInfos[random.nextInt(jobInfos.length)];
+            int op = random.nextInt(10);
+            if (op < 3) {
+                int index = random.nextInt(expected.size() + 1);
+                expected.add(index, jobInfo);
+                actual.add(index, jobInfo);
+            } else if (op < 6) {
+                assertEquals(expected.remove(jobInfo), actual.remove(jobInfo));
+            } else if (op < 7 && !expected.isEmpty()) {
+                assertSame(((LinkedList<JobInfo>) expected).removeFirst(), actual.removeFirst());
+            } else if (op < 8) {
+                // iterator removal of one element out of three
+                ListIterator<JobInfo> it1 = expected.listIterator();
+                ListIterator<JobInfo> it2 = actual.listIterator();
+                int k = 0;
+                while (it1.hasNext()) {
+                    assertSame(it1.next(), it2.next());
+                    if (k++ % 3 == 0 && random.nextBoolean()) {
+                        it1.remove();
+                        it2.remove();
+                    }
+                }
+                assertFalse(it2.hasNext());
+            } else if (op < 9) {
+                if (!other.remove(jobInfo)) {
+                    other.add(jobInfo);
+                }
+            } else {
+                assertEquals(expected.contains(jobInfo), actual.contains(jobInfo));
+            }
+            assertEquals(expected.size(), actual.size());
+            if (!expected.isEmpty()) {
+                assertSame(expected.get(expected.size() / 2), actual.get(actual.size() / 2));
+            }
+        }
+
+        Iterator<JobInfo> it = actual.iterator();
+        for (JobInfo jobInfo : expected) {
+            assertSame(jobInfo, it.next());
+        }
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    public void addBefore() {
+        JobInfo[] jobInfos = createJobInfos(3);
+        JobInfoLinkedList list = new JobInfoLinkedList(true);
+        list.add(jobInfos[0]);
+        list.addBefore(jobInfos[1], jobInfos[0]);
+        list.addBefore(jobInfos[2], null);
+        assertSame(jobInfos[1], list.getFirst());
+        assertSame(jobInfos[0], list.get(1));
+        assertSame(jobInfos[2], list.getLast());
+    }
+
+    /**
+     * A long list must not be serialized recursively node by node, which overflows the stack.
+     * Handles must still point to the nodes of the deserialized lists.
+     */
+    @Test
+    public void serializesLongLists() throws Exception {
+        JobInfo[] jobInfos = createJobInfos(200000);
+        JobInfoLinkedList all = new JobInfoLinkedList(false);
+        JobInfoLinkedList perClass = new JobInfoLinkedList(true);
+        for (JobInfo jobInfo : jobInfos) {
+            all.add(jobInfo);
+            perClass.addFirst(jobInfo);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(new JobInfoLinkedList[] { all, perClass });
+        out.close();
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        JobInfoLinkedList[] lists = (JobInfoLinkedList[]) in.readObject();
+
+        assertEquals(jobInfos.length, lists[0].size());
+        assertEquals(jobInfos.length, lists[1].size());
+        ListIterator<JobInfo> reversed = lists[1].listIterator(lists[1].size());
+        Iterator<JobInfo> it = lists[0].iterator();
+        for (int i = 0; i < jobInfos.length; i++) {
+            JobInfo jobInfo = it.next();
+            assertEquals(jobInfos[i].getJob().getId(), jobInfo.getJob().getId());
+            assertSame(jobInfo, reversed.previous());
+        }
+        JobInfo middle = lists[0].get(jobInfos.length / 2);
+        assertTrue(lists[0].remove(middle));
+        assertTrue(lists[1].remove(middle));
+        assertFalse(lists[0].contains(middle));
+        assertFalse(lists[1].contains(middle));
+        assertEquals(jobInfos.length - 1, lists[0].size());
+    }
+
+}
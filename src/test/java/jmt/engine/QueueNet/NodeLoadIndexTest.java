@@ -0,0 +1,103 @@
+package jmt.engine.QueueNet;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import jmt.engine.random.engine.MersenneTwister;
+import jmt.engine.random.engine.RandomEngine;
+
+import org.junit.Test;
+
+public class NodeLoadIndexTest {
+
+    /**
+     * Chooses a least loaded node with the linear scan of the routing strategies.
+     */
+    private static int scan(int[] groups, double[] loads, int groupCount, double epsilon, RandomEngine randomEngine) {
+        int[] candidates = new int[loads.length];
+        int length = 0;
+        int leastGroup = groupCount - 1;
+        double leastLoad = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < loads.length; i++) {
+            if (groups[i] < leastGroup) {
+                leastGroup = groups[i];
+                leastLoad = loads[i];
+                candidates[0] = i;
+                length = 1;
+            } else if (groups[i] == leastGroup) {
+                if (loads[i] == leastLoad || Math.abs(loads[i] - leastLoad) < epsilon) {
+                    candidates[length++] = i;
+                } else if (loads[i] < leastLoad) {
+                    leastLoad = loads[i];
+                    candidates[0] = i;
+                    length = 1;
+                }
+            }
+        }
+        if (length > 1) {
+            return candidates[(int) Math.floor(randomEngine.raw() * length)];
+        }
+        return candidates[0];
+    }
+
+    private static void checkSameChoicesAsScan(int size, int groupCount, double epsilon) {
+        Random random = new Random(size);
+        NodeLoadIndex index = new NodeLoadIndex(size, epsilon, groupCount);
+        int[] groups = new int[size];
+        double[] loads = new double[size];
+        RandomEngine expectedEngine = new MersenneTwister(1);
+        RandomEngine actualEngine = new MersenneTwister(1);
+
+        for (int i = 0; i < 20000; i++) {
+            int position = random.nextInt(size);
+            groups[position] = random.nextInt(groupCount);
+            switch (random.nextInt(4)) {
+            case 0:
+                // near ties
+                loads[position] = random.nextInt(3) + random.nextInt(3) * 1e-15;
+                break;
+            case 1:
+                loads[position] = Double.POSITIVE_INFINITY;
+                break;
+            default:
+                loads[position] = random.nextInt(5);
+            }
+            index.setLoad(position, groups[position], loads[position]);
+            assertEquals(loads[position], index.getLoad(position), 0.0);
+            assertEquals(scan(groups, loads, groupCount, epsilon, expectedEngine), index.selectMin(actualEngine));
+        }
+    }
+
+    @Test
+    public void sameChoicesAsScan() {
+        checkSameChoicesAsScan(1, 1, 0.0);
+        checkSameChoicesAsScan(7, 1, 0.0);
+        checkSameChoicesAsScan(7, 1, 1e-14);
+        checkSameChoicesAsScan(64, 2, 1e-14);
+        checkSameChoicesAsScan(100, 2, 1e-14);
+    }
+
+    @Test
+    public void minInPositionOrder() {
+        NodeLoadIndex index = new NodeLoadIndex(5, 0.0, 1);
+        index.setLoad(0, 0, 2.0);
+        index.setLoad(1, 0, 1.0);
+        index.setLoad(2, 0, 3.0);
+        index.setLoad(3, 0, 1.0);
+        index.setLoad(4, 0, 1.0);
+
+        assertEquals(1.0, index.getMinLoad(), 0.0);
+        assertEquals(3, index.getMinCount());
+        assertEquals(1, index.getMin(0));
+        assertEquals(3, index.getMin(1));
+        assertEquals(4, index.getMin(2));
+
+        index.setLoad(3, 0, -0.0);
+        index.setLoad(1, 0, 0.0);
+        assertEquals(2, index.getMinCount());
+        assertEquals(1, index.getMin(0));
+        assertEquals(3, index.getMin(1));
+    }
+
+}
@@ -0,0 +1,114 @@
+package jmt.engine.QueueNet;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PSVirtualTimeQueueTest {
+
+    private static JobClass[] createClasses(int count) {
+        JobClass[] classes = new JobClass[count];
+        for (int c = 0; c < count; c++) {
+            classes[c] = new JobClass("Class" + c, 0, JobClass.OPEN_CLASS, null);
+            classes[c].setId(c);
+        }
+        return classes;
+    }
+
+    private static PSJobInfo createJob(NetSystem netSystem, JobClass jobClass, double serviceTime) {
+        Job job = new Job(jobClass, null);
+        job.initialize(netSystem);
+        PSJobInfo jobInfo = new PSJobInfo(job);
+        jobInfo.setServiceTime(serviceTime);
+        jobInfo.setResidualServiceTime(serviceTime);
+        return jobInfo;
+    }
+
+    /**
+     * Serves jobs with class rates changing at each event and checks that the queue finds the same
+     * completions as the residual service times updated for all jobs, as done by the PS server.
+     */
+    @Test
+    public void sameCompletionsAsLinearUpdate() {
+        Random random = new Random(1);
+        NetSystem netSystem = new NetSystem();
+        JobClass[] classes = createClasses(3);
+        PSVirtualTimeQueue queue = new PSVirtualTimeQueue(classes.length);
+        List<PSJobInfo> jobs = new ArrayList<PSJobInfo>();
+        double[] rates = new double[classes.length];
+
+        for (int i = 0; i < 20000; i++) {
+            for (int c = 0; c < classes.length; c++) {
+                rates[c] = 0.1 + random.nextDouble();
+            }
+            PSJobInfo next = queue.getNext(rates);
+            if (jobs.isEmpty()) {
+                assertNull(next);
+            } else {
+                PSJobInfo expected = null;
+                double minWaitTime = Double.MAX_VALUE;
+                for (PSJobInfo jobInfo : jobs) {
+                    double waitTime = jobInfo.getResidualServiceTime() / rates[jobInfo.getJob().getJobClass().getId()];
+                    if (waitTime < minWaitTime) {
+                        expected = jobInfo;
+                        minWaitTime = waitTime;
+                    }
+                }
+                assertSame(expected, next);
+                assertEquals(minWaitTime, queue.getWaitTime(next, rates), 1e-9);
+            }
+
+            double elapsedTime;
+            if (next != null && random.nextInt(2) == 0) {
+                // the next job completes
+                elapsedTime = queue.getWaitTime(next, rates);
+            } else {
+                elapsedTime = next == null ? random.nextDouble() : random.nextDouble() * queue.getWaitTime(next, rates);
+            }
+            queue.advance(elapsedTime, rates);
+            for (PSJobInfo jobInfo : jobs) {
+                jobInfo.performServiceTime(elapsedTime * rates[jobInfo.getJob().getJobClass().getId()]);
+                assertEquals(jobInfo.getResidualServiceTime(), queue.getResidualServiceTime(jobInfo), 1e-9);
+            }
+            if (next != null && queue.getResidualServiceTime(next) < 1e-12) {
+                jobs.remove(next);
+                queue.remove(next);
+            }
+            if (jobs.size() < 50 && random.nextInt(3) > 0) {
+                PSJobInfo jobInfo = createJob(netSystem, classes[random.nextInt(classes.length)], random.nextDouble() * 5);
+                jobs.add(jobInfo);
+                queue.add(jobInfo, jobInfo.getServiceTime());
+            }
+            assertEquals(jobs.size(), queue.size());
+        }
+    }
+
+    @Test
+    public void simultaneousCompletionsInArrivalOrder() {
+        NetSystem netSystem = new NetSystem();
+        JobClass[] classes = createClasses(2);
+        PSVirtualTimeQueue queue = new PSVirtualTimeQueue(classes.length);
+        double[] rates = { 0.5, 0.5 };
+        PSJobInfo first = createJob(netSystem, classes[1], 2.0);
+        PSJobInfo second = createJob(netSystem, classes[0], 2.0);
+        PSJobInfo third = createJob(netSystem, classes[1], 2.0);
+        queue.add(first, 2.0);
+        queue.add(second, 2.0);
+        queue.add(third, 2.0);
+
+        assertSame(first, queue.getNext(rates));
+        assertEquals(4.0, queue.getWaitTime(first, rates), 0.0);
+        queue.advance(4.0, rates);
+        queue.remove(first);
+        assertSame(second, queue.getNext(rates));
+        queue.remove(second);
+        assertSame(third, queue.getNext(rates));
+        queue.remove(third);
+        assertNull(queue.getNext(rates));
+    }
+
+}
@@ -0,0 +1,39 @@
+package jmt.engine.QueueNet;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+
+public class PairTest {
+
+    @Test
+    public void hashCodeMatchesCommonsMath() {
+        Pair<String, Integer> pair = new Pair<String, Integer>("node", 7);
+        // same hash code as org.apache.commons.math3.util.Pair, so that the visit order
+        // of hash sets keyed by pairs does not change
+        int h = Integer.valueOf(7).hashCode();
+        assertEquals(37 * "node".hashCode() + h ^ (h >>> 16), pair.hashCode());
+        assertEquals(new Pair<String, Integer>("node", 7), pair);
+        assertFalse(pair.equals(new Pair<String, Integer>("node", 8)));
+        assertEquals(new Pair<String, Integer>(null, null), new Pair<String, Integer>(null, null));
+    }
+
+    @Test
+    public void survivesSerialization() throws Exception {
+        Pair<String, Integer> pair = new Pair<String, Integer>("node", 7);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(pair);
+        out.close();
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        Object copy = in.readObject();
+        assertEquals(pair, copy);
+        assertEquals(pair.hashCode(), copy.hashCode());
+    }
+
+}
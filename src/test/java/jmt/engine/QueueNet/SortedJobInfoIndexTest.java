@@ -0,0 +1,71 @@
+package jmt.engine.QueueNet;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+
+import jmt.engine.NetStrategies.QueuePutStrategies.JobInfoOrders;
+
+import org.junit.Test;
+
+public class SortedJobInfoIndexTest {
+
+    /**
+     * Inserts jobs with addInOrder and checks that the queue always has the same content
+     * as a list where jobs are inserted with a linear scan, as done by the put strategies.
+     */
+    @Test
+    public void sameOrderAsLinearScan() {
+        Random random = new Random(1);
+        NetSystem netSystem = new NetSystem();
+        JobClassList jobClasses = new JobClassList();
+        JobClass[] classes = { new JobClass("Class0", 0, JobClass.OPEN_CLASS, null),
+                new JobClass("Class1", 2, JobClass.OPEN_CLASS, null) };
+        for (int c = 0; c < classes.length; c++) {
+            classes[c].setId(c);
+            jobClasses.add(classes[c]);
+        }
+        Comparator<JobInfo> order = JobInfoOrders.PRIORITY_SHORTEST_SERVICE_TIME;
+        LinkedJobInfoList actual = new LinkedJobInfoList(jobClasses);
+        actual.setNetSystem(netSystem);
+        actual.setOrder(order);
+        List<JobInfo> expected = new ArrayList<JobInfo>();
+
+        for (int i = 0; i < 20000; i++) {
+            int op = random.nextInt(10);
+            if (op < 5 || expected.isEmpty()) {
+                Job job = new Job(classes[random.nextInt(classes.length)], null);
+                job.initialize(netSystem);
+                // coarse service times produce many ties
+                job.setServiceTime(random.nextInt(10));
+                JobInfo jobInfo = new JobInfo(job);
+                assertTrue(actual.addInOrder(jobInfo, order));
+                int index = 0;
+                while (index < expected.size() && order.compare(expected.get(index), jobInfo) <= 0) {
+                    index++;
+                }
+                expected.add(index, jobInfo);
+            } else if (op < 7) {
+                assertSame(expected.remove(0), actual.removeFirst());
+            } else if (op < 8) {
+                JobClass jobClass = expected.get(random.nextInt(expected.size())).getJob().getJobClass();
+                JobInfo removed = actual.removeFirst(jobClass);
+                for (ListIterator<JobInfo> it = expected.listIterator(); it.hasNext();) {
+                    if (it.next().getJob().getJobClass() == jobClass) {
+                        assertSame(it.previous(), removed);
+                        it.remove();
+                        break;
+                    }
+                }
+            } else {
+                actual.remove(expected.remove(random.nextInt(expected.size())));
+            }
+            assertEquals(expected, actual.getInternalJobInfoList());
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package jmt.engine.dataAnalysis;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class NewDynamicDataAnalyzerTest {
+
+    /**
+     * Adds exponential samples with mean 1, after the given number of samples equal to
+     * the given initial value, until the analysis ends
+     */
+    private static void addSamples(DynamicDataAnalyzer analyzer, int biased, double initial) {
+        Random random = new Random(7);
+        for (int i = 0; i < 1000000 && !analyzer.addSample(i < biased ? initial : -Math.log(1 - random.nextDouble()), 1.0); i++) {
+            // adds samples until the analysis ends
+        }
+    }
+
+    @Test
+    public void warmStartSkipsTransientDetection() {
+        DynamicDataAnalyzer analyzer = new NewDynamicDataAnalyzer(0.01, 0.03, 1000000);
+        analyzer.skipTransientDetection();
+        addSamples(analyzer, 0, 0.0);
+
+        assertTrue(analyzer.getSuccess());
+        assertEquals(1.0, analyzer.getMean(), 0.03);
+        // no transient to be deleted
+        assertTrue(analyzer.getDiscarded() < 500);
+    }
+
+    @Test
+    public void warmStartStillDeletesBiasedSamples() {
+        DynamicDataAnalyzer analyzer = new NewDynamicDataAnalyzer(0.01, 0.03, 1000000);
+        analyzer.skipTransientDetection();
+        addSamples(analyzer, 100, 50.0);
+
+        assertTrue(analyzer.getSuccess());
+        assertTrue(analyzer.getDiscarded() >= 100);
+        assertEquals(1.0, analyzer.getMean(), 0.03);
+    }
+
+    @Test
+    public void skipIsIgnoredAfterFirstSample() {
+        DynamicDataAnalyzer cold = new NewDynamicDataAnalyzer(0.01, 0.03, 1000000);
+        DynamicDataAnalyzer late = new NewDynamicDataAnalyzer(0.01, 0.03, 1000000);
+        cold.addSample(1.0, 1.0);
+        late.addSample(1.0, 1.0);
+        late.skipTransientDetection();
+        addSamples(cold, 0, 0.0);
+        addSamples(late, 0, 0.0);
+
+        assertEquals(cold.getSamples(), late.getSamples());
+        assertEquals(cold.getMean(), late.getMean(), 0.0);
+    }
+
+}
@@ -0,0 +1,99 @@
+package jmt.engine.dataAnalysis;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Random;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import jmt.engine.simEngine.EngineUtils;
+import jmt.engine.simEngine.Simulation;
+import jmt.engine.simEngine.StreamingSimLoader;
+
+import org.junit.Test;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+public class QuantileResultsTest {
+
+    @Test
+    public void storedQuantilesConfidenceInterval() {
+        QuantileDataAnalyzer analyzer = new QuantileDataAnalyzer(0.01, 0.03, 1000000, new double[] { 0.5, 0.9 });
+        Random random = new Random(5);
+        for (int i = 0; i < 100000; i++) {
+            analyzer.addSample(random.nextDouble(), 1.0);
+        }
+        double[] quantiles = analyzer.getQuantiles();
+        double[][] intervals = analyzer.getQuantileConfInts();
+        for (int i = 0; i < quantiles.length; i++) {
+            assertTrue(intervals[i][0] < quantiles[i] && quantiles[i] < intervals[i][1]);
+        }
+        // About 2.58 * sqrt(n * p * (1 - p)) ranks on each side of the median
+        assertEquals(0.008, intervals[0][1] - intervals[0][0], 0.002);
+    }
+
+    @Test
+    public void writesQuantilesInResults() throws Exception {
+        checkQuantilesInResults(false);
+    }
+
+    @Test
+    public void writesStreamingQuantilesInResults() throws Exception {
+        checkQuantilesInResults(true);
+    }
+
+    /**
+     * Runs the fcfs test model with a quantile measure of the system response time and checks its results
+     */
+    private void checkQuantilesInResults(boolean streaming) throws Exception {
+        File directory = Files.createTempDirectory("jsimquantiles").toFile();
+        try {
+            File model = new File(getClass().getResource("/jmt/engine/fcfs-01-input.xml").toURI());
+            Simulation sim = new StreamingSimLoader(model, new File(directory, "model.jsim").getAbsolutePath()).getSim();
+            if (streaming) {
+                sim.getSimParameters().setQuantileSketchThreshold(0);
+            }
+            Measure measure = new Measure("Response Time Quantiles", 0.01, 0.03, sim.getSimParameters().getMaxSamples(), false,
+                    new double[] { 0.5, 0.9 });
+            sim.addMeasure(EngineUtils.decodeMeasureType("System Response Time"), "", measure, "", "");
+            sim.setRandomEngineSeed(1);
+            sim.initialize();
+            sim.run();
+
+            NodeList measures = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(sim.getOutputFile())
+                    .getDocumentElement().getElementsByTagName("measure");
+            int withQuantiles = 0;
+            for (int i = 0; i < measures.getLength(); i++) {
+                Element element = (Element) measures.item(i);
+                if (!element.hasAttribute("quantileValues")) {
+                    continue;
+                }
+                withQuantiles++;
+                assertEquals("0.5 0.9", element.getAttribute("quantileProbabilities"));
+                String[] values = element.getAttribute("quantileValues").split(" ");
+                String[] lowerLimits = element.getAttribute("quantileLowerLimits").split(" ");
+                String[] upperLimits = element.getAttribute("quantileUpperLimits").split(" ");
+                assertEquals(2, values.length);
+                for (int j = 0; j < values.length; j++) {
+                    double value = Double.parseDouble(values[j]);
+                    assertTrue(Double.parseDouble(lowerLimits[j]) <= value && value <= Double.parseDouble(upperLimits[j]));
+                }
+                assertTrue(Double.parseDouble(values[0]) < Double.parseDouble(values[1]));
+                assertEquals(streaming, element.hasAttribute("quantileAccuracy"));
+            }
+            assertEquals(1, withQuantiles);
+            assertEquals(streaming, measure.getAnalyzer() instanceof StreamingQuantileDataAnalyzer);
+        } finally {
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            directory.delete();
+        }
+    }
+
+}
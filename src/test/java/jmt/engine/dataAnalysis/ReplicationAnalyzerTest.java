@@ -0,0 +1,70 @@
+package jmt.engine.dataAnalysis;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jmt.engine.math.TStudent;
+
+import org.junit.Test;
+
+public class ReplicationAnalyzerTest {
+
+    private static List<MeasureSnapshot[]> results(double... means) {
+        List<MeasureSnapshot[]> results = new ArrayList<MeasureSnapshot[]>();
+        for (double mean : means) {
+            MeasureSnapshot snapshot = new MeasureSnapshot(100, 10, mean, 0.0, 0.0, mean, 1.0, true, true, false);
+            results.add(new MeasureSnapshot[] { snapshot });
+        }
+        return results;
+    }
+
+    @Test
+    public void computesTStudentInterval() {
+        ReplicationAnalyzer analyzer = new ReplicationAnalyzer(0.05, 0.1);
+        analyzer.analyze(results(1.0, 2.0, 3.0, 4.0, 100.0), 4, 0);
+
+        assertEquals(4, analyzer.getReplications());
+        assertEquals(2.5, analyzer.getMean(), 1e-12);
+        // sample variance of 1, 2, 3, 4 is 5/3
+        double confInt = TStudent.ICDF(0.05, 3) * Math.sqrt(5.0 / 3.0 / 4.0);
+        assertEquals(confInt, analyzer.getConfInt(), 1e-12);
+        assertEquals(2.5 - confInt, analyzer.getLowerLimit(), 1e-12);
+        assertEquals(2.5 + confInt, analyzer.getUpperLimit(), 1e-12);
+        assertEquals(400, analyzer.getAnalyzedSamples());
+        assertEquals(40, analyzer.getDiscardedSamples());
+        assertFalse(analyzer.getSuccess());
+    }
+
+    @Test
+    public void succeedsWhenPrecisionIsReached() {
+        ReplicationAnalyzer analyzer = new ReplicationAnalyzer(0.05, 0.03);
+        analyzer.analyze(results(1.00, 1.01, 0.99, 1.00, 1.01, 0.99), 6, 0);
+        assertTrue(analyzer.getSuccess());
+
+        // identical values give an empty interval, also when they are zero
+        analyzer.analyze(results(0.0, 0.0), 2, 0);
+        assertEquals(0.0, analyzer.getConfInt(), 0.0);
+        assertTrue(analyzer.getSuccess());
+    }
+
+    @Test
+    public void singleReplicationKeepsItsOwnInterval() {
+        ReplicationAnalyzer analyzer = new ReplicationAnalyzer(0.05, 0.03);
+        List<MeasureSnapshot[]> results = new ArrayList<MeasureSnapshot[]>();
+        results.add(new MeasureSnapshot[] { new MeasureSnapshot(100, 10, 1.0, 0.9, 1.2, 1.0, 1.0, true, false, false) });
+        analyzer.analyze(results, 1, 0);
+
+        assertEquals(1.0, analyzer.getMean(), 0.0);
+        assertEquals(0.9, analyzer.getLowerLimit(), 0.0);
+        assertEquals(1.2, analyzer.getUpperLimit(), 0.0);
+        assertEquals(0.15, analyzer.getConfInt(), 1e-12);
+        assertFalse(analyzer.getSuccess());
+
+        // the success is the one of the replication
+        analyzer.analyze(results(1.0), 1, 0);
+        assertTrue(analyzer.getSuccess());
+    }
+
+}
@@ -0,0 +1,145 @@
+package jmt.engine.dataAnalysis;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import jmt.engine.simEngine.Simulation;
+import jmt.engine.simEngine.StreamingSimLoader;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.NodeList;
+
+public class StreamingXMLSimulationOutputTest {
+
+    @Test
+    public void writesPartialAndFinalResults() throws Exception {
+        File directory = Files.createTempDirectory("jsimresults").toFile();
+        try {
+            Simulation sim = newSimulation(directory, "fcfs-01-input.xml");
+            StreamingXMLSimulationOutput output = new StreamingXMLSimulationOutput(sim);
+
+            // Before the simulation starts no measure has finished
+            Document partial = parse(output.writePartialResults());
+            Element root = partial.getDocumentElement();
+            assertEquals("solutions", root.getTagName());
+            assertEquals("fcfs-01-input.xml", root.getAttribute("modelName"));
+            NodeList measures = root.getElementsByTagName("measure");
+            assertTrue(measures.getLength() > 0);
+            for (int i = 0; i < measures.getLength(); i++) {
+                Element measure = (Element) measures.item(i);
+                assertEquals("false", measure.getAttribute("successful"));
+                assertEquals("0", measure.getAttribute("analyzedSamples"));
+                assertFalse(measure.getAttribute("measureType").isEmpty());
+            }
+
+            // The final results have the same measures written by XMLSimulationOutput
+            sim.run();
+            File streamed = output.writeAllMeasures();
+            List<Map<String, String>> actual = getMeasures(parse(streamed));
+            File written = new XMLSimulationOutput(sim).writeAllMeasures();
+            assertEquals(written, streamed);
+            List<Map<String, String>> expected = getMeasures(parse(written));
+            assertEquals(expected.size(), actual.size());
+            for (Map<String, String> measure : expected) {
+                assertTrue(measure.toString(), actual.contains(measure));
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void appendsMeasuresAsTheyFinish() throws Exception {
+        File directory = Files.createTempDirectory("jsimresults").toFile();
+        try {
+            Simulation sim = newSimulation(directory, "fcr-01-input.xml");
+            final List<Integer> finished = new ArrayList<Integer>();
+            final List<Exception> errors = new ArrayList<Exception>();
+            StreamingXMLSimulationOutput output = new StreamingXMLSimulationOutput(sim) {
+                @Override
+                void finalizeMeasure(Measure measure) {
+                    super.finalizeMeasure(measure);
+                    // the file is valid and has the final values of the finished measure
+                    try {
+                        int successful = 0;
+                        boolean found = false;
+                        for (Map<String, String> attributes : getMeasures(parse(getResultsFile()))) {
+                            if ("true".equals(attributes.get("successful"))) {
+                                successful++;
+                            }
+                            if (attributes.equals(getMeasureAttributes(measure, false))) {
+                                found = true;
+                            }
+                        }
+                        assertTrue(found);
+                        finished.add(successful);
+                    } catch (Exception e) {
+                        errors.add(e);
+                    }
+                }
+            };
+
+            sim.run();
+            assertTrue(errors.toString(), errors.isEmpty());
+            assertTrue(finished.size() > 1);
+            for (int i = 1; i < finished.size(); i++) {
+                assertTrue(finished.get(i) >= finished.get(i - 1));
+            }
+            assertEquals(sim.getNetwork().getMeasures().size(), getMeasures(parse(output.writeAllMeasures())).size());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private Simulation newSimulation(File directory, String name) throws Exception {
+        File model = new File(getClass().getResource("/jmt/engine/" + name).toURI());
+        Simulation sim = new StreamingSimLoader(model, new File(directory, "model.jsim").getAbsolutePath()).getSim();
+        sim.setRandomEngineSeed(1);
+        sim.setWriteResults(false);
+        sim.initialize();
+        return sim;
+    }
+
+    private static Document parse(File file) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file);
+    }
+
+    /**
+     * Returns the attributes of the measures of a results document
+     */
+    private static List<Map<String, String>> getMeasures(Document results) {
+        List<Map<String, String>> measures = new ArrayList<Map<String, String>>();
+        NodeList elements = results.getDocumentElement().getElementsByTagName("measure");
+        for (int i = 0; i < elements.getLength(); i++) {
+            NamedNodeMap attributes = elements.item(i).getAttributes();
+            Map<String, String> measure = new HashMap<String, String>();
+            for (int j = 0; j < attributes.getLength(); j++) {
+                measure.put(attributes.item(j).getNodeName(), attributes.item(j).getNodeValue());
+            }
+            measures.add(measure);
+        }
+        return measures;
+    }
+
+    private static void delete(File directory) {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+}
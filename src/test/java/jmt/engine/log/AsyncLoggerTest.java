@@ -0,0 +1,231 @@
+package jmt.engine.log;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class AsyncLoggerTest {
+
+    private static final byte[] TYPES = { BinaryLogger.TYPE_DOUBLE, BinaryLogger.TYPE_LONG, BinaryLogger.TYPE_STRING };
+    private static final int ROWS = 20000;
+
+    @Test
+    public void blockWritesAllRowsInOrder() throws IOException {
+        SlowLogger target = new SlowLogger(0);
+        AsyncLogger logger = new AsyncLogger(target, TYPES, 100, AsyncLogger.BACKPRESSURE_BLOCK);
+        log(logger, ROWS);
+        logger.dispose();
+        check(target, ROWS);
+        assertTrue(target.disposed);
+        assertEquals(0, logger.getDroppedRows());
+    }
+
+    @Test
+    public void spillWritesAllRows() throws IOException {
+        SlowLogger target = new SlowLogger(1000);
+        AsyncLogger logger = new AsyncLogger(target, TYPES, 100, AsyncLogger.BACKPRESSURE_SPILL);
+        log(logger, 2000);
+        logger.dispose();
+        check(target, 2000);
+    }
+
+    @Test
+    public void spillBlocksBeyondTheLimit() throws Exception {
+        SlowLogger target = new SlowLogger(0);
+        target.gate = new CountDownLatch(1);
+        final AsyncLogger logger = new AsyncLogger(target, TYPES, 100, AsyncLogger.BACKPRESSURE_SPILL);
+        final int rows = (AsyncLogger.MAX_SPILLED_BUFFERS + 5) * 100;
+        final AtomicInteger logged = new AtomicInteger();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    for (int i = 0; i < rows; i++) {
+                        logRow(logger, i);
+                        logged.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        thread.start();
+        thread.join(1000);
+
+        // While the target is stuck, at most MAX_SPILLED_BUFFERS full buffers are queued
+        assertTrue(thread.isAlive());
+        assertTrue(logged.get() <= (AsyncLogger.MAX_SPILLED_BUFFERS + 1) * 100);
+        target.gate.countDown();
+        thread.join();
+        logger.dispose();
+        check(target, rows);
+        assertEquals(0, logger.getDroppedRows());
+    }
+
+    @Test
+    public void dropDiscardsWholeBuffers() throws IOException {
+        SlowLogger target = new SlowLogger(1000);
+        AsyncLogger logger = new AsyncLogger(target, TYPES, 100, AsyncLogger.BACKPRESSURE_DROP);
+        log(logger, 2050);
+        logger.dispose();
+        assertTrue(logger.getDroppedRows() > 0);
+        assertEquals(0, logger.getDroppedRows() % 100);
+        assertEquals(2050, target.rows.size() + logger.getDroppedRows());
+        // The last rows are always written
+        assertEquals("1024.5", target.rows.get(target.rows.size() - 1).split(";")[0]);
+    }
+
+    @Test
+    public void failureIsReported() throws IOException {
+        SlowLogger target = new SlowLogger(0);
+        target.failAfter = 10;
+        AsyncLogger logger = new AsyncLogger(target, TYPES, 16, AsyncLogger.BACKPRESSURE_BLOCK);
+        try {
+            log(logger, ROWS);
+            fail("Write failure not reported");
+        } catch (IOException e) {
+            assertEquals("disk full", e.getMessage());
+        }
+        try {
+            logger.dispose();
+            fail("Write failure not reported");
+        } catch (IOException e) {
+            assertTrue(target.disposed);
+        }
+    }
+
+    @Test
+    public void rowsAfterDisposeAreDropped() throws IOException {
+        SlowLogger target = new SlowLogger(0);
+        AsyncLogger logger = new AsyncLogger(target, TYPES, 100, AsyncLogger.BACKPRESSURE_BLOCK);
+        log(logger, 150);
+        logger.dispose();
+        log(logger, 30);
+        check(target, 150);
+        assertEquals(30, logger.getDroppedRows());
+    }
+
+    @Test
+    public void factoryScopesLoggersBySimulation() throws IOException {
+        File file = File.createTempFile("async", ".csv");
+        Object first = new Object();
+        Object second = new Object();
+        try {
+            String[] columns = { "time", "id", "class" };
+            AsyncLogger firstLogger = JSimLoggerFactory.getAsyncCSVLogger(first, file, columns, TYPES, false, ";", ".", 100,
+                    AsyncLogger.BACKPRESSURE_BLOCK);
+            assertSame(firstLogger, JSimLoggerFactory.getAsyncCSVLogger(first, file, columns, TYPES, false, ";", ".", 100,
+                    AsyncLogger.BACKPRESSURE_BLOCK));
+            AsyncLogger secondLogger = JSimLoggerFactory.getAsyncCSVLogger(second, file, columns, TYPES, false, ";", ".", 100,
+                    AsyncLogger.BACKPRESSURE_BLOCK);
+            assertNotSame(firstLogger, secondLogger);
+
+            // Stopping the first simulation does not dispose the loggers of the second one
+            JSimLoggerFactory.removeAsyncLoggers(first);
+            log(firstLogger, 10);
+            log(secondLogger, 10);
+            assertEquals(10, firstLogger.getDroppedRows());
+            assertEquals(0, secondLogger.getDroppedRows());
+            assertNotSame(firstLogger, JSimLoggerFactory.getAsyncCSVLogger(first, file, columns, TYPES, false, ";", ".", 100,
+                    AsyncLogger.BACKPRESSURE_BLOCK));
+        } finally {
+            JSimLoggerFactory.removeAsyncLoggers(first);
+            JSimLoggerFactory.removeAsyncLoggers(second);
+            file.delete();
+        }
+    }
+
+    private static void log(AsyncLogger logger, int rows) throws IOException {
+        for (int i = 0; i < rows; i++) {
+            logRow(logger, i);
+        }
+    }
+
+    private static void logRow(AsyncLogger logger, int i) throws IOException {
+        logger.setDouble(0, i * 0.5);
+        if (i % 2 == 0) {
+            logger.setLong(1, i);
+        }
+        logger.setString(2, "Class" + (i % 3));
+        logger.writeRow();
+    }
+
+    private static void check(SlowLogger target, int rows) {
+        assertEquals(rows, target.rows.size());
+        for (int i = 0; i < rows; i++) {
+            assertEquals((i * 0.5) + ";" + (i % 2 == 0 ? String.valueOf(i) : "") + ";Class" + (i % 3), target.rows.get(i));
+        }
+    }
+
+    /**
+     * Records the rows as strings, sleeping every given number of rows.
+     */
+    private static class SlowLogger extends RowLogger {
+        private List<String> rows = new ArrayList<String>();
+        private String[] row = new String[3];
+        private int sleepEvery;
+        private int failAfter = -1;
+        private CountDownLatch gate;
+        private boolean disposed;
+
+        private SlowLogger(int sleepEvery) {
+            this.sleepEvery = sleepEvery;
+        }
+
+        @Override
+        public void setDouble(int column, double value) {
+            row[column] = String.valueOf(value);
+        }
+
+        @Override
+        public void setLong(int column, long value) {
+            row[column] = String.valueOf(value);
+        }
+
+        @Override
+        public void setString(int column, String value) {
+            row[column] = value;
+        }
+
+        @Override
+        public void writeRow() throws IOException {
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            if (rows.size() == failAfter) {
+                throw new IOException("disk full");
+            }
+            rows.add(row[0] + ";" + (row[1] != null ? row[1] : "") + ";" + row[2]);
+            row = new String[3];
+            if (sleepEvery > 0 && rows.size() % sleepEvery == 0) {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+        }
+
+        @Override
+        protected void dispose() {
+            disposed = true;
+        }
+
+        @Override
+        public File getFile() {
+            return new File("slow.csv");
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+package jmt.engine.log;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import jmt.engine.dataAnalysis.measureOutputs.VerboseCSVMeasureOutputReader;
+
+import org.junit.Test;
+
+public class BinaryLoggerTest {
+
+    private static final String[] COLUMNS = { "TIMESTAMP", "COUNT", "CLASS" };
+    private static final byte[] TYPES = { BinaryLogger.TYPE_DOUBLE, BinaryLogger.TYPE_LONG, BinaryLogger.TYPE_STRING };
+    private static final int ROWS = 10000;
+
+    @Test
+    public void roundTrip() throws IOException {
+        for (boolean compressed : new boolean[] { false, true }) {
+            File file = newFile("roundTrip" + compressed, BinaryLogger.FILE_EXTENSION);
+            write(file, false, compressed, 0, ROWS);
+            assertTrue(BinaryLogReader.isBinaryLog(file));
+
+            BinaryLogReader reader = new BinaryLogReader(file);
+            assertEquals(compressed, reader.isCompressed());
+            assertArrayEquals(COLUMNS, reader.getColumnNames());
+            for (int i = 0; i < ROWS; i++) {
+                assertTrue(reader.next());
+                check(reader, i);
+            }
+            assertFalse(reader.next());
+            reader.close();
+        }
+    }
+
+    @Test
+    public void skipAndAppend() throws IOException {
+        File file = newFile("append", BinaryLogger.FILE_EXTENSION);
+        write(file, false, true, 0, ROWS);
+        write(file, true, false, ROWS, ROWS);
+
+        BinaryLogReader reader = new BinaryLogReader(file);
+        assertEquals(ROWS + 5000, reader.skip(ROWS + 5000));
+        for (int i = ROWS + 5000; i < 2 * ROWS; i++) {
+            assertTrue(reader.next());
+            check(reader, i);
+        }
+        assertFalse(reader.next());
+        reader.close();
+    }
+
+    @Test
+    public void sameTextAsCSVLogger() throws IOException {
+        File binary = newFile("text", BinaryLogger.FILE_EXTENSION);
+        File csv = newFile("text", ".csv");
+        File converted = newFile("converted", ".csv");
+        write(binary, false, false, 0, ROWS);
+        CSVLogger logger = new CSVLogger(csv, COLUMNS, false, ";", ".");
+        Map<String, Object> values = new HashMap<String, Object>();
+        for (int i = 0; i < ROWS; i++) {
+            values.clear();
+            values.put(COLUMNS[0], Double.valueOf(timestamp(i)));
+            if (i % 3 != 0) {
+                values.put(COLUMNS[1], Long.valueOf(i));
+            }
+            values.put(COLUMNS[2], "Class" + (i % 5));
+            logger.log(values, new HashMap<String, Object>());
+        }
+        logger.dispose();
+
+        BinaryLogReader.toCSV(binary, converted, ";", ".");
+        assertEquals(read(csv), read(converted));
+    }
+
+    @Test
+    public void measureReader() throws Exception {
+        File file = newFile("measure", BinaryLogger.FILE_EXTENSION);
+        String[] columns = { "TIMESTAMP", "SAMPLE", "WEIGHT" };
+        byte[] types = { BinaryLogger.TYPE_DOUBLE, BinaryLogger.TYPE_DOUBLE, BinaryLogger.TYPE_DOUBLE };
+        BinaryLogger logger = new BinaryLogger(file, columns, types, false, true);
+        for (int i = 0; i < ROWS; i++) {
+            logger.setDouble(0, i);
+            logger.setDouble(1, i * 0.5);
+            logger.setDouble(2, 1.0);
+            logger.writeRow();
+        }
+        logger.dispose();
+
+        VerboseCSVMeasureOutputReader reader = new VerboseCSVMeasureOutputReader(file, ".", ";");
+        // Skips the header and 99 rows, as for a CSV file
+        reader.openFile(100);
+        assertEquals(100, reader.getLineNumber());
+        int count = 0;
+        while (reader.hasMoreLines() && reader.readLine()) {
+            assertEquals((99 + count) * 0.5, reader.getParsedSample(), 0.0);
+            count++;
+        }
+        assertEquals(ROWS - 99, count);
+        reader.closeFile();
+    }
+
+    private static File newFile(String prefix, String suffix) throws IOException {
+        File file = File.createTempFile(prefix, suffix);
+        file.deleteOnExit();
+        return file;
+    }
+
+    private static void write(File file, boolean append, boolean compressed, int first, int rows) throws IOException {
+        BinaryLogger logger = new BinaryLogger(file, COLUMNS, TYPES, append, compressed);
+        for (int i = first; i < first + rows; i++) {
+            logger.setDouble(0, timestamp(i));
+            if (i % 3 != 0) {
+                logger.setLong(1, i);
+            }
+            logger.setString(2, "Class" + (i % 5));
+            logger.writeRow();
+        }
+        logger.dispose();
+    }
+
+    private static void check(BinaryLogReader reader, int i) {
+        assertEquals(timestamp(i), reader.getDouble(0), 0.0);
+        assertEquals(i % 3 != 0, reader.isPresent(1));
+        if (i % 3 != 0) {
+            assertEquals(i, reader.getLong(1));
+        }
+        assertEquals("Class" + (i % 5), reader.getString(2));
+    }
+
+    private static double timestamp(int i) {
+        return i * 0.125 + Math.sqrt(i);
+    }
+
+    private static String read(File file) throws IOException {
+        StringBuilder text = new StringBuilder();
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            char[] buffer = new char[8192];
+            int n;
+            while ((n = reader.read(buffer)) > 0) {
+                text.append(buffer, 0, n);
+            }
+        } finally {
+            reader.close();
+        }
+        return text.toString();
+    }
+
+}
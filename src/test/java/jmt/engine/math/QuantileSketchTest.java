@@ -0,0 +1,84 @@
+package jmt.engine.math;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import jmt.engine.dataAnalysis.StreamingQuantileDataAnalyzer;
+
+import org.junit.Test;
+
+public class QuantileSketchTest {
+
+    private static final int SAMPLES = 100000;
+
+    private static final double[] PROBABILITIES = { 0.0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 0.999, 1.0 };
+
+    @Test
+    public void exponentialQuantilesWithinAccuracy() {
+        Random random = new Random(1);
+        double[] samples = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            samples[i] = -Math.log(1.0 - random.nextDouble()) * 3.0;
+        }
+        check(new QuantileSketch(), samples);
+    }
+
+    @Test
+    public void mixedSignsWithinAccuracy() {
+        Random random = new Random(2);
+        double[] samples = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            // Normal samples spanning several orders of magnitude, with some exact zeros
+            samples[i] = random.nextInt(20) == 0 ? 0.0 : random.nextGaussian() * Math.pow(10.0, random.nextInt(6));
+        }
+        check(new QuantileSketch(0.005, QuantileSketch.DEFAULT_MAX_BUCKETS), samples);
+    }
+
+    @Test
+    public void collapsedBucketsKeepUpperQuantiles() {
+        QuantileSketch sketch = new QuantileSketch(0.01, 100);
+        double[] samples = new double[SAMPLES];
+        Random random = new Random(3);
+        for (int i = 0; i < SAMPLES; i++) {
+            // Far more than 100 buckets are needed for the lowest samples
+            samples[i] = Math.pow(10.0, random.nextDouble() * 20.0 - 10.0);
+            sketch.add(samples[i]);
+        }
+        Arrays.sort(samples);
+        // The 100 highest buckets span more than the highest 1% of the samples
+        double exact = samples[(int) (0.99 * SAMPLES)];
+        assertEquals(exact, sketch.getQuantile(0.99), exact * 0.01);
+        assertEquals(samples[0], sketch.getMin(), 0.0);
+        assertEquals(samples[SAMPLES - 1], sketch.getQuantile(1.0), 0.0);
+    }
+
+    @Test
+    public void streamingAnalyzerConfidenceInterval() {
+        StreamingQuantileDataAnalyzer analyzer = new StreamingQuantileDataAnalyzer(0.01, 0.03, 1000000, new double[] { 0.5, 0.9 });
+        Random random = new Random(4);
+        for (int i = 0; i < SAMPLES; i++) {
+            analyzer.addSample(random.nextDouble(), 1.0);
+        }
+        double[] quantiles = analyzer.getQuantiles();
+        double[] interval = analyzer.getQuantileConfInt(0.9);
+        assertTrue(interval[0] <= quantiles[1] && quantiles[1] <= interval[1]);
+        assertEquals(0.9, quantiles[1], 0.02);
+        assertEquals(0.9, analyzer.getProbability(quantiles[1]), 0.02);
+    }
+
+    private static void check(QuantileSketch sketch, double[] samples) {
+        for (double sample : samples) {
+            sketch.add(sample);
+        }
+        assertEquals(samples.length, sketch.getCount());
+        double[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        for (double p : PROBABILITIES) {
+            double exact = sorted[Math.min((int) (p * sorted.length), sorted.length - 1)];
+            assertEquals("p = " + p, exact, sketch.getQuantile(p), Math.abs(exact) * sketch.getAccuracy() * (1.0 + 1e-9));
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package jmt.engine.random;
+
+import static org.junit.Assert.*;
+
+import jmt.engine.random.engine.MersenneTwister;
+import jmt.engine.random.engine.RandomEngine;
+
+import org.junit.Test;
+
+public class BlockDistributionTest {
+
+    private static final long SEED = 12345;
+
+    // Crosses several refills of the Mersenne Twister state (624 words)
+    private static final int LENGTH = 2000;
+
+    @Test
+    public void blockRawMatchesSequentialRaw() {
+        RandomEngine sequential = new MersenneTwister(SEED);
+        RandomEngine block = new MersenneTwister(SEED);
+        // Misalign the block with the state array
+        assertEquals(sequential.raw(), block.raw(), 0.0);
+
+        double[] values = new double[LENGTH + 2];
+        block.raw(values, 1, LENGTH);
+        assertEquals(0.0, values[0], 0.0);
+        assertEquals(0.0, values[LENGTH + 1], 0.0);
+        for (int i = 1; i <= LENGTH; i++) {
+            assertEquals(sequential.raw(), values[i], 0.0);
+        }
+        assertEquals(sequential.raw(), block.raw(), 0.0);
+    }
+
+    @Test
+    public void exponentialBlockMatchesSequential() throws Exception {
+        check(new Exponential(), new Exponential(), new ExponentialPar(2.5));
+    }
+
+    @Test
+    public void uniformBlockMatchesSequential() throws Exception {
+        check(new Uniform(), new Uniform(), new UniformPar(1.0, 3.0));
+    }
+
+    @Test
+    public void paretoBlockMatchesSequential() throws Exception {
+        check(new Pareto(), new Pareto(), new ParetoPar(3.0, 1.5));
+    }
+
+    @Test
+    public void weibullBlockMatchesSequential() throws Exception {
+        check(new Weibull(), new Weibull(), new WeibullPar(2.0, 0.5));
+    }
+
+    @Test
+    public void deterministicBlockMatchesSequential() throws Exception {
+        check(new DeterministicDistr(), new DeterministicDistr(), new DeterministicDistrPar(4.0));
+    }
+
+    private <T extends AbstractDistribution & BlockDistribution> void check(T sequential, T block, Parameter parameter) throws Exception {
+        sequential.setRandomEngine(new MersenneTwister(SEED));
+        block.setRandomEngine(new MersenneTwister(SEED));
+        double[] values = new double[LENGTH];
+        block.nextRand(parameter, values, 0, LENGTH);
+        for (int i = 0; i < LENGTH; i++) {
+            assertEquals(sequential.nextRand(parameter), values[i], 0.0);
+        }
+    }
+
+}
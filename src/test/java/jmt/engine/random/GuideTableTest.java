@@ -0,0 +1,81 @@
+package jmt.engine.random;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import jmt.engine.random.discrete.Zipf;
+import jmt.engine.random.engine.MersenneTwister;
+
+import org.junit.Test;
+
+public class GuideTableTest {
+
+    @Test
+    public void searchMatchesLinearScan() {
+        Random random = new Random(42);
+        for (int n = 1; n <= 50; n++) {
+            double[] cdf = new double[n];
+            double sum = 0.0;
+            for (int i = 0; i < n; i++) {
+                // some values have zero probability
+                sum += random.nextInt(3) == 0 ? 0.0 : random.nextDouble();
+                cdf[i] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                cdf[i] /= sum;
+            }
+            GuideTable table = new GuideTable(cdf);
+            for (int k = 0; k < 1000; k++) {
+                double u = random.nextDouble();
+                assertEquals(linearScan(cdf, u), table.search(u));
+            }
+            for (double u : cdf) {
+                assertEquals(linearScan(cdf, u), table.search(u));
+            }
+            assertEquals(0, table.search(0.0));
+            assertEquals(linearScan(cdf, 1.5), table.search(1.5));
+        }
+    }
+
+    @Test
+    public void empiricalMatchesLinearScan() throws Exception {
+        double[] pdf = { 0.1, 0.0, 0.25, 0.05, 0.0, 0.6 };
+        EmpiricalPar par = new EmpiricalPar(pdf);
+        Empirical empirical = new Empirical();
+        empirical.setRandomEngine(new MersenneTwister(7));
+        MersenneTwister engine = new MersenneTwister(7);
+        double[] cdf = par.getCDF();
+        for (int k = 0; k < 1000; k++) {
+            double rand = engine.raw();
+            int expected = 0;
+            while (cdf[expected + 1] < rand) {
+                expected++;
+            }
+            assertEquals(expected, empirical.nextRand(par), 0.0);
+        }
+    }
+
+    @Test
+    public void zipfMatchesCdf() throws Exception {
+        Zipf zipf = new Zipf(0.8, 500);
+        zipf.setRandomEngine(new MersenneTwister(11));
+        MersenneTwister engine = new MersenneTwister(11);
+        double[] cdf = new double[501];
+        for (int x = 0; x <= 500; x++) {
+            cdf[x] = zipf.cdf(x);
+        }
+        for (int k = 0; k < 1000; k++) {
+            assertEquals(Math.min(linearScan(cdf, engine.nextDouble()), 500), zipf.nextRand());
+        }
+    }
+
+    private static int linearScan(double[] cdf, double u) {
+        int i = 0;
+        while (i < cdf.length && cdf[i] < u) {
+            i++;
+        }
+        return i;
+    }
+
+}
@@ -0,0 +1,73 @@
+package jmt.engine.random.engine;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class PhiloxTest {
+
+    @Test
+    public void knownAnswers() {
+        // Known answer vectors of Philox4x32-10 from the Random123 distribution
+        check(new int[] { 0, 0, 0, 0 }, 0, 0,
+                new int[] { 0x6627e8d5, 0xe169c58d, 0xbc57ac4c, 0x9b00dbd8 });
+        // the first block of stream 0 with seed 0 is the first vector
+        Philox engine = new Philox(0);
+        assertEquals(0x6627e8d5, engine.nextInt());
+        assertEquals(0xe169c58d, engine.nextInt());
+        check(new int[] { -1, -1, -1, -1 }, -1, -1,
+                new int[] { 0x408f276d, 0x41c83b0e, 0xa20bc7c6, 0x6d5451fd });
+        check(new int[] { 0x243f6a88, 0x85a308d3, 0x13198a2e, 0x03707344 }, 0xa4093822, 0x299f31d0,
+                new int[] { 0xd16cfe09, 0x94fdcceb, 0x5001e420, 0x24126ea1 });
+    }
+
+    private void check(int[] counter, int k0, int k1, int[] expected) {
+        Philox.encrypt(counter, k0, k1);
+        assertArrayEquals(expected, counter);
+    }
+
+    @Test
+    public void streamsAreIndependentOfEachOther() {
+        Philox first = new Philox(5);
+        Philox second = new Philox(5);
+        long a = Philox.getStreamId("Queue 1/Server/ServiceStrategy/Class1");
+        long b = Philox.getStreamId("Queue 2/Server/ServiceStrategy/Class1");
+        assertTrue(a != b);
+
+        // drawing from another stream does not change the values of a stream
+        second.getStream(b).raw();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.getStream(a).raw(), second.getStream(a).raw(), 0.0);
+            second.getStream(b).nextDouble();
+        }
+        assertTrue(first.getStream(a).raw() != first.getStream(b).raw());
+    }
+
+    @Test
+    public void reseedRestartsStreams() {
+        Philox engine = new Philox(1);
+        Philox stream = engine.getStream(42);
+        double first = stream.raw();
+        stream.raw();
+        engine.setNewSeed(1);
+        assertSame(stream, engine.getStream(42));
+        assertEquals(first, stream.raw(), 0.0);
+
+        engine.setNewSeed(1, 1);
+        assertTrue(first != stream.raw());
+        engine.setNewSeed(1, 0);
+        assertEquals(first, stream.raw(), 0.0);
+    }
+
+    @Test
+    public void uniformRanges() {
+        Philox engine = new Philox(3);
+        for (int i = 0; i < 10000; i++) {
+            double raw = engine.raw();
+            assertTrue(raw > 0.0 && raw < 1.0);
+            double d = engine.nextDouble();
+            assertTrue(d >= 0.0 && d < 1.0);
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+package jmt.engine.simDispatcher;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import jmt.common.exception.LoadException;
+import jmt.common.exception.NetException;
+import jmt.engine.simEngine.CompiledModel;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+public class DispatcherJSIMreplicationsTest {
+
+    @Test
+    public void stopsReplicationsAfterTheirSamples() throws Exception {
+        File directory = Files.createTempDirectory("jsimreplications").toFile();
+        try {
+            DispatcherJSIMreplications dispatcher = new DispatcherJSIMreplications(compile("verbose=\"false\""),
+                    new File(directory, "model.jsim").getAbsolutePath());
+            dispatcher.setSimulationSeed(1);
+            dispatcher.setThreads(2);
+            dispatcher.setReplications(5, 100);
+            dispatcher.setReplicationSamples(5000);
+            assertTrue(dispatcher.solveModel());
+
+            // Each replication stops after its samples, the replications stop when the precision is reached
+            int replications = dispatcher.getReplications();
+            assertTrue(replications >= 5 && replications < 100);
+            Document results = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(dispatcher.getOutputFile());
+            NodeList measures = results.getDocumentElement().getElementsByTagName("measure");
+            assertTrue(measures.getLength() > 0);
+            for (int i = 0; i < measures.getLength(); i++) {
+                Element measure = (Element) measures.item(i);
+                assertEquals("true", measure.getAttribute("successful"));
+                assertEquals("5000", measure.getAttribute("maxSamples"));
+                assertTrue(Integer.parseInt(measure.getAttribute("analyzedSamples")) <= replications * 5000);
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void stopsAtMaxDuration() throws Exception {
+        File directory = Files.createTempDirectory("jsimreplications").toFile();
+        try {
+            DispatcherJSIMreplications dispatcher = new DispatcherJSIMreplications(compile("verbose=\"false\""),
+                    new File(directory, "model.jsim").getAbsolutePath());
+            dispatcher.setSimulationSeed(1);
+            dispatcher.setThreads(1);
+            dispatcher.setReplications(100, 100);
+            dispatcher.setSimulationMaxDuration(500);
+            long start = System.currentTimeMillis();
+            assertTrue(dispatcher.solveModel());
+            assertTrue(dispatcher.getReplications() < 100);
+            assertTrue(System.currentTimeMillis() - start < 60000);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void failsIfNoReplicationCompletesBeforeMaxDuration() throws Exception {
+        File directory = Files.createTempDirectory("jsimreplications").toFile();
+        DispatcherJSIMreplications dispatcher = new DispatcherJSIMreplications(compile("verbose=\"false\""),
+                new File(directory, "model.jsim").getAbsolutePath());
+        try {
+            dispatcher.setSimulationSeed(1);
+            dispatcher.setThreads(1);
+            dispatcher.setReplicationSamples(100000000);
+            dispatcher.setSimulationMaxDuration(1);
+            dispatcher.solveModel();
+            fail("Simulation without replications not reported");
+        } catch (NetException e) {
+            // no results are written
+            assertNull(dispatcher.getOutputFile());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void refusesVerboseMeasures() throws Exception {
+        File directory = Files.createTempDirectory("jsimreplications").toFile();
+        try {
+            DispatcherJSIMreplications dispatcher = new DispatcherJSIMreplications(compile("verbose=\"true\""),
+                    new File(directory, "model.jsim").getAbsolutePath());
+            dispatcher.setSimulationSeed(1);
+            dispatcher.solveModel();
+            fail("Verbose measure not refused");
+        } catch (LoadException e) {
+            // expected
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * Compiles the sim element of the fcfs test model, with the given verbose attribute of its measures
+     */
+    private static CompiledModel compile(String verbose) throws Exception {
+        byte[] model = Files.readAllBytes(new File(DispatcherJSIMreplicationsTest.class.getResource("/jmt/engine/fcfs-01-input.xml").toURI()).toPath());
+        String archive = new String(model, "UTF-8");
+        String sim = archive.substring(archive.indexOf("<sim "), archive.indexOf("</sim>") + "</sim>".length())
+                .replace(" xsi:noNamespaceSchemaLocation=\"SIMmodeldefinition.xsd\"", "")
+                .replace("verbose=\"false\"", verbose);
+        return CompiledModel.compile(new ByteArrayInputStream(sim.getBytes("UTF-8")), "fcfs");
+    }
+
+    private static void delete(File directory) {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+}
@@ -0,0 +1,89 @@
+package jmt.engine.simEngine;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class CalendarEventQueueTest {
+
+    /**
+     * Applies the same random sequence of add, pop and remove operations to a CalendarEventQueue
+     * and to a HybridEventQueue, checking that events are always retrieved in the same order.
+     * The queue size grows and shrinks several times, so that the calendar is resized.
+     */
+    @Test
+    public void sameOrderAsHybridQueue() {
+        Random random = new Random(1);
+        EventQueue expected = new HybridEventQueue();
+        EventQueue actual = new CalendarEventQueue();
+        List<SimEvent[]> pending = new ArrayList<SimEvent[]>();
+        double clock = 0.0;
+
+        for (int i = 0; i < 300000; i++) {
+            // Alternates phases where the queue grows and phases where it shrinks
+            boolean growing = (i / 20000) % 2 == 0;
+            int op = random.nextInt(10);
+            if (op < (growing ? 6 : 3)) {
+                double time;
+                if (random.nextBoolean()) {
+                    // Coarse delays produce many events with the same time
+                    time = clock + random.nextInt(20) * 0.5;
+                } else {
+                    // Skewed delays over several orders of magnitude
+                    time = clock - Math.log(1.0 - random.nextDouble()) * Math.pow(10.0, random.nextInt(5) - 2);
+                }
+                SimEvent e1 = new SimEvent(SimEvent.SEND, time, 0, 1, i, null);
+                SimEvent e2 = new SimEvent(SimEvent.SEND, time, 0, 1, i, null);
+                expected.add(e1);
+                actual.add(e2);
+                pending.add(new SimEvent[] { e1, e2 });
+            } else if (op < 8 || pending.isEmpty()) {
+                SimEvent e1 = expected.pop();
+                SimEvent e2 = actual.pop();
+                if (e1 == null) {
+                    assertNull(e2);
+                } else {
+                    assertNotNull(e2);
+                    assertEquals(e1.getTag(), e2.getTag());
+                    clock = e1.eventTime();
+                }
+            } else {
+                SimEvent[] pair = pending.remove(random.nextInt(pending.size()));
+                assertEquals(expected.remove(pair[0]), actual.remove(pair[1]));
+            }
+            assertEquals(expected.size(), actual.size());
+        }
+
+        while (expected.size() > 0) {
+            assertEquals(expected.pop().getTag(), actual.pop().getTag());
+        }
+        assertNull(actual.pop());
+    }
+
+    @Test
+    public void iteratorRemove() {
+        EventQueue queue = new CalendarEventQueue();
+        for (int i = 0; i < 100; i++) {
+            queue.add(new SimEvent(SimEvent.SEND, 1.0 + i % 7, 0, 1, i, null));
+        }
+        for (Iterator<SimEvent> it = queue.iterator(); it.hasNext();) {
+            if (it.next().getTag() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(50, queue.size());
+        double last = 0.0;
+        while (queue.size() > 0) {
+            SimEvent event = queue.pop();
+            assertTrue(event.getTag() % 2 == 1);
+            assertTrue(event.eventTime() >= last);
+            last = event.eventTime();
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package jmt.engine.simEngine;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Collections;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+public class CompiledModelTest {
+
+    @Test
+    public void instantiatesWithOverrides() throws Exception {
+        CompiledModel model = CompiledModel.compile(new ByteArrayInputStream(getSimDefinition("fcfs-01-input.xml")), "fcfs");
+
+        Simulation first = model.instantiate("model.jsim");
+        Simulation second = model.instantiate("model.jsim", Collections.singletonMap("maxSamples", "5000"));
+        Simulation third = model.instantiate("model.jsim");
+        assertNotSame(first, second);
+        assertEquals(1000000, first.getSimParameters().getMaxSamples());
+        assertEquals(5000, second.getSimParameters().getMaxSamples());
+        // Overrides do not change the compiled model
+        assertEquals(1000000, third.getSimParameters().getMaxSamples());
+        assertEquals("fcfs-01-input.xml", third.getName());
+    }
+
+    @Test
+    public void cacheRoundTrip() throws Exception {
+        File directory = File.createTempFile("jsimcache", "");
+        directory.delete();
+        try {
+            CompiledModel model = CompiledModel.compile(new ByteArrayInputStream(getSimDefinition("fcfs-01-input.xml")), "0123abcd");
+            assertNull(CompiledModel.readCache(directory, model.getHash()));
+            model.writeCache(directory);
+
+            CompiledModel cached = CompiledModel.readCache(directory, "0123abcd");
+            assertNotNull(cached);
+            assertNull(CompiledModel.readCache(directory, "4567abcd"));
+            Simulation sim = cached.instantiate("model.jsim");
+            assertEquals("fcfs-01-input.xml", sim.getName());
+            assertEquals("model.jsim", sim.getXmlSimModelDefPath());
+        } finally {
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            directory.delete();
+        }
+    }
+
+    /**
+     * Extracts the sim element of a test model, as done by the command line.
+     */
+    static byte[] getSimDefinition(String resource) throws Exception {
+        DocumentBuilder db = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        Document archive = db.parse(new File(CompiledModelTest.class.getResource("/jmt/engine/" + resource).toURI()));
+        Document doc = db.newDocument();
+        Element sim = (Element) doc.importNode(archive.getElementsByTagName("sim").item(0), true);
+        sim.removeAttribute("xsi:noNamespaceSchemaLocation");
+        doc.appendChild(sim);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TransformerFactory.newInstance().newTransformer().transform(new DOMSource(doc), new StreamResult(out));
+        return out.toByteArray();
+    }
+
+}
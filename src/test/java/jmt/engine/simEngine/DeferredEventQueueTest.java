@@ -0,0 +1,78 @@
+package jmt.engine.simEngine;
+
+import static org.junit.Assert.*;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class DeferredEventQueueTest {
+
+    private static final SimPredicate EVEN_TAG = new SimPredicate() {
+        @Override
+        public boolean match(SimEvent event) {
+            return event.getTag() % 2 == 0;
+        }
+    };
+
+    /**
+     * Applies the same random sequence of operations to a DeferredEventQueue and to a ListEventQueue
+     * scanned linearly, as SimSystem used to do, checking that counts and selected events are the same.
+     */
+    @Test
+    public void sameSelectionAsLinearScan() {
+        Random random = new Random(1);
+        ListEventQueue expected = new ListEventQueue();
+        DeferredEventQueue actual = new DeferredEventQueue();
+        SimPredicate[] predicates = { SimSystem.SIM_ANY, SimSystem.SIM_NONE, new SimTypeP(0), new SimTypeP(1, 2),
+                new SimTypeP(3, 3, 4), EVEN_TAG };
+        double clock = 0.0;
+
+        for (int i = 0; i < 100000; i++) {
+            int op = random.nextInt(10);
+            int dest = random.nextInt(5);
+            SimPredicate p = predicates[random.nextInt(predicates.length)];
+            if (op < 5) {
+                clock += random.nextInt(3) * 0.5;
+                // Events are sometimes deferred out of time order
+                double time = random.nextInt(10) == 0 ? clock - 1.0 : clock;
+                SimEvent event = new SimEvent(SimEvent.SEND, time, 0, dest, random.nextInt(6), null);
+                expected.add(event);
+                actual.add(event);
+            } else if (op < 7) {
+                assertEquals(linearCount(expected, dest, p), actual.count(dest, p));
+            } else if (op < 9) {
+                assertSame(linearSelect(expected, dest, p), actual.select(dest, p));
+            } else if (expected.size() > 0) {
+                SimEvent event = expected.get(random.nextInt(expected.size()));
+                expected.remove(event);
+                assertTrue(actual.remove(event));
+                assertFalse(actual.remove(event));
+            }
+            assertEquals(expected.size(), actual.size());
+        }
+    }
+
+    private static int linearCount(ListEventQueue queue, int dest, SimPredicate p) {
+        int w = 0;
+        for (SimEvent event : queue) {
+            if (event.getDest() == dest && p.match(event)) {
+                w++;
+            }
+        }
+        return w;
+    }
+
+    private static SimEvent linearSelect(ListEventQueue queue, int dest, SimPredicate p) {
+        for (Iterator<SimEvent> it = queue.iterator(); it.hasNext();) {
+            SimEvent event = it.next();
+            if (event.getDest() == dest && p.match(event)) {
+                it.remove();
+                return event;
+            }
+        }
+        return null;
+    }
+
+}
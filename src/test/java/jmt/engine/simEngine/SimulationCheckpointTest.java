@@ -0,0 +1,75 @@
+package jmt.engine.simEngine;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import jmt.engine.simDispatcher.DispatcherJSIMschema;
+
+import org.junit.Test;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.NodeList;
+
+public class SimulationCheckpointTest {
+
+    private static final String[] MODELS = { "fcfs-01-input.xml", "ps-01-input.xml", "lcfs-01-input.xml",
+            "burst-map-01-input.xml", "indices-01-input.xml" };
+
+    @Test
+    public void resumedSimulationGivesSameResults() throws Exception {
+        for (String model : MODELS) {
+            File directory = Files.createTempDirectory("jsimcheckpoint").toFile();
+            try {
+                CompiledModel compiled = CompiledModel.compile(new ByteArrayInputStream(CompiledModelTest.getSimDefinition(model)), model);
+                File checkpoint = new File(directory, "sim.ckp");
+
+                DispatcherJSIMschema original = new DispatcherJSIMschema(compiled, new File(directory, "original.jsim").getAbsolutePath());
+                original.setSimulationSeed(1);
+                original.setCheckpoint(checkpoint, 0, 100.0);
+                assertTrue(original.solveModel());
+                assertTrue(model, checkpoint.isFile());
+
+                DispatcherJSIMschema resumed = new DispatcherJSIMschema(compiled, new File(directory, "resumed.jsim").getAbsolutePath());
+                resumed.setResumeFile(checkpoint);
+                assertTrue(resumed.solveModel());
+
+                assertSameMeasures(model, original.getOutputFile(), resumed.getOutputFile());
+            } finally {
+                File[] files = directory.listFiles();
+                if (files != null) {
+                    for (File file : files) {
+                        file.delete();
+                    }
+                }
+                directory.delete();
+            }
+        }
+    }
+
+    /**
+     * Checks that two result files have the same measures, with the same attributes
+     */
+    private static void assertSameMeasures(String model, File expected, File actual) throws Exception {
+        NodeList expectedMeasures = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(expected)
+                .getDocumentElement().getElementsByTagName("measure");
+        NodeList actualMeasures = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(actual)
+                .getDocumentElement().getElementsByTagName("measure");
+        assertTrue(model, expectedMeasures.getLength() > 0);
+        assertEquals(model, expectedMeasures.getLength(), actualMeasures.getLength());
+        for (int i = 0; i < expectedMeasures.getLength(); i++) {
+            NamedNodeMap expectedAttributes = ((Element) expectedMeasures.item(i)).getAttributes();
+            Element actualMeasure = (Element) actualMeasures.item(i);
+            assertEquals(model, expectedAttributes.getLength(), actualMeasure.getAttributes().getLength());
+            for (int j = 0; j < expectedAttributes.getLength(); j++) {
+                String name = expectedAttributes.item(j).getNodeName();
+                assertEquals(model + " " + name, expectedAttributes.item(j).getNodeValue(), actualMeasure.getAttribute(name));
+            }
+        }
+    }
+
+}
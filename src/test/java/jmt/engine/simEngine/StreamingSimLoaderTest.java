@@ -0,0 +1,102 @@
+package jmt.engine.simEngine;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import jmt.common.exception.LoadException;
+import jmt.engine.QueueNet.JobClass;
+import jmt.engine.dataAnalysis.Measure;
+
+import org.junit.Test;
+
+public class StreamingSimLoaderTest {
+
+    @Test
+    public void loadsArchiveLikeSimLoader() throws Exception {
+        File archive = new File(getClass().getResource("/jmt/engine/fcfs-01-input.xml").toURI());
+        Simulation streamed = new StreamingSimLoader(archive, "model.jsim").getSim();
+
+        CompiledModel model = CompiledModel.compile(new ByteArrayInputStream(CompiledModelTest.getSimDefinition("fcfs-01-input.xml")), "fcfs");
+        Simulation loaded = model.instantiate("model.jsim");
+
+        assertEquals(loaded.getName(), streamed.getName());
+        assertEquals("model.jsim", streamed.getXmlSimModelDefPath());
+        assertEquals(loaded.getSimParameters().getMaxSamples(), streamed.getSimParameters().getMaxSamples());
+        JobClass[] expected = loaded.getClasses();
+        JobClass[] actual = streamed.getClasses();
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].getName(), actual[i].getName());
+            assertEquals(expected[i].getType(), actual[i].getType());
+            assertEquals(expected[i].getPriority(), actual[i].getPriority());
+        }
+    }
+
+    @Test
+    public void givesSameResultsAsSimLoader() throws Exception {
+        String[] models = { "fcfs-01-input.xml", "fcr-01-input.xml", "indices-01-input.xml", "ps-01-input.xml" };
+        for (String model : models) {
+            File definition = File.createTempFile("jsimmodel", ".xml");
+            try {
+                Files.write(definition.toPath(), CompiledModelTest.getSimDefinition(model));
+                Simulation loaded = new SimLoader(definition.getAbsolutePath()).getSim();
+                File archive = new File(getClass().getResource("/jmt/engine/" + model).toURI());
+                Simulation streamed = new StreamingSimLoader(archive, definition.getAbsolutePath()).getSim();
+                run(loaded);
+                run(streamed);
+
+                List<Measure> expected = loaded.getNetwork().getMeasures();
+                List<Measure> actual = streamed.getNetwork().getMeasures();
+                assertEquals(model, expected.size(), actual.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    Measure e = expected.get(i);
+                    Measure a = actual.get(i);
+                    String name = model + " " + e.getName();
+                    assertEquals(name, e.getName(), a.getName());
+                    assertEquals(name, e.getAnalyzedSamples(), a.getAnalyzedSamples());
+                    assertEquals(name, e.getDiscardedSamples(), a.getDiscardedSamples());
+                    assertEquals(name, e.getEstimatedMeanValue(), a.getEstimatedMeanValue(), 0.0);
+                    assertEquals(name, e.getLowerLimit(), a.getLowerLimit(), 0.0);
+                    assertEquals(name, e.getUpperLimit(), a.getUpperLimit(), 0.0);
+                    assertEquals(name, e.getSuccess(), a.getSuccess());
+                }
+            } finally {
+                definition.delete();
+            }
+        }
+    }
+
+    @Test
+    public void readsRootAttributes() throws Exception {
+        String definition = "<sim name=\"streamed\" maxSamples=\"5000\" seed=\"7\">"
+                + "<userClass name=\"Class1\" type=\"open\" priority=\"0\" referenceSource=\"Source\"/>"
+                + "<!-- no nodes --></sim>";
+        Simulation sim = new StreamingSimLoader(new ByteArrayInputStream(definition.getBytes("UTF-8")), "model.jsim").getSim();
+        assertEquals("streamed", sim.getName());
+        assertEquals(5000, sim.getSimParameters().getMaxSamples());
+        assertEquals(1, sim.getClasses().length);
+        assertEquals("Class1", sim.getClasses()[0].getName());
+    }
+
+    @Test
+    public void rejectsDocumentWithoutSim() throws Exception {
+        try {
+            new StreamingSimLoader(new ByteArrayInputStream("<archive/>".getBytes("UTF-8")), "model.jsim");
+            fail("Missing sim element not reported");
+        } catch (LoadException e) {
+            // expected
+        }
+    }
+
+    private static void run(Simulation sim) throws Exception {
+        sim.setRandomEngineSeed(1);
+        sim.setWriteResults(false);
+        sim.initialize();
+        sim.run();
+    }
+
+}
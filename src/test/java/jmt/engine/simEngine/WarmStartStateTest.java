@@ -0,0 +1,143 @@
+package jmt.engine.simEngine;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+
+import jmt.engine.QueueNet.JobClass;
+
+import org.junit.Test;
+
+public class WarmStartStateTest {
+
+    @Test
+    public void preloadsStateWithSamePopulations() throws Exception {
+        WarmStartState state = runClosedModel(3, 1);
+
+        Simulation sim = newClosedModel(3, 1);
+        sim.setWarmStartState(state);
+        sim.initialize();
+        assertArrayEquals(state.getClosedJobs(sim.getClasses()), WarmStartState.capture(sim.getNetwork()).getClosedJobs(sim.getClasses()));
+        assertArrayEquals(new boolean[] { true, true }, state.getPreloadedClasses(sim.getClasses(), new int[] { 3, 1 }));
+    }
+
+    @Test
+    public void preloadsInitialPopulationsWhenMixChanges() throws Exception {
+        // The same total population, with a different mix, as in a population mix what-if analysis
+        WarmStartState state = runClosedModel(3, 1);
+        assertArrayEquals(new int[] { 3, 1 }, state.getClosedJobs(newClosedModel(1, 3).getClasses()));
+
+        Simulation sim = newClosedModel(1, 3);
+        sim.setWarmStartState(state);
+        sim.initialize();
+        assertArrayEquals(new int[] { 1, 3 }, WarmStartState.capture(sim.getNetwork()).getClosedJobs(sim.getClasses()));
+        assertArrayEquals(new boolean[] { false, false }, state.getPreloadedClasses(sim.getClasses(), new int[] { 1, 3 }));
+    }
+
+    @Test
+    public void preloadsOnlyUnchangedClasses() throws Exception {
+        WarmStartState state = runClosedModel(3, 1);
+
+        Simulation sim = newClosedModel(3, 2);
+        sim.setWarmStartState(state);
+        sim.initialize();
+        assertArrayEquals(new int[] { 3, 2 }, WarmStartState.capture(sim.getNetwork()).getClosedJobs(sim.getClasses()));
+        assertArrayEquals(new boolean[] { true, false }, state.getPreloadedClasses(sim.getClasses(), new int[] { 3, 2 }));
+    }
+
+    @Test
+    public void comparesReferenceStations() throws Exception {
+        WarmStartState state = runClosedModel(3, 1);
+        JobClass[] classes = new JobClass[] {
+                new JobClass("Class1", 0, JobClass.CLOSED_CLASS, "Delay 1"),
+                new JobClass("Class2", 0, JobClass.CLOSED_CLASS, "Queue 1") };
+        assertArrayEquals(new boolean[] { true, false }, state.getPreloadedClasses(classes, new int[] { 3, 1 }));
+    }
+
+    private static WarmStartState runClosedModel(int population1, int population2) throws Exception {
+        File directory = File.createTempFile("warmstart", "");
+        directory.delete();
+        directory.mkdir();
+        try {
+            Simulation sim = newClosedModel(population1, population2);
+            sim.setXmlSimModelDefPath(new File(directory, "model.jsim").getAbsolutePath());
+            sim.setCaptureFinalState(true);
+            sim.initialize();
+            sim.run();
+            return sim.getFinalState();
+        } finally {
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            directory.delete();
+        }
+    }
+
+    /**
+     * Creates a closed model with two classes, whose populations are preloaded at the delay
+     */
+    static Simulation newClosedModel(int population1, int population2) throws Exception {
+        String definition = "<sim name=\"closed\" seed=\"1\" maxSamples=\"1000000\" maxEvents=\"20000\" disableStatisticStop=\"false\">"
+                + userClass("Class1", population1) + userClass("Class2", population2)
+                + "<node name=\"Delay 1\">" + queue() + service("Delay", "1.0") + router() + "</node>"
+                + "<node name=\"Queue 1\">" + queue() + service("Server", "2.0") + router() + "</node>"
+                + "<measure alpha=\"0.01\" name=\"Queue 1_Utilization\" nodeType=\"station\" precision=\"0.03\" referenceNode=\"Queue 1\" referenceUserClass=\"\" type=\"Utilization\" verbose=\"false\"/>"
+                + "<connection source=\"Delay 1\" target=\"Queue 1\"/>"
+                + "<connection source=\"Queue 1\" target=\"Delay 1\"/>"
+                + "<preload><stationPopulations stationName=\"Delay 1\">"
+                + "<classPopulation population=\"" + population1 + "\" refClass=\"Class1\"/>"
+                + "<classPopulation population=\"" + population2 + "\" refClass=\"Class2\"/>"
+                + "</stationPopulations></preload>"
+                + "</sim>";
+        return CompiledModel.compile(new ByteArrayInputStream(definition.getBytes("UTF-8")), "closed").instantiate("model.jsim");
+    }
+
+    private static String userClass(String name, int population) {
+        return "<userClass customers=\"" + population + "\" name=\"" + name + "\" priority=\"0\" referenceSource=\"Delay 1\" type=\"closed\"/>";
+    }
+
+    private static String queue() {
+        return "<section className=\"Queue\">"
+                + "<parameter classPath=\"java.lang.Integer\" name=\"size\"><value>-1</value></parameter>"
+                + "<parameter array=\"true\" classPath=\"java.lang.String\" name=\"dropStrategies\">"
+                + perClass("<subParameter classPath=\"java.lang.String\" name=\"dropStrategy\"><value>drop</value></subParameter>")
+                + "</parameter>"
+                + "<parameter classPath=\"jmt.engine.NetStrategies.QueueGetStrategies.FCFSstrategy\" name=\"FCFSstrategy\"/>"
+                + "<parameter array=\"true\" classPath=\"jmt.engine.NetStrategies.QueuePutStrategy\" name=\"QueuePutStrategy\">"
+                + perClass("<subParameter classPath=\"jmt.engine.NetStrategies.QueuePutStrategies.TailStrategy\" name=\"TailStrategy\"/>")
+                + "</parameter></section>";
+    }
+
+    private static String service(String section, String lambda) {
+        String servers = section.equals("Server")
+                ? "<parameter classPath=\"java.lang.Integer\" name=\"maxJobs\"><value>1</value></parameter>"
+                + "<parameter array=\"true\" classPath=\"java.lang.Integer\" name=\"numberOfVisits\">"
+                + perClass("<subParameter classPath=\"java.lang.Integer\" name=\"numberOfVisits\"><value>1</value></subParameter>")
+                + "</parameter>"
+                : "";
+        return "<section className=\"" + section + "\">" + servers
+                + "<parameter array=\"true\" classPath=\"jmt.engine.NetStrategies.ServiceStrategy\" name=\"ServiceStrategy\">"
+                + perClass("<subParameter classPath=\"jmt.engine.NetStrategies.ServiceStrategies.ServiceTimeStrategy\" name=\"ServiceTimeStrategy\">"
+                + "<subParameter classPath=\"jmt.engine.random.Exponential\" name=\"Exponential\"/>"
+                + "<subParameter classPath=\"jmt.engine.random.ExponentialPar\" name=\"distrPar\">"
+                + "<subParameter classPath=\"java.lang.Double\" name=\"lambda\"><value>" + lambda + "</value></subParameter>"
+                + "</subParameter></subParameter>")
+                + "</parameter></section>";
+    }
+
+    private static String router() {
+        return "<section className=\"Router\">"
+                + "<parameter array=\"true\" classPath=\"jmt.engine.NetStrategies.RoutingStrategy\" name=\"RoutingStrategy\">"
+                + perClass("<subParameter classPath=\"jmt.engine.NetStrategies.RoutingStrategies.RandomStrategy\" name=\"Random\"/>")
+                + "</parameter></section>";
+    }
+
+    private static String perClass(String subParameter) {
+        return "<refClass>Class1</refClass>" + subParameter + "<refClass>Class2</refClass>" + subParameter;
+    }
+
+}